@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.benchmark;
+
+import com.actiontech.dble.buffer.DirectByteBufferPool;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * allocate and recycle the buffers of DirectByteBufferPool,
+ * threadCacheSize=0 turns off the thread local cache.
+ * the pool uses sun.nio.ch, run with -jvmArgsAppend --add-exports=java.base/sun.nio.ch=ALL-UNNAMED on jdk 9+
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-XX:MaxDirectMemorySize=1g")
+@State(Scope.Benchmark)
+public class BufferPoolBenchmark {
+
+    @Param({"0", "16"})
+    private int threadCacheSize;
+
+    @Param({"4096", "16384"})
+    private int size;
+
+    private DirectByteBufferPool pool;
+
+    @Setup
+    public void setup() {
+        pool = new DirectByteBufferPool(1024 * 1024 * 2, (short) 4096, (short) 64, threadCacheSize);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ByteBuffer allocateAndRecycle() {
+        ByteBuffer buffer = pool.allocate(size, null);
+        buffer.put((byte) 1);
+        pool.recycle(buffer);
+        return buffer;
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.benchmark;
+
+import com.actiontech.dble.route.function.PartitionByJumpConsistentHash;
+import com.actiontech.dble.route.function.PartitionByLong;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * calculate the partition of a sharding column value
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PartitionBenchmark {
+    private static final int VALUE_COUNT = 1024;
+
+    private PartitionByLong hashByLong;
+    private PartitionByJumpConsistentHash jumpConsistentHash;
+    private String[] values;
+    private int index;
+
+    @Setup
+    public void setup() {
+        hashByLong = new PartitionByLong();
+        hashByLong.setPartitionCount("4");
+        hashByLong.setPartitionLength("256");
+        hashByLong.init();
+
+        jumpConsistentHash = new PartitionByJumpConsistentHash();
+        jumpConsistentHash.setPartitionCount(16);
+        jumpConsistentHash.init();
+
+        values = new String[VALUE_COUNT];
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            values[i] = String.valueOf(i * 7919L);
+        }
+    }
+
+    private String nextValue() {
+        index = (index + 1) & (VALUE_COUNT - 1);
+        return values[index];
+    }
+
+    @Benchmark
+    public Integer hashByLong() {
+        return hashByLong.calculate(nextValue());
+    }
+
+    @Benchmark
+    public Integer jumpConsistentHash() {
+        return jumpConsistentHash.calculate(nextValue());
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.benchmark;
+
+import com.actiontech.dble.config.model.sharding.table.ShardingTableConfig;
+import com.actiontech.dble.route.RouteResultset;
+import com.actiontech.dble.route.function.PartitionByLong;
+import com.actiontech.dble.route.parser.druid.ServerSchemaStatVisitor;
+import com.actiontech.dble.route.parser.druid.WhereUnit;
+import com.actiontech.dble.route.util.RouterUtil;
+import com.actiontech.dble.server.parser.ServerParse;
+import com.actiontech.dble.sqlengine.mpp.ColumnRoute;
+import com.alibaba.druid.sql.ast.SQLStatement;
+import com.alibaba.druid.sql.dialect.mysql.parser.MySqlStatementParser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * the parts of the route of a sharding sql which don't need a running server:
+ * parse the sql by druid, collect the conditions by ServerSchemaStatVisitor and calculate the sharding node
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class RouteBenchmark {
+
+    @Param({"select id, name from travelrecord where id = 1025",
+            "select a.id, b.fee from travelrecord a join hotnews b on a.id = b.id where a.id = 1025 and b.days > 3 order by b.fee limit 10",
+            "update travelrecord set name = 'abc', fee = fee + 1 where id = 1025 and days in (1, 2, 3)"})
+    private String sql;
+
+    private ShardingTableConfig tableConfig;
+    private ColumnRoute columnRoute;
+
+    @Setup
+    public void setup() {
+        PartitionByLong function = new PartitionByLong();
+        function.setPartitionCount("4");
+        function.setPartitionLength("256");
+        function.init();
+        List<String> shardingNodes = Arrays.asList("dn1", "dn2", "dn3", "dn4");
+        tableConfig = new ShardingTableConfig("travelrecord", -1, shardingNodes, null, function, "ID", false, false);
+        columnRoute = new ColumnRoute("1025");
+    }
+
+    @Benchmark
+    public List<WhereUnit> parse() {
+        SQLStatement statement = new MySqlStatementParser(sql).parseStatement();
+        ServerSchemaStatVisitor visitor = new ServerSchemaStatVisitor();
+        statement.accept(visitor);
+        return visitor.getAllWhereUnit();
+    }
+
+    @Benchmark
+    public Set<String> ruleCalculate() {
+        RouteResultset rrs = new RouteResultset(sql, ServerParse.SELECT);
+        return RouterUtil.ruleCalculate("testdb", rrs, tableConfig, columnRoute, false, "utf8mb4");
+    }
+}
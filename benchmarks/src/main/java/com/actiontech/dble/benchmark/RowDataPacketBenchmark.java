@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.benchmark;
+
+import com.actiontech.dble.backend.mysql.CharsetUtil;
+import com.actiontech.dble.backend.mysql.nio.handler.util.RowDataComparator;
+import com.actiontech.dble.config.Fields;
+import com.actiontech.dble.config.model.SystemConfig;
+import com.actiontech.dble.net.mysql.OkPacket;
+import com.actiontech.dble.net.mysql.RowDataPacket;
+import com.actiontech.dble.plan.Order;
+import com.actiontech.dble.plan.common.field.Field;
+import com.actiontech.dble.plan.common.item.ItemField;
+import com.actiontech.dble.singleton.BufferPoolManager;
+import com.alibaba.druid.sql.ast.SQLOrderingSpecification;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * encode, decode and compare the rows which are passed through the proxy
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-XX:MaxDirectMemorySize=1g")
+@State(Scope.Thread)
+public class RowDataPacketBenchmark {
+    private static final int FIELD_COUNT = 3;
+
+    private RowDataPacket row;
+    private RowDataPacket otherRow;
+    private byte[] rowBytes;
+    private OkPacket okPacket;
+    private RowDataComparator comparator;
+
+    @Setup
+    public void setup() throws IOException {
+        // toBytes() borrows the buffer from the global pool
+        SystemConfig.getInstance().setBufferPoolPageNumber((short) 64);
+        BufferPoolManager.getInstance().init();
+
+        row = createRow(1025, "travel to the mountains", "2023-01-01 10:00:00");
+        otherRow = createRow(1026, "travel to the sea", "2023-01-02 10:00:00");
+        rowBytes = row.toBytes();
+
+        okPacket = new OkPacket();
+        okPacket.setPacketId(1);
+        okPacket.setAffectedRows(1);
+        okPacket.setInsertId(1025);
+        okPacket.setServerStatus(2);
+
+        int charsetIndex = CharsetUtil.getCharsetDefaultIndex("utf8mb4");
+        List<Field> fields = new ArrayList<>(FIELD_COUNT);
+        fields.add(Field.getFieldItem("id", null, "travelrecord", "travelrecord", Fields.FIELD_TYPE_LONGLONG, charsetIndex, 20, 0, 0));
+        fields.add(Field.getFieldItem("name", null, "travelrecord", "travelrecord", Fields.FIELD_TYPE_VAR_STRING, charsetIndex, 255, 0, 0));
+        fields.add(Field.getFieldItem("traveldate", null, "travelrecord", "travelrecord", Fields.FIELD_TYPE_VAR_STRING, charsetIndex, 255, 0, 0));
+        List<Order> orders = new ArrayList<>(2);
+        orders.add(new Order(new ItemField(null, "travelrecord", "name"), SQLOrderingSpecification.ASC));
+        orders.add(new Order(new ItemField(null, "travelrecord", "id"), SQLOrderingSpecification.DESC));
+        comparator = new RowDataComparator(fields, orders);
+    }
+
+    private static RowDataPacket createRow(long id, String name, String date) {
+        RowDataPacket packet = new RowDataPacket(FIELD_COUNT);
+        packet.setPacketId(3);
+        packet.add(String.valueOf(id).getBytes(StandardCharsets.UTF_8));
+        packet.add(name.getBytes(StandardCharsets.UTF_8));
+        packet.add(date.getBytes(StandardCharsets.UTF_8));
+        return packet;
+    }
+
+    @Benchmark
+    public byte[] writeRow() {
+        return row.toBytes();
+    }
+
+    @Benchmark
+    public RowDataPacket readRow() {
+        RowDataPacket packet = new RowDataPacket(FIELD_COUNT);
+        packet.read(rowBytes);
+        return packet;
+    }
+
+    @Benchmark
+    public byte[] writeOk() {
+        return okPacket.toBytes();
+    }
+
+    /**
+     * the values to compare are cached in the rows after the first call, as the sort of a handler does
+     */
+    @Benchmark
+    public int compareCached() {
+        return comparator.compare(row, otherRow);
+    }
+
+    @Benchmark
+    public int compare() {
+        RowDataPacket a = new RowDataPacket(FIELD_COUNT);
+        a.addAll(row.fieldValues);
+        RowDataPacket b = new RowDataPacket(FIELD_COUNT);
+        b.addAll(otherRow.fieldValues);
+        return comparator.compare(a, b);
+    }
+}
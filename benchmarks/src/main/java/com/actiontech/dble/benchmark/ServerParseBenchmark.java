@@ -0,0 +1,43 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.benchmark;
+
+import com.actiontech.dble.server.parser.ServerParse;
+import com.actiontech.dble.server.parser.ServerParseFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * the first step of every query from the front end: recognize the type of the sql
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ServerParseBenchmark {
+
+    @Param({"select * from travelrecord where id = 1",
+            "  /* comment */ insert into travelrecord(id, name) values(1, 'abc')",
+            "update travelrecord set name = 'abc' where id = 1",
+            "show full tables from testdb",
+            "set autocommit = 0"})
+    private String sql;
+
+    private ServerParse parser;
+
+    @Setup
+    public void setup() {
+        parser = ServerParseFactory.getShardingParser();
+    }
+
+    @Benchmark
+    public int parse() {
+        return parser.parse(sql);
+    }
+}
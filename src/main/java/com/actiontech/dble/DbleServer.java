@@ -27,6 +27,7 @@ import com.actiontech.dble.net.connection.AbstractConnection;
 import com.actiontech.dble.net.executor.BackendCurrentRunnable;
 import com.actiontech.dble.net.executor.FrontendBlockRunnable;
 import com.actiontech.dble.net.executor.FrontendCurrentRunnable;
+import com.actiontech.dble.net.executor.WorkerScheduler;
 import com.actiontech.dble.net.executor.WriteToBackendRunnable;
 import com.actiontech.dble.net.impl.aio.AIOAcceptor;
 import com.actiontech.dble.net.impl.aio.AIOConnector;
@@ -45,6 +46,7 @@ import com.actiontech.dble.singleton.*;
 import com.actiontech.dble.statistic.sql.StatisticManager;
 import com.actiontech.dble.statistic.stat.ThreadWorkUsage;
 import com.actiontech.dble.util.ExecutorUtil;
+import com.actiontech.dble.util.VirtualThreadUtil;
 import com.actiontech.dble.util.TimeUtil;
 import com.google.common.collect.Maps;
 import org.slf4j.Logger;
@@ -110,7 +112,7 @@ public final class DbleServer {
     private ExecutorService timerExecutor;
     private Map<String, ThreadWorkUsage> threadUsedMap = new ConcurrentHashMap<>();
 
-    private Deque<ServiceTask> frontHandlerQueue;
+    private Queue<ServiceTask> frontHandlerQueue;
     private BlockingQueue<List<WriteToBackendTask>> writeToBackendQueue;
 
     private Queue<ServiceTask> concurrentBackHandlerQueue;
@@ -318,7 +320,16 @@ public final class DbleServer {
         frontExecutor = ExecutorUtil.createFixed(FRONT_WORKER_NAME, SystemConfig.getInstance().getFrontWorker(), runnableMap);
         backendExecutor = ExecutorUtil.createFixed(BACKEND_WORKER_NAME, SystemConfig.getInstance().getBackendWorker(), runnableMap);
         writeToBackendExecutor = ExecutorUtil.createFixed(WRITE_TO_BACKEND_WORKER_NAME, SystemConfig.getInstance().getWriteToBackendWorker(), runnableMap);
-        complexQueryExecutor = ExecutorUtil.createCached(COMPLEX_QUERY_EXECUTOR_NAME, SystemConfig.getInstance().getComplexQueryWorker(), null);
+        if (SystemConfig.getInstance().getUseVirtualThread() == 1 && VirtualThreadUtil.isSupported()) {
+            // the jobs of complex query block on the queues of the handlers, they park the virtual threads instead of the platform threads
+            complexQueryExecutor = ExecutorUtil.createVirtualCached(COMPLEX_QUERY_EXECUTOR_NAME, SystemConfig.getInstance().getComplexQueryWorker());
+            LOGGER.info("the " + COMPLEX_QUERY_EXECUTOR_NAME + " runs on virtual threads");
+        } else {
+            if (SystemConfig.getInstance().getUseVirtualThread() == 1) {
+                LOGGER.warn("useVirtualThread is ignored, the jvm doesn't support virtual threads");
+            }
+            complexQueryExecutor = ExecutorUtil.createCached(COMPLEX_QUERY_EXECUTOR_NAME, SystemConfig.getInstance().getComplexQueryWorker(), null);
+        }
         timerExecutor = ExecutorUtil.createFixed(TIMER_WORKER_NAME, 1);
         nioFrontExecutor = ExecutorUtil.createFixed(NIO_FRONT_RW, frontProcessorCount, runnableMap);
         nioBackendExecutor = ExecutorUtil.createFixed(NIO_BACKEND_RW, backendProcessorCount, runnableMap);
@@ -357,14 +368,16 @@ public final class DbleServer {
     private void initTaskQueue() {
         if (SystemConfig.getInstance().getUsePerformanceMode() == 1) {
 
-            frontHandlerQueue = new ConcurrentLinkedDeque<>();
+            WorkerScheduler frontScheduler = new WorkerScheduler();
+            frontHandlerQueue = frontScheduler;
             for (int i = 0; i < SystemConfig.getInstance().getFrontWorker(); i++) {
-                frontExecutor.execute(new FrontendCurrentRunnable(frontHandlerQueue));
+                frontExecutor.execute(new FrontendCurrentRunnable(frontScheduler));
             }
 
-            concurrentBackHandlerQueue = new ConcurrentLinkedQueue<>();
+            WorkerScheduler backendScheduler = new WorkerScheduler();
+            concurrentBackHandlerQueue = backendScheduler;
             for (int i = 0; i < SystemConfig.getInstance().getBackendWorker(); i++) {
-                backendExecutor.execute(new BackendCurrentRunnable(concurrentBackHandlerQueue));
+                backendExecutor.execute(new BackendCurrentRunnable(backendScheduler));
             }
 
         } else {
@@ -424,10 +437,21 @@ public final class DbleServer {
     }
 
 
-    public Deque<ServiceTask> getFrontHandlerQueue() {
+    public Queue<ServiceTask> getFrontHandlerQueue() {
         return frontHandlerQueue;
     }
 
+    /**
+     * the task is handled before the tasks queued, used by the notification of the front service
+     */
+    public void offerFrontHandlerQueueFirst(ServiceTask task) {
+        if (frontHandlerQueue instanceof WorkerScheduler) {
+            ((WorkerScheduler) frontHandlerQueue).offerFirst(task);
+        } else {
+            ((BlockingDeque<ServiceTask>) frontHandlerQueue).offerFirst(task);
+        }
+    }
+
 
     // check the closed/overtime connection
     public Runnable processorCheck() {
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.backend.datasource;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * select the instance with the least cost, cost = response time * (outstanding requests + 1) * (replication delay factor) / readWeight.
+ * a slow or lagging instance gets fewer requests at once instead of waiting for the heartbeat to mark it down.
+ */
+public class LeastResponseLoadBalancer extends AbstractLoadBalancer {
+    // the response time which counts for an instance without any sample, ms
+    private static final double MIN_RESPONSE_TIME = 0.1;
+    private static final double DELAY_UNIT = 1000;
+
+    public LeastResponseLoadBalancer() {
+    }
+
+    @Override
+    protected PhysicalDbInstance doSelect(List<PhysicalDbInstance> okSources) {
+        int length = okSources.size();
+        boolean sameWeight = true;
+        for (int i = 1; i < length; i++) {
+            if (okSources.get(i).getConfig().getReadWeight() != okSources.get(i - 1).getConfig().getReadWeight()) {
+                sameWeight = false;
+                break;
+            }
+        }
+
+        // start at a random one, so the equal instances share the requests
+        int offset = ThreadLocalRandom.current().nextInt(length);
+        PhysicalDbInstance selected = null;
+        double minCost = Double.MAX_VALUE;
+        for (int i = 0; i < length; i++) {
+            PhysicalDbInstance source = okSources.get((offset + i) % length);
+            double cost = cost(source, sameWeight);
+            if (cost < minCost) {
+                minCost = cost;
+                selected = source;
+            }
+        }
+        return selected == null ? okSources.get(offset) : selected;
+    }
+
+    private static double cost(PhysicalDbInstance source, boolean sameWeight) {
+        double cost = Math.max(source.getResponseTimeMillis(), MIN_RESPONSE_TIME) * (source.getOutstandingRequests() + 1);
+        cost *= 1 + source.getReplicationDelayMillis() / DELAY_UNIT;
+        if (!sameWeight) {
+            int readWeight = source.getConfig().getReadWeight();
+            if (readWeight <= 0) {
+                return Double.MAX_VALUE;
+            }
+            cost /= readWeight;
+        }
+        return cost;
+    }
+}
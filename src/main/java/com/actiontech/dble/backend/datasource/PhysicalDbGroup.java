@@ -65,6 +65,7 @@ public class PhysicalDbGroup {
     protected List<String> schemas = Lists.newArrayList();
     private final LoadBalancer loadBalancer = new RandomLoadBalancer();
     private final LocalReadLoadBalancer localReadLoadBalancer = new LocalReadLoadBalancer();
+    private final LoadBalancer leastResponseLoadBalancer = new LeastResponseLoadBalancer();
     private final ReentrantReadWriteLock adjustLock = new ReentrantReadWriteLock();
 
     private boolean shardingUseless = true;
@@ -443,6 +444,9 @@ public class PhysicalDbGroup {
         if (localRead) {
             return getPhysicalDbInstance(instances, localReadLoadBalancer);
         }
+        if (DbGroupConfig.LOAD_BALANCE_LEAST_RESPONSE.equals(dbGroupConfig.getLoadBalance())) {
+            return getPhysicalDbInstance(instances, leastResponseLoadBalancer);
+        }
         return getPhysicalDbInstance(instances, loadBalancer);
     }
 
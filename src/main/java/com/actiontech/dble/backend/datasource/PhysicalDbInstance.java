@@ -22,6 +22,7 @@ import com.actiontech.dble.net.connection.PooledConnection;
 import com.actiontech.dble.net.factory.MySQLConnectionFactory;
 import com.actiontech.dble.net.service.AbstractService;
 import com.actiontech.dble.services.mysqlsharding.MySQLResponseService;
+import com.actiontech.dble.statistic.stat.Histogram;
 import com.actiontech.dble.singleton.TraceManager;
 import com.actiontech.dble.util.StringUtil;
 import org.slf4j.Logger;
@@ -592,6 +593,33 @@ public abstract class PhysicalDbInstance implements ReadTimeStatusInstance {
         return connectionPool.getCount(schema, PooledConnection.STATE_NOT_IN_USE);
     }
 
+    public int getOutstandingRequests() {
+        return connectionPool == null ? 0 : connectionPool.getLoadStatistic().getOutstanding();
+    }
+
+    public double getResponseTimeMillis() {
+        return connectionPool == null ? 0 : connectionPool.getLoadStatistic().getResponseTimeMillis();
+    }
+
+    /**
+     * @return the replication delay in milliseconds, 0 if unknown
+     */
+    public long getReplicationDelayMillis() {
+        if (!readInstance || dbGroup == null) {
+            return 0;
+        }
+        if (dbGroup.isDelayDetectionStart()) {
+            DelayDetection detection = delayDetection;
+            return detection == null ? 0 : Math.max(0, detection.getDelayVal());
+        }
+        Integer slaveBehindMaster = heartbeat == null ? null : heartbeat.getSlaveBehindMaster();
+        return slaveBehindMaster == null ? 0 : slaveBehindMaster * 1000L;
+    }
+
+    public Histogram getBorrowHistogram() {
+        return connectionPool.getBorrowHistogram();
+    }
+
     public boolean isNeedSkipHeartTest() {
         return needSkipHeartTest;
     }
@@ -6,6 +6,7 @@
 package com.actiontech.dble.backend.datasource.check;
 
 import com.actiontech.dble.backend.datasource.ShardingNode;
+import com.actiontech.dble.meta.TableMeta;
 import com.actiontech.dble.services.manager.response.CheckGlobalConsistency;
 import com.actiontech.dble.sqlengine.MultiRowSQLQueryResultHandler;
 import com.actiontech.dble.sqlengine.SQLJob;
@@ -27,6 +28,7 @@ public abstract class AbstractConsistencyChecker implements SQLQueryResultListen
     private final AtomicInteger count = new AtomicInteger();
     protected volatile String tableName;
     protected volatile String schema;
+    protected volatile TableMeta tableMeta;
     protected volatile CheckGlobalConsistency handler = null;
     private List<SQLQueryResult<List<Map<String, String>>>> results = Collections.synchronizedList(new ArrayList<>());
     private List<SQLQueryResult<List<Map<String, String>>>> errorList = Collections.synchronizedList(new ArrayList<>());
@@ -102,6 +104,10 @@ public abstract class AbstractConsistencyChecker implements SQLQueryResultListen
         this.schema = schema;
     }
 
+    public void setTableMeta(TableMeta tableMeta) {
+        this.tableMeta = tableMeta;
+    }
+
     public void setHandler(CheckGlobalConsistency handler) {
         this.handler = handler;
     }
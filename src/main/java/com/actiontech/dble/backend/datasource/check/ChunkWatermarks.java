@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.backend.datasource.check;
+
+import com.actiontech.dble.config.model.SystemConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Properties;
+
+/**
+ * the watermarks of ChunkedCheckSumChecker, the scheduled check of the table goes on after the watermark.
+ * kept in a properties file with whether a divergent chunk is found below the watermark, so it goes on after restart too.
+ */
+final class ChunkWatermarks {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChunkWatermarks.class);
+    private static final String FILE_NAME = "chunkWatermark.properties";
+    private static final String DIVERGENT_SUFFIX = ".divergent";
+    private static Properties watermarks;
+
+    private ChunkWatermarks() {
+    }
+
+    /**
+     * @return null if the check of the table starts from the beginning
+     */
+    static synchronized String get(String schema, String table, String keyColumn) {
+        return load().getProperty(key(schema, table, keyColumn));
+    }
+
+    /**
+     * @return whether a divergent chunk is found below the watermark
+     */
+    static synchronized boolean isDivergent(String schema, String table, String keyColumn) {
+        return load().getProperty(key(schema, table, keyColumn) + DIVERGENT_SUFFIX) != null;
+    }
+
+    /**
+     * @param watermark null means the next check starts from the beginning
+     */
+    static synchronized void put(String schema, String table, String keyColumn, String watermark, boolean divergent) {
+        Properties properties = load();
+        String key = key(schema, table, keyColumn);
+        boolean changed;
+        if (watermark == null) {
+            changed = properties.remove(key) != null;
+            changed |= properties.remove(key + DIVERGENT_SUFFIX) != null;
+        } else {
+            changed = !watermark.equals(properties.setProperty(key, watermark));
+            if (divergent) {
+                changed |= properties.setProperty(key + DIVERGENT_SUFFIX, "true") == null;
+            } else {
+                changed |= properties.remove(key + DIVERGENT_SUFFIX) != null;
+            }
+        }
+        if (changed) {
+            store(properties);
+        }
+    }
+
+    // the key column is a part of the key, the watermark is useless if the primary key is changed
+    private static String key(String schema, String table, String keyColumn) {
+        return schema + "." + table + "." + keyColumn;
+    }
+
+    private static Properties load() {
+        if (watermarks == null) {
+            watermarks = new Properties();
+            File file = new File(SystemConfig.getInstance().getGlobalCheckPersistenceBaseDir(), FILE_NAME);
+            if (file.exists()) {
+                try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+                    watermarks.load(reader);
+                } catch (IOException e) {
+                    LOGGER.warn("load the watermarks of global check from " + file + " error", e);
+                }
+            }
+        }
+        return watermarks;
+    }
+
+    private static void store(Properties properties) {
+        File dir = new File(SystemConfig.getInstance().getGlobalCheckPersistenceBaseDir());
+        if (!dir.exists() && !dir.mkdirs()) {
+            LOGGER.warn("create the directory " + dir + " for the watermarks of global check failed");
+            return;
+        }
+        File file = new File(dir, FILE_NAME);
+        File tmp = new File(dir, FILE_NAME + ".tmp");
+        try {
+            try (Writer writer = new OutputStreamWriter(new FileOutputStream(tmp), StandardCharsets.UTF_8)) {
+                properties.store(writer, null);
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.warn("store the watermarks of global check to " + file + " error", e);
+        }
+    }
+}
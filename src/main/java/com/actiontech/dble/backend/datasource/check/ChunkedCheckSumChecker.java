@@ -0,0 +1,369 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.backend.datasource.check;
+
+import com.actiontech.dble.DbleServer;
+import com.actiontech.dble.alarm.AlarmCode;
+import com.actiontech.dble.alarm.Alert;
+import com.actiontech.dble.alarm.AlertUtil;
+import com.actiontech.dble.alarm.ToResolveContainer;
+import com.actiontech.dble.backend.datasource.ShardingNode;
+import com.actiontech.dble.config.model.SystemConfig;
+import com.actiontech.dble.meta.ColumnMeta;
+import com.actiontech.dble.meta.table.MetaHelper;
+import com.actiontech.dble.sqlengine.MultiRowSQLQueryResultHandler;
+import com.actiontech.dble.sqlengine.SQLJob;
+import com.actiontech.dble.sqlengine.SQLQueryResult;
+import com.google.common.util.concurrent.RateLimiter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.regex.Pattern;
+
+/**
+ * the checksum of the global table chunk by chunk, instead of the full scan and the long lock of CHECKSUM TABLE.
+ * the chunks are the ranges of the first column of the primary key and the bounds are found on the first shardingNode,
+ * the BIT_XOR(CRC32(row)) of a chunk is calculated on all the shardingNodes in parallel, the chunks of all the tables share a rate limit.
+ * the scheduled check checks globalCheckMaxChunksPerRun chunks at most and persists the end as the watermark, the next one goes on
+ * from the watermark and starts from the beginning again after the end of the table is reached.
+ * the check by the manager command checks the whole table. the divergent ranges of the key are reported.
+ * the table without primary key is checked as one chunk.
+ */
+public class ChunkedCheckSumChecker extends CheckSumChecker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChunkedCheckSumChecker.class);
+    private static final String[] DIGEST_COLS = new String[]{"cnt", "crc"};
+    private static final String[] BOUND_COLS = new String[]{"bound"};
+    private static final Set<String> NUMERIC_TYPES = new HashSet<>(Arrays.asList("TINYINT", "SMALLINT", "MEDIUMINT", "INT", "INTEGER", "BIGINT", "DECIMAL", "NUMERIC"));
+    private static final Pattern NUMBER = Pattern.compile("-?[0-9]+(\\.[0-9]+)?");
+    // persist the watermark every PERSIST_CHUNKS chunks, the check can go on from it if dble is stopped
+    private static final int PERSIST_CHUNKS = 100;
+    private static final int MAX_REPORTED_RANGES = 10;
+    // the tables being checked, the check is skipped if the last one of the table is not finished
+    private static final Set<String> CHECKING_TABLES = ConcurrentHashMap.newKeySet();
+    // globalCheckChunksPerSecond is read only, so the limiter is created once and shared by all the tables
+    private static volatile RateLimiter limiter;
+
+    private final List<String> shardingNodes = new ArrayList<>();
+    private volatile String keyColumn;
+    private volatile boolean numericKey;
+
+    public ChunkedCheckSumChecker() {
+    }
+
+    @Override
+    void addCheckNode(String dbName, ShardingNode shardingNode) {
+        shardingNodes.add(shardingNode.getName());
+        super.addCheckNode(dbName, shardingNode);
+    }
+
+    @Override
+    void startCheckTable() {
+        if (!initKeyColumn()) {
+            LOGGER.info("Global check of table " + schema + "." + tableName + " is done as one chunk because of no primary key");
+            super.startCheckTable();
+            return;
+        }
+        String tableId = schema + "." + tableName;
+        if (!CHECKING_TABLES.add(tableId)) {
+            LOGGER.info("Global check skip because the last check is not finished:" + tableId);
+            if (handler != null) {
+                handler.collectResult(schema, tableName, 0, 0);
+            }
+            return;
+        }
+        SystemConfig config = SystemConfig.getInstance();
+        int maxChunks = handler == null ? config.getGlobalCheckMaxChunksPerRun() : 0;
+        DbleServer.getInstance().getComplexQueryExecutor().execute(() -> {
+            try {
+                checkChunks(config.getGlobalCheckChunkSize(), maxChunks);
+            } finally {
+                CHECKING_TABLES.remove(tableId);
+            }
+        });
+    }
+
+    /**
+     * @return false if the table has no primary key
+     */
+    boolean initKeyColumn() {
+        List<String> primaryKey;
+        try {
+            primaryKey = MetaHelper.getPrimaryKeyColumns(tableMeta.getCreateSql());
+        } catch (Exception e) {
+            LOGGER.info("parse the primary key of table " + schema + "." + tableName + " error", e);
+            return false;
+        }
+        if (primaryKey.isEmpty()) {
+            return false;
+        }
+        keyColumn = primaryKey.get(0);
+        for (ColumnMeta column : tableMeta.getColumns()) {
+            if (column.getName().equalsIgnoreCase(keyColumn)) {
+                numericKey = NUMERIC_TYPES.contains(column.getDataType().toUpperCase());
+                break;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param maxChunks 0 means checking to the end of the table
+     */
+    void checkChunks(int chunkSize, int maxChunks) {
+        RateLimiter rateLimiter = getLimiter();
+        // the scheduled check goes on from the watermark, the check by the manager command checks all
+        boolean scheduled = handler == null;
+        String lower = scheduled ? loadWatermark() : null;
+        // the divergent chunks found by the last scheduled checks of this pass
+        boolean divergentBefore = lower != null && isDivergentBefore();
+        boolean finished = false;
+        int distinctNo = 1;
+        int chunks = 0;
+        List<String> divergentRanges = new ArrayList<>();
+        List<SQLQueryResult<List<Map<String, String>>>> errors = new ArrayList<>();
+        while (maxChunks <= 0 || chunks < maxChunks) {
+            if (rateLimiter != null) {
+                rateLimiter.acquire();
+            }
+            List<SQLQueryResult<List<Map<String, String>>>> bounds = queryBound(lower, chunkSize);
+            if (!bounds.get(0).isSuccess()) {
+                errors.addAll(bounds);
+                break;
+            }
+            String upper = bounds.get(0).getResult().isEmpty() ? null : bounds.get(0).getResult().get(0).get("bound");
+            List<SQLQueryResult<List<Map<String, String>>>> digests = queryChunk(lower, upper);
+            for (SQLQueryResult<List<Map<String, String>>> digest : digests) {
+                if (!digest.isSuccess()) {
+                    errors.add(digest);
+                }
+            }
+            if (!errors.isEmpty()) {
+                break;
+            }
+            Set<String> distinctDigests = new HashSet<>();
+            for (SQLQueryResult<List<Map<String, String>>> digest : digests) {
+                Map<String, String> row = digest.getResult().get(0);
+                distinctDigests.add(row.get("cnt") + ":" + row.get("crc"));
+            }
+            if (distinctDigests.size() > 1) {
+                distinctNo = Math.max(distinctNo, distinctDigests.size());
+                String range = getRange(lower, upper);
+                divergentRanges.add(range);
+                for (SQLQueryResult<List<Map<String, String>>> digest : digests) {
+                    Map<String, String> row = digest.getResult().get(0);
+                    LOGGER.info("Chunk " + range + " of shardingNode " + digest.getShardingNode() + " has " + row.get("cnt") + " rows, the checksum is : " + row.get("crc"));
+                }
+            }
+            chunks++;
+            if (upper == null) {
+                finished = true;
+                break;
+            }
+            lower = upper;
+            if (scheduled && chunks % PERSIST_CHUNKS == 0) {
+                storeWatermark(lower, divergentBefore || !divergentRanges.isEmpty());
+            }
+        }
+        if (scheduled) {
+            // the next check after the end of the table starts from the beginning, the updated rows of the checked chunks are checked again
+            storeWatermark(finished ? null : lower, divergentBefore || !divergentRanges.isEmpty());
+        }
+
+        if (!divergentRanges.isEmpty()) {
+            rangesResponse(divergentRanges);
+        } else if (!errors.isEmpty() || (finished && !divergentBefore)) {
+            resultResponse(errors);
+        } else if (finished) {
+            LOGGER.info("Global check of table " + schema + "." + tableName + " reaches the end, the divergent chunks found before are not resolved");
+        } else {
+            LOGGER.info("Global check of table " + schema + "." + tableName + " checked " + chunks + " chunks, the next check goes on from " + lower);
+        }
+        if (handler != null) {
+            handler.collectResult(schema, tableName, divergentRanges.isEmpty() ? 1 : distinctNo, errors.size());
+        }
+    }
+
+    private static RateLimiter getLimiter() {
+        int chunksPerSecond = SystemConfig.getInstance().getGlobalCheckChunksPerSecond();
+        if (chunksPerSecond <= 0) {
+            return null;
+        }
+        if (limiter == null) {
+            synchronized (ChunkedCheckSumChecker.class) {
+                if (limiter == null) {
+                    limiter = RateLimiter.create(chunksPerSecond);
+                }
+            }
+        }
+        return limiter;
+    }
+
+    String loadWatermark() {
+        return ChunkWatermarks.get(schema, tableName, keyColumn);
+    }
+
+    boolean isDivergentBefore() {
+        return ChunkWatermarks.isDivergent(schema, tableName, keyColumn);
+    }
+
+    void storeWatermark(String watermark, boolean divergent) {
+        ChunkWatermarks.put(schema, tableName, keyColumn, watermark, divergent);
+    }
+
+    /**
+     * the key after the next chunkSize rows on the first shardingNode
+     */
+    List<SQLQueryResult<List<Map<String, String>>>> queryBound(String lower, int chunkSize) {
+        return query(getBoundSQL(lower, chunkSize), BOUND_COLS, shardingNodes.subList(0, 1));
+    }
+
+    List<SQLQueryResult<List<Map<String, String>>>> queryChunk(String lower, String upper) {
+        return query(getChunkSQL(lower, upper), DIGEST_COLS, shardingNodes);
+    }
+
+    /**
+     * execute the sql on the shardingNodes in parallel and wait for all the results
+     */
+    private List<SQLQueryResult<List<Map<String, String>>>> query(String sql, String[] fetchCols, List<String> nodes) {
+        AtomicReferenceArray<SQLQueryResult<List<Map<String, String>>>> results = new AtomicReferenceArray<>(nodes.size());
+        CountDownLatch latch = new CountDownLatch(nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            final int index = i;
+            final String node = nodes.get(i);
+            MultiRowSQLQueryResultHandler resultHandler = new MultiRowSQLQueryResultHandler(fetchCols, result -> {
+                results.set(index, new SQLQueryResult<>(result.getResult(), result.isSuccess(), node, result.isZeroRow()));
+                latch.countDown();
+            });
+            new SQLJob(sql, node, resultHandler, true).run();
+        }
+        try {
+            if (!latch.await(SystemConfig.getInstance().getSqlExecuteTimeout(), TimeUnit.SECONDS)) {
+                LOGGER.info("Global check of table " + schema + "." + tableName + " timeout, sql:" + sql);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<SQLQueryResult<List<Map<String, String>>>> list = new ArrayList<>(nodes.size());
+        for (int i = 0; i < nodes.size(); i++) {
+            SQLQueryResult<List<Map<String, String>>> result = results.get(i);
+            list.add(result != null ? result : new SQLQueryResult<>(null, false, nodes.get(i), true));
+        }
+        return list;
+    }
+
+    private void rangesResponse(List<String> divergentRanges) {
+        String tableId = schema + "." + tableName;
+        StringBuilder sb = new StringBuilder("Global Consistency Check fail for table :").append(schema).append("-").append(tableName);
+        sb.append(", the divergent ranges of `").append(keyColumn).append("` are ");
+        for (int i = 0; i < divergentRanges.size() && i < MAX_REPORTED_RANGES; i++) {
+            if (i > 0) {
+                sb.append(",");
+            }
+            sb.append(divergentRanges.get(i));
+        }
+        if (divergentRanges.size() > MAX_REPORTED_RANGES) {
+            sb.append(" and ").append(divergentRanges.size() - MAX_REPORTED_RANGES).append(" more");
+        }
+        String errorMsg = sb.toString();
+        LOGGER.warn(errorMsg);
+        AlertUtil.alertSelf(AlarmCode.GLOBAL_TABLE_NOT_CONSISTENT, Alert.AlertLevel.WARN, errorMsg, AlertUtil.genSingleLabel("TABLE", tableId));
+        ToResolveContainer.GLOBAL_TABLE_CONSISTENCY.add(tableId);
+    }
+
+    @Override
+    public String[] getFetchCols() {
+        return DIGEST_COLS;
+    }
+
+    /**
+     * the checksum of the whole table, used by the table without primary key
+     */
+    @Override
+    public String getCountSQL(String dbName, String tName) {
+        return "select count(*) as cnt, bit_xor(" + getRowChecksum() + ") as crc from " + tName;
+    }
+
+    String getBoundSQL(String lower, int chunkSize) {
+        String key = quoteName(keyColumn);
+        StringBuilder sb = new StringBuilder("select ").append(key).append(" as bound from ").append(tableName);
+        if (lower != null) {
+            sb.append(" where ").append(key).append(" > ").append(toLiteral(lower));
+        }
+        return sb.append(" order by ").append(key).append(" limit ").append(chunkSize - 1).append(",1").toString();
+    }
+
+    /**
+     * the checksum of the rows whose key is in (lower, upper], null means no bound
+     */
+    String getChunkSQL(String lower, String upper) {
+        String key = quoteName(keyColumn);
+        StringBuilder sb = new StringBuilder("select count(*) as cnt, bit_xor(").append(getRowChecksum()).append(") as crc from ").append(tableName);
+        if (lower != null) {
+            sb.append(" where ").append(key).append(" > ").append(toLiteral(lower));
+        }
+        if (upper != null) {
+            sb.append(lower == null ? " where " : " and ").append(key).append(" <= ").append(toLiteral(upper));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * concat_ws skips the nulls, so the nulls of the columns are concatenated too
+     */
+    private String getRowChecksum() {
+        StringBuilder values = new StringBuilder();
+        StringBuilder nulls = new StringBuilder();
+        for (ColumnMeta column : tableMeta.getColumns()) {
+            String name = quoteName(column.getName());
+            values.append(name).append(", ");
+            if (nulls.length() > 0) {
+                nulls.append(", ");
+            }
+            nulls.append("isnull(").append(name).append(")");
+        }
+        return "crc32(concat_ws('#', " + values + "concat(" + nulls + ")))";
+    }
+
+    private String toLiteral(String value) {
+        if (numericKey && NUMBER.matcher(value).matches()) {
+            return value;
+        }
+        return "'" + value.replace("\\", "\\\\").replace("'", "\\'") + "'";
+    }
+
+    private static String quoteName(String name) {
+        return "`" + name.replace("`", "``") + "`";
+    }
+
+    private static String getRange(String lower, String upper) {
+        return "(" + (lower == null ? "min" : lower) + ", " + (upper == null ? "max" : upper) + "]";
+    }
+
+    @Override
+    public boolean resultEquals(SQLQueryResult<List<Map<String, String>>> or, SQLQueryResult<List<Map<String, String>>> cr) {
+        Map<String, String> oresult = or.getResult().get(0);
+        Map<String, String> cresult = cr.getResult().get(0);
+        return Objects.equals(oresult.get("cnt"), cresult.get("cnt")) && Objects.equals(oresult.get("crc"), cresult.get("crc"));
+    }
+
+    @Override
+    public void failResponse(List<SQLQueryResult<List<Map<String, String>>>> res) {
+        String tableId = schema + "." + tableName;
+        String errorMsg = "Global Consistency Check fail for table :" + schema + "-" + tableName;
+        LOGGER.warn(errorMsg);
+        for (SQLQueryResult<List<Map<String, String>>> r : res) {
+            LOGGER.info("Rows is : " + r.getResult().get(0).get("cnt") + ", checksum is : " + r.getResult().get(0).get("crc"));
+        }
+        AlertUtil.alertSelf(AlarmCode.GLOBAL_TABLE_NOT_CONSISTENT, Alert.AlertLevel.WARN, errorMsg, AlertUtil.genSingleLabel("TABLE", tableId));
+        ToResolveContainer.GLOBAL_TABLE_CONSISTENCY.add(tableId);
+    }
+}
@@ -9,6 +9,7 @@ import com.actiontech.dble.DbleServer;
 import com.actiontech.dble.backend.datasource.ShardingNode;
 import com.actiontech.dble.config.ServerConfig;
 import com.actiontech.dble.config.model.sharding.table.GlobalTableConfig;
+import com.actiontech.dble.meta.TableMeta;
 import com.actiontech.dble.services.manager.response.CheckGlobalConsistency;
 import com.actiontech.dble.singleton.ProxyMeta;
 import org.quartz.Job;
@@ -28,6 +29,7 @@ public class GlobalCheckJob implements Job {
     public static final String GLOBAL_TABLE_CHECK_DEFAULT_CRON = "0 0 0 * * ?";
     public static final String GLOBAL_TABLE_CHECK_DEFAULT = "CHECKSUM";
     public static final String GLOBAL_TABLE_CHECK_COUNT = "COUNT";
+    public static final String GLOBAL_TABLE_CHECK_CHUNK = "CHUNK_CHECKSUM";
 
     private static final Logger LOGGER = LoggerFactory.getLogger(GlobalCheckJob.class);
     private volatile GlobalTableConfig tc;
@@ -49,7 +51,8 @@ public class GlobalCheckJob implements Job {
         LOGGER.info("Global check start ........." + tc.getName());
         try {
             ServerConfig config = DbleServer.getInstance().getConfig();
-            if (null == ProxyMeta.getInstance().getTmManager().getSyncTableMeta(schema, tc.getName())) {
+            TableMeta tableMeta = ProxyMeta.getInstance().getTmManager().getSyncTableMeta(schema, tc.getName());
+            if (null == tableMeta) {
                 LOGGER.info("Global check skip because of Meta don't exist:" + tc.getName());
                 if (handler != null) {
                     handler.collectResult(schema, tc.getName(), 0, 0);
@@ -64,12 +67,16 @@ public class GlobalCheckJob implements Job {
                 case GLOBAL_TABLE_CHECK_COUNT:
                     checker = new CountChecker();
                     break;
+                case GLOBAL_TABLE_CHECK_CHUNK:
+                    checker = new ChunkedCheckSumChecker();
+                    break;
                 default:
                     final Class<?> clz = Class.forName(tc.getCheckClass());
                     checker = (AbstractConsistencyChecker) clz.newInstance();
             }
             checker.setSchema(schema);
             checker.setTableName(tc.getName());
+            checker.setTableMeta(tableMeta);
             checker.setHandler(handler);
             for (String nodeName : tc.getShardingNodes()) {
                 Map<String, ShardingNode> map = config.getShardingNodes();
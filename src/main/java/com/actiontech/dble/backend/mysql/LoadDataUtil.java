@@ -5,14 +5,19 @@
 
 package com.actiontech.dble.backend.mysql;
 
+import com.actiontech.dble.DbleServer;
 import com.actiontech.dble.config.model.SystemConfig;
 import com.actiontech.dble.net.mysql.BinaryPacket;
 import com.actiontech.dble.net.service.ResultFlag;
 import com.actiontech.dble.net.service.WriteFlags;
 import com.actiontech.dble.route.RouteResultsetNode;
+import com.actiontech.dble.server.NonBlockingSession;
 import com.actiontech.dble.services.mysqlsharding.MySQLResponseService;
 import com.actiontech.dble.singleton.FlowController;
 import com.actiontech.dble.sqlengine.mpp.LoadData;
+import com.actiontech.dble.sqlengine.mpp.LoadDataStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.*;
 import java.util.List;
@@ -21,6 +26,7 @@ import java.util.List;
  * Created by nange on 2015/3/31.
  */
 public final class LoadDataUtil {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadDataUtil.class);
 
     private LoadDataUtil() {
     }
@@ -31,6 +37,12 @@ public final class LoadDataUtil {
         LoadData loadData = rrn.getLoadData();
         List<String> loadDataData = loadData.getData();
         service.setExecuting(false);
+        if (loadData.getStream() != null) {
+            // the rows are still being parsed, don't block the backend thread while waiting for them
+            final byte firstPackId = packId;
+            DbleServer.getInstance().getComplexQueryExecutor().execute(() -> writeStream(firstPackId, loadData.getStream(), service));
+            return;
+        }
         BufferedInputStream in = null;
         try {
             if (loadDataData != null && loadDataData.size() > 0) {
@@ -63,6 +75,45 @@ public final class LoadDataUtil {
         }
     }
 
+    private static void writeStream(byte packId, LoadDataStream stream, MySQLResponseService service) {
+        try {
+            packId = writeToBackConnection(packId, stream, service);
+        } catch (IOException e) {
+            // the client can't cancel the rows of load data local which have been sent, close the connection after the parser
+            // has stopped, so the rows are rolled back and the client gets the error after it finished the upload
+            try {
+                stream.getGroup().awaitProducerDone();
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+            LOGGER.info("load data is aborted, close the backend connection " + service + ", reason: " + e.getMessage());
+            NonBlockingSession session = service.getSession();
+            if (session != null) {
+                // closing the connection also rolls back the former statements of the transaction on this sharding node
+                session.getShardingService().setTxInterrupt("load data is aborted, " + e.getMessage());
+            }
+            service.getConnection().close(e.getMessage());
+            return;
+        }
+        //send empty packet
+        byte[] empty = new byte[]{0, 0, 0, 3};
+        empty[3] = ++packId;
+        service.write(empty, WriteFlags.QUERY_END, ResultFlag.OTHER);
+    }
+
+    /**
+     * abort the load data whose rows are being sent to the backend, called when a sharding node fails
+     */
+    public static void abortStream(Object attachment, String reason) {
+        if (!(attachment instanceof RouteResultsetNode)) {
+            return;
+        }
+        LoadData loadData = ((RouteResultsetNode) attachment).getLoadData();
+        if (loadData != null && loadData.getStream() != null) {
+            loadData.getStream().getGroup().abort(reason);
+        }
+    }
+
     public static byte writeToBackConnection(byte packID, InputStream inputStream, MySQLResponseService service) throws IOException {
         try {
             int packSize = SystemConfig.getInstance().getBufferPoolChunkSize() - 5;
@@ -22,6 +22,7 @@ import com.actiontech.dble.route.RouteResultset;
 import com.actiontech.dble.route.RouteResultsetNode;
 import com.actiontech.dble.server.NonBlockingSession;
 import com.actiontech.dble.server.RequestScope;
+import com.actiontech.dble.server.handler.ServerLoadDataInfileHandler;
 import com.actiontech.dble.server.parser.ServerParse;
 import com.actiontech.dble.server.variables.OutputStateEnum;
 import com.actiontech.dble.services.mysqlsharding.MySQLResponseService;
@@ -214,6 +215,9 @@ public class MultiNodeQueryHandler extends MultiNodeHandler implements LoadDataR
         errPacket.setMessage(StringUtil.encode(reason, session.getShardingService().getCharset().getResults()));
         err = errPacket;
         session.resetMultiStatementStatus();
+        if (rrs.isLoadData()) {
+            LoadDataUtil.abortStream(((MySQLResponseService) service).getAttachment(), reason);
+        }
         lock.lock();
         try {
             session.getSource().setSkipCheck(false);
@@ -237,6 +241,9 @@ public class MultiNodeQueryHandler extends MultiNodeHandler implements LoadDataR
         LOGGER.warn(errMsg);
         err = errPacket;
         session.resetMultiStatementStatus();
+        if (rrs.isLoadData()) {
+            LoadDataUtil.abortStream(attachment, errMsg);
+        }
         lock.lock();
         try {
             errorConnsCnt++;
@@ -262,6 +269,9 @@ public class MultiNodeQueryHandler extends MultiNodeHandler implements LoadDataR
         ErrorPacket errPacket = new ErrorPacket();
         errPacket.read(data);
         session.resetMultiStatementStatus();
+        if (rrs.isLoadData()) {
+            LoadDataUtil.abortStream(((MySQLResponseService) service).getAttachment(), new String(errPacket.getMessage()));
+        }
         lock.lock();
         try {
             if (!isFail()) {
@@ -669,8 +679,19 @@ public class MultiNodeQueryHandler extends MultiNodeHandler implements LoadDataR
     void handleEndPacket(MySQLPacket packet, AutoTxOperation txOperation, boolean isSuccess) {
         ShardingService service = session.getShardingService();
         if (rrs.isLoadData()) {
-            service.getLoadDataInfileHandler().clear();
+            // a sharding node may fail while the client is still sending the file
+            ServerLoadDataInfileHandler loadDataHandler = service.getLoadDataInfileHandler();
+            loadDataHandler.afterUpload(() -> {
+                loadDataHandler.clear();
+                writeEndPacket(packet, txOperation);
+            });
+            return;
         }
+        writeEndPacket(packet, txOperation);
+    }
+
+    private void writeEndPacket(MySQLPacket packet, AutoTxOperation txOperation) {
+        ShardingService service = session.getShardingService();
 
         if (errorConnsCnt == rrs.getNodes().length) {
             if (LOGGER.isDebugEnabled()) {
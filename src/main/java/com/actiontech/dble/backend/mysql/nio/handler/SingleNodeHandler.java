@@ -20,10 +20,12 @@ import com.actiontech.dble.route.RouteResultset;
 import com.actiontech.dble.route.RouteResultsetNode;
 import com.actiontech.dble.server.NonBlockingSession;
 import com.actiontech.dble.server.RequestScope;
+import com.actiontech.dble.server.handler.ServerLoadDataInfileHandler;
 import com.actiontech.dble.server.variables.OutputStateEnum;
 import com.actiontech.dble.services.mysqlsharding.MySQLResponseService;
 import com.actiontech.dble.services.mysqlsharding.ShardingService;
 import com.actiontech.dble.singleton.TraceManager;
+import com.actiontech.dble.statistic.sql.StatisticListener;
 import com.actiontech.dble.statistic.stat.QueryResultDispatcher;
 import com.actiontech.dble.util.StringUtil;
 import org.jetbrains.annotations.NotNull;
@@ -210,9 +212,14 @@ public class SingleNodeHandler implements ResponseHandler, LoadDataResponseHandl
         try {
             if (writeToClient.compareAndSet(false, true)) {
                 if (rrs.isLoadData()) {
-                    session.getShardingService().getLoadDataInfileHandler().clear();
-                }
-                if (buffer != null) {
+                    // stop sending the rows, the client gets the error after it has finished sending the file
+                    ServerLoadDataInfileHandler loadDataHandler = shardingService.getLoadDataInfileHandler();
+                    loadDataHandler.abort(errMsg);
+                    loadDataHandler.afterUpload(() -> {
+                        loadDataHandler.clear();
+                        errPkg.write(shardingService.getConnection());
+                    });
+                } else if (buffer != null) {
                     /* SELECT 9223372036854775807 + 1;    response: field_count, field, eof, err */
                     errPkg.write(buffer, shardingService);
                 } else {
@@ -386,12 +393,12 @@ public class SingleNodeHandler implements ResponseHandler, LoadDataResponseHandl
         lock.lock();
         try {
             if (!writeToClient.get()) {
-                RowDataPacket rowDataPk = new RowDataPacket(fieldCount);
                 if (!requestScope.isUsingCursor()) {
                     row[3] = (byte) session.getShardingService().nextPacketId();
                 }
-                rowDataPk.read(row);
                 if (requestScope.isPrepared()) {
+                    RowDataPacket rowDataPk = new RowDataPacket(fieldCount);
+                    rowDataPk.read(row);
                     if (requestScope.isUsingCursor()) {
                         requestScope.getCurrentPreparedStatement().getCursorCache().add(rowDataPk);
                     } else {
@@ -401,7 +408,9 @@ public class SingleNodeHandler implements ResponseHandler, LoadDataResponseHandl
                         buffer = binRowDataPk.write(buffer, session.getShardingService(), true);
                     }
                 } else {
-                    buffer = rowDataPk.write(buffer, session.getShardingService(), true);
+                    // text protocol, the row is relayed as it is without decoding and encoding
+                    StatisticListener.getInstance().record(session.getShardingService(), r -> r.onFrontendAddRows());
+                    buffer = session.getShardingService().writeToBuffer(row, buffer);
                 }
             }
         } finally {
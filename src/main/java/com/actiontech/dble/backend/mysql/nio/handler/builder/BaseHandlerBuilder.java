@@ -28,6 +28,7 @@ import com.actiontech.dble.plan.node.PlanNode;
 import com.actiontech.dble.plan.node.PlanNode.PlanNodeType;
 import com.actiontech.dble.plan.node.QueryNode;
 import com.actiontech.dble.plan.node.TableNode;
+import com.actiontech.dble.plan.optimizer.CardinalityEstimator;
 import com.actiontech.dble.plan.util.PlanUtil;
 import com.actiontech.dble.route.RouteResultset;
 import com.actiontech.dble.route.RouteResultsetNode;
@@ -289,6 +290,9 @@ public abstract class BaseHandlerBuilder {
                     // we go direct groupby
                     DirectGroupByHandler gh = new DirectGroupByHandler(getSequenceId(), session, node.getGroupBys(),
                             sumRefs);
+                    // the groups are sorted only if no other handler sorts them later
+                    gh.setNeedSort(!node.isOrderByImplicit() && !node.isDistinct() &&
+                            PlanUtil.orderContains(node.getGroupBys(), node.getOrderBys()));
                     addHandler(gh);
                 } else {
                     OrderByHandler oh = new OrderByHandler(getSequenceId(), session, node.getGroupBys());
@@ -343,6 +347,10 @@ public abstract class BaseHandlerBuilder {
             }
         }
         if (node.getLimitTo() >= 0) {
+            if (currentLast instanceof OrderByHandler) {
+                // only the rows before the end of limit need sorting
+                ((OrderByHandler) currentLast).setTopN(Math.max(node.getLimitFrom(), 0) + node.getLimitTo());
+            }
             LimitHandler lh = new LimitHandler(getSequenceId(), session, node.getLimitFrom(), node.getLimitTo());
             addHandler(lh);
         }
@@ -433,6 +441,10 @@ public abstract class BaseHandlerBuilder {
      * the order way of join node stored in left join on orders and right join on orders
      */
     private boolean isJoinNodeOrderMatch(JoinNode jn, List<Order> orderBys) {
+        // hash join keeps no order
+        if (jn.getStrategy() == JoinNode.Strategy.HASH) {
+            return false;
+        }
         // onCondition column in orderBys will be saved to onOrders,
         // eg: if jn.onCond = (t1.id=t2.id),
         // orderBys is t1.id,t2.id,t1.name, and onOrders = {t1.id,t2.id};
@@ -508,6 +520,9 @@ public abstract class BaseHandlerBuilder {
         } else {
             mh = new MultiNodeMergeAndOrderHandler(getSequenceId(), rrssArray, !session.getShardingService().isInTransaction(), session, orderBys, planNode.haveDependOnNode());
         }
+        if (isExplain) {
+            mh.setEstimatedRows(CardinalityEstimator.estimateRows(planNode));
+        }
         addHandler(mh);
     }
 
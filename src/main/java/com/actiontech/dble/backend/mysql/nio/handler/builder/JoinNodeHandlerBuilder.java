@@ -12,8 +12,11 @@ import com.actiontech.dble.backend.mysql.nio.handler.query.impl.DelayTableHandle
 import com.actiontech.dble.backend.mysql.nio.handler.query.impl.OrderByHandler;
 import com.actiontech.dble.backend.mysql.nio.handler.query.impl.SendMakeHandler;
 import com.actiontech.dble.backend.mysql.nio.handler.query.impl.TempTableHandler;
+import com.actiontech.dble.backend.mysql.nio.handler.query.impl.join.HashJoinHandler;
 import com.actiontech.dble.backend.mysql.nio.handler.query.impl.join.JoinHandler;
 import com.actiontech.dble.backend.mysql.nio.handler.query.impl.join.NotInHandler;
+import com.actiontech.dble.backend.mysql.nio.handler.query.impl.join.SemiJoinFilter;
+import com.actiontech.dble.backend.mysql.nio.handler.query.impl.join.SemiJoinFilterHandler;
 import com.actiontech.dble.backend.mysql.nio.handler.util.CallBackHandler;
 import com.actiontech.dble.config.ErrorCode;
 import com.actiontech.dble.config.model.sharding.SchemaConfig;
@@ -22,6 +25,7 @@ import com.actiontech.dble.plan.common.item.Item;
 import com.actiontech.dble.plan.common.item.Item.ItemType;
 import com.actiontech.dble.plan.common.item.ItemInt;
 import com.actiontech.dble.plan.common.item.ItemString;
+import com.actiontech.dble.plan.common.item.function.operator.cmpfunc.ItemFuncBetweenAnd;
 import com.actiontech.dble.plan.common.item.function.operator.cmpfunc.ItemFuncIn;
 import com.actiontech.dble.plan.node.JoinNode;
 import com.actiontech.dble.plan.node.PlanNode;
@@ -145,12 +149,14 @@ class JoinNodeHandlerBuilder extends BaseHandlerBuilder {
             CallBackHandler tempDone = getCallBackHandler(isLeftSmall, tnBig, keyToPass, tempHandler);
             if (isExplain) {
                 buildNestFiltersForExplain(tnBig, keyToPass);
-                DMLResponseHandler bigLh = buildJoinChild(tnBig, !isLeftSmall);
+                // the filter is used only if the small table is too large for the IN list
+                SemiJoinFilterHandler filterHandler = tempHandler.isSemiJoinFilterEnabled() ? new SemiJoinFilterHandler(getSequenceId(), session, keyToPass, null) : null;
+                DMLResponseHandler bigLh = buildJoinChild(tnBig, !isLeftSmall, filterHandler);
                 tempHandler.setCreatedHandler(bigLh);
             }
             tempHandler.setTempDoneCallBack(tempDone);
 
-        } else if (node.getStrategy() == JoinNode.Strategy.SORTMERGE) {
+        } else if (node.getStrategy() == JoinNode.Strategy.SORTMERGE || node.getStrategy() == JoinNode.Strategy.HASH) {
             try {
                 if (handleSubQueries()) {
                     needWhereHandler = false;
@@ -268,9 +274,16 @@ class JoinNodeHandlerBuilder extends BaseHandlerBuilder {
     @NotNull
     private CallBackHandler getCallBackHandler(boolean isLeftSmall, PlanNode tnBig, Item keyToPass, TempTableHandler tempHandler) {
         CallBackHandler tempDone = () -> {
-            Set<String> valueSet = tempHandler.getValueSet();
-            buildNestFilters(tnBig, keyToPass, valueSet, tempHandler.getMaxPartSize());
-            DMLResponseHandler bigLh = buildJoinChild(tnBig, !isLeftSmall);
+            SemiJoinFilter semiJoinFilter = tempHandler.getSemiJoinFilter();
+            SemiJoinFilterHandler filterHandler = null;
+            if (semiJoinFilter == null) {
+                Set<String> valueSet = tempHandler.getValueSet();
+                buildNestFilters(tnBig, keyToPass, valueSet, tempHandler.getMaxPartSize());
+            } else {
+                buildRangeFilter(tnBig, keyToPass, semiJoinFilter);
+                filterHandler = new SemiJoinFilterHandler(getSequenceId(), session, keyToPass, semiJoinFilter);
+            }
+            DMLResponseHandler bigLh = buildJoinChild(tnBig, !isLeftSmall, filterHandler);
             synchronized (tempHandler) {
                 bigLh.setNextHandlerOnly(tempHandler.getNextHandler());
             }
@@ -293,20 +306,32 @@ class JoinNodeHandlerBuilder extends BaseHandlerBuilder {
     }
 
     private DMLResponseHandler buildJoinChild(PlanNode child, boolean isLeft) {
+        return buildJoinChild(child, isLeft, null);
+    }
+
+    /**
+     * @param filterHandler drop the rows which can't join before they are ordered, maybe null
+     */
+    private DMLResponseHandler buildJoinChild(PlanNode child, boolean isLeft, SemiJoinFilterHandler filterHandler) {
         BaseHandlerBuilder builder = hBuilder.getBuilder(session, child, isExplain);
         if (builder.getSubQueryBuilderList().size() > 0) {
             this.getSubQueryBuilderList().addAll(builder.getSubQueryBuilderList());
         }
         DMLResponseHandler endHandler = builder.getEndHandler();
+        if (filterHandler != null) {
+            endHandler.setNextHandler(filterHandler);
+            endHandler = filterHandler;
+        }
+        boolean needOrder = node.getStrategy() != JoinNode.Strategy.HASH;
         if (isLeft) {
-            if (!node.isLeftOrderMatch()) {
+            if (needOrder && !node.isLeftOrderMatch()) {
                 OrderByHandler oh = new OrderByHandler(getSequenceId(), session, node.getLeftJoinOnOrders());
                 endHandler.setNextHandler(oh);
                 endHandler = oh;
             }
             endHandler.setLeft(true);
         } else {
-            if (!node.isRightOrderMatch()) {
+            if (needOrder && !node.isRightOrderMatch()) {
                 OrderByHandler oh = new OrderByHandler(getSequenceId(), session, node.getRightJoinOnOrders());
                 endHandler.setNextHandler(oh);
                 endHandler = oh;
@@ -355,6 +380,13 @@ class JoinNodeHandlerBuilder extends BaseHandlerBuilder {
             NotInHandler nh = new NotInHandler(getSequenceId(), session, node.getLeftJoinOnOrders(),
                     node.getRightJoinOnOrders());
             addHandler(nh);
+        } else if (node.getStrategy() == JoinNode.Strategy.HASH) {
+            HashJoinHandler hh = new HashJoinHandler(getSequenceId(), session, node.isLeftOuterJoin(),
+                    node.getLeftJoinOnOrders(), node.getRightJoinOnOrders(), node.getOtherJoinOnFilter());
+            if (node.haveDependOnNode() || node.getLeftNode().haveDependOnNode() || node.getRightNode().haveDependOnNode()) {
+                hh.setNestLoopDependOn(true);
+            }
+            addHandler(hh);
         } else {
             JoinHandler jh = new JoinHandler(getSequenceId(), session, node.isLeftOuterJoin(),
                     node.getLeftJoinOnOrders(), node.getRightJoinOnOrders(), node.getOtherJoinOnFilter());
@@ -375,6 +407,21 @@ class JoinNodeHandlerBuilder extends BaseHandlerBuilder {
         strategyFilters.add(filter);
     }
 
+    /**
+     * generate filter for big table by the key range of tmp(small) table, the rest are dropped by the semi join filter
+     */
+    private void buildRangeFilter(PlanNode tnBig, Item keyToPass, SemiJoinFilter semiJoinFilter) {
+        List<Item> strategyFilters = tnBig.getNestLoopFilters();
+        if (semiJoinFilter.isEmpty()) {
+            strategyFilters.add(new ItemInt(0));
+        } else if (semiJoinFilter.hasRange()) {
+            Item keyInBig = PlanUtil.pushDownItem(node, keyToPass);
+            strategyFilters.add(new ItemFuncBetweenAnd(keyInBig, new ItemInt(semiJoinFilter.getMin()), new ItemInt(semiJoinFilter.getMax()), false, charsetIndex));
+        } else {
+            strategyFilters.add(new ItemInt(1));
+        }
+    }
+
     /**
      * generate filter for big table according to tmp(small) table's result
      */
@@ -6,20 +6,23 @@
 package com.actiontech.dble.backend.mysql.nio.handler.query;
 
 import com.actiontech.dble.backend.mysql.nio.handler.ResponseHandler;
+import com.actiontech.dble.backend.mysql.nio.handler.util.RowBatch;
+import com.actiontech.dble.net.service.AbstractService;
 import com.actiontech.dble.plan.util.ComplexQueryPlanUtil;
 
+import javax.annotation.Nonnull;
 import java.util.List;
 
 public interface DMLResponseHandler extends ResponseHandler {
     enum HandlerType {
-        TEMPTABLE, BASESEL, EASY_MERGE, MERGE_AND_ORDER, FAKE_MERGE, JOIN, NOT_IN, WHERE, GROUPBY, HAVING, ORDERBY, LIMIT, UNION, DISTINCT, SENDMAKER, FINAL, SCALAR_SUB_QUERY, IN_SUB_QUERY, ALL_ANY_SUB_QUERY, RENAME_FIELD, MANAGER_SENDMAKER, UPDATE_QUERY, BASE_UPDATE, EASY_MERGE_UPDATE, MERGE_UPDATE
+        TEMPTABLE, BASESEL, EASY_MERGE, MERGE_AND_ORDER, FAKE_MERGE, JOIN, NOT_IN, WHERE, GROUPBY, HAVING, ORDERBY, LIMIT, UNION, DISTINCT, SENDMAKER, FINAL, SCALAR_SUB_QUERY, IN_SUB_QUERY, ALL_ANY_SUB_QUERY, RENAME_FIELD, MANAGER_SENDMAKER, UPDATE_QUERY, BASE_UPDATE, EASY_MERGE_UPDATE, MERGE_UPDATE, SEMI_JOIN_FILTER
     }
 
     enum ExplainType {
 
         AGGREGATE, DISTINCT, LIMIT, WHERE_FILTER, HAVING_FILTER, SHUFFLE_FIELD, UNION_ALL, ORDER, NOT_IN,
         INNER_FUNC_ADD, JOIN, DIRECT_GROUP, NEST_LOOP, IN_SUB_QUERY, ALL_ANY_SUB_QUERY, SCALAR_SUB_QUERY,
-        RENAME_DERIVED_SUB_QUERY, WRITE_TO_CLIENT, HINT_NEST_LOOP,
+        RENAME_DERIVED_SUB_QUERY, WRITE_TO_CLIENT, HINT_NEST_LOOP, HASH_JOIN, SEMI_JOIN_FILTER,
         TYPE_UPDATE_SUB_QUERY(ComplexQueryPlanUtil.TYPE_UPDATE_SUB_QUERY), MERGE_UPDATE, OTHER;
 
         private String content;
@@ -47,6 +50,32 @@ public interface DMLResponseHandler extends ResponseHandler {
 
     HandlerType type();
 
+    /**
+     * the rows from the backends are batched only if the handler after the merge takes the batches itself
+     */
+    default boolean acceptRowBatch() {
+        return false;
+    }
+
+    /**
+     * execute after get a batch of rows, the handler owns the batch and releases it.
+     * the handlers which don't take the batches themselves get the rows one by one
+     *
+     * @return true if no more rows are needed
+     */
+    default boolean rowBatchResponse(RowBatch batch, boolean isLeft, @Nonnull AbstractService service) {
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                if (rowResponse(null, batch.getRow(i), isLeft, service)) {
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            batch.release();
+        }
+    }
+
     DMLResponseHandler getNextHandler();
 
     void setNextHandler(DMLResponseHandler next);
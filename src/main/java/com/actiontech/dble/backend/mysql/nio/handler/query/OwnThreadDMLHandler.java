@@ -6,9 +6,11 @@
 package com.actiontech.dble.backend.mysql.nio.handler.query;
 
 import com.actiontech.dble.DbleServer;
+import com.actiontech.dble.backend.mysql.nio.handler.util.RowBatch;
 import com.actiontech.dble.net.Session;
 import com.actiontech.dble.net.mysql.RowDataPacket;
 
+import java.util.Collection;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -83,4 +85,31 @@ public abstract class OwnThreadDMLHandler extends BaseDMLHandler {
     /* after thread terminated */
     protected abstract void recycleResources();
 
+    /* release the row batches which are left in the queue of the own thread */
+    protected static void releaseBatches(Collection<RowDataPacket> queue) {
+        queue.removeIf(row -> {
+            if (row instanceof BatchRow) {
+                ((BatchRow) row).getBatch().release();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * a row batch in the queue of the own thread, the own thread releases the batch after taking it
+     */
+    protected static final class BatchRow extends RowDataPacket {
+        private final RowBatch batch;
+
+        public BatchRow(RowBatch batch) {
+            super(batch.getFieldCount());
+            this.batch = batch;
+        }
+
+        public RowBatch getBatch() {
+            return batch;
+        }
+    }
+
 }
@@ -9,6 +9,8 @@ import com.actiontech.dble.DbleServer;
 import com.actiontech.dble.backend.datasource.ShardingNode;
 import com.actiontech.dble.backend.mysql.CharsetUtil;
 import com.actiontech.dble.backend.mysql.nio.handler.query.BaseDMLHandler;
+import com.actiontech.dble.backend.mysql.nio.handler.util.RowBatch;
+import com.actiontech.dble.config.model.SystemConfig;
 import com.actiontech.dble.net.Session;
 import com.actiontech.dble.net.connection.BackendConnection;
 import com.actiontech.dble.net.mysql.ErrorPacket;
@@ -19,6 +21,7 @@ import com.actiontech.dble.plan.common.exception.MySQLOutPutException;
 import com.actiontech.dble.route.RouteResultsetNode;
 import com.actiontech.dble.server.NonBlockingSession;
 import com.actiontech.dble.services.mysqlsharding.MySQLResponseService;
+import com.actiontech.dble.singleton.BufferPoolManager;
 import com.actiontech.dble.singleton.TraceManager;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
@@ -39,6 +42,11 @@ public class BaseSelectHandler extends BaseDMLHandler {
     private volatile int fieldCounts = -1;
 
     private final NonBlockingSession serverSession;
+    // the rows are batched if the handler after the merge takes the batches, 0 means row by row
+    private int batchRows = 0;
+    // the batch being filled, released by the terminating thread if it is not handed to the next handler
+    private RowBatch batch;
+    private final Object batchLock = new Object();
 
     public BaseSelectHandler(long id, RouteResultsetNode rrss, boolean autocommit, Session session) {
         super(id, session, rrss);
@@ -116,6 +124,10 @@ public class BaseSelectHandler extends BaseDMLHandler {
             field.read(field1);
             fieldPackets.add(field);
         }
+        int rowBatchSize = SystemConfig.getInstance().getComplexQueryRowBatchSize();
+        if (rowBatchSize > 0 && nextHandler.acceptRowBatch()) {
+            batchRows = rowBatchSize;
+        }
         nextHandler.fieldEofResponse(null, null, fieldPackets, null, this.isLeft, service);
     }
 
@@ -123,12 +135,47 @@ public class BaseSelectHandler extends BaseDMLHandler {
     public boolean rowResponse(byte[] row, RowDataPacket rowPacket, boolean isLeft, @NotNull AbstractService conn) {
         if (terminate.get())
             return true;
+        if (batchRows > 0) {
+            return addToBatch(row, conn);
+        }
         RowDataPacket rp = new RowDataPacket(fieldCounts);
         rp.read(row);
         nextHandler.rowResponse(null, rp, this.isLeft, conn);
         return false;
     }
 
+    /**
+     * the full batch is handed to the next handler out of the lock, the next handler may block until it is terminated
+     */
+    private boolean addToBatch(byte[] row, AbstractService conn) {
+        RowBatch full = null;
+        synchronized (batchLock) {
+            if (terminate.get()) {
+                return true;
+            }
+            if (batch == null) {
+                batch = new RowBatch(fieldCounts, batchRows, BufferPoolManager.getBufferPool(), generateBufferRecordBuilder());
+            }
+            batch.addPacket(row);
+            if (batch.isFull()) {
+                full = batch;
+                batch = null;
+            }
+        }
+        if (full != null) {
+            nextHandler.rowBatchResponse(full, this.isLeft, conn);
+        }
+        return false;
+    }
+
+    private RowBatch takeBatch() {
+        synchronized (batchLock) {
+            RowBatch last = batch;
+            batch = null;
+            return last;
+        }
+    }
+
     @Override
     public void rowEofResponse(byte[] data, boolean isLeft, @NotNull AbstractService service) {
         if (LOGGER.isDebugEnabled()) {
@@ -137,6 +184,10 @@ public class BaseSelectHandler extends BaseDMLHandler {
         if (this.terminate.get()) {
             return;
         }
+        RowBatch last = takeBatch();
+        if (last != null) {
+            nextHandler.rowBatchResponse(last, this.isLeft, service);
+        }
         nextHandler.rowEofResponse(data, this.isLeft, service);
     }
 
@@ -189,6 +240,10 @@ public class BaseSelectHandler extends BaseDMLHandler {
 
     @Override
     protected void onTerminate() {
+        RowBatch left = takeBatch();
+        if (left != null) {
+            left.release();
+        }
         if (autocommit && !serverSession.getShardingService().isLockTable()) {
             this.serverSession.releaseConnection(rrss, false);
         } else {
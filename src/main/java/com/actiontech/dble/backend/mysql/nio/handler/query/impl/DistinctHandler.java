@@ -10,6 +10,7 @@ import com.actiontech.dble.backend.mysql.CharsetUtil;
 import com.actiontech.dble.backend.mysql.nio.handler.query.BaseDMLHandler;
 import com.actiontech.dble.backend.mysql.nio.handler.util.HandlerTool;
 import com.actiontech.dble.backend.mysql.nio.handler.util.RowDataComparator;
+import com.actiontech.dble.backend.mysql.store.DistinctLocalResult;
 import com.actiontech.dble.backend.mysql.store.DistinctSortedLocalResult;
 import com.actiontech.dble.backend.mysql.store.LocalResult;
 import com.actiontech.dble.buffer.BufferPool;
@@ -79,8 +80,14 @@ public class DistinctHandler extends BaseDMLHandler {
         RowDataComparator comparator = new RowDataComparator(this.fieldPackets, orders, this.isAllPushDown(), type());
         String charSet = !service.isFakeClosed() ? CharsetUtil.getJavaCharset(service.getCharset().getResults()) :
                 CharsetUtil.getJavaCharset(session.getSource().getService().getCharset().getResults());
-        localResult = new DistinctSortedLocalResult(pool, sourceFields.size(), comparator, charSet, generateBufferRecordBuilder()).
-                setMemSizeController(session.getOtherBufferMC());
+        if (this.fixedOrders == null) {
+            // no order by, the rows are sent in the input order
+            localResult = new DistinctLocalResult(pool, sourceFields.size(), comparator, charSet, generateBufferRecordBuilder()).
+                    setMemSizeController(session.getOtherBufferMC());
+        } else {
+            localResult = new DistinctSortedLocalResult(pool, sourceFields.size(), comparator, charSet, generateBufferRecordBuilder()).
+                    setMemSizeController(session.getOtherBufferMC());
+        }
         nextHandler.fieldEofResponse(null, null, this.fieldPackets, null, this.isLeft, service);
     }
 
@@ -6,6 +6,7 @@
 package com.actiontech.dble.backend.mysql.nio.handler.query.impl;
 
 import com.actiontech.dble.backend.mysql.nio.handler.query.BaseDMLHandler;
+import com.actiontech.dble.backend.mysql.nio.handler.util.RowBatch;
 import com.actiontech.dble.net.Session;
 import com.actiontech.dble.net.mysql.FieldPacket;
 import com.actiontech.dble.net.mysql.RowDataPacket;
@@ -72,6 +73,37 @@ public class LimitHandler extends BaseDMLHandler {
         return false;
     }
 
+    @Override
+    public boolean acceptRowBatch() {
+        return true;
+    }
+
+    @Override
+    public boolean rowBatchResponse(RowBatch batch, boolean isLeft, @NotNull AbstractService service) {
+        boolean passed = false;
+        try {
+            if (terminate.get()) {
+                return true;
+            }
+            int rows = batch.size();
+            // the index of the first row in the batch
+            long first = curIndex.getAndAdd(rows) + 1;
+            long end = limitIndex + limitCount;
+            int from = (int) Math.max(0, Math.min(rows, limitIndex - first));
+            int to = (int) Math.max(0, Math.min(rows, end - first));
+            if (from < to) {
+                batch.retainRange(from, to);
+                passed = true;
+                nextHandler.rowBatchResponse(batch, this.isLeft, service);
+            }
+            return first + rows >= end;
+        } finally {
+            if (!passed) {
+                batch.release();
+            }
+        }
+    }
+
     @Override
     protected void onTerminate() {
     }
@@ -7,6 +7,7 @@ package com.actiontech.dble.backend.mysql.nio.handler.query.impl;
 
 import com.actiontech.dble.DbleServer;
 import com.actiontech.dble.backend.mysql.nio.handler.query.BaseDMLHandler;
+import com.actiontech.dble.backend.mysql.nio.handler.util.RowBatch;
 import com.actiontech.dble.net.connection.BackendConnection;
 import com.actiontech.dble.net.mysql.FieldPacket;
 import com.actiontech.dble.net.mysql.RowDataPacket;
@@ -105,6 +106,20 @@ public class MultiNodeEasyMergeHandler extends MultiNodeMergeHandler {
         return nextHandler.rowResponse(null, rowPacket, this.isLeft, service);
     }
 
+    @Override
+    public boolean acceptRowBatch() {
+        return nextHandler.acceptRowBatch();
+    }
+
+    @Override
+    public boolean rowBatchResponse(RowBatch batch, boolean isLeft, @NotNull AbstractService service) {
+        if (terminate.get()) {
+            batch.release();
+            return true;
+        }
+        return nextHandler.rowBatchResponse(batch, this.isLeft, service);
+    }
+
     @Override
     public void rowEofResponse(byte[] data, boolean isLeft, @NotNull AbstractService service) {
         if (LOGGER.isDebugEnabled()) {
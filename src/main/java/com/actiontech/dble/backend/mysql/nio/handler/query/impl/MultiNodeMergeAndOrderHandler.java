@@ -9,6 +9,7 @@ import com.actiontech.dble.DbleServer;
 import com.actiontech.dble.backend.mysql.nio.handler.query.BaseDMLHandler;
 import com.actiontech.dble.backend.mysql.nio.handler.util.ArrayMinHeap;
 import com.actiontech.dble.backend.mysql.nio.handler.util.HeapItem;
+import com.actiontech.dble.backend.mysql.nio.handler.util.PrefetchQueue;
 import com.actiontech.dble.backend.mysql.nio.handler.util.RowDataComparator;
 import com.actiontech.dble.config.model.SystemConfig;
 import com.actiontech.dble.net.connection.BackendConnection;
@@ -26,9 +27,7 @@ import org.slf4j.LoggerFactory;
 
 import java.util.*;
 import java.util.Map.Entry;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.LinkedBlockingQueue;
 
 /**
  * mergeHandler will merge data,if contains aggregate function,use group by handler
@@ -39,8 +38,9 @@ public class MultiNodeMergeAndOrderHandler extends MultiNodeMergeHandler {
     private static final Logger LOGGER = LoggerFactory.getLogger(MultiNodeMergeAndOrderHandler.class);
 
     private final int queueSize;
-    // map;conn->blocking queue.if receive row packet, add to the queue,if receive rowEof packet, add NullHeapItem into queue;
-    private Map<MySQLResponseService, BlockingQueue<HeapItem>> queues;
+    // map;conn->prefetch queue.if receive row packet, add to the queue,if receive rowEof packet, add NullHeapItem into queue;
+    // the reading of the conn is paused when its queue has queueSize rows
+    private Map<MySQLResponseService, PrefetchQueue> queues;
     private List<Order> orderBys;
     private RowDataComparator rowComparator;
     private volatile boolean noNeedRows = false;
@@ -84,7 +84,7 @@ public class MultiNodeMergeAndOrderHandler extends MultiNodeMergeHandler {
                 try {
                     BackendConnection exeConn = baseSelectHandler.initConnection();
                     exeConn.getBackendService().setComplexQuery(true);
-                    queues.put(exeConn.getBackendService(), new LinkedBlockingQueue<>(queueSize));
+                    queues.put(exeConn.getBackendService(), new PrefetchQueue(baseSelectHandler.getRrss().getName(), exeConn, queueSize));
                     baseSelectHandler.execute(exeConn.getBackendService());
                 } catch (Exception e) {
                     baseSelectHandler.connectionError(e, baseSelectHandler.getRrss());
@@ -127,15 +127,10 @@ public class MultiNodeMergeAndOrderHandler extends MultiNodeMergeHandler {
             return true;
 
         MySQLResponseService mySQLConn = (MySQLResponseService) service;
-        BlockingQueue<HeapItem> queue = queues.get(mySQLConn);
+        PrefetchQueue queue = queues.get(mySQLConn);
         if (queue == null)
             return true;
-        HeapItem item = new HeapItem(row, rowPacket, mySQLConn);
-        try {
-            queue.put(item);
-        } catch (InterruptedException e) {
-            //ignore error
-        }
+        queue.put(new HeapItem(row, rowPacket, mySQLConn));
         return false;
     }
 
@@ -148,14 +143,10 @@ public class MultiNodeMergeAndOrderHandler extends MultiNodeMergeHandler {
 
         if (this.terminate.get())
             return;
-        BlockingQueue<HeapItem> queue = queues.get(responseService);
+        PrefetchQueue queue = queues.get(responseService);
         if (queue == null)
             return;
-        try {
-            queue.put(HeapItem.nullItem());
-        } catch (InterruptedException e) {
-            //ignore error
-        }
+        queue.put(HeapItem.nullItem());
     }
 
     @Override
@@ -174,7 +165,7 @@ public class MultiNodeMergeAndOrderHandler extends MultiNodeMergeHandler {
                 return rowComparator.compare(row1, row2);
             });
             // init heap
-            for (Entry<MySQLResponseService, BlockingQueue<HeapItem>> entry : queues.entrySet()) {
+            for (Entry<MySQLResponseService, PrefetchQueue> entry : queues.entrySet()) {
                 HeapItem firstItem = entry.getValue().take();
                 heap.add(firstItem);
             }
@@ -185,7 +176,7 @@ public class MultiNodeMergeAndOrderHandler extends MultiNodeMergeHandler {
                 if (top.isNullItem()) {
                     heap.poll();
                 } else {
-                    BlockingQueue<HeapItem> topItemQueue = queues.get(top.getIndex());
+                    PrefetchQueue topItemQueue = queues.get(top.getIndex());
                     HeapItem item = topItemQueue.take();
                     heap.replaceTop(item);
                     if (nextHandler.rowResponse(top.getRowData(), top.getRowPacket(), this.isLeft, top.getIndex())) {
@@ -193,7 +184,7 @@ public class MultiNodeMergeAndOrderHandler extends MultiNodeMergeHandler {
                         while (!heap.isEmpty()) {
                             HeapItem itemToDiscard = heap.poll();
                             if (!itemToDiscard.isNullItem()) {
-                                BlockingQueue<HeapItem> discardQueue = queues.get(itemToDiscard.getIndex());
+                                PrefetchQueue discardQueue = queues.get(itemToDiscard.getIndex());
                                 while (true) {
                                     if (discardQueue.take().isNullItem() || terminate.get()) {
                                         break;
@@ -206,7 +197,7 @@ public class MultiNodeMergeAndOrderHandler extends MultiNodeMergeHandler {
             }
             if (LOGGER.isDebugEnabled()) {
                 String executeQueries = getRoutesSql(route);
-                LOGGER.debug(executeQueries + " heap send eof: ");
+                LOGGER.debug(executeQueries + " heap send eof, prefetch queues: " + queues.values());
             }
             session.setHandlerEnd(this);
             nextHandler.rowEofResponse(null, this.isLeft, queues.keySet().iterator().next());
@@ -223,9 +214,9 @@ public class MultiNodeMergeAndOrderHandler extends MultiNodeMergeHandler {
 
     @Override
     protected void terminateThread() throws Exception {
-        for (Entry<MySQLResponseService, BlockingQueue<HeapItem>> entry : this.queues.entrySet()) {
+        for (Entry<MySQLResponseService, PrefetchQueue> entry : this.queues.entrySet()) {
             // add EOF to signal atoMerge thread
-            entry.getValue().clear();
+            entry.getValue().close();
             entry.getValue().put(HeapItem.nullItem());
         }
         recycleConn();
@@ -233,15 +224,10 @@ public class MultiNodeMergeAndOrderHandler extends MultiNodeMergeHandler {
 
     @Override
     protected void recycleResources() {
-        Iterator<Entry<MySQLResponseService, BlockingQueue<HeapItem>>> iterator = this.queues.entrySet().iterator();
+        Iterator<Entry<MySQLResponseService, PrefetchQueue>> iterator = this.queues.entrySet().iterator();
         while (iterator.hasNext()) {
-            Entry<MySQLResponseService, BlockingQueue<HeapItem>> entry = iterator.next();
-            // fair lock queue,poll for clear
-            while (true) {
-                if (entry.getValue().poll() == null) {
-                    break;
-                }
-            }
+            Entry<MySQLResponseService, PrefetchQueue> entry = iterator.next();
+            entry.getValue().close();
             iterator.remove();
         }
     }
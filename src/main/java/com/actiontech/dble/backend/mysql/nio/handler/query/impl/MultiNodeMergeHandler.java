@@ -31,6 +31,8 @@ public abstract class MultiNodeMergeHandler extends OwnThreadDMLHandler {
     protected RouteResultsetNode[] route;
     int reachedConCount = 0;
     private Set<String> dependencies;
+    // only for explain
+    private long estimatedRows = -1;
 
     public MultiNodeMergeHandler(long id, RouteResultsetNode[] route, boolean autocommit, Session session, boolean isSelect) {
         super(id, session);
@@ -100,4 +102,12 @@ public abstract class MultiNodeMergeHandler extends OwnThreadDMLHandler {
     public void setDependencies(Set<String> dependencies) {
         this.dependencies = dependencies;
     }
+
+    public long getEstimatedRows() {
+        return estimatedRows;
+    }
+
+    public void setEstimatedRows(long estimatedRows) {
+        this.estimatedRows = estimatedRows;
+    }
 }
@@ -7,9 +7,11 @@ package com.actiontech.dble.backend.mysql.nio.handler.query.impl;
 
 import com.actiontech.dble.backend.mysql.CharsetUtil;
 import com.actiontech.dble.backend.mysql.nio.handler.query.OwnThreadDMLHandler;
+import com.actiontech.dble.backend.mysql.nio.handler.util.RowBatch;
 import com.actiontech.dble.backend.mysql.nio.handler.util.RowDataComparator;
 import com.actiontech.dble.backend.mysql.store.LocalResult;
 import com.actiontech.dble.backend.mysql.store.SortedLocalResult;
+import com.actiontech.dble.backend.mysql.store.TopNSortedLocalResult;
 import com.actiontech.dble.buffer.BufferPool;
 import com.actiontech.dble.config.model.SystemConfig;
 import com.actiontech.dble.net.Session;
@@ -37,6 +39,8 @@ public class OrderByHandler extends OwnThreadDMLHandler {
     /* tmp object for ordering,support Memory-mapped file or file */
     private LocalResult localResult;
     private BufferPool pool;
+    /* only the first topN rows are needed by the next handler, -1 means all rows */
+    private long topN = -1;
 
     public OrderByHandler(long id, Session session, List<Order> orders) {
         super(id, session);
@@ -50,6 +54,10 @@ public class OrderByHandler extends OwnThreadDMLHandler {
         return HandlerType.ORDERBY;
     }
 
+    public void setTopN(long topN) {
+        this.topN = topN;
+    }
+
     @Override
     public void fieldEofResponse(byte[] headerNull, List<byte[]> fieldsNull, final List<FieldPacket> fieldPackets,
                                  byte[] eofNull, boolean isLeft, @NotNull final AbstractService service) {
@@ -63,8 +71,13 @@ public class OrderByHandler extends OwnThreadDMLHandler {
         RowDataComparator cmp = new RowDataComparator(this.fieldPackets, orders, isAllPushDown(), type());
         String charSet = !service.isFakeClosed() ? CharsetUtil.getJavaCharset(service.getCharset().getResults()) :
                 CharsetUtil.getJavaCharset(session.getSource().getService().getCharset().getResults());
-        localResult = new SortedLocalResult(pool, fieldPackets.size(), cmp, charSet, generateBufferRecordBuilder()).
-                setMemSizeController(session.getOrderBufferMC());
+        int topNMaxRows = SystemConfig.getInstance().getOrderByTopNMaxRows();
+        if (topN >= 0 && topN <= topNMaxRows) {
+            localResult = new TopNSortedLocalResult(pool, fieldPackets.size(), cmp, charSet, generateBufferRecordBuilder(), (int) topN);
+        } else {
+            localResult = new SortedLocalResult(pool, fieldPackets.size(), cmp, charSet, generateBufferRecordBuilder()).
+                    setMemSizeController(session.getOrderBufferMC());
+        }
         nextHandler.fieldEofResponse(null, null, fieldPackets, null, this.isLeft, service);
         startOwnThread(service);
     }
@@ -81,6 +94,31 @@ public class OrderByHandler extends OwnThreadDMLHandler {
         return false;
     }
 
+    @Override
+    public boolean acceptRowBatch() {
+        return true;
+    }
+
+    @Override
+    public boolean rowBatchResponse(RowBatch batch, boolean isLeft, @NotNull AbstractService service) {
+        if (terminate.get()) {
+            batch.release();
+            return true;
+        }
+        try {
+            queue.put(new BatchRow(batch));
+        } catch (InterruptedException e) {
+            batch.release();
+            return true;
+        }
+        // terminated after the check, the own thread won't take the batch
+        if (terminate.get()) {
+            releaseBatches(queue);
+            return true;
+        }
+        return false;
+    }
+
     @Override
     public void rowEofResponse(byte[] data, boolean isLeft, @NotNull AbstractService service) {
         LOGGER.debug("roweof");
@@ -108,7 +146,11 @@ public class OrderByHandler extends OwnThreadDMLHandler {
                     if (row.getFieldCount() == 0) {
                         break;
                     }
-                    localResult.add(row);
+                    if (row instanceof BatchRow) {
+                        addBatch(((BatchRow) row).getBatch());
+                    } else {
+                        localResult.add(row);
+                    }
                 } catch (InterruptedException e) {
                     //ignore error
                 }
@@ -141,6 +183,16 @@ public class OrderByHandler extends OwnThreadDMLHandler {
         }
     }
 
+    private void addBatch(RowBatch batch) {
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                localResult.add(batch.getRow(i));
+            }
+        } finally {
+            batch.release();
+        }
+    }
+
     private void recordElapsedTime(String prefix) {
         if (LOGGER.isDebugEnabled()) {
             LOGGER.debug(prefix + TimeUtil.currentTimeMillis());
@@ -149,12 +201,14 @@ public class OrderByHandler extends OwnThreadDMLHandler {
 
     @Override
     protected void terminateThread() {
+        releaseBatches(this.queue);
         this.queue.clear();
         this.queue.add(TERMINATED_ROW);
     }
 
     @Override
     protected void recycleResources() {
+        releaseBatches(this.queue);
         this.queue.clear();
         if (this.localResult != null)
             this.localResult.close();
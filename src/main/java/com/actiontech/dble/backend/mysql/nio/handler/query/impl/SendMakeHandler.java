@@ -8,6 +8,7 @@ package com.actiontech.dble.backend.mysql.nio.handler.query.impl;
 
 import com.actiontech.dble.backend.mysql.nio.handler.query.BaseDMLHandler;
 import com.actiontech.dble.backend.mysql.nio.handler.util.HandlerTool;
+import com.actiontech.dble.backend.mysql.nio.handler.util.RowBatch;
 import com.actiontech.dble.net.Session;
 import com.actiontech.dble.net.mysql.FieldPacket;
 import com.actiontech.dble.net.mysql.RowDataPacket;
@@ -101,20 +102,48 @@ public class SendMakeHandler extends BaseDMLHandler {
         try {
             if (terminate.get())
                 return true;
-            HandlerTool.initFields(sourceFields, rowPacket.fieldValues);
-            RowDataPacket newRp = new RowDataPacket(selItems.size());
-            for (Item selItem : selItems) {
-                byte[] b = selItem.getRowPacketByte();
-                newRp.add(b);
-            }
-            for (BaseDMLHandler tableHandler : tableHandlers) {
-                tableHandler.rowResponse(null, newRp, this.isLeft, service);
+            sendRow(rowPacket.fieldValues, service);
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean acceptRowBatch() {
+        return true;
+    }
+
+    @Override
+    public boolean rowBatchResponse(RowBatch batch, boolean isLeft, @NotNull AbstractService service) {
+        lock.lock();
+        try {
+            if (terminate.get())
+                return true;
+            for (int i = 0; i < batch.size(); i++) {
+                // the field items return the values as they are, so every row gets its own values
+                List<byte[]> values = new ArrayList<>(batch.getFieldCount());
+                batch.fillValues(i, values);
+                sendRow(values, service);
             }
-            nextHandler.rowResponse(null, newRp, this.isLeft, service);
             return false;
         } finally {
             lock.unlock();
+            batch.release();
+        }
+    }
+
+    private void sendRow(List<byte[]> values, AbstractService service) {
+        HandlerTool.initFields(sourceFields, values);
+        RowDataPacket newRp = new RowDataPacket(selItems.size());
+        for (Item selItem : selItems) {
+            byte[] b = selItem.getRowPacketByte();
+            newRp.add(b);
+        }
+        for (BaseDMLHandler tableHandler : tableHandlers) {
+            tableHandler.rowResponse(null, newRp, this.isLeft, service);
         }
+        nextHandler.rowResponse(null, newRp, this.isLeft, service);
     }
 
     @Override
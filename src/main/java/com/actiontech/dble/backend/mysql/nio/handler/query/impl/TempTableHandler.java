@@ -9,6 +9,7 @@ package com.actiontech.dble.backend.mysql.nio.handler.query.impl;
 import com.actiontech.dble.backend.mysql.CharsetUtil;
 import com.actiontech.dble.backend.mysql.nio.handler.query.BaseDMLHandler;
 import com.actiontech.dble.backend.mysql.nio.handler.query.DMLResponseHandler;
+import com.actiontech.dble.backend.mysql.nio.handler.query.impl.join.SemiJoinFilter;
 import com.actiontech.dble.backend.mysql.nio.handler.util.CallBackHandler;
 import com.actiontech.dble.backend.mysql.nio.handler.util.HandlerTool;
 import com.actiontech.dble.backend.mysql.store.UnSortedLocalResult;
@@ -26,6 +27,7 @@ import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.math.BigInteger;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -42,6 +44,7 @@ public class TempTableHandler extends BaseDMLHandler {
 
     private int maxPartSize = 2000;
     private int maxConnSize = 4;
+    private long maxFilterRows;
     private int rowCount = 0;
     private CallBackHandler tempDoneCallBack;
     // Handler generated by tempHandler will release by itself
@@ -51,6 +54,9 @@ public class TempTableHandler extends BaseDMLHandler {
     private final Item sourceSel;
     private Field sourceField;
     private Set<String> valueSet;
+    // not null after the rows are too many for the IN list
+    private SemiJoinFilter.KeyCollector keyCollector;
+    private SemiJoinFilter semiJoinFilter;
 
     public TempTableHandler(long id, Session session, Item sourceSel) {
         super(id, session);
@@ -58,6 +64,7 @@ public class TempTableHandler extends BaseDMLHandler {
         this.tempTable = new TempTable();
         this.maxPartSize = SystemConfig.getInstance().getNestLoopRowsSize();
         this.maxConnSize = SystemConfig.getInstance().getNestLoopConnSize();
+        this.maxFilterRows = SemiJoinFilter.maxSmallTableRows(true);
         this.sourceSel = sourceSel;
         this.valueSet = new HashSet<>();
     }
@@ -101,13 +108,18 @@ public class TempTableHandler extends BaseDMLHandler {
             if (terminate.get()) {
                 return true;
             }
-            if (++rowCount > maxPartSize * maxConnSize) {
+            if (++rowCount > maxPartSize * maxConnSize && keyCollector == null && !startSemiJoinFilter()) {
                 String msg = "Property [nestLoopRowsSize] is " + maxPartSize + ",property [nestLoopConnSize] is " + maxConnSize +
                         ",nest loop temp table too much rows, number of temp table rows more than product of nestLoopConnSize and nestLoopRowsSize is " + maxPartSize * maxConnSize;
                 String errMessage = msg + " , conn info [" + service + "] !";
                 LOGGER.info(errMessage);
                 throw new TempTableException(msg);
             }
+            if (keyCollector != null && rowCount > maxFilterRows) {
+                String msg = "Property [nestLoopBloomFilterRows] is " + SystemConfig.getInstance().getNestLoopBloomFilterRows() + ",nest loop temp table too much rows";
+                LOGGER.info(msg + " , conn info [" + service + "] !");
+                throw new TempTableException(msg);
+            }
             RowDataPacket row = rowPacket;
             if (row == null) {
                 row = new RowDataPacket(this.fieldPackets.size());
@@ -115,13 +127,34 @@ public class TempTableHandler extends BaseDMLHandler {
             }
             tempTable.addRow(row);
             sourceField.setPtr(row.getValue(sourceSelIndex));
-            valueSet.add(sourceField.valStr());
+            if (keyCollector == null) {
+                valueSet.add(sourceField.valStr());
+            } else if (!sourceField.isNull()) {
+                keyCollector.add(sourceField.valInt());
+            }
         } finally {
             lock.unlock();
         }
         return false;
     }
 
+    /**
+     * the rows are too many for the IN list, collect the keys for the semi join filter instead
+     */
+    private boolean startSemiJoinFilter() {
+        if (maxFilterRows <= maxPartSize * maxConnSize || !SemiJoinFilter.isIntegerKey(sourceField)) {
+            return false;
+        }
+        keyCollector = new SemiJoinFilter.KeyCollector();
+        for (String value : valueSet) {
+            if (value != null) {
+                keyCollector.add(new BigInteger(value));
+            }
+        }
+        valueSet.clear();
+        return true;
+    }
+
     @Override
     public void rowEofResponse(byte[] eof, boolean isLeft, @NotNull AbstractService service) {
         lock.lock();
@@ -131,6 +164,10 @@ public class TempTableHandler extends BaseDMLHandler {
                 return;
             }
             tempTable.dataEof();
+            if (keyCollector != null) {
+                semiJoinFilter = keyCollector.build();
+                keyCollector = null;
+            }
             // locked onTerminate, because terminated may sync with start
             tempDoneCallBack.call();
             RowDataPacket rp = null;
@@ -153,6 +190,7 @@ public class TempTableHandler extends BaseDMLHandler {
         try {
             this.tempTable.close();
             this.valueSet.clear();
+            this.keyCollector = null;
             if (createdHandler != null) {
                 HandlerTool.terminateHandlerTree(createdHandler);
             }
@@ -177,6 +215,24 @@ public class TempTableHandler extends BaseDMLHandler {
         return valueSet;
     }
 
+    /**
+     * @return null if the keys are pushed down as the IN list
+     */
+    public SemiJoinFilter getSemiJoinFilter() {
+        return semiJoinFilter;
+    }
+
+    public boolean isSemiJoinFilterEnabled() {
+        return maxFilterRows > maxPartSize * maxConnSize;
+    }
+
+    /**
+     * the caller only supports the IN list
+     */
+    public void disableSemiJoinFilter() {
+        this.maxFilterRows = 0;
+    }
+
     public int getMaxPartSize() {
         return maxPartSize;
     }
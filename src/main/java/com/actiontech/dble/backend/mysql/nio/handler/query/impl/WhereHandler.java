@@ -7,6 +7,7 @@ package com.actiontech.dble.backend.mysql.nio.handler.query.impl;
 
 import com.actiontech.dble.backend.mysql.nio.handler.query.BaseDMLHandler;
 import com.actiontech.dble.backend.mysql.nio.handler.util.HandlerTool;
+import com.actiontech.dble.backend.mysql.nio.handler.util.RowBatch;
 import com.actiontech.dble.net.Session;
 import com.actiontech.dble.net.mysql.FieldPacket;
 import com.actiontech.dble.net.mysql.RowDataPacket;
@@ -15,6 +16,7 @@ import com.actiontech.dble.plan.common.field.Field;
 import com.actiontech.dble.plan.common.item.Item;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -27,9 +29,12 @@ public class WhereHandler extends BaseDMLHandler {
     }
 
     private Item where = null;
+    private Item whereItem = null;
     private List<Field> sourceFields;
     // if merge handler have no order by, the row response is not thread safe
     private ReentrantLock lock = new ReentrantLock();
+    // the values of the batch row being filtered, reused for every row
+    private final List<byte[]> batchValues = new ArrayList<>();
 
     @Override
     public HandlerType type() {
@@ -44,6 +49,7 @@ public class WhereHandler extends BaseDMLHandler {
             return;
         this.fieldPackets = fieldPackets;
         this.sourceFields = HandlerTool.createFields(this.fieldPackets);
+        this.whereItem = HandlerTool.createItem(this.where, this.sourceFields, 0, this.isAllPushDown(), this.type());
         nextHandler.fieldEofResponse(null, null, this.fieldPackets, null, this.isLeft, service);
     }
 
@@ -54,7 +60,6 @@ public class WhereHandler extends BaseDMLHandler {
         lock.lock();
         try {
             HandlerTool.initFields(this.sourceFields, rowPacket.fieldValues);
-            Item whereItem = HandlerTool.createItem(this.where, this.sourceFields, 0, this.isAllPushDown(), this.type());
             /* use whereto filter */
             if (whereItem.valBool()) {
                 nextHandler.rowResponse(null, rowPacket, this.isLeft, service);
@@ -67,6 +72,39 @@ public class WhereHandler extends BaseDMLHandler {
         }
     }
 
+    @Override
+    public boolean acceptRowBatch() {
+        return true;
+    }
+
+    @Override
+    public boolean rowBatchResponse(RowBatch batch, boolean isLeft, @NotNull AbstractService service) {
+        boolean passed = false;
+        lock.lock();
+        try {
+            if (terminate.get())
+                return true;
+            boolean[] keep = new boolean[batch.size()];
+            for (int i = 0; i < keep.length; i++) {
+                batch.fillValues(i, batchValues);
+                HandlerTool.initFields(this.sourceFields, batchValues);
+                keep[i] = whereItem.valBool();
+            }
+            batch.retain(keep);
+            if (batch.isEmpty()) {
+                return false;
+            }
+            passed = true;
+            nextHandler.rowBatchResponse(batch, this.isLeft, service);
+            return false;
+        } finally {
+            lock.unlock();
+            if (!passed) {
+                batch.release();
+            }
+        }
+    }
+
     @Override
     public void rowEofResponse(byte[] data, boolean isLeft, @NotNull AbstractService service) {
         if (terminate.get())
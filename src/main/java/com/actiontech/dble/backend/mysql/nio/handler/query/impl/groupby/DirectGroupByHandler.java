@@ -9,9 +9,10 @@ import com.actiontech.dble.backend.mysql.CharsetUtil;
 import com.actiontech.dble.backend.mysql.nio.handler.query.OwnThreadDMLHandler;
 import com.actiontech.dble.backend.mysql.nio.handler.query.impl.groupby.directgroupby.DGRowPacket;
 import com.actiontech.dble.backend.mysql.nio.handler.query.impl.groupby.directgroupby.GroupByBucket;
+import com.actiontech.dble.backend.mysql.nio.handler.util.ArrayMinHeap;
 import com.actiontech.dble.backend.mysql.nio.handler.util.HandlerTool;
+import com.actiontech.dble.backend.mysql.nio.handler.util.RowBatch;
 import com.actiontech.dble.backend.mysql.nio.handler.util.RowDataComparator;
-import com.actiontech.dble.backend.mysql.store.GroupByLocalResult;
 import com.actiontech.dble.backend.mysql.store.LocalResult;
 import com.actiontech.dble.buffer.BufferPool;
 import com.actiontech.dble.config.model.SystemConfig;
@@ -34,13 +35,16 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * groupBy is Behind OrderBy
- * use groupbylocalresult to calc groupby . try to merge before store to groupby LocalResult
+ * the rows are partitioned by the hash of group by columns into the buckets, every bucket owns its groups,
+ * so the groups of the buckets are sent directly, or merged by order if the order is needed.
  * these cases can't merge : 1.sum function contains distinct  2. groupconcat
  *
  * @author ActionTech
@@ -48,24 +52,24 @@ import java.util.concurrent.atomic.AtomicBoolean;
 public class DirectGroupByHandler extends OwnThreadDMLHandler {
     private static final Logger LOGGER = LoggerFactory.getLogger(DirectGroupByHandler.class);
 
-    private BlockingQueue<RowDataPacket> queue;
-
     private List<Order> groupBys;
     private List<ItemSum> referredSumFunctions;
 
     private BufferPool pool;
-    private LocalResult groupLocalResult;
     private AtomicBoolean groupStart = new AtomicBoolean(false);
 
     private List<ItemSum> sums = new ArrayList<>();
 
-    private AtomicBoolean hasFirstRow = new AtomicBoolean(false);
-
     private List<FieldPacket> localResultFps;
 
-    private BlockingQueue<RowDataPacket> outQueue;
-    int bucketSize = 10;
+    private final int bucketSize;
+    private final List<BlockingQueue<RowDataPacket>> inQueues;
+    private final List<BlockingQueue<RowDataPacket>> outQueues;
     private List<GroupByBucket> buckets;
+    private boolean needSort = true;
+    private RowDataComparator groupCmp;
+    /* rowResponse may be called by the threads of different backend connections, the rows of a connection come one by one */
+    private final Map<AbstractService, RowDataComparator> partitionCmps = new ConcurrentHashMap<>();
 
     /**
      * @param groupBys
@@ -77,11 +81,23 @@ public class DirectGroupByHandler extends OwnThreadDMLHandler {
         this.groupBys = groupBys;
         this.referredSumFunctions = referredSumFunctions;
         int queueSize = SystemConfig.getInstance().getMergeQueueSize();
-        this.queue = new LinkedBlockingQueue<>(queueSize);
-        this.outQueue = new LinkedBlockingQueue<>(queueSize);
+        this.bucketSize = SystemConfig.getInstance().getComplexQueryWorker();
+        this.inQueues = new ArrayList<>(bucketSize);
+        this.outQueues = new ArrayList<>(bucketSize);
+        for (int i = 0; i < bucketSize; i++) {
+            inQueues.add(new LinkedBlockingQueue<>(queueSize));
+            outQueues.add(new LinkedBlockingQueue<>(queueSize));
+        }
         this.buckets = new ArrayList<>();
     }
 
+    /**
+     * @param needSort false if the order of the groups is not used
+     */
+    public void setNeedSort(boolean needSort) {
+        this.needSort = needSort;
+    }
+
     @Override
     public HandlerType type() {
         return HandlerType.GROUPBY;
@@ -110,19 +126,16 @@ public class DirectGroupByHandler extends OwnThreadDMLHandler {
         // row in localresult is DGRowPacket which is added aggregate functions result from origin rowdatapacket
         localResultFps = this.fieldPackets;
         List<ItemSum> localResultReferredSums = referredSumFunctions;
-        RowDataComparator comparator = new RowDataComparator(this.localResultFps, this.groupBys, this.isAllPushDown(), this.type()
-        );
+        groupCmp = new RowDataComparator(this.localResultFps, this.groupBys, this.isAllPushDown(), this.type());
         String charSet = !service.isFakeClosed() ? CharsetUtil.getJavaCharset(service.getCharset().getResults()) : CharsetUtil.getJavaCharset(session.getSource().getService().getCharset().getResults());
-        groupLocalResult = new GroupByLocalResult(pool, localResultFps.size(), comparator, localResultFps,
-                localResultReferredSums, this.isAllPushDown(), charSet, generateBufferRecordBuilder()).
-                setMemSizeController(session.getOtherBufferMC());
         for (int i = 0; i < bucketSize; i++) {
             if (terminate.get())
                 break;
             RowDataComparator tmpComparator = new RowDataComparator(this.localResultFps, this.groupBys,
                     this.isAllPushDown(), this.type());
-            GroupByBucket bucket = new GroupByBucket(queue, outQueue, pool, localResultFps.size(), tmpComparator,
+            GroupByBucket bucket = new GroupByBucket(inQueues.get(i), outQueues.get(i), pool, localResultFps.size(), tmpComparator,
                     localResultFps, localResultReferredSums, this.isAllPushDown(), charSet, generateBufferRecordBuilder());
+            bucket.setNeedSort(needSort);
             bucket.setMemSizeController(session.getOtherBufferMC());
             buckets.add(bucket);
             bucket.start();
@@ -153,27 +166,11 @@ public class DirectGroupByHandler extends OwnThreadDMLHandler {
         MySQLResponseService sqlResponseService = (MySQLResponseService) objects[0];
         recordElapsedTime("local group by thread is start:");
         try {
-            int eofCount = 0;
-            for (; ; ) {
-                RowDataPacket row = outQueue.take();
-                if (row.getFieldCount() == 0) {
-                    eofCount++;
-                    if (eofCount == bucketSize)
-                        break;
-                    else
-                        continue;
-                }
-                groupLocalResult.add(row);
+            boolean hasGroup = needSort ? sendSortedGroupRowPacket(sqlResponseService) : sendGroupRowPacket(sqlResponseService);
+            if (!hasGroup && HandlerTool.needSendNoRow(this.groupBys)) {
+                sendNoRowGroupRowPacket(sqlResponseService);
             }
             recordElapsedTime("local group by thread is end:");
-            groupLocalResult.done();
-            recordElapsedTime("local group by thread is done for read:");
-            if (!hasFirstRow.get()) {
-                if (HandlerTool.needSendNoRow(this.groupBys))
-                    sendNoRowGroupRowPacket(sqlResponseService);
-            } else {
-                sendGroupRowPacket(sqlResponseService);
-            }
             session.setHandlerEnd(this);
             nextHandler.rowEofResponse(null, this.isLeft, sqlResponseService);
         } catch (MySQLOutPutException e) {
@@ -198,12 +195,35 @@ public class DirectGroupByHandler extends OwnThreadDMLHandler {
         LOGGER.debug("rowResponse");
         if (terminate.get())
             return true;
-        hasFirstRow.compareAndSet(false, true);
         try {
             DGRowPacket row = new DGRowPacket(rowPacket, this.referredSumFunctions.size());
-            queue.put(row);
+            inQueues.get(partition(row, service)).put(row);
+        } catch (InterruptedException e) {
+            //ignore error
+        }
+        return false;
+    }
+
+    @Override
+    public boolean acceptRowBatch() {
+        return true;
+    }
+
+    @Override
+    public boolean rowBatchResponse(RowBatch batch, boolean isLeft, @NotNull AbstractService service) {
+        try {
+            for (int i = 0; i < batch.size(); i++) {
+                if (terminate.get())
+                    return true;
+                // the values are copied into the row kept by the bucket directly
+                DGRowPacket row = new DGRowPacket(batch.getFieldCount(), this.referredSumFunctions.size());
+                batch.copyRow(i, row);
+                inQueues.get(partition(row, service)).put(row);
+            }
         } catch (InterruptedException e) {
             //ignore error
+        } finally {
+            batch.release();
         }
         return false;
     }
@@ -213,18 +233,29 @@ public class DirectGroupByHandler extends OwnThreadDMLHandler {
         LOGGER.debug("roweof");
         if (terminate.get())
             return;
+        partitionCmps.clear();
         try {
             // @bug1042
             for (int i = 0; i < bucketSize; i++)
-                queue.put(TERMINATED_ROW);
+                inQueues.get(i).put(TERMINATED_ROW);
         } catch (InterruptedException e) {
             //ignore error
         }
     }
 
-    private void sendGroupRowPacket(MySQLResponseService service) {
-        groupLocalResult.done();
-        RowDataPacket row = null;
+    /**
+     * the same groups go to the same bucket, use the high bits of the hash,
+     * the low bits are used by the hash index in the bucket.
+     * the hash is not cached in the row, the comparator of the bucket uses the first cache slot of the row
+     */
+    private int partition(RowDataPacket row, AbstractService service) {
+        RowDataComparator partitionCmp = partitionCmps.computeIfAbsent(service, k -> new RowDataComparator(this.localResultFps,
+                this.groupBys, this.isAllPushDown(), this.type()));
+        int h = partitionCmp.hashValues(row.fieldValues) * 0x85EBCA6B;
+        return (int) (((h & 0xffffffffL) * bucketSize) >>> 32);
+    }
+
+    private List<ItemSum> createSendSums() {
         List<Field> localFields = HandlerTool.createFields(localResultFps);
         List<ItemSum> sendSums = new ArrayList<>();
         for (ItemSum selSum : referredSumFunctions) {
@@ -232,9 +263,76 @@ public class DirectGroupByHandler extends OwnThreadDMLHandler {
             sendSums.add(sum);
         }
         prepareSumAggregators(sendSums, true);
-        while ((row = groupLocalResult.next()) != null) {
-            if (sendGroupRowPacket(service, row, sendSums))
-                break;
+        return sendSums;
+    }
+
+    /**
+     * the buckets own different groups, send the groups of every bucket one by one
+     *
+     * @return false if no group
+     */
+    private boolean sendGroupRowPacket(MySQLResponseService service) throws InterruptedException {
+        List<ItemSum> sendSums = createSendSums();
+        boolean hasGroup = false;
+        for (int i = 0; i < bucketSize; i++) {
+            RowDataPacket row;
+            while ((row = outQueues.get(i).take()).getFieldCount() != 0) {
+                hasGroup = true;
+                if (terminate.get() || sendGroupRowPacket(service, row, sendSums)) {
+                    drainBuckets(i);
+                    return true;
+                }
+            }
+        }
+        return hasGroup;
+    }
+
+    /**
+     * the groups of every bucket are sorted, merge them by order
+     *
+     * @return false if no group
+     */
+    private boolean sendSortedGroupRowPacket(MySQLResponseService service) throws InterruptedException {
+        List<ItemSum> sendSums = createSendSums();
+        ArrayMinHeap<BucketRow> heap = new ArrayMinHeap<>(bucketSize, (o1, o2) -> groupCmp.compare(o1.row, o2.row));
+        for (int i = 0; i < bucketSize; i++) {
+            RowDataPacket row = outQueues.get(i).take();
+            if (row.getFieldCount() != 0)
+                heap.add(new BucketRow(row, i));
+        }
+        boolean hasGroup = !heap.isEmpty();
+        while (!heap.isEmpty()) {
+            BucketRow top = heap.peak();
+            if (terminate.get() || sendGroupRowPacket(service, top.row, sendSums)) {
+                for (BucketRow item : heap) {
+                    drainBucket(item.bucket);
+                }
+                return true;
+            }
+            RowDataPacket row = outQueues.get(top.bucket).take();
+            if (row.getFieldCount() == 0) {
+                heap.poll();
+            } else {
+                top.row = row;
+                heap.replaceTop(top);
+            }
+        }
+        return hasGroup;
+    }
+
+    /**
+     * buckets are blocked until their groups are taken
+     */
+    private void drainBuckets(int from) throws InterruptedException {
+        for (int i = from; i < bucketSize; i++) {
+            drainBucket(i);
+        }
+    }
+
+    private void drainBucket(int index) throws InterruptedException {
+        BlockingQueue<RowDataPacket> outQueue = outQueues.get(index);
+        while (outQueue.take().getFieldCount() != 0) {
+            // discard
         }
     }
 
@@ -314,16 +412,18 @@ public class DirectGroupByHandler extends OwnThreadDMLHandler {
 
     @Override
     protected void terminateThread() throws Exception {
-        this.queue.clear();
-        for (int i = 0; i < bucketSize; i++)
+        for (BlockingQueue<RowDataPacket> queue : inQueues) {
+            queue.clear();
             queue.put(TERMINATED_ROW);
+        }
     }
 
     @Override
     protected void recycleResources() {
-        this.queue.clear();
-        if (this.groupLocalResult != null)
-            this.groupLocalResult.close();
+        partitionCmps.clear();
+        for (BlockingQueue<RowDataPacket> queue : inQueues) {
+            queue.clear();
+        }
         for (LocalResult bucket : buckets) {
             bucket.close();
         }
@@ -334,4 +434,14 @@ public class DirectGroupByHandler extends OwnThreadDMLHandler {
         return ExplainType.DIRECT_GROUP;
     }
 
+    private static final class BucketRow {
+        private RowDataPacket row;
+        private final int bucket;
+
+        private BucketRow(RowDataPacket row, int bucket) {
+            this.row = row;
+            this.bucket = bucket;
+        }
+    }
+
 }
@@ -18,7 +18,8 @@ import java.util.List;
 import java.util.concurrent.BlockingQueue;
 
 /**
- * GroupByBucket,generate Group By tmp result in every bucket in parallel ,and merge the buckets finally
+ * GroupByBucket,generate Group By result in every bucket in parallel,
+ * the rows of one group are always sent to the same bucket, so the groups of the buckets are not merged again
  */
 public class GroupByBucket extends GroupByLocalResult {
     private BlockingQueue<RowDataPacket> inData;
@@ -65,6 +66,8 @@ public class GroupByBucket extends GroupByLocalResult {
     public void close() {
         inData.add(OwnThreadDMLHandler.TERMINATED_ROW);
         super.close();
+        // wake up the thread which is blocked by putting the groups nobody takes
+        outData.clear();
     }
 
 }
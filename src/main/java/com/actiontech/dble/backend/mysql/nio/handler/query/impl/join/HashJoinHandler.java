@@ -0,0 +1,501 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.backend.mysql.nio.handler.query.impl.join;
+
+import com.actiontech.dble.backend.mysql.CharsetUtil;
+import com.actiontech.dble.backend.mysql.nio.handler.query.DMLResponseHandler;
+import com.actiontech.dble.backend.mysql.nio.handler.query.OwnThreadDMLHandler;
+import com.actiontech.dble.backend.mysql.nio.handler.util.HandlerTool;
+import com.actiontech.dble.backend.mysql.nio.handler.util.JoinKeyHasher;
+import com.actiontech.dble.backend.mysql.nio.handler.util.TwoTableComparator;
+import com.actiontech.dble.backend.mysql.store.LocalResult;
+import com.actiontech.dble.backend.mysql.store.UnSortedLocalResult;
+import com.actiontech.dble.buffer.BufferPool;
+import com.actiontech.dble.config.model.SystemConfig;
+import com.actiontech.dble.net.Session;
+import com.actiontech.dble.net.mysql.FieldPacket;
+import com.actiontech.dble.net.mysql.RowDataPacket;
+import com.actiontech.dble.net.service.AbstractService;
+import com.actiontech.dble.plan.Order;
+import com.actiontech.dble.plan.common.exception.MySQLOutPutException;
+import com.actiontech.dble.plan.common.field.Field;
+import com.actiontech.dble.plan.common.item.Item;
+import com.actiontech.dble.server.NonBlockingSession;
+import com.actiontech.dble.services.mysqlsharding.MySQLResponseService;
+import com.actiontech.dble.singleton.BufferPoolManager;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * join strategy is hash join, the data of both sides need not be ordered.
+ * the rows of both sides are stored into partitions by the hash code of join columns until one side is finished,
+ * the finished side is the build side if it is not larger than the other side(left join always builds the right side),
+ * otherwise the other side is waited for and the smaller one is built.
+ * if the build rows fit in memory, the rows of probe side are joined once they arrived,
+ * otherwise the partitions of both sides are joined one by one by PartitionedHashJoin.
+ * the partitions are flushed into disk when the join memory is not enough.
+ *
+ * @author ActionTech
+ */
+public class HashJoinHandler extends OwnThreadDMLHandler implements PartitionedHashJoin.Context {
+    private static final Logger LOGGER = LoggerFactory.getLogger(HashJoinHandler.class);
+    private static final int EOF_TERMINATED = -1;
+    private static final int EOF_LEFT = 0;
+    private static final int EOF_RIGHT = 1;
+
+    private final boolean isLeftJoin;
+    private final List<Order> leftOrders;
+    private final List<Order> rightOrders;
+    private List<FieldPacket> leftFieldPackets;
+    private List<FieldPacket> rightFieldPackets;
+    private final AtomicBoolean fieldSent = new AtomicBoolean(false);
+    private BufferPool pool;
+    private String charset = "UTF-8";
+    private List<Field> joinRowFields;
+    private final Item otherJoinOn;
+    private Item otherJoinOnItem;
+    private boolean nestLoopDependOn;
+    private TwoTableComparator joinComparator;
+    /* the service of the own thread which joins the rows */
+    private MySQLResponseService ownThreadService;
+
+    private JoinKeyHasher leftHasher;
+    private JoinKeyHasher rightHasher;
+    private PartitionedHashJoin partitionedJoin;
+    private final Side leftSide = new Side(true);
+    private final Side rightSide = new Side(false);
+    /* the sides finished, read by the own thread */
+    private final BlockingQueue<Integer> eofEvents = new LinkedBlockingQueue<>();
+    /* the probe rows arrived after the build side is ready */
+    private final BlockingQueue<RowDataPacket> probeQueue;
+
+    public HashJoinHandler(long id, Session session, boolean isLeftJoin, List<Order> leftOrder,
+                           List<Order> rightOrder, Item otherJoinOn) {
+        super(id, session);
+        this.isLeftJoin = isLeftJoin;
+        this.leftOrders = leftOrder;
+        this.rightOrders = rightOrder;
+        this.leftFieldPackets = new ArrayList<>();
+        this.rightFieldPackets = new ArrayList<>();
+        this.otherJoinOn = otherJoinOn;
+        this.probeQueue = new LinkedBlockingDeque<>(SystemConfig.getInstance().getJoinQueueSize());
+        if (session instanceof NonBlockingSession) {
+            ((NonBlockingSession) session).getShardingService().getRequestScope().setUsingJoin(true);
+        }
+    }
+
+    @Override
+    public HandlerType type() {
+        return HandlerType.JOIN;
+    }
+
+    @Override
+    public void fieldEofResponse(byte[] headerNull, List<byte[]> fieldsNull, final List<FieldPacket> fieldPackets,
+                                 byte[] eofNull, boolean isLeft, @NotNull final AbstractService service) {
+        session.setHandlerStart(this);
+        if (this.pool == null)
+            this.pool = BufferPoolManager.getBufferPool();
+        if (isLeft) {
+            leftFieldPackets = fieldPackets;
+        } else {
+            rightFieldPackets = fieldPackets;
+        }
+        this.charset = !service.isFakeClosed() ? CharsetUtil.getJavaCharset(service.getCharset().getResults()) : CharsetUtil.getJavaCharset(session.getSource().getService().getCharset().getResults());
+        if (!fieldSent.compareAndSet(false, true)) {
+            initHashTables();
+            List<FieldPacket> newFieldPacket = new ArrayList<>();
+            newFieldPacket.addAll(leftFieldPackets);
+            newFieldPacket.addAll(rightFieldPackets);
+            nextHandler.fieldEofResponse(null, null, newFieldPacket, null, this.isLeft, service);
+            otherJoinOnItem = makeOtherJoinOnItem(newFieldPacket);
+            startOwnThread(service);
+        }
+    }
+
+    private void initHashTables() {
+        int charsetIndex = CharsetUtil.getCollationIndex(session.getSource().getService().getCharset().getCollation());
+        leftHasher = new JoinKeyHasher(leftFieldPackets, leftOrders, rightFieldPackets, rightOrders, this.isAllPushDown(), this.type(), charsetIndex);
+        rightHasher = new JoinKeyHasher(rightFieldPackets, rightOrders, leftFieldPackets, leftOrders, this.isAllPushDown(), this.type(), charsetIndex);
+        joinComparator = new TwoTableComparator(leftFieldPackets, rightFieldPackets, leftOrders, rightOrders,
+                this.isAllPushDown(), this.type(), charsetIndex);
+        partitionedJoin = new PartitionedHashJoin(this, isLeftJoin, 1024L * 1024L * SystemConfig.getInstance().getJoinMemSize());
+        leftSide.init();
+        rightSide.init();
+    }
+
+    private Item makeOtherJoinOnItem(List<FieldPacket> rowPackets) {
+        this.joinRowFields = HandlerTool.createFields(rowPackets);
+        if (otherJoinOn == null)
+            return null;
+        return HandlerTool.createItem(this.otherJoinOn, this.joinRowFields, 0, this.isAllPushDown(), this.type());
+    }
+
+    @Override
+    public boolean rowResponse(byte[] rowNull, RowDataPacket rowPacket, boolean isLeft, @NotNull AbstractService conn) {
+        if (terminate.get()) {
+            return true;
+        }
+        if ((isLeft ? leftSide : rightSide).add(rowPacket)) {
+            return false;
+        }
+        try {
+            probeQueue.put(rowPacket);
+        } catch (InterruptedException e) {
+            LOGGER.info("hash join row response exception", e);
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void rowEofResponse(byte[] data, boolean isLeft, @NotNull AbstractService service) {
+        LOGGER.debug("roweof");
+        if (terminate.get()) {
+            return;
+        }
+        if ((isLeft ? leftSide : rightSide).finish()) {
+            eofEvents.offer(isLeft ? EOF_LEFT : EOF_RIGHT);
+            return;
+        }
+        try {
+            probeQueue.put(TERMINATED_ROW);
+        } catch (InterruptedException e) {
+            LOGGER.warn("HashJoinHandler rowEofResponse InterruptedException ", e);
+        }
+    }
+
+    @Override
+    protected void ownThreadJob(Object... objects) {
+        MySQLResponseService service = (MySQLResponseService) objects[0];
+        ownThreadService = service;
+        try {
+            Side build = chooseBuildSide();
+            if (build == null)
+                return;
+            Side probe = build == leftSide ? rightSide : leftSide;
+            boolean interrupted;
+            if (partitionedJoin.fitsInMemory(build.partitions)) {
+                interrupted = joinInMemory(build, probe);
+            } else {
+                // the probe rows are partitioned until all of them arrived
+                while (!probe.isFinished()) {
+                    if (awaitEof() == null)
+                        return;
+                }
+                interrupted = partitionedJoin.joinPartitions(leftSide.partitions, rightSide.partitions);
+            }
+            if (interrupted && terminate.get())
+                return;
+            if (!nestLoopDependOn) {
+                HandlerTool.terminateHandlerTree(this);
+            }
+            // for trace, when join end before all rows return ,the handler should mark as finished
+            for (DMLResponseHandler mergeHandler : this.getMerges()) {
+                DMLResponseHandler handler = mergeHandler;
+                while (handler != null && handler != this) {
+                    session.setHandlerEnd(handler);
+                    handler = handler.getNextHandler();
+                }
+            }
+            session.setHandlerEnd(this);
+            nextHandler.rowEofResponse(null, isLeft, service);
+        } catch (MySQLOutPutException e) {
+            String msg = e.getLocalizedMessage();
+            LOGGER.info(msg, e);
+            session.onQueryError(msg.getBytes());
+        } catch (Exception e) {
+            String msg = "hash join thread error, " + e.getLocalizedMessage();
+            LOGGER.info(msg, e);
+            session.onQueryError(msg.getBytes());
+        }
+    }
+
+    /**
+     * the side finished first is built if it is not larger than the other side, so the other side can be joined
+     * while it is arriving. left join always builds the right side.
+     *
+     * @return null if terminated
+     */
+    private Side chooseBuildSide() throws InterruptedException {
+        if (isLeftJoin) {
+            while (!rightSide.isFinished()) {
+                if (awaitEof() == null)
+                    return null;
+            }
+            return rightSide;
+        }
+        Side first = awaitEof();
+        if (first == null)
+            return null;
+        Side other = first == leftSide ? rightSide : leftSide;
+        if (!other.isFinished() && first.getRowCount() <= other.getRowCount()) {
+            return first;
+        }
+        while (!other.isFinished()) {
+            if (awaitEof() == null)
+                return null;
+        }
+        return other.getRowCount() < first.getRowCount() ? other : first;
+    }
+
+    /**
+     * @return the side finished, null if terminated
+     */
+    private Side awaitEof() throws InterruptedException {
+        int event = eofEvents.take();
+        if (event == EOF_TERMINATED || terminate.get())
+            return null;
+        return event == EOF_LEFT ? leftSide : rightSide;
+    }
+
+    /**
+     * all build rows are in memory, probe the rows as soon as they arrived
+     *
+     * @return if is interrupted by next handler or terminated ,return true,else false
+     */
+    private boolean joinInMemory(Side build, Side probe) throws InterruptedException {
+        Map<Integer, List<RowDataPacket>> hashTable = partitionedJoin.loadHashTable(build.partitions, build.isLeft);
+        build.close();
+        boolean probeFinished = probe.startStreaming();
+        if (partitionedJoin.probePartitions(probe.partitions, hashTable, probe.isLeft))
+            return true;
+        if (probeFinished)
+            return false;
+        while (true) {
+            if (terminate.get())
+                return true;
+            RowDataPacket row = probeQueue.take();
+            if (row.getFieldCount() == 0)
+                return false;
+            if (partitionedJoin.probeRow(row, hashTable, probe.isLeft, true) < 0)
+                return true;
+        }
+    }
+
+    @Override
+    public HashPartition newPartition(boolean left) {
+        LocalResult rows = new UnSortedLocalResult(left ? leftFieldPackets.size() : rightFieldPackets.size(), pool, this.charset,
+                generateBufferRecordBuilder()).setMemSizeController(session.getJoinBufferMC());
+        return new HashPartition(rows);
+    }
+
+    @Override
+    public Integer hash(RowDataPacket row, boolean left) {
+        return (left ? leftHasher : rightHasher).hash(row);
+    }
+
+    @Override
+    public int join(RowDataPacket probeRow, boolean probeLeft, List<RowDataPacket> buildRows) {
+        int matchCount = 0;
+        for (RowDataPacket buildRow : buildRows) {
+            RowDataPacket leftRow = probeLeft ? probeRow : buildRow;
+            RowDataPacket rightRow = probeLeft ? buildRow : probeRow;
+            if (joinComparator.compare(leftRow, rightRow) != 0)
+                continue;
+            RowDataPacket rowPacket = makeJoinRow(leftRow, rightRow);
+            if (otherJoinOnItem != null) {
+                HandlerTool.initFields(joinRowFields, rowPacket.fieldValues);
+                if (!otherJoinOnItem.valBool())
+                    continue;
+            }
+            matchCount++;
+            if (nextHandler.rowResponse(null, rowPacket, isLeft, ownThreadService))
+                return -1;
+        }
+        return matchCount;
+    }
+
+    @Override
+    public boolean joinUnmatched(RowDataPacket leftRow) {
+        return nextHandler.rowResponse(null, makeJoinRow(leftRow, null), isLeft, ownThreadService);
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return terminate.get();
+    }
+
+    private RowDataPacket makeJoinRow(RowDataPacket leftRow, RowDataPacket rightRow) {
+        RowDataPacket rowPacket = new RowDataPacket(leftFieldPackets.size() + rightFieldPackets.size());
+        for (byte[] value : leftRow.fieldValues) {
+            rowPacket.add(value);
+        }
+        if (rightRow == null) {
+            for (int i = 0; i < rightFieldPackets.size(); i++) {
+                rowPacket.add(null);
+            }
+        } else {
+            for (byte[] value : rightRow.fieldValues) {
+                rowPacket.add(value);
+            }
+        }
+        return rowPacket;
+    }
+
+    @Override
+    protected void terminateThread() throws Exception {
+        eofEvents.offer(EOF_TERMINATED);
+        probeQueue.clear();
+        probeQueue.offer(TERMINATED_ROW);
+    }
+
+    @Override
+    protected void recycleResources() {
+        probeQueue.clear();
+        leftSide.close();
+        rightSide.close();
+    }
+
+    public void setNestLoopDependOn(boolean nestLoopDependOn) {
+        this.nestLoopDependOn = nestLoopDependOn;
+    }
+
+    @Override
+    public ExplainType explainType() {
+        return ExplainType.HASH_JOIN;
+    }
+
+    /**
+     * the rows of one side, partitioned before the side is chosen as the probe side and streamed
+     */
+    private final class Side {
+        private final boolean isLeft;
+        // prevent multi thread rowresponse
+        private final ReentrantLock lock = new ReentrantLock();
+        private HashPartition[] partitions;
+        /* rows arrived before the fields of both sides are ready */
+        private LocalResult earlyRows;
+        private int rowCount = 0;
+        private boolean finished = false;
+        private boolean streaming = false;
+        private boolean closed = false;
+
+        private Side(boolean isLeft) {
+            this.isLeft = isLeft;
+        }
+
+        private void init() {
+            lock.lock();
+            try {
+                partitions = partitionedJoin.newPartitions(isLeft);
+                if (earlyRows != null) {
+                    try {
+                        earlyRows.done();
+                        RowDataPacket row;
+                        while ((row = earlyRows.next()) != null) {
+                            partitionedJoin.addRow(partitions, row, isLeft, 0);
+                        }
+                    } finally {
+                        earlyRows.close();
+                        earlyRows = null;
+                    }
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * @return false if the row should be put into the probe queue
+         */
+        private boolean add(RowDataPacket row) {
+            lock.lock();
+            try {
+                if (streaming)
+                    return false;
+                if (closed)
+                    return true;
+                rowCount++;
+                if (partitions != null) {
+                    partitionedJoin.addRow(partitions, row, isLeft, 0);
+                } else {
+                    if (earlyRows == null)
+                        earlyRows = new UnSortedLocalResult(isLeft ? leftFieldPackets.size() : rightFieldPackets.size(), pool,
+                                charset, generateBufferRecordBuilder()).setMemSizeController(session.getJoinBufferMC());
+                    earlyRows.add(row);
+                }
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * @return false if the eof should be put into the probe queue
+         */
+        private boolean finish() {
+            lock.lock();
+            try {
+                if (streaming)
+                    return false;
+                finished = true;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * the rows arrived after now are put into the probe queue
+         *
+         * @return true if all the rows have arrived
+         */
+        private boolean startStreaming() {
+            lock.lock();
+            try {
+                if (!finished)
+                    streaming = true;
+                return finished;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean isFinished() {
+            lock.lock();
+            try {
+                return finished;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int getRowCount() {
+            lock.lock();
+            try {
+                return rowCount;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void close() {
+            lock.lock();
+            try {
+                closed = true;
+                if (partitions != null) {
+                    for (HashPartition partition : partitions) {
+                        partition.close();
+                    }
+                }
+                if (earlyRows != null) {
+                    earlyRows.close();
+                    earlyRows = null;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.backend.mysql.nio.handler.query.impl.join;
+
+import com.actiontech.dble.backend.mysql.store.LocalResult;
+import com.actiontech.dble.net.mysql.RowDataPacket;
+
+/**
+ * the rows of one side of hash join with the same partition index, kept by a LocalResult which flushes into disk.
+ * the size of the rows is counted to decide whether the partition can be loaded into memory.
+ */
+final class HashPartition {
+    private final LocalResult rows;
+    private long bytes = 0;
+    private boolean done = false;
+
+    HashPartition(LocalResult rows) {
+        this.rows = rows;
+    }
+
+    void add(RowDataPacket row) {
+        rows.add(row);
+        bytes += row.calcPacketSize();
+    }
+
+    int getRowCount() {
+        return rows.getRowCount();
+    }
+
+    long getBytes() {
+        return bytes;
+    }
+
+    boolean isInDisk() {
+        return rows.isInDisk();
+    }
+
+    /**
+     * read from the first row, the partition can be read again and again
+     */
+    void rewind() {
+        if (done) {
+            rows.reset();
+        } else {
+            rows.done();
+            done = true;
+        }
+    }
+
+    RowDataPacket next() {
+        return rows.next();
+    }
+
+    void close() {
+        rows.close();
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.backend.mysql.nio.handler.query.impl.join;
+
+import com.actiontech.dble.net.mysql.RowDataPacket;
+
+import java.util.*;
+
+/**
+ * the partitions of hash join and the join of them.
+ * the rows of both sides are put into partitions by the hash code of the join columns, the partitions with the same index
+ * are joined by the hash table of the smaller side(left join always builds the right side).
+ * the build partition larger than the memory is partitioned again by another hash of the join columns,
+ * the one which can't be split(the rows of the same key) or reaches MAX_LEVEL is joined by block nested loop,
+ * which loads the build rows block by block and probes all the probe rows with every block.
+ */
+final class PartitionedHashJoin {
+    static final int PARTITION_COUNT = 16;
+    static final int MAX_LEVEL = 3;
+
+    /**
+     * the handler of hash join
+     */
+    interface Context {
+        HashPartition newPartition(boolean isLeft);
+
+        /**
+         * @return the hash code of the join columns, null if any join column is null
+         */
+        Integer hash(RowDataPacket row, boolean isLeft);
+
+        /**
+         * join the probe row with the build rows of the same hash code
+         *
+         * @return -1 if interrupted by next handler, otherwise the count of the matched rows
+         */
+        int join(RowDataPacket probeRow, boolean probeLeft, List<RowDataPacket> buildRows);
+
+        /**
+         * join the left row without matched right row of left join
+         *
+         * @return true if interrupted by next handler
+         */
+        boolean joinUnmatched(RowDataPacket leftRow);
+
+        boolean isTerminated();
+    }
+
+    private final Context context;
+    private final boolean isLeftJoin;
+    private final long memoryBudget;
+
+    PartitionedHashJoin(Context context, boolean isLeftJoin, long memoryBudget) {
+        this.context = context;
+        this.isLeftJoin = isLeftJoin;
+        this.memoryBudget = memoryBudget;
+    }
+
+    HashPartition[] newPartitions(boolean isLeft) {
+        HashPartition[] partitions = new HashPartition[PARTITION_COUNT];
+        for (int i = 0; i < PARTITION_COUNT; i++) {
+            partitions[i] = context.newPartition(isLeft);
+        }
+        return partitions;
+    }
+
+    void addRow(HashPartition[] partitions, RowDataPacket row, boolean isLeft, int level) {
+        Integer hash = context.hash(row, isLeft);
+        if (hash == null) {
+            // null never matches, but the left row of left join is still needed
+            if (!isLeftJoin || !isLeft)
+                return;
+            hash = 0;
+        }
+        partitions[partitionIndex(hash, level)].add(row);
+    }
+
+    /**
+     * the partition index of every level is calculated by a different mixing of the hash code,
+     * so the rows of one partition are split by the next level unless they have the same hash code
+     */
+    static int partitionIndex(int hash, int level) {
+        int h = hash + level * 0x9E3779B9;
+        h = (h ^ (h >>> 16)) * 0x85EBCA6B;
+        h = (h ^ (h >>> 13)) * 0xC2B2AE35;
+        return (h ^ (h >>> 16)) & (PARTITION_COUNT - 1);
+    }
+
+    static long size(HashPartition[] partitions) {
+        long bytes = 0;
+        for (HashPartition partition : partitions) {
+            bytes += partition.getBytes();
+        }
+        return bytes;
+    }
+
+    static boolean isInDisk(HashPartition[] partitions) {
+        for (HashPartition partition : partitions) {
+            if (partition.isInDisk())
+                return true;
+        }
+        return false;
+    }
+
+    boolean fitsInMemory(HashPartition[] partitions) {
+        return size(partitions) <= memoryBudget && !isInDisk(partitions);
+    }
+
+    /**
+     * join all the rows of both sides partition by partition, the partitions are closed after joined
+     *
+     * @return true if interrupted by next handler or terminated
+     */
+    boolean joinPartitions(HashPartition[] leftPartitions, HashPartition[] rightPartitions) {
+        for (int i = 0; i < leftPartitions.length; i++) {
+            if (joinPartition(leftPartitions[i], rightPartitions[i], 0)) {
+                for (int j = i + 1; j < leftPartitions.length; j++) {
+                    leftPartitions[j].close();
+                    rightPartitions[j].close();
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean joinPartition(HashPartition left, HashPartition right, int level) {
+        try {
+            if (context.isTerminated())
+                return true;
+            boolean buildLeft = !isLeftJoin && left.getRowCount() < right.getRowCount();
+            HashPartition build = buildLeft ? left : right;
+            HashPartition probe = buildLeft ? right : left;
+            if (probe.getRowCount() == 0)
+                return false;
+            if (build.getRowCount() == 0) {
+                return isLeftJoin && joinAllUnmatched(probe);
+            }
+            if (build.getBytes() <= memoryBudget) {
+                Map<Integer, List<RowDataPacket>> hashTable = new HashMap<>();
+                build.rewind();
+                loadRows(build, buildLeft, hashTable, Long.MAX_VALUE);
+                return probe(probe, hashTable, !buildLeft, null);
+            }
+            if (level >= MAX_LEVEL) {
+                return blockNestedLoop(build, probe, buildLeft);
+            }
+            HashPartition[] subLeft = split(left, true, level + 1);
+            HashPartition[] subRight = split(right, false, level + 1);
+            HashPartition[] subBuild = buildLeft ? subLeft : subRight;
+            int buildRows = build.getRowCount();
+            left.close();
+            right.close();
+            for (int i = 0; i < PARTITION_COUNT; i++) {
+                boolean interrupted;
+                if (subBuild[i].getRowCount() == buildRows) {
+                    // all the rows have the same hash code, splitting again is useless
+                    try {
+                        interrupted = blockNestedLoop(subBuild[i], buildLeft ? subRight[i] : subLeft[i], buildLeft);
+                    } finally {
+                        subLeft[i].close();
+                        subRight[i].close();
+                    }
+                } else {
+                    interrupted = joinPartition(subLeft[i], subRight[i], level + 1);
+                }
+                if (interrupted) {
+                    for (int j = i + 1; j < PARTITION_COUNT; j++) {
+                        subLeft[j].close();
+                        subRight[j].close();
+                    }
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            left.close();
+            right.close();
+        }
+    }
+
+    private HashPartition[] split(HashPartition partition, boolean isLeft, int level) {
+        HashPartition[] partitions = newPartitions(isLeft);
+        partition.rewind();
+        RowDataPacket row;
+        while ((row = partition.next()) != null) {
+            addRow(partitions, row, isLeft, level);
+        }
+        return partitions;
+    }
+
+    /**
+     * the build rows are loaded block by block, the unmatched probe rows of left join are found after all blocks
+     */
+    private boolean blockNestedLoop(HashPartition build, HashPartition probe, boolean buildLeft) {
+        BitSet matched = isLeftJoin ? new BitSet(probe.getRowCount()) : null;
+        build.rewind();
+        Map<Integer, List<RowDataPacket>> hashTable = new HashMap<>();
+        while (loadRows(build, buildLeft, hashTable, memoryBudget)) {
+            if (probe(probe, hashTable, !buildLeft, matched))
+                return true;
+            hashTable.clear();
+        }
+        if (matched == null)
+            return false;
+        probe.rewind();
+        RowDataPacket row;
+        for (int index = 0; (row = probe.next()) != null; index++) {
+            if (!matched.get(index) && context.joinUnmatched(row))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * load the next rows of the partition into the hash table until the size reaches the limit, at least one row is loaded
+     *
+     * @return false if there is no more row
+     */
+    private boolean loadRows(HashPartition build, boolean buildLeft, Map<Integer, List<RowDataPacket>> hashTable, long limit) {
+        long bytes = 0;
+        boolean loaded = false;
+        RowDataPacket row;
+        while (bytes < limit && (row = build.next()) != null) {
+            loaded = true;
+            bytes += row.calcPacketSize();
+            Integer hash = context.hash(row, buildLeft);
+            if (hash != null) {
+                hashTable.computeIfAbsent(hash, k -> new ArrayList<>(1)).add(row);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * @param matched the matched probe rows, null if the unmatched rows of left join are joined at once
+     * @return true if interrupted by next handler or terminated
+     */
+    private boolean probe(HashPartition probe, Map<Integer, List<RowDataPacket>> hashTable, boolean probeLeft, BitSet matched) {
+        probe.rewind();
+        RowDataPacket row;
+        for (int index = 0; (row = probe.next()) != null; index++) {
+            if (context.isTerminated())
+                return true;
+            int matchCount = probeRow(row, hashTable, probeLeft, matched == null);
+            if (matchCount < 0)
+                return true;
+            if (matchCount > 0 && matched != null)
+                matched.set(index);
+        }
+        return false;
+    }
+
+    /**
+     * @return -1 if interrupted by next handler, otherwise the count of the matched rows
+     */
+    int probeRow(RowDataPacket row, Map<Integer, List<RowDataPacket>> hashTable, boolean probeLeft, boolean joinUnmatched) {
+        Integer hash = context.hash(row, probeLeft);
+        List<RowDataPacket> candidates = hash == null ? null : hashTable.get(hash);
+        int matchCount = candidates == null ? 0 : context.join(row, probeLeft, candidates);
+        if (matchCount == 0 && joinUnmatched && isLeftJoin && context.joinUnmatched(row))
+            return -1;
+        return matchCount;
+    }
+
+    /**
+     * load all the rows of the build partitions which fit in the memory
+     */
+    Map<Integer, List<RowDataPacket>> loadHashTable(HashPartition[] partitions, boolean buildLeft) {
+        Map<Integer, List<RowDataPacket>> hashTable = new HashMap<>();
+        for (HashPartition partition : partitions) {
+            partition.rewind();
+            loadRows(partition, buildLeft, hashTable, Long.MAX_VALUE);
+        }
+        return hashTable;
+    }
+
+    /**
+     * probe the partitions with the hash table of all the build rows, the partitions are closed after probed
+     *
+     * @return true if interrupted by next handler or terminated
+     */
+    boolean probePartitions(HashPartition[] partitions, Map<Integer, List<RowDataPacket>> hashTable, boolean probeLeft) {
+        try {
+            for (HashPartition partition : partitions) {
+                if (probe(partition, hashTable, probeLeft, null))
+                    return true;
+            }
+            return false;
+        } finally {
+            for (HashPartition partition : partitions) {
+                partition.close();
+            }
+        }
+    }
+
+    private boolean joinAllUnmatched(HashPartition probe) {
+        probe.rewind();
+        RowDataPacket row;
+        while ((row = probe.next()) != null) {
+            if (context.isTerminated() || context.joinUnmatched(row))
+                return true;
+        }
+        return false;
+    }
+}
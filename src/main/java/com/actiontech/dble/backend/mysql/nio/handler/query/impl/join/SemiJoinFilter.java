@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.backend.mysql.nio.handler.query.impl.join;
+
+import com.actiontech.dble.config.model.SystemConfig;
+import com.actiontech.dble.plan.common.field.Field;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * the join keys of the small table of a nest loop join which has too many rows for the IN list.
+ * the big table is fetched by the range of the keys and the rows whose key can't be in the small table
+ * are dropped by the bloom filter before they are buffered by the join.
+ * only integer keys are supported, so that the same value always has the same key on both sides.
+ */
+public final class SemiJoinFilter {
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+
+    private final BloomFilter<Long> bloomFilter;
+    private final int size;
+    private final long min;
+    private final long max;
+    private final boolean hasRange;
+
+    private SemiJoinFilter(BloomFilter<Long> bloomFilter, int size, long min, long max, boolean hasRange) {
+        this.bloomFilter = bloomFilter;
+        this.size = size;
+        this.min = min;
+        this.max = max;
+        this.hasRange = hasRange;
+    }
+
+    public static boolean isIntegerKey(Field field) {
+        switch (field.fieldType()) {
+            case MYSQL_TYPE_TINY:
+            case MYSQL_TYPE_SHORT:
+            case MYSQL_TYPE_INT24:
+            case MYSQL_TYPE_LONG:
+            case MYSQL_TYPE_LONGLONG:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * the max rows of the small table of the nest loop join, the keys are pushed down as IN lists,
+     * or filtered by the semi join filter if the key is integer
+     */
+    public static long maxSmallTableRows(boolean integerKey) {
+        SystemConfig config = SystemConfig.getInstance();
+        long inListRows = (long) config.getNestLoopRowsSize() * config.getNestLoopConnSize();
+        return integerKey ? Math.max(inListRows, config.getNestLoopBloomFilterRows()) : inListRows;
+    }
+
+    /**
+     * @param key not null
+     */
+    public boolean mightContain(BigInteger key) {
+        return (!hasRange || (key.bitLength() < Long.SIZE && key.longValue() >= min && key.longValue() <= max)) &&
+                bloomFilter.mightContain(key.longValue());
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return false if some keys are out of the range of long, the range can't be pushed down
+     */
+    public boolean hasRange() {
+        return hasRange;
+    }
+
+    public long getMin() {
+        return min;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * collect the keys of the small table, the size is unknown until its end
+     */
+    public static final class KeyCollector {
+        private long[] keys = new long[1024];
+        private int size = 0;
+        private long min = Long.MAX_VALUE;
+        private long max = Long.MIN_VALUE;
+        private boolean hasRange = true;
+
+        public void add(BigInteger key) {
+            if (key.bitLength() >= Long.SIZE) {
+                // unsigned bigint
+                hasRange = false;
+            }
+            long value = key.longValue();
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size << 1);
+            }
+            keys[size++] = value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public SemiJoinFilter build() {
+            BloomFilter<Long> bloomFilter = BloomFilter.create(Funnels.longFunnel(), Math.max(size, 1), FALSE_POSITIVE_PROBABILITY);
+            for (int i = 0; i < size; i++) {
+                bloomFilter.put(keys[i]);
+            }
+            keys = null;
+            return new SemiJoinFilter(bloomFilter, size, min, max, hasRange);
+        }
+    }
+}
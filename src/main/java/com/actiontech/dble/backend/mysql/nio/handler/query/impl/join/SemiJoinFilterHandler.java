@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.backend.mysql.nio.handler.query.impl.join;
+
+import com.actiontech.dble.backend.mysql.nio.handler.query.BaseDMLHandler;
+import com.actiontech.dble.backend.mysql.nio.handler.util.HandlerTool;
+import com.actiontech.dble.net.Session;
+import com.actiontech.dble.net.mysql.FieldPacket;
+import com.actiontech.dble.net.mysql.RowDataPacket;
+import com.actiontech.dble.net.service.AbstractService;
+import com.actiontech.dble.plan.common.field.Field;
+import com.actiontech.dble.plan.common.item.Item;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * drop the rows of the big table of a nest loop join which can't join the small table,
+ * before they are ordered and buffered by the join
+ */
+public class SemiJoinFilterHandler extends BaseDMLHandler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(SemiJoinFilterHandler.class);
+
+    private final Item key;
+    // null for explain
+    private final SemiJoinFilter filter;
+    private Field keyField;
+    // -1 means the key can't be filtered, all rows are passed
+    private int keyIndex = -1;
+    private long filteredRows = 0;
+    // if merge handler have no order by, the row response is not thread safe
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public SemiJoinFilterHandler(long id, Session session, Item key, SemiJoinFilter filter) {
+        super(id, session);
+        this.key = key;
+        this.filter = filter;
+    }
+
+    @Override
+    public HandlerType type() {
+        return HandlerType.SEMI_JOIN_FILTER;
+    }
+
+    @Override
+    public void fieldEofResponse(byte[] headerNull, List<byte[]> fieldsNull, final List<FieldPacket> fieldPackets,
+                                 byte[] eofNull, boolean isLeft, @NotNull AbstractService service) {
+        session.setHandlerStart(this);
+        if (terminate.get())
+            return;
+        this.fieldPackets = fieldPackets;
+        if (filter != null) {
+            List<Field> sourceFields = HandlerTool.createFields(this.fieldPackets);
+            int index = HandlerTool.findField(key, sourceFields, 0);
+            if (index >= 0 && SemiJoinFilter.isIntegerKey(sourceFields.get(index))) {
+                keyIndex = index;
+                keyField = sourceFields.get(index);
+            }
+        }
+        nextHandler.fieldEofResponse(null, null, this.fieldPackets, null, this.isLeft, service);
+    }
+
+    @Override
+    public boolean rowResponse(byte[] rowNull, final RowDataPacket rowPacket, boolean isLeft, @NotNull AbstractService service) {
+        if (terminate.get())
+            return true;
+        if (keyIndex < 0) {
+            return nextHandler.rowResponse(rowNull, rowPacket, this.isLeft, service);
+        }
+        RowDataPacket row = rowPacket;
+        if (row == null) {
+            row = new RowDataPacket(this.fieldPackets.size());
+            row.read(rowNull);
+        }
+        lock.lock();
+        try {
+            keyField.setPtr(row.getValue(keyIndex));
+            // the null key never joins
+            if (keyField.isNull() || !filter.mightContain(keyField.valInt())) {
+                filteredRows++;
+                return false;
+            }
+        } finally {
+            lock.unlock();
+        }
+        return nextHandler.rowResponse(null, row, this.isLeft, service);
+    }
+
+    @Override
+    public void rowEofResponse(byte[] data, boolean isLeft, @NotNull AbstractService service) {
+        if (terminate.get())
+            return;
+        if (keyIndex >= 0 && LOGGER.isDebugEnabled()) {
+            LOGGER.debug("semi join filter of " + filter.size() + " keys dropped " + filteredRows + " rows");
+        }
+        session.setHandlerEnd(this);
+        nextHandler.rowEofResponse(data, this.isLeft, service);
+    }
+
+    @Override
+    public void onTerminate() {
+    }
+
+    @Override
+    public ExplainType explainType() {
+        return ExplainType.SEMI_JOIN_FILTER;
+    }
+
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.backend.mysql.nio.handler.util;
+
+import com.actiontech.dble.backend.mysql.CharsetUtil;
+import com.actiontech.dble.backend.mysql.nio.handler.query.DMLResponseHandler;
+import com.actiontech.dble.net.mysql.FieldPacket;
+import com.actiontech.dble.net.mysql.RowDataPacket;
+import com.actiontech.dble.plan.Order;
+import com.actiontech.dble.plan.common.MySQLcom;
+import com.actiontech.dble.plan.common.field.Field;
+import com.actiontech.dble.plan.common.item.Item;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * calculate the hash code of one side's join columns for hash join.
+ * the rows which TwoTableComparator considers equal must have the same hash code,
+ * so the way of hashing every join column depends on the compare type of the both sides.
+ * the key which can not be hashed consistently is ignored,
+ * the rows are checked by TwoTableComparator after all.
+ */
+public class JoinKeyHasher {
+    private enum HashType {
+        STRING, STRING_CASE_INSENSITIVE, NUMBER, DATETIME, NONE
+    }
+
+    /* origin field, update before calculating the item */
+    private final List<Field> sourceFields;
+    private final List<Item> keyItems;
+    private final List<HashType> hashTypes;
+
+    /**
+     * @param fps         the fields of this side
+     * @param orders      the join columns of this side
+     * @param otherFps    the fields of the other side
+     * @param otherOrders the join columns of the other side
+     */
+    public JoinKeyHasher(List<FieldPacket> fps, List<Order> orders, List<FieldPacket> otherFps, List<Order> otherOrders,
+                         boolean isAllPushDown, DMLResponseHandler.HandlerType type, int charsetIndex) {
+        this.sourceFields = HandlerTool.createFields(fps);
+        List<Field> otherFields = HandlerTool.createFields(otherFps);
+        this.keyItems = new ArrayList<>(orders.size());
+        this.hashTypes = new ArrayList<>(orders.size());
+        boolean caseInsensitive = CharsetUtil.isCaseInsensitive(charsetIndex);
+        for (int i = 0; i < orders.size(); i++) {
+            Item item = HandlerTool.createItem(orders.get(i).getItem(), sourceFields, 0, isAllPushDown, type);
+            Item otherItem = HandlerTool.createItem(otherOrders.get(i).getItem(), otherFields, 0, isAllPushDown, type);
+            keyItems.add(item);
+            hashTypes.add(getHashType(item, otherItem, caseInsensitive));
+        }
+    }
+
+    private static HashType getHashType(Item a, Item b, boolean caseInsensitive) {
+        if (a.isTemporal() || b.isTemporal()) {
+            if (a.isTemporalWithDate() && b.isTemporalWithDate()) {
+                return HashType.DATETIME;
+            }
+            return HashType.NONE;
+        }
+        switch (MySQLcom.itemCmpType(a.resultType(), b.resultType())) {
+            case STRING_RESULT:
+                return caseInsensitive ? HashType.STRING_CASE_INSENSITIVE : HashType.STRING;
+            case INT_RESULT:
+            case DECIMAL_RESULT:
+                return HashType.NUMBER;
+            case REAL_RESULT:
+                // compared with precision,equal values may have different hash code
+                if (a.getDecimals() < Item.NOT_FIXED_DEC && b.getDecimals() < Item.NOT_FIXED_DEC) {
+                    return HashType.NONE;
+                }
+                return HashType.NUMBER;
+            default:
+                return HashType.NONE;
+        }
+    }
+
+    /**
+     * @return hash code of the join columns, null if any join column is null which never matches
+     */
+    public Integer hash(RowDataPacket row) {
+        HandlerTool.initFields(sourceFields, row.fieldValues);
+        int h = 1;
+        for (int i = 0; i < keyItems.size(); i++) {
+            Item item = keyItems.get(i);
+            int keyHash;
+            switch (hashTypes.get(i)) {
+                case STRING: {
+                    String value = item.valStr();
+                    if (value == null || item.isNullValue())
+                        return null;
+                    keyHash = value.hashCode();
+                    break;
+                }
+                case STRING_CASE_INSENSITIVE: {
+                    String value = item.valStr();
+                    if (value == null || item.isNullValue())
+                        return null;
+                    keyHash = caseInsensitiveHash(value);
+                    break;
+                }
+                case NUMBER: {
+                    BigDecimal value = item.valReal();
+                    if (value == null || item.isNullValue())
+                        return null;
+                    keyHash = value.signum() == 0 ? 0 : value.stripTrailingZeros().hashCode();
+                    break;
+                }
+                case DATETIME: {
+                    long value = item.valDateTemporal();
+                    if (item.isNullValue())
+                        return null;
+                    keyHash = Long.hashCode(value);
+                    break;
+                }
+                default:
+                    keyHash = 0;
+                    break;
+            }
+            h = 31 * h + keyHash;
+        }
+        return h;
+    }
+
+    /**
+     * same as String.CASE_INSENSITIVE_ORDER
+     */
+    private static int caseInsensitiveHash(String value) {
+        int h = 0;
+        for (int i = 0; i < value.length(); i++) {
+            h = 31 * h + Character.toLowerCase(Character.toUpperCase(value.charAt(i)));
+        }
+        return h;
+    }
+}
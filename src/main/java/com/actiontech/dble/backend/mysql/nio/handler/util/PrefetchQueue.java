@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.backend.mysql.nio.handler.util;
+
+import com.actiontech.dble.net.connection.BackendConnection;
+
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * the rows of one shard waiting for the merge.
+ * the rows are put by the backend without blocking its thread, instead the reading of the backend connection
+ * is paused when the queue reaches the window, and resumed when the merge has taken half of the window.
+ */
+public final class PrefetchQueue {
+    private final String shardingNode;
+    // null if the queue is not bound to a backend connection
+    private final BackendConnection connection;
+    private final Runnable pauser;
+    private final Runnable resumer;
+    private final LinkedBlockingQueue<HeapItem> queue = new LinkedBlockingQueue<>();
+    private final int highWaterMark;
+    private final int lowWaterMark;
+    // changed under the lock of this
+    private volatile boolean readPaused = false;
+    private volatile boolean closed = false;
+
+    // metrics
+    private volatile int maxDepth = 0;
+    private volatile int pauseCount = 0;
+
+    public PrefetchQueue(String shardingNode, BackendConnection connection, int window) {
+        this(shardingNode, connection, connection::pauseReadByConsumer, connection::resumeReadByConsumer, window);
+        connection.setPrefetchQueue(this);
+    }
+
+    PrefetchQueue(String shardingNode, Runnable pauser, Runnable resumer, int window) {
+        this(shardingNode, null, pauser, resumer, window);
+    }
+
+    private PrefetchQueue(String shardingNode, BackendConnection connection, Runnable pauser, Runnable resumer, int window) {
+        this.shardingNode = shardingNode;
+        this.connection = connection;
+        this.pauser = pauser;
+        this.resumer = resumer;
+        this.highWaterMark = window;
+        this.lowWaterMark = window >> 1;
+    }
+
+    /**
+     * called by the backend, never blocks
+     */
+    public void put(HeapItem item) {
+        queue.add(item);
+        int depth = queue.size();
+        if (depth > maxDepth) {
+            maxDepth = depth;
+        }
+        if (depth >= highWaterMark && !item.isNullItem()) {
+            pauseRead();
+        }
+    }
+
+    /**
+     * called by the merge thread
+     */
+    public HeapItem take() throws InterruptedException {
+        HeapItem item = queue.take();
+        if (readPaused && queue.size() <= lowWaterMark) {
+            resumeRead();
+        }
+        return item;
+    }
+
+    /**
+     * drop the rows and resume the reading, the connection must not be left paused
+     */
+    public void close() {
+        closed = true;
+        queue.clear();
+        resumeRead();
+        if (connection != null && connection.getPrefetchQueue() == this) {
+            connection.setPrefetchQueue(null);
+        }
+    }
+
+    public int depth() {
+        return queue.size();
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    public int getPauseCount() {
+        return pauseCount;
+    }
+
+    public int getWindow() {
+        return highWaterMark;
+    }
+
+    public boolean isReadPaused() {
+        return readPaused;
+    }
+
+    public String getShardingNode() {
+        return shardingNode;
+    }
+
+    private synchronized void pauseRead() {
+        if (readPaused || closed) {
+            return;
+        }
+        // set the flag before checking the depth again, so the merge which takes the rows later must see it and resume
+        readPaused = true;
+        if (queue.size() >= highWaterMark) {
+            pauseCount++;
+            pauser.run();
+        } else {
+            readPaused = false;
+        }
+    }
+
+    private synchronized void resumeRead() {
+        if (readPaused && (closed || queue.size() <= lowWaterMark)) {
+            readPaused = false;
+            resumer.run();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return shardingNode + "[depth=" + queue.size() + ", maxDepth=" + maxDepth + ", pauseCount=" + pauseCount + "]";
+    }
+}
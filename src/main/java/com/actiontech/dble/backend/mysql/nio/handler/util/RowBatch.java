@@ -0,0 +1,262 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.backend.mysql.nio.handler.util;
+
+import com.actiontech.dble.backend.mysql.ByteUtil;
+import com.actiontech.dble.buffer.BufferPool;
+import com.actiontech.dble.buffer.BufferPoolRecord;
+import com.actiontech.dble.net.mysql.RowDataPacket;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * the rows of a result set kept by columns, the values of a column are in one buffer allocated from the buffer pool,
+ * only the offsets and the lengths of the values are on the heap.
+ * a batch is filled by one thread and handed to the next handler, the handler which takes the batch releases it,
+ * the rows are turned into RowDataPacket by the handlers which keep them.
+ */
+public final class RowBatch {
+    // a batch is full after this many bytes, so a column is never larger than a page of the buffer pool
+    private static final int MAX_BYTES = 256 * 1024;
+    private static final int NULL_LENGTH = -1;
+    private static final byte[] EMPTY_BYTES = new byte[0];
+
+    private final int fieldCount;
+    private final int capacity;
+    private final BufferPool pool;
+    private final BufferPoolRecord.Builder bufferRecordBuilder;
+    private final ByteBuffer[] columns;
+    // the write position of every column
+    private final int[] ends;
+    // index: column * capacity + row
+    private final int[] offsets;
+    private final int[] lengths;
+    private int size = 0;
+    private int bytes = 0;
+    private final AtomicBoolean released = new AtomicBoolean(false);
+
+    /**
+     * @param pool null if the columns are on the heap
+     */
+    public RowBatch(int fieldCount, int capacity, BufferPool pool, BufferPoolRecord.Builder bufferRecordBuilder) {
+        this.fieldCount = fieldCount;
+        this.capacity = capacity;
+        this.pool = pool;
+        this.bufferRecordBuilder = bufferRecordBuilder;
+        this.columns = new ByteBuffer[fieldCount];
+        this.ends = new int[fieldCount];
+        this.offsets = new int[fieldCount * capacity];
+        this.lengths = new int[fieldCount * capacity];
+    }
+
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean isFull() {
+        return size == capacity || bytes >= MAX_BYTES;
+    }
+
+    /**
+     * add the row packet from the backend, the values are copied into the columns without creating the row
+     */
+    public void addPacket(byte[] data) {
+        // packet length and packet id
+        int position = 4;
+        for (int i = 0; i < fieldCount; i++) {
+            int length = (int) ByteUtil.readLength(data, position);
+            if (length == NULL_LENGTH) {
+                position++;
+                setValue(i, NULL_LENGTH, null, 0);
+            } else {
+                position += ByteUtil.decodeLength(length);
+                setValue(i, length, data, position);
+                position += length;
+            }
+        }
+        size++;
+    }
+
+    public void add(RowDataPacket row) {
+        for (int i = 0; i < fieldCount; i++) {
+            byte[] value = row.getValue(i);
+            if (value == null) {
+                setValue(i, NULL_LENGTH, null, 0);
+            } else {
+                setValue(i, value.length, value, 0);
+            }
+        }
+        size++;
+    }
+
+    private void setValue(int column, int length, byte[] src, int srcOffset) {
+        int index = column * capacity + size;
+        lengths[index] = length;
+        if (length <= 0) {
+            offsets[index] = 0;
+            return;
+        }
+        ByteBuffer buffer = ensureCapacity(column, length);
+        offsets[index] = ends[column];
+        buffer.position(ends[column]);
+        buffer.put(src, srcOffset, length);
+        ends[column] += length;
+        bytes += length;
+    }
+
+    private ByteBuffer ensureCapacity(int column, int length) {
+        ByteBuffer buffer = columns[column];
+        int required = ends[column] + length;
+        if (buffer != null && buffer.capacity() >= required) {
+            return buffer;
+        }
+        int newSize = buffer == null ? Math.max(required, pool == null ? 1024 : pool.getChunkSize()) : Math.max(required, buffer.capacity() * 2);
+        ByteBuffer newBuffer = pool == null ? ByteBuffer.allocate(newSize) : pool.allocate(newSize, bufferRecordBuilder);
+        if (buffer != null) {
+            buffer.position(0);
+            buffer.limit(ends[column]);
+            newBuffer.put(buffer);
+            recycle(buffer);
+        }
+        columns[column] = newBuffer;
+        return newBuffer;
+    }
+
+    /**
+     * @return the value, or null if the value is NULL
+     */
+    public byte[] getValue(int row, int column) {
+        int index = column * capacity + row;
+        int length = lengths[index];
+        if (length == NULL_LENGTH) {
+            return null;
+        } else if (length == 0) {
+            return EMPTY_BYTES;
+        }
+        byte[] value = new byte[length];
+        read(column, offsets[index], value);
+        return value;
+    }
+
+    private void read(int column, int offset, byte[] value) {
+        ByteBuffer buffer = columns[column];
+        buffer.limit(buffer.capacity());
+        buffer.position(offset);
+        buffer.get(value);
+    }
+
+    /**
+     * fill the list with the values of the row, the arrays in the list are reused if their lengths are the same,
+     * so the values are only valid until the next call, for evaluating the items which don't keep the values
+     */
+    public void fillValues(int row, List<byte[]> values) {
+        boolean reuse = values.size() == fieldCount;
+        for (int i = 0; i < fieldCount; i++) {
+            int index = i * capacity + row;
+            int length = lengths[index];
+            byte[] value;
+            if (length == NULL_LENGTH) {
+                value = null;
+            } else if (length == 0) {
+                value = EMPTY_BYTES;
+            } else {
+                value = reuse ? values.get(i) : null;
+                if (value == null || value.length != length) {
+                    value = new byte[length];
+                }
+                read(i, offsets[index], value);
+            }
+            if (reuse) {
+                values.set(i, value);
+            } else {
+                values.add(value);
+            }
+        }
+    }
+
+    /**
+     * add the values of the row to the packet, the values are new arrays which can be kept
+     */
+    public void copyRow(int row, RowDataPacket packet) {
+        for (int i = 0; i < fieldCount; i++) {
+            packet.add(getValue(row, i));
+        }
+    }
+
+    public RowDataPacket getRow(int row) {
+        RowDataPacket packet = new RowDataPacket(fieldCount);
+        copyRow(row, packet);
+        return packet;
+    }
+
+    /**
+     * keep the rows whose keep flag is true, the values stay in the columns
+     */
+    public void retain(boolean[] keep) {
+        int kept = 0;
+        for (int row = 0; row < size; row++) {
+            if (keep[row]) {
+                moveRow(row, kept++);
+            }
+        }
+        size = kept;
+    }
+
+    /**
+     * keep the rows from the index from(inclusive) to the index to(exclusive)
+     */
+    public void retainRange(int from, int to) {
+        if (from > 0) {
+            for (int row = from; row < to; row++) {
+                moveRow(row, row - from);
+            }
+        }
+        size = Math.max(0, to - from);
+    }
+
+    private void moveRow(int from, int to) {
+        if (from == to) {
+            return;
+        }
+        for (int i = 0; i < fieldCount; i++) {
+            int base = i * capacity;
+            offsets[base + to] = offsets[base + from];
+            lengths[base + to] = lengths[base + from];
+        }
+    }
+
+    /**
+     * give back the columns to the buffer pool, it may be called more than once
+     */
+    public void release() {
+        if (!released.compareAndSet(false, true)) {
+            return;
+        }
+        for (int i = 0; i < fieldCount; i++) {
+            if (columns[i] != null) {
+                recycle(columns[i]);
+                columns[i] = null;
+            }
+        }
+        size = 0;
+    }
+
+    private void recycle(ByteBuffer buffer) {
+        if (pool != null) {
+            pool.recycle(buffer);
+        }
+    }
+}
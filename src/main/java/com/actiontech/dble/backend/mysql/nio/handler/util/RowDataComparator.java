@@ -118,13 +118,44 @@ public class RowDataComparator implements Comparator<RowDataPacket> {
         }
     }
 
+    /**
+     * @return the hash code of the compared values, the rows which compare equal have the same hash code
+     */
+    public int hash(RowDataPacket o) {
+        if (this.ascList == null || this.ascList.size() == 0) {
+            return 0;
+        }
+        return hash(getCmpBytes(o));
+    }
+
+    /**
+     * the same hash code as hash(RowDataPacket), the compared values are not cached in the row,
+     * so the row keeps its cache slot for the comparator which sorts or groups it later
+     */
+    public int hashValues(List<byte[]> fieldValues) {
+        if (this.ascList == null || this.ascList.size() == 0) {
+            return 0;
+        }
+        HandlerTool.initFields(sourceFields, fieldValues);
+        return hash(HandlerTool.getItemListBytes(cmpItems));
+    }
+
+    private int hash(List<byte[]> bo) {
+        int h = 1;
+        for (int i = 0; i < cmpFields.size(); i++) {
+            h = 31 * h + cmpFields.get(i).hash(bo.get(i));
+        }
+        return h;
+    }
+
     private List<byte[]> getCmpBytes(RowDataPacket o) {
-        if (o.getCmpValue(this) == null) {
+        List<byte[]> bo = o.getCmpValue(this);
+        if (bo == null) {
             HandlerTool.initFields(sourceFields, o.fieldValues);
-            List<byte[]> bo = HandlerTool.getItemListBytes(cmpItems);
+            bo = HandlerTool.getItemListBytes(cmpItems);
             o.cacheCmpValue(this, bo);
         }
-        return o.getCmpValue(this);
+        return bo;
     }
 
     private int cmp(RowDataPacket o1, RowDataPacket o2, int index) {
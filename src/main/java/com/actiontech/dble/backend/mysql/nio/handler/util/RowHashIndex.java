@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.backend.mysql.nio.handler.util;
+
+import com.actiontech.dble.net.mysql.RowDataPacket;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * open addressing hash index of the rows in a list, the rows which RowDataComparator considers equal are one key.
+ * the hash code of the compared values is checked before the comparator,
+ * so a lookup costs one hash calculation and usually one compare.
+ */
+public class RowHashIndex {
+    private static final int MIN_CAPACITY = 16;
+
+    private final RowDataComparator cmp;
+    private final List<RowDataPacket> rows;
+    /* index of the row in rows + 1, 0 means empty */
+    private int[] slots;
+    private int[] hashes;
+    private int size;
+
+    public RowHashIndex(List<RowDataPacket> rows, RowDataComparator cmp, int initialCapacity) {
+        this.rows = rows;
+        this.cmp = cmp;
+        int capacity = MIN_CAPACITY;
+        while (capacity < initialCapacity * 2) {
+            capacity <<= 1;
+        }
+        this.slots = new int[capacity];
+        this.hashes = new int[capacity];
+    }
+
+    /**
+     * @return the index of the equal row in rows,
+     * or -1 and the row is indexed as the next one, the caller must add the row to the end of rows
+     */
+    public int putIfAbsent(RowDataPacket row) {
+        int h = spread(cmp.hash(row));
+        int mask = slots.length - 1;
+        int i = h & mask;
+        while (slots[i] != 0) {
+            if (hashes[i] == h) {
+                int index = slots[i] - 1;
+                if (cmp.compare(rows.get(index), row) == 0) {
+                    return index;
+                }
+            }
+            i = (i + 1) & mask;
+        }
+        slots[i] = rows.size() + 1;
+        hashes[i] = h;
+        if (++size * 2 > slots.length) {
+            resize();
+        }
+        return -1;
+    }
+
+    /**
+     * forget all the rows, the caller clears or reorders the rows
+     */
+    public void clear() {
+        if (size > 0) {
+            Arrays.fill(slots, 0);
+            size = 0;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void resize() {
+        int[] oldSlots = slots;
+        int[] oldHashes = hashes;
+        slots = new int[oldSlots.length << 1];
+        hashes = new int[oldSlots.length << 1];
+        int mask = slots.length - 1;
+        for (int j = 0; j < oldSlots.length; j++) {
+            if (oldSlots[j] != 0) {
+                int i = oldHashes[j] & mask;
+                while (slots[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                slots[i] = oldSlots[j];
+                hashes[i] = oldHashes[j];
+            }
+        }
+    }
+
+    private static int spread(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
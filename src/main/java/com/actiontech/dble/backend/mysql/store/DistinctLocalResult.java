@@ -6,21 +6,24 @@
 package com.actiontech.dble.backend.mysql.store;
 
 import com.actiontech.dble.backend.mysql.nio.handler.util.RowDataComparator;
+import com.actiontech.dble.backend.mysql.nio.handler.util.RowHashIndex;
 import com.actiontech.dble.backend.mysql.store.diskbuffer.DistinctResultDiskBuffer;
 import com.actiontech.dble.backend.mysql.store.result.ResultExternal;
 import com.actiontech.dble.buffer.BufferPool;
 import com.actiontech.dble.buffer.BufferPoolRecord;
 import com.actiontech.dble.net.mysql.RowDataPacket;
-import com.actiontech.dble.util.RBTreeList;
+
+import java.util.Collections;
 
 /**
- * localresult to distinct input rows
+ * localresult to distinct input rows, the rows are found by hash and kept in the input order
  *
  * @author ActionTech
  */
 public class DistinctLocalResult extends LocalResult {
 
-    private RowDataComparator distinctCmp;
+    protected RowDataComparator distinctCmp;
+    private final RowHashIndex distinctIndex;
 
     /**
      * @param initialCapacity
@@ -33,7 +36,7 @@ public class DistinctLocalResult extends LocalResult {
                                String charset, BufferPoolRecord.Builder bufferRecordBuilder) {
         super(initialCapacity, fieldsCount, pool, charset, bufferRecordBuilder);
         this.distinctCmp = distinctCmp;
-        this.rows = new RBTreeList<>(initialCapacity, distinctCmp);
+        this.distinctIndex = new RowHashIndex(this.rows, distinctCmp, initialCapacity);
     }
 
     public DistinctLocalResult(BufferPool pool, int fieldsCount, RowDataComparator distinctCmp, String charset, BufferPoolRecord.Builder bufferRecordBuilder) {
@@ -56,7 +59,7 @@ public class DistinctLocalResult extends LocalResult {
         try {
             if (isClosed)
                 return;
-            int index = rows.indexOf(row);
+            int index = distinctIndex.putIfAbsent(row);
             if (index >= 0)
                 return;
             super.add(row);
@@ -67,12 +70,25 @@ public class DistinctLocalResult extends LocalResult {
 
     @Override
     protected void doneOnlyMemory() {
-        // Collections.sort(rows, this.distinctCmp);
+        distinctIndex.clear();
     }
 
     @Override
     protected void beforeFlushRows() {
-        // rbtree.toarray() is sorted,so do not need to sort again
+        // the disk buffer merges the rows of the sorted tapes
+        distinctIndex.clear();
+        Collections.sort(rows, this.distinctCmp);
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            distinctIndex.clear();
+            super.clear();
+        } finally {
+            lock.unlock();
+        }
     }
 
 }
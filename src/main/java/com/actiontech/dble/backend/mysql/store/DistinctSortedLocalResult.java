@@ -8,35 +8,17 @@ package com.actiontech.dble.backend.mysql.store;
 import com.actiontech.dble.backend.mysql.nio.handler.util.RowDataComparator;
 import com.actiontech.dble.buffer.BufferPool;
 import com.actiontech.dble.buffer.BufferPoolRecord;
-import com.actiontech.dble.net.mysql.RowDataPacket;
-import com.actiontech.dble.util.RBTreeList;
+
+import java.util.Collections;
 
 public class DistinctSortedLocalResult extends DistinctLocalResult {
     public DistinctSortedLocalResult(BufferPool pool, int fieldsCount, RowDataComparator distinctCmp, String charset, BufferPoolRecord.Builder bufferRecordBuilder) {
         super(pool, fieldsCount, distinctCmp, charset, bufferRecordBuilder);
     }
 
-    /**
-     * @return next row
-     */
     @Override
-    public RowDataPacket next() {
-        lock.lock();
-        try {
-            if (this.isClosed)
-                return null;
-            if (++rowId < rowCount) {
-                if (external != null) {
-                    currentRow = external.next();
-                } else {
-                    currentRow = ((RBTreeList<RowDataPacket>) rows).inOrderOf(rowId);
-                }
-            } else {
-                currentRow = null;
-            }
-            return currentRow;
-        } finally {
-            lock.unlock();
-        }
+    protected void doneOnlyMemory() {
+        super.doneOnlyMemory();
+        Collections.sort(rows, this.distinctCmp);
     }
 }
@@ -9,6 +9,7 @@ import com.actiontech.dble.backend.mysql.nio.handler.query.DMLResponseHandler.Ha
 import com.actiontech.dble.backend.mysql.nio.handler.query.impl.groupby.directgroupby.DGRowPacket;
 import com.actiontech.dble.backend.mysql.nio.handler.util.HandlerTool;
 import com.actiontech.dble.backend.mysql.nio.handler.util.RowDataComparator;
+import com.actiontech.dble.backend.mysql.nio.handler.util.RowHashIndex;
 import com.actiontech.dble.backend.mysql.store.diskbuffer.GroupResultDiskBuffer;
 import com.actiontech.dble.backend.mysql.store.result.ResultExternal;
 import com.actiontech.dble.buffer.BufferPool;
@@ -18,7 +19,6 @@ import com.actiontech.dble.net.mysql.RowDataPacket;
 import com.actiontech.dble.plan.common.field.Field;
 import com.actiontech.dble.plan.common.item.function.sumfunc.Aggregator.AggregatorType;
 import com.actiontech.dble.plan.common.item.function.sumfunc.ItemSum;
-import com.actiontech.dble.util.RBTreeList;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -26,7 +26,8 @@ import java.util.List;
 
 /**
  * groupby is some part like distinct,but it should group by some value when add
- * a row
+ * a row.
+ * the groups are found by hash, and sorted only when done if the next handler needs the order
  */
 public class GroupByLocalResult extends LocalResult {
 
@@ -38,6 +39,8 @@ public class GroupByLocalResult extends LocalResult {
     private List<ItemSum> sumFunctions;
     private boolean isAllPushDown;
     private final List<ItemSum> sums;
+    private final RowHashIndex groupIndex;
+    private boolean needSort = true;
 
     /**
      * @param pool
@@ -59,7 +62,7 @@ public class GroupByLocalResult extends LocalResult {
         this.fieldPackets = fieldPackets;
         this.sumFunctions = sumFunctions;
         this.isAllPushDown = isAllPushDown;
-        this.rows = new RBTreeList<>(initialCapacity, groupCmp);
+        this.groupIndex = new RowHashIndex(this.rows, groupCmp, initialCapacity);
         /* init item_sums */
         /*
       store the origin row fields,(already contains the item_sum fields in
@@ -83,7 +86,7 @@ public class GroupByLocalResult extends LocalResult {
         try {
             if (isClosed)
                 return;
-            int index = rows.indexOf(row);
+            int index = groupIndex.putIfAbsent(row);
             int incrementSize = 0;
             if (index >= 0)/* found */ {
                 RowDataPacket oldRow = rows.get(index);
@@ -122,14 +125,38 @@ public class GroupByLocalResult extends LocalResult {
                 charset, bufferRecordBuilder);
     }
 
+    /**
+     * @param needSort false if the order of the groups is not used, eg: group by without order by
+     */
+    public GroupByLocalResult setNeedSort(boolean needSort) {
+        this.needSort = needSort;
+        return this;
+    }
+
     @Override
     protected void doneOnlyMemory() {
-        Collections.sort(rows, this.groupCmp);
+        groupIndex.clear();
+        if (needSort) {
+            Collections.sort(rows, this.groupCmp);
+        }
     }
 
     @Override
     protected void beforeFlushRows() {
-        // rbtree.toarray() is sorted,so do not need to sort again
+        // the disk buffer merges the groups of the sorted tapes
+        groupIndex.clear();
+        Collections.sort(rows, this.groupCmp);
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            groupIndex.clear();
+            super.clear();
+        } finally {
+            lock.unlock();
+        }
     }
 
     protected void onFoundRow(RowDataPacket oldRow, RowDataPacket row) {
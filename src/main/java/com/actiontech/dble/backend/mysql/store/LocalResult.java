@@ -96,6 +96,18 @@ public abstract class LocalResult implements ResultStore {
         return lastRow;
     }
 
+    /**
+     * @return true if some rows have been flushed into disk
+     */
+    public boolean isInDisk() {
+        lock.lock();
+        try {
+            return external != null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
     public int getRowCount() {
         return rowCount;
     }
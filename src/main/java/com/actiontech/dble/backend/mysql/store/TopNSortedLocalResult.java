@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.backend.mysql.store;
+
+import com.actiontech.dble.backend.mysql.nio.handler.util.ArrayMinHeap;
+import com.actiontech.dble.backend.mysql.nio.handler.util.RowDataComparator;
+import com.actiontech.dble.buffer.BufferPool;
+import com.actiontech.dble.buffer.BufferPoolRecord;
+import com.actiontech.dble.net.mysql.RowDataPacket;
+
+/**
+ * sorted result which only keeps the first topN rows,
+ * the rows are kept in a heap whose top is the largest row, so it never flushes rows into disk.
+ */
+public class TopNSortedLocalResult extends SortedLocalResult {
+
+    private final int topN;
+    private ArrayMinHeap<RowDataPacket> heap;
+
+    public TopNSortedLocalResult(BufferPool pool, int fieldsCount, RowDataComparator rowCmp, String charset,
+                                 BufferPoolRecord.Builder bufferRecordBuilder, int topN) {
+        super(Math.min(topN, DEFAULT_INITIAL_CAPACITY) + 1, fieldsCount, pool, rowCmp, charset, bufferRecordBuilder);
+        this.topN = topN;
+        this.heap = new ArrayMinHeap<>(Math.min(topN, DEFAULT_INITIAL_CAPACITY) + 1, (o1, o2) -> rowCmp.compare(o2, o1));
+    }
+
+    @Override
+    public void add(RowDataPacket row) {
+        lock.lock();
+        try {
+            if (this.isClosed || heap == null)
+                return;
+            lastRow = row;
+            if (heap.size() < topN) {
+                heap.add(row);
+            } else if (topN > 0 && rowCmp.compare(row, heap.peak()) < 0) {
+                heap.replaceTop(row);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void done() {
+        lock.lock();
+        try {
+            if (this.isClosed || heap == null)
+                return;
+            for (RowDataPacket row : heap) {
+                rows.add(row);
+            }
+            rowCount = rows.size();
+            heap = null;
+            super.done();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.backend.mysql.xa;
+
+import com.actiontech.dble.backend.mysql.xa.recovery.impl.FileSystemRepository;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * the write ahead log of the xa states, the changes of the sessions are appended in batches.
+ * the thread which finds nobody is writing becomes the writer of all the queued changes and forces them once,
+ * the other threads wait for the batch of their change. the changes queued without waiting are flushed by the flusher
+ * thread if no session commits after them.
+ * the log is compacted to the checkpoint of the living transactions after some changes are appended.
+ */
+final class XAGroupCommitLog {
+    static final int COMPACTION_THRESHOLD = 1024;
+
+    private final FileSystemRepository repository;
+    // the living transactions for the compaction
+    private final Supplier<List<CoordinatorLogEntry>> checkpoint;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition batchWritten = lock.newCondition();
+    // guarded by lock
+    private List<Request> queue = new ArrayList<>();
+    private boolean writing = false;
+    private boolean flushScheduled = false;
+    // only changed by the writer
+    private int appendedEntries;
+
+    private final Executor flusher;
+
+    XAGroupCommitLog(FileSystemRepository repository, Supplier<List<CoordinatorLogEntry>> checkpoint) {
+        this(repository, checkpoint, Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("XALogFlusher-%d").setDaemon(true).build()));
+    }
+
+    XAGroupCommitLog(FileSystemRepository repository, Supplier<List<CoordinatorLogEntry>> checkpoint, Executor flusher) {
+        this.repository = repository;
+        this.checkpoint = checkpoint;
+        this.flusher = flusher;
+        // the log written by the last run is rewritten by the first batch
+        this.appendedEntries = COMPACTION_THRESHOLD;
+    }
+
+    /**
+     * queue the change without waiting, it is written with the next batch or by the flusher
+     */
+    void enqueue(CoordinatorLogEntry entry) {
+        boolean schedule;
+        lock.lock();
+        try {
+            queue.add(new Request(entry));
+            schedule = !flushScheduled;
+            flushScheduled = true;
+        } finally {
+            lock.unlock();
+        }
+        if (schedule) {
+            flusher.execute(this::flush);
+        }
+    }
+
+    /**
+     * write the changes queued before, the changes queued after it schedule the next flush
+     */
+    void flush() {
+        lock.lock();
+        try {
+            flushScheduled = false;
+        } finally {
+            lock.unlock();
+        }
+        if (!commit(null)) {
+            XAStateLog.LOGGER.warn("flush the xa log failed, the log is rewritten by the next batch");
+        }
+    }
+
+    /**
+     * queue the change and wait until it is forced to the disk
+     *
+     * @param entry null if only the changes queued before are waited for
+     * @return false if the batch of the change failed
+     */
+    boolean commit(CoordinatorLogEntry entry) {
+        Request request = new Request(entry);
+        lock.lock();
+        try {
+            queue.add(request);
+            while (!request.done) {
+                if (writing) {
+                    batchWritten.await();
+                } else {
+                    writeBatch();
+                }
+            }
+            return request.success;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            XAStateLog.LOGGER.warn("interrupted while waiting for the xa log of " + (entry == null ? null : entry.getId()));
+            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * called with the lock held, the lock is released while writing so that the next batch can be queued
+     */
+    private void writeBatch() {
+        List<Request> batch = queue;
+        queue = new ArrayList<>();
+        writing = true;
+        boolean success = false;
+        lock.unlock();
+        try {
+            success = write(batch);
+        } finally {
+            lock.lock();
+            writing = false;
+            for (Request request : batch) {
+                request.success = success;
+                request.done = true;
+            }
+            batchWritten.signalAll();
+        }
+    }
+
+    private boolean write(List<Request> batch) {
+        List<CoordinatorLogEntry> entries = new ArrayList<>(batch.size());
+        for (Request request : batch) {
+            if (request.entry != null) {
+                entries.add(request.entry);
+            }
+        }
+        if (appendedEntries + entries.size() >= COMPACTION_THRESHOLD) {
+            // the changes of the batch are already in the memory when they are queued, so the checkpoint covers them
+            if (repository.writeCheckpoint(checkpoint.get())) {
+                appendedEntries = 0;
+                return true;
+            }
+            // the log may be half rotated, compact it again by the next batch
+            return false;
+        }
+        if (entries.isEmpty()) {
+            return true;
+        }
+        appendedEntries += entries.size();
+        if (repository.append(entries)) {
+            return true;
+        }
+        // the failed batch may be half written, rewrite the log by the next batch
+        appendedEntries = COMPACTION_THRESHOLD;
+        return false;
+    }
+
+    private static final class Request {
+        private final CoordinatorLogEntry entry;
+        // guarded by lock
+        private boolean done = false;
+        private boolean success = false;
+
+        private Request(CoordinatorLogEntry entry) {
+            this.entry = entry;
+        }
+    }
+}
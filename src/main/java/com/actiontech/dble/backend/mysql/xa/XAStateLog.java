@@ -35,17 +35,21 @@ public final class XAStateLog {
 
     public static final Logger LOGGER = LoggerFactory.getLogger(XAStateLog.class);
     private static final Repository FILE_REPOSITORY;
+    private static final Repository IN_MEMORY_REPOSITORY = new InMemoryRepository();
+    // null if the log is not in the local file
+    private static final XAGroupCommitLog GROUP_COMMIT_LOG;
 
     static {
         if (ClusterConfig.getInstance().isClusterEnable() && ClusterConfig.getInstance().useZkMode()) {
             FILE_REPOSITORY = new KVStoreRepository();
+            GROUP_COMMIT_LOG = null;
         } else {
             FILE_REPOSITORY = new FileSystemRepository();
+            GROUP_COMMIT_LOG = new XAGroupCommitLog((FileSystemRepository) FILE_REPOSITORY, XAStateLog::copyMemoryRepository);
         }
     }
 
     public static final String XA_ALERT_FLAG = "XA_ALERT_FLAG";
-    private static final Repository IN_MEMORY_REPOSITORY = new InMemoryRepository();
     private static ReentrantLock lock = new ReentrantLock();
     private static AtomicBoolean hasLeader = new AtomicBoolean(false);
     private static volatile boolean isWriting = false;
@@ -71,6 +75,13 @@ public final class XAStateLog {
                 sessionState == TxState.TX_ROLLBACKING_STATE) {
             return writeCheckpoint(xaTxId);
         }
+        if (GROUP_COMMIT_LOG != null) {
+            // the end of the transaction needn't wait, it is written with the next batch or by the flusher
+            CoordinatorLogEntry log = copyMemoryRepository(xaTxId);
+            if (log != null) {
+                GROUP_COMMIT_LOG.enqueue(log);
+            }
+        }
         return true;
     }
 
@@ -98,6 +109,9 @@ public final class XAStateLog {
     }
 
     public static boolean writeCheckpoint(String xaTxId) {
+        if (GROUP_COMMIT_LOG != null) {
+            return GROUP_COMMIT_LOG.commit(copyMemoryRepository(xaTxId));
+        }
         lock.lock();
         try {
             while (isWriting) {
@@ -126,24 +140,7 @@ public final class XAStateLog {
             try {
                 isWriting = true;
                 boolean writeResult = false;
-                // copy memoryRepository
-                List<CoordinatorLogEntry> logs = new ArrayList<>();
-                ReentrantLock lockMap = ((InMemoryRepository) IN_MEMORY_REPOSITORY).getLock();
-                lockMap.lock();
-                try {
-                    Collection<CoordinatorLogEntry> logCollection = IN_MEMORY_REPOSITORY.getAllCoordinatorLogEntries(false);
-                    for (CoordinatorLogEntry coordinatorLogEntry : logCollection) {
-                        CoordinatorLogEntry log = coordinatorLogEntry.getDeepCopy();
-                        if (log != null) {
-                            logs.add(log);
-                        }
-                    }
-                } catch (Throwable e) {
-                    LOGGER.warn("logCollection deep copy error, leader Xid is:" + xaTxId, e);
-                    logs.clear();
-                } finally {
-                    lockMap.unlock();
-                }
+                List<CoordinatorLogEntry> logs = copyMemoryRepository();
                 if (!logs.isEmpty()) {
                     writeResult = FILE_REPOSITORY.writeCheckpoint(logs);
                 }
@@ -189,6 +186,41 @@ public final class XAStateLog {
         }
     }
 
+    private static List<CoordinatorLogEntry> copyMemoryRepository() {
+        List<CoordinatorLogEntry> logs = new ArrayList<>();
+        ReentrantLock lockMap = ((InMemoryRepository) IN_MEMORY_REPOSITORY).getLock();
+        lockMap.lock();
+        try {
+            Collection<CoordinatorLogEntry> logCollection = IN_MEMORY_REPOSITORY.getAllCoordinatorLogEntries(false);
+            for (CoordinatorLogEntry coordinatorLogEntry : logCollection) {
+                CoordinatorLogEntry log = coordinatorLogEntry.getDeepCopy();
+                if (log != null) {
+                    logs.add(log);
+                }
+            }
+        } catch (Throwable e) {
+            LOGGER.warn("logCollection deep copy error", e);
+            logs.clear();
+        } finally {
+            lockMap.unlock();
+        }
+        return logs;
+    }
+
+    /**
+     * @return null if the participants of the transaction are not all initialized
+     */
+    private static CoordinatorLogEntry copyMemoryRepository(String xaTxId) {
+        ReentrantLock lockMap = ((InMemoryRepository) IN_MEMORY_REPOSITORY).getLock();
+        lockMap.lock();
+        try {
+            CoordinatorLogEntry coordinatorLogEntry = IN_MEMORY_REPOSITORY.get(xaTxId);
+            return coordinatorLogEntry == null ? null : coordinatorLogEntry.getDeepCopy();
+        } finally {
+            lockMap.unlock();
+        }
+    }
+
     public static void flushMemoryRepository(String xaTxId, CoordinatorLogEntry coordinatorLogEntry) {
         IN_MEMORY_REPOSITORY.put(xaTxId, coordinatorLogEntry);
     }
@@ -71,9 +71,31 @@ public class FileSystemRepository implements Repository {
     }
 
     private synchronized void initChannelIfNecessary()
-            throws FileNotFoundException {
+            throws IOException {
         if (rwChannel == null) {
             rwChannel = file.openNewVersionForNioWriting();
+            // append to the log written before
+            rwChannel.position(rwChannel.size());
+        }
+    }
+
+    /**
+     * append the entries to the log and force them to the disk once,
+     * the last entry of an id in the log is its state when the log is read
+     */
+    public boolean append(Collection<CoordinatorLogEntry> entries) {
+        try {
+            initChannelIfNecessary();
+            StringBuilder sb = new StringBuilder();
+            for (CoordinatorLogEntry coordinatorLogEntry : entries) {
+                sb.append(Serializer.toJson(coordinatorLogEntry));
+            }
+            writeToFile(ByteBuffer.wrap(sb.toString().getBytes()), true);
+            return true;
+        } catch (IOException e) {
+            AlertUtil.alertSelf(AlarmCode.XA_WRITE_IO_FAIL, Alert.AlertLevel.WARN, "Failed to append logfile", null);
+            LOGGER.warn("Failed to append logfile", e);
+            return false;
         }
     }
 
@@ -87,7 +109,12 @@ public class FileSystemRepository implements Repository {
 
     private synchronized void writeToFile(ByteBuffer buff, boolean force)
             throws IOException {
-        rwChannel.write(buff);
+        while (buff.hasRemaining()) {
+            rwChannel.write(buff);
+        }
+        if (force) {
+            rwChannel.force(false);
+        }
     }
 
     @Override
@@ -18,11 +18,15 @@ import com.actiontech.dble.net.IOProcessor;
 import com.actiontech.dble.net.connection.BackendConnection;
 import com.actiontech.dble.net.connection.PooledConnection;
 import com.actiontech.dble.net.factory.PooledConnectionFactory;
+import com.actiontech.dble.statistic.stat.Histogram;
+import com.actiontech.dble.util.StringUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ScheduledFuture;
@@ -54,6 +58,14 @@ public class ConnectionPool extends PoolBase implements PooledConnectionListener
     private final PoolConfig poolConfig;
     private final ReentrantReadWriteLock freshLock;
     private volatile int waiterNum;
+    // the connections released by current thread recently, the newest first
+    private static final int THREAD_CACHE_SIZE = 8;
+    private final ThreadLocal<RecentReleased> recentReleased = ThreadLocal.withInitial(RecentReleased::new);
+    // increased when the pool is stopped or started, the connections cached by the threads before are discarded
+    private final AtomicInteger cacheGeneration = new AtomicInteger();
+    // borrow time(us): <=10, <=100, <=1000, >1000
+    private final Histogram borrowHistogram = new Histogram(10, 100, 1000, 10000);
+    private final LoadStatistic loadStatistic = new LoadStatistic();
 
     public ConnectionPool(final DbInstanceConfig config, final ReadTimeStatusInstance instance, final PooledConnectionFactory factory) {
         super(config, instance, factory);
@@ -88,6 +100,7 @@ public class ConnectionPool extends PoolBase implements PooledConnectionListener
                         ConnectionPoolProvider.newConnectionBorrowDirectly();
                         newPooledEntry(schema, waiting, true);
                     }
+                    onBorrowed(conn);
                     return conn;
                 }
             }
@@ -98,6 +111,98 @@ public class ConnectionPool extends PoolBase implements PooledConnectionListener
     }
 
     public PooledConnection borrow(final String schema, long timeout, final TimeUnit timeUnit) throws InterruptedException {
+        final long start = System.nanoTime();
+        PooledConnection conn = borrowRecentReleased(schema);
+        if (conn == null) {
+            conn = borrow0(schema, timeout, timeUnit);
+        }
+        if (conn != null) {
+            recordBorrowTime((System.nanoTime() - start) / 1000);
+            onBorrowed(conn);
+        }
+        return conn;
+    }
+
+    private void onBorrowed(final PooledConnection conn) {
+        conn.markBorrowed();
+        loadStatistic.onBorrow();
+    }
+
+    private void onReturned(final PooledConnection conn) {
+        if (conn.takeBorrowed()) {
+            loadStatistic.onReturn();
+        }
+    }
+
+    public LoadStatistic getLoadStatistic() {
+        return loadStatistic;
+    }
+
+    /**
+     * try the connections released by current thread before the shared list,
+     * the one on the same schema is preferred to avoid the schema syn.
+     * no lock is taken, the cache generation is read again after the CAS: if it is unchanged, a stop after it
+     * sees the connection in use like the one borrowed before the stop, otherwise the connection is given back
+     */
+    private PooledConnection borrowRecentReleased(final String schema) {
+        final RecentReleased recent = recentReleased.get();
+        if (recent.connections.isEmpty()) {
+            return null;
+        }
+        final int generation = cacheGeneration.get();
+        if (isClosed.get() || recent.generation != generation) {
+            recent.clear(generation);
+            return null;
+        }
+        PooledConnection conn = takeRecentReleased(recent, schema);
+        if (conn == null) {
+            conn = takeRecentReleased(recent, null);
+        }
+        if (conn == null) {
+            return null;
+        }
+        if (conn.isClosed() || cacheGeneration.get() != generation) {
+            // closed, or the pool is stopped or reloaded after taken, give it back like release and take the normal way
+            requite(conn);
+            return null;
+        }
+        final int waiting = waiters.get();
+        if (waiting > 0 && conn.getCreateByWaiter().compareAndSet(true, false)) {
+            newPooledEntry(schema, waiting, true);
+        }
+        return conn;
+    }
+
+    private PooledConnection takeRecentReleased(final RecentReleased recent, final String schema) {
+        for (Iterator<WeakReference<PooledConnection>> it = recent.connections.iterator(); it.hasNext(); ) {
+            PooledConnection conn = it.next().get();
+            if (conn == null || conn.getState() == STATE_REMOVED || conn.isClosed() || conn.getPoolRelated() != this) {
+                it.remove();
+            } else if ((schema == null || StringUtil.equals(schema, conn.getSchema())) && conn.compareAndSet(STATE_NOT_IN_USE, STATE_IN_USE)) {
+                it.remove();
+                return conn;
+            }
+        }
+        return null;
+    }
+
+    private void recordBorrowTime(long costUs) {
+        if (costUs <= 10) {
+            borrowHistogram.record(10);
+        } else if (costUs <= 100) {
+            borrowHistogram.record(100);
+        } else if (costUs <= 1000) {
+            borrowHistogram.record(1000);
+        } else {
+            borrowHistogram.record(10000);
+        }
+    }
+
+    public Histogram getBorrowHistogram() {
+        return borrowHistogram;
+    }
+
+    private PooledConnection borrow0(final String schema, long timeout, final TimeUnit timeUnit) throws InterruptedException {
         if (!freshLock.readLock().tryLock()) {
             LOGGER.warn("the current thread is blocked, because currently at freshing conn");
             freshLock.readLock().lock();
@@ -106,15 +211,14 @@ public class ConnectionPool extends PoolBase implements PooledConnectionListener
             final int waiting = waiterNum;
             ConnectionPoolProvider.getConnGetFrenshLocekAfter();
             ConnectionPoolProvider.borrowConnectionBefore();
-            for (PooledConnection conn : allConnections) {
-                if (conn.compareAndSet(STATE_NOT_IN_USE, STATE_IN_USE)) {
-                    // If we may have stolen another waiter's connection, request another bag add.
-                    if (waiting > 0 && conn.getCreateByWaiter().compareAndSet(true, false)) {
-                        ConnectionPoolProvider.newConnectionBorrow0();
-                        newPooledEntry(schema, waiting, true);
-                    }
-                    return conn;
+            PooledConnection conn = borrowIdle(schema);
+            if (conn != null) {
+                // If we may have stolen another waiter's connection, request another bag add.
+                if (waiting > 0 && conn.getCreateByWaiter().compareAndSet(true, false)) {
+                    ConnectionPoolProvider.newConnectionBorrow0();
+                    newPooledEntry(schema, waiting, true);
                 }
+                return conn;
             }
 
             waiterNum = waiters.incrementAndGet();
@@ -147,6 +251,33 @@ public class ConnectionPool extends PoolBase implements PooledConnectionListener
         }
     }
 
+    /**
+     * the idle connection on the same schema is preferred, the states are only read before the CAS
+     */
+    private PooledConnection borrowIdle(final String schema) {
+        PooledConnection otherSchemaConn = null;
+        for (PooledConnection conn : allConnections) {
+            if (conn.getState() == STATE_NOT_IN_USE) {
+                if (schema == null || StringUtil.equals(schema, conn.getSchema())) {
+                    if (conn.compareAndSet(STATE_NOT_IN_USE, STATE_IN_USE)) {
+                        return conn;
+                    }
+                } else if (otherSchemaConn == null) {
+                    otherSchemaConn = conn;
+                }
+            }
+        }
+        if (otherSchemaConn != null && otherSchemaConn.compareAndSet(STATE_NOT_IN_USE, STATE_IN_USE)) {
+            return otherSchemaConn;
+        }
+        for (PooledConnection conn : allConnections) {
+            if (conn.compareAndSet(STATE_NOT_IN_USE, STATE_IN_USE)) {
+                return conn;
+            }
+        }
+        return null;
+    }
+
     private void newPooledEntry(final String schema, final int waiting, boolean createByWaiter) {
         if (instance.isDisabled() || isClosed.get()) {
             return;
@@ -174,12 +305,23 @@ public class ConnectionPool extends PoolBase implements PooledConnectionListener
 
 
     public void release(final PooledConnection conn) {
+        onReturned(conn);
         if (poolConfig.getTestOnReturn()) {
             ConnectionHeartBeatHandler heartBeatHandler = new ConnectionHeartBeatHandler((BackendConnection) conn, false, this);
             heartBeatHandler.ping(poolConfig.getConnectionHeartbeatTimeout());
             return;
         }
 
+        if (!isClosed.get()) {
+            recentReleased.get().add(conn, cacheGeneration.get());
+        }
+        requite(conn);
+    }
+
+    /**
+     * give the connection back to the pool, hand it off to the waiter if there is any
+     */
+    private void requite(final PooledConnection conn) {
         conn.lazySet(STATE_NOT_IN_USE);
         for (int i = 0; waiters.get() > 0; i++) {
             if (conn.getState() != STATE_NOT_IN_USE || handoffQueue.offer(conn)) {
@@ -309,6 +451,7 @@ public class ConnectionPool extends PoolBase implements PooledConnectionListener
     }
 
     public void close(final PooledConnection conn) {
+        onReturned(conn);
         if (remove(conn)) {
             final int tc = totalConnections.decrementAndGet();
             if (tc < 0) {
@@ -368,6 +511,7 @@ public class ConnectionPool extends PoolBase implements PooledConnectionListener
         try {
             ConnectionPoolProvider.stopConnGetFrenshLocekAfter();
             if (isClosed.compareAndSet(false, true)) {
+                cacheGeneration.incrementAndGet();
                 if (LOGGER.isDebugEnabled() && totalConnections.get() > 0) {
                     ReloadLogHelper.debug("stop connection pool :{},reason:{},is close front:{}", instance.toString(), closureReason, closeFront);
                 }
@@ -456,6 +600,7 @@ public class ConnectionPool extends PoolBase implements PooledConnectionListener
      */
     public void startEvictor(String instanceName, String reason) {
         if (isClosed.compareAndSet(true, false)) {
+            cacheGeneration.incrementAndGet();
             LOGGER.info("start connection pool of physical db instance[{}], due to {}", instanceName, reason);
             if (LOGGER.isDebugEnabled()) {
                 ReloadLogHelper.debug("start connection pool :{},reason:{}", instance.toString(), reason);
@@ -493,6 +638,36 @@ public class ConnectionPool extends PoolBase implements PooledConnectionListener
 
     public void copyBaseInfo(ConnectionPool connectionPool) {
         this.config = connectionPool.config;
+        cacheGeneration.incrementAndGet();
+    }
+
+    /**
+     * the connections released by one thread recently, weakly referenced so the removed connections are not kept
+     */
+    private static final class RecentReleased {
+        private final ArrayDeque<WeakReference<PooledConnection>> connections = new ArrayDeque<>(THREAD_CACHE_SIZE);
+        private int generation;
+
+        private void add(final PooledConnection conn, final int currentGeneration) {
+            if (generation != currentGeneration) {
+                clear(currentGeneration);
+            }
+            for (Iterator<WeakReference<PooledConnection>> it = connections.iterator(); it.hasNext(); ) {
+                PooledConnection cached = it.next().get();
+                if (cached == null || cached == conn) {
+                    it.remove();
+                }
+            }
+            if (connections.size() == THREAD_CACHE_SIZE) {
+                connections.removeLast();
+            }
+            connections.addFirst(new WeakReference<>(conn));
+        }
+
+        private void clear(final int currentGeneration) {
+            connections.clear();
+            generation = currentGeneration;
+        }
     }
 
     /**
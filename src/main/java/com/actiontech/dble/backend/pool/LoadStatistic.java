@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.backend.pool;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * the load of a dbInstance seen by its pool: the connections borrowed and not returned yet,
+ * and the EWMA of the response time of the queries sent by the connections.
+ * every sample moves the EWMA by the same weight whether it is slower or faster,
+ * and the EWMA decays with the idle time, so a slow instance which is not selected
+ * any more gets the requests again after a while.
+ */
+public class LoadStatistic {
+    static final double WEIGHT = 0.2;
+    static final double DECAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+    // guarded by this
+    private double ewmaNanos;
+    private long lastTime;
+    private boolean sampled = false;
+
+    public void onBorrow() {
+        outstanding.incrementAndGet();
+    }
+
+    public void onReturn() {
+        outstanding.decrementAndGet();
+    }
+
+    /**
+     * @param responseNanos the time from sending the query to the first packet of its response
+     */
+    public void onResponse(long responseNanos) {
+        record(responseNanos, System.nanoTime());
+    }
+
+    synchronized void record(long responseNanos, long now) {
+        if (sampled) {
+            double current = decay(now);
+            ewmaNanos = current + WEIGHT * (responseNanos - current);
+        } else {
+            ewmaNanos = responseNanos;
+            sampled = true;
+        }
+        lastTime = now;
+    }
+
+    private double decay(long now) {
+        return ewmaNanos * Math.exp(-Math.max(0, now - lastTime) / DECAY_NANOS);
+    }
+
+    public int getOutstanding() {
+        return Math.max(0, outstanding.get());
+    }
+
+    public double getResponseTimeNanos() {
+        return getResponseTimeNanos(System.nanoTime());
+    }
+
+    synchronized double getResponseTimeNanos(long now) {
+        return sampled ? decay(now) : 0;
+    }
+
+    public double getResponseTimeMillis() {
+        return getResponseTimeNanos() / 1000000;
+    }
+}
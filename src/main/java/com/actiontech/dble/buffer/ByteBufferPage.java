@@ -74,6 +74,36 @@ public class ByteBufferPage {
         }
     }
 
+    /**
+     * allocate single chunks as many as possible but not more than max, only one lock for all of them
+     *
+     * @return the number of chunks allocated into dest
+     */
+    public int allocateChunks(ByteBuffer[] dest, int off, int max) {
+        if (!allocLockStatus.compareAndSet(false, true)) {
+            return 0;
+        }
+        int count = 0;
+        try {
+            int i = chunkAllocateTrack.nextClearBit(0);
+            while (i < chunkCount && count < max) {
+                int offStart = i * chunkSize;
+                buf.limit(offStart + chunkSize);
+                buf.position(offStart);
+                dest[off + count++] = buf.slice();
+                chunkAllocateTrack.set(i);
+                i = chunkAllocateTrack.nextClearBit(i + 1);
+            }
+            return count;
+        } finally {
+            allocLockStatus.set(false);
+        }
+    }
+
+    public boolean isParentOf(ByteBuffer parent) {
+        return parent == this.buf;
+    }
+
     private void markChunksUsed(int startChunk, int theChunkCount) {
         for (int i = 0; i < theChunkCount; i++) {
             chunkAllocateTrack.set(startChunk + i);
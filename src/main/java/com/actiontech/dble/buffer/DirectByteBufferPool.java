@@ -5,12 +5,19 @@
 
 package com.actiontech.dble.buffer;
 
+import com.actiontech.dble.util.TimeUtil;
+import com.actiontech.dble.util.VirtualThreadUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import sun.nio.ch.DirectBuffer;
 
 import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * DirectByteBufferPool
@@ -21,24 +28,50 @@ import java.util.concurrent.atomic.AtomicLong;
 @SuppressWarnings("restriction")
 public class DirectByteBufferPool implements BufferPool {
     private static final Logger LOGGER = LoggerFactory.getLogger(DirectByteBufferPool.class);
+    // the chunks cached by a thread which doesn't use the pool for this long are given back to the pages
+    private static final long MAGAZINE_IDLE_MILLIS = 10 * 1000L;
+    // the magazine of the virtual threads, which cache nothing
+    private static final ChunkMagazine NO_MAGAZINE = new ChunkMagazine(null, 0);
     public static final String LOCAL_BUF_THREAD_PREX = "$_";
     private ByteBufferPage[] allPages;
+    // the address of the page buffer, which is the parent of the allocated chunks
+    private final Map<Long, ByteBufferPage> pagesByAddress;
     private final int chunkSize;
     // private int prevAllocatedPage = 0;
     private AtomicLong prevAllocatedPage;
     private final int pageSize;
     private final short pageCount;
     final MemoryBufferMonitor bufferPoolMonitor = MemoryBufferMonitor.getInstance();
+    /*
+     * thread local cache of single chunks, the common single chunk allocate/recycle
+     * does not touch the pages. the cached chunks are allocated in the pages but free for the users.
+     * the virtual threads don't cache chunks, there may be one thread per task and the magazine is left after it ends.
+     * the magazine is only used by its owner thread, the lock of the magazine is not contended
+     * unless the magazine is flushed by other thread after the owner is dead or idle.
+     */
+    private final int threadCacheSize;
+    private final ThreadLocal<ChunkMagazine> magazines;
+    private final Queue<ChunkMagazine> allMagazines = new ConcurrentLinkedQueue<>();
+    private final LongAdder cachedChunks = new LongAdder();
 
     public DirectByteBufferPool(int pageSize, short chunkSize, short pageCount) {
+        this(pageSize, chunkSize, pageCount, 0);
+    }
+
+    public DirectByteBufferPool(int pageSize, short chunkSize, short pageCount, int threadCacheSize) {
         allPages = new ByteBufferPage[pageCount];
         this.chunkSize = chunkSize;
         this.pageSize = pageSize;
         this.pageCount = pageCount;
         prevAllocatedPage = new AtomicLong(0);
+        pagesByAddress = new HashMap<>(pageCount * 2);
         for (int i = 0; i < pageCount; i++) {
-            allPages[i] = new ByteBufferPage(ByteBuffer.allocateDirect(pageSize), chunkSize);
+            ByteBuffer pageBuf = ByteBuffer.allocateDirect(pageSize);
+            allPages[i] = new ByteBufferPage(pageBuf, chunkSize);
+            pagesByAddress.put(((DirectBuffer) pageBuf).address(), allPages[i]);
         }
+        this.threadCacheSize = threadCacheSize;
+        this.magazines = threadCacheSize > 0 ? ThreadLocal.withInitial(this::newMagazine) : null;
     }
 
 
@@ -48,10 +81,16 @@ public class DirectByteBufferPool implements BufferPool {
 
     public ByteBuffer allocate(int size, BufferPoolRecord.Builder bufferRecordBuilder) {
         final int theChunkCount = size / chunkSize + (size % chunkSize == 0 ? 0 : 1);
-        int selectedPage = (int) (prevAllocatedPage.incrementAndGet() % allPages.length);
-        ByteBuffer byteBuf = allocateBuffer(theChunkCount, selectedPage, allPages.length);
+        ByteBuffer byteBuf = null;
+        ChunkMagazine magazine = currentMagazine();
+        if (magazine != null && theChunkCount == 1) {
+            byteBuf = allocateFromMagazine(magazine);
+        }
         if (byteBuf == null) {
-            byteBuf = allocateBuffer(theChunkCount, 0, selectedPage);
+            byteBuf = allocateFromPages(theChunkCount);
+        }
+        if (byteBuf == null && magazines != null && releaseCachedChunks(magazine)) {
+            byteBuf = allocateFromPages(theChunkCount);
         }
         if (byteBuf != null) {
             bufferPoolMonitor.addRecord(bufferRecordBuilder, ((DirectBuffer) byteBuf).address(), size);
@@ -79,21 +118,189 @@ public class DirectByteBufferPool implements BufferPool {
 
         bufferPoolMonitor.remove(((DirectBuffer) theBuf).address());
 
+        if (theBuf.capacity() == chunkSize && pageOf(theBuf) != null) {
+            ChunkMagazine magazine = currentMagazine();
+            if (magazine != null) {
+                synchronized (magazine) {
+                    magazine.lastUsed = TimeUtil.currentTimeMillis();
+                    if (magazine.count == magazine.chunks.length) {
+                        flush(magazine, Math.max(1, magazine.count / 2));
+                    }
+                    theBuf.clear();
+                    magazine.chunks[magazine.count++] = theBuf;
+                    cachedChunks.increment();
+                }
+                return;
+            }
+        }
+
+        if (!recycleToPage(theBuf)) {
+            LOGGER.info("warning ,not recycled buffer " + theBuf);
+        }
+
+    }
+
+    /**
+     * @return the magazine of the current thread, or null if the thread doesn't cache chunks
+     */
+    private ChunkMagazine currentMagazine() {
+        if (magazines == null) {
+            return null;
+        }
+        ChunkMagazine magazine = magazines.get();
+        return magazine == NO_MAGAZINE ? null : magazine;
+    }
 
-        boolean recycled = false;
+    private boolean recycleToPage(ByteBuffer theBuf) {
+        ByteBufferPage page = pageOf(theBuf);
+        if (page == null) {
+            return false;
+        }
         DirectBuffer thisNavBuf = (DirectBuffer) theBuf;
-        int chunkCount = theBuf.capacity() / chunkSize;
         DirectBuffer parentBuf = (DirectBuffer) thisNavBuf.attachment();
         int startChunk = (int) ((thisNavBuf.address() - parentBuf.address()) / this.chunkSize);
-        for (ByteBufferPage allPage : allPages) {
-            if ((recycled = allPage.recycleBuffer((ByteBuffer) parentBuf, startChunk, chunkCount))) {
-                break;
+        return page.recycleBuffer((ByteBuffer) parentBuf, startChunk, theBuf.capacity() / chunkSize);
+    }
+
+    /**
+     * @return the page which the buffer is allocated from, or null if the buffer is not allocated by the pool
+     */
+    private ByteBufferPage pageOf(ByteBuffer theBuf) {
+        Object parentBuf = ((DirectBuffer) theBuf).attachment();
+        if (!(parentBuf instanceof DirectBuffer)) {
+            return null;
+        }
+        ByteBufferPage page = pagesByAddress.get(((DirectBuffer) parentBuf).address());
+        return page != null && page.isParentOf((ByteBuffer) parentBuf) ? page : null;
+    }
+
+    private ByteBuffer allocateFromPages(int theChunkCount) {
+        int selectedPage = (int) (prevAllocatedPage.incrementAndGet() % allPages.length);
+        ByteBuffer byteBuf = allocateBuffer(theChunkCount, selectedPage, allPages.length);
+        if (byteBuf == null) {
+            byteBuf = allocateBuffer(theChunkCount, 0, selectedPage);
+        }
+        return byteBuf;
+    }
+
+    private ByteBuffer allocateFromMagazine(ChunkMagazine magazine) {
+        synchronized (magazine) {
+            magazine.lastUsed = TimeUtil.currentTimeMillis();
+            if (magazine.count == 0) {
+                refill(magazine);
+                if (magazine.count == 0) {
+                    return null;
+                }
             }
+            ByteBuffer byteBuf = magazine.chunks[--magazine.count];
+            magazine.chunks[magazine.count] = null;
+            cachedChunks.decrement();
+            return byteBuf;
         }
-        if (!recycled) {
-            LOGGER.info("warning ,not recycled buffer " + theBuf);
+    }
+
+    /**
+     * take half of the magazine from the pages, one page lock for a batch of chunks
+     */
+    private void refill(ChunkMagazine magazine) {
+        int want = Math.max(1, magazine.chunks.length / 2);
+        int selectedPage = (int) (prevAllocatedPage.incrementAndGet() % allPages.length);
+        for (int i = 0; i < allPages.length && magazine.count < want; i++) {
+            int pageIndex = (selectedPage + i) % allPages.length;
+            int got = allPages[pageIndex].allocateChunks(magazine.chunks, magazine.count, want - magazine.count);
+            if (got > 0) {
+                magazine.count += got;
+                cachedChunks.add(got);
+                prevAllocatedPage.getAndSet(pageIndex);
+            }
+        }
+    }
+
+    /**
+     * give back the last n chunks of the magazine to the pages, called with the lock of the magazine
+     */
+    private void flush(ChunkMagazine magazine, int n) {
+        for (int i = 0; i < n; i++) {
+            ByteBuffer byteBuf = magazine.chunks[--magazine.count];
+            magazine.chunks[magazine.count] = null;
+            cachedChunks.decrement();
+            if (!recycleToPage(byteBuf)) {
+                LOGGER.info("warning ,not recycled buffer " + byteBuf);
+            }
+        }
+    }
+
+    /**
+     * the pages are full, give back the chunks cached by the current thread, the dead threads and the idle threads
+     *
+     * @return true if any chunk is given back
+     */
+    private boolean releaseCachedChunks(ChunkMagazine current) {
+        int released = 0;
+        if (current != null) {
+            released = flushAll(current);
+        }
+        released += flushIdleMagazines(TimeUtil.currentTimeMillis() - MAGAZINE_IDLE_MILLIS);
+        return released > 0;
+    }
+
+    /**
+     * give back the chunks cached by the threads which are dead or don't use the pool for a while,
+     * called periodically so the idle threads don't hold the chunks
+     *
+     * @return the number of the chunks given back
+     */
+    public int flushIdleMagazines() {
+        if (magazines == null) {
+            return 0;
+        }
+        return flushIdleMagazines(TimeUtil.currentTimeMillis() - MAGAZINE_IDLE_MILLIS);
+    }
+
+    int flushIdleMagazines(long idleBefore) {
+        int released = reclaimDeadMagazines();
+        for (ChunkMagazine magazine : allMagazines) {
+            synchronized (magazine) {
+                if (magazine.lastUsed < idleBefore) {
+                    released += magazine.count;
+                    flush(magazine, magazine.count);
+                }
+            }
+        }
+        return released;
+    }
+
+    private int reclaimDeadMagazines() {
+        int released = 0;
+        for (ChunkMagazine magazine : allMagazines) {
+            if (!magazine.owner.isAlive() && allMagazines.remove(magazine)) {
+                released += flushAll(magazine);
+            }
+        }
+        return released;
+    }
+
+    private int flushAll(ChunkMagazine magazine) {
+        synchronized (magazine) {
+            int count = magazine.count;
+            flush(magazine, count);
+            return count;
         }
+    }
 
+    /**
+     * whether the thread is virtual is checked once, when the magazine of the thread is created
+     */
+    private ChunkMagazine newMagazine() {
+        Thread thread = Thread.currentThread();
+        if (VirtualThreadUtil.isVirtual(thread)) {
+            return NO_MAGAZINE;
+        }
+        // the threads of a pool may be replaced, don't let the dead ones hold the chunks
+        reclaimDeadMagazines();
+        ChunkMagazine magazine = new ChunkMagazine(thread, threadCacheSize);
+        allMagazines.add(magazine);
+        return magazine;
     }
 
     private ByteBuffer allocateBuffer(int theChunkCount, int startPage, int endPage) {
@@ -130,7 +337,7 @@ public class DirectByteBufferPool implements BufferPool {
         for (ByteBufferPage page : allPages) {
             usage += page.getUsage();
         }
-        return this.capacity() - usage;
+        return this.capacity() - usage + cachedChunks.sum() * chunkSize;
     }
 
     //TODO
@@ -138,5 +345,17 @@ public class DirectByteBufferPool implements BufferPool {
         return 0;
     }
 
+    private static final class ChunkMagazine {
+        private final Thread owner;
+        private final ByteBuffer[] chunks;
+        private int count;
+        private long lastUsed = TimeUtil.currentTimeMillis();
+
+        private ChunkMagazine(Thread owner, int size) {
+            this.owner = owner;
+            this.chunks = new ByteBuffer[size];
+        }
+    }
+
 
 }
@@ -36,6 +36,9 @@ public class DBGroup implements Named {
     @XmlAttribute
     protected String delayDatabase;
 
+    @XmlAttribute
+    protected String loadBalance;
+
     protected HeartBeat heartbeat;
 
     protected List<DBInstance> dbInstance;
@@ -128,6 +131,14 @@ public class DBGroup implements Named {
         this.delayDatabase = delayDatabase;
     }
 
+    public String getLoadBalance() {
+        return loadBalance;
+    }
+
+    public void setLoadBalance(String loadBalance) {
+        this.loadBalance = loadBalance;
+    }
+
     @Override
     public String toString() {
         String builder = "dbGroup [rwSplitMode=" +
@@ -140,6 +151,8 @@ public class DBGroup implements Named {
                 delayPeriodMillis +
                 ", delayDatabase=" +
                 delayDatabase +
+                ", loadBalance=" +
+                loadBalance +
                 ", disableHA=" +
                 disableHA +
                 ", heartbeat=" +
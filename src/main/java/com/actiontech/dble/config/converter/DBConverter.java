@@ -155,6 +155,7 @@ public class DBConverter {
             dbGroupConf.setHeartbeatSQL(heartbeatSQL);
             dbGroupConf.setDelayDatabase(delayDatabase);
             dbGroupConf.setDelayPeriodMillis(delayPeriodMillis);
+            dbGroupConf.setLoadBalance(dbGroup.getLoadBalance());
             int heartbeatTimeout = Optional.ofNullable(heartbeat.getTimeout()).orElse(0);
             dbGroupConf.setHeartbeatTimeout(heartbeatTimeout * 1000);
             int heartbeatErrorRetryCount = Optional.ofNullable(heartbeat.getErrorRetryCount()).orElse(1);
@@ -47,6 +47,8 @@ public final class ClusterConfig {
     private long showBinlogStatusTimeout = 60 * 1000;
     private String sequenceStartTime;
     private boolean sequenceInstanceByZk = true;
+    // percent of the segment left when fetching the next segment in background, 0 means never
+    private int sequencePrefetchWatermark = 20;
     private boolean initZkFirst = false;
     private int grpcTimeout = 10;
 
@@ -152,6 +154,19 @@ public final class ClusterConfig {
     }
 
 
+    public int getSequencePrefetchWatermark() {
+        return sequencePrefetchWatermark;
+    }
+
+    @SuppressWarnings("unused")
+    public void setSequencePrefetchWatermark(int sequencePrefetchWatermark) {
+        if (sequencePrefetchWatermark >= 0 && sequencePrefetchWatermark < 100) {
+            this.sequencePrefetchWatermark = sequencePrefetchWatermark;
+        } else {
+            problemReporter.warn("sequencePrefetchWatermark value is " + sequencePrefetchWatermark + ", it will use default value:" + this.sequencePrefetchWatermark);
+        }
+    }
+
     public String getSequenceStartTime() {
         return sequenceStartTime;
     }
@@ -199,6 +214,7 @@ public final class ClusterConfig {
                 ", sequenceHandlerType=" + sequenceHandlerType +
                 ", sequenceStartTime=" + sequenceStartTime +
                 ", sequenceInstanceByZk=" + sequenceInstanceByZk +
+                ", sequencePrefetchWatermark=" + sequencePrefetchWatermark +
                 ", initZkFirst=" + initZkFirst +
                 "]";
     }
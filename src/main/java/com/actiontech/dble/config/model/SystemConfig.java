@@ -71,6 +71,8 @@ public final class SystemConfig {
     private int usingAIO = 0;
     private int useThreadUsageStat = 0;
     private int usePerformanceMode = 0;
+    // run the complexQueryWorker on virtual threads if the jvm supports them
+    private int useVirtualThread = 0;
     private int useSerializableMode = 0;
 
     //query time cost statistics
@@ -86,6 +88,12 @@ public final class SystemConfig {
     //consistency
     private int checkTableConsistency = 0;
     private long checkTableConsistencyPeriod = 30 * 60 * 1000;
+    // the period of collecting the table statistics for the join optimizer, 0 means never
+    private long tableStatisticsPeriod = 0;
+    // skip fetching the create sql of the tables whose create_time/update_time/version are not changed since the last loading
+    private int incrementalMetaReload = 0;
+    // the max number of shardingNodes fetching the metadata at the same time
+    private int metaFetchParallelism = 64;
 
     //processor check conn
     private long processorCheckPeriod = 1000L;
@@ -115,10 +123,13 @@ public final class SystemConfig {
     private boolean useJoinStrategy = false;
     private int nestLoopRowsSize = 2000;
     private int nestLoopConnSize = 4;
+    // the max rows of the nest loop temporary table filtered by a bloom filter when it's too large for the IN list, 0 means never
+    private int nestLoopBloomFilterRows = 1000000;
 
     // join Optimizer
     private boolean useNewJoinOptimizer = false;
     private int joinStrategyType = -1;
+    private boolean useHashJoin = false;
 
     //query memory used for per session,unit is M
     private int otherMemSize = 4;
@@ -137,6 +148,8 @@ public final class SystemConfig {
     // buffer pool page number
     private short bufferPoolPageNumber = (short) (Platform.getMaxDirectMemory() * 0.8 / bufferPoolPageSize);
     private boolean useDefaultPageNumber = true;
+    // chunks cached by every thread, 0 means no thread cache
+    private int bufferPoolThreadCacheSize = 16;
     private int mappedFileSize = 1024 * 1024 * 64;
 
     // sql statistics
@@ -163,9 +176,21 @@ public final class SystemConfig {
     private String viewPersistenceConfBaseDir = "viewConf";
     private String viewPersistenceConfBaseName = "viewJson";
 
+    //the chunked checksum of global table
+    private int globalCheckChunkSize = 10000;
+    // 0 means no limit
+    private int globalCheckChunksPerSecond = 10;
+    // the chunks of a scheduled check, the next one goes on from the last chunk, 0 means no limit
+    private int globalCheckMaxChunksPerRun = 1000;
+    private String globalCheckPersistenceBaseDir = "globalCheckConf";
+
     // for join tmp results
     private int mergeQueueSize = 1024;
     private int orderByQueueSize = 1024;
+    // order by with limit keeps only offset+count rows in memory when offset+count is not more than it
+    private int orderByTopNMaxRows = 10000;
+    // the backend rows are passed to the where/group by/order by/limit handlers in off-heap batches of this size, 0 means row by row
+    private int complexQueryRowBatchSize = 0;
     private int joinQueueSize = 1024;
     //slow log
     private int enableSlowLog = 0;
@@ -213,6 +238,8 @@ public final class SystemConfig {
     private MysqlVersion mysqlVersion;
     private int enableRoutePenetration = 0;
     private String routePenetrationRules = "";
+    // 0 means the digest route cache is not used
+    private int sqlRouteDigestCacheSize = 0;
 
     private int enableStatistic = 0;
     private int associateTablesByEntryByUserTableSize = 1024;
@@ -677,6 +704,15 @@ public final class SystemConfig {
         }
     }
 
+    public boolean isUseHashJoin() {
+        return useHashJoin;
+    }
+
+    @SuppressWarnings("unused")
+    public void setUseHashJoin(boolean useHashJoin) {
+        this.useHashJoin = useHashJoin;
+    }
+
     public String getXaRecoveryLogBaseDir() {
         return (this.getHomePath() + File.separatorChar + xaRecoveryLogBaseDir + File.separatorChar).replaceAll(File.separator + "+", File.separator);
     }
@@ -1113,6 +1149,19 @@ public final class SystemConfig {
     }
 
 
+    public int getBufferPoolThreadCacheSize() {
+        return bufferPoolThreadCacheSize;
+    }
+
+    @SuppressWarnings("unused")
+    public void setBufferPoolThreadCacheSize(int bufferPoolThreadCacheSize) {
+        if (bufferPoolThreadCacheSize >= 0) {
+            this.bufferPoolThreadCacheSize = bufferPoolThreadCacheSize;
+        } else {
+            problemReporter.warn(String.format(WARNING_FORMAT, "bufferPoolThreadCacheSize", bufferPoolThreadCacheSize, this.bufferPoolThreadCacheSize));
+        }
+    }
+
     public boolean isUseDefaultPageNumber() {
         return useDefaultPageNumber;
     }
@@ -1264,6 +1313,45 @@ public final class SystemConfig {
         }
     }
 
+    public int getIncrementalMetaReload() {
+        return incrementalMetaReload;
+    }
+
+    @SuppressWarnings("unused")
+    public void setIncrementalMetaReload(int incrementalMetaReload) {
+        if (incrementalMetaReload >= 0 && incrementalMetaReload <= 1) {
+            this.incrementalMetaReload = incrementalMetaReload;
+        } else {
+            problemReporter.warn(String.format(WARNING_FORMAT, "incrementalMetaReload", incrementalMetaReload, this.incrementalMetaReload));
+        }
+    }
+
+    public int getMetaFetchParallelism() {
+        return metaFetchParallelism;
+    }
+
+    @SuppressWarnings("unused")
+    public void setMetaFetchParallelism(int metaFetchParallelism) {
+        if (metaFetchParallelism > 0) {
+            this.metaFetchParallelism = metaFetchParallelism;
+        } else {
+            problemReporter.warn(String.format(WARNING_FORMAT, "metaFetchParallelism", metaFetchParallelism, this.metaFetchParallelism));
+        }
+    }
+
+    public long getTableStatisticsPeriod() {
+        return tableStatisticsPeriod;
+    }
+
+    @SuppressWarnings("unused")
+    public void setTableStatisticsPeriod(long tableStatisticsPeriod) {
+        if (tableStatisticsPeriod >= 0) {
+            this.tableStatisticsPeriod = tableStatisticsPeriod;
+        } else {
+            problemReporter.warn(String.format(WARNING_FORMAT, "tableStatisticsPeriod", tableStatisticsPeriod, this.tableStatisticsPeriod));
+        }
+    }
+
     public int getNestLoopRowsSize() {
         return nestLoopRowsSize;
     }
@@ -1368,6 +1456,19 @@ public final class SystemConfig {
         }
     }
 
+    public int getNestLoopBloomFilterRows() {
+        return nestLoopBloomFilterRows;
+    }
+
+    @SuppressWarnings("unused")
+    public void setNestLoopBloomFilterRows(int nestLoopBloomFilterRows) {
+        if (nestLoopBloomFilterRows >= 0) {
+            this.nestLoopBloomFilterRows = nestLoopBloomFilterRows;
+        } else {
+            problemReporter.warn(String.format(WARNING_FORMAT, "nestLoopBloomFilterRows", nestLoopBloomFilterRows, this.nestLoopBloomFilterRows));
+        }
+    }
+
     public int getOrderByQueueSize() {
         return orderByQueueSize;
     }
@@ -1381,6 +1482,32 @@ public final class SystemConfig {
         }
     }
 
+    public int getOrderByTopNMaxRows() {
+        return orderByTopNMaxRows;
+    }
+
+    @SuppressWarnings("unused")
+    public void setOrderByTopNMaxRows(int orderByTopNMaxRows) {
+        if (orderByTopNMaxRows >= 0) {
+            this.orderByTopNMaxRows = orderByTopNMaxRows;
+        } else {
+            problemReporter.warn(String.format(WARNING_FORMAT, "orderByTopNMaxRows", orderByTopNMaxRows, this.orderByTopNMaxRows));
+        }
+    }
+
+    public int getComplexQueryRowBatchSize() {
+        return complexQueryRowBatchSize;
+    }
+
+    @SuppressWarnings("unused")
+    public void setComplexQueryRowBatchSize(int complexQueryRowBatchSize) {
+        if (complexQueryRowBatchSize >= 0) {
+            this.complexQueryRowBatchSize = complexQueryRowBatchSize;
+        } else {
+            problemReporter.warn(String.format(WARNING_FORMAT, "complexQueryRowBatchSize", complexQueryRowBatchSize, this.complexQueryRowBatchSize));
+        }
+    }
+
 
     public String getViewPersistenceConfBaseDir() {
         return (this.getHomePath() + File.separatorChar + viewPersistenceConfBaseDir + File.separatorChar).replaceAll(File.separator + "+", File.separator);
@@ -1391,6 +1518,54 @@ public final class SystemConfig {
         this.viewPersistenceConfBaseDir = viewPersistenceConfBaseDir;
     }
 
+    public int getGlobalCheckChunkSize() {
+        return globalCheckChunkSize;
+    }
+
+    @SuppressWarnings("unused")
+    public void setGlobalCheckChunkSize(int globalCheckChunkSize) {
+        if (globalCheckChunkSize > 0) {
+            this.globalCheckChunkSize = globalCheckChunkSize;
+        } else {
+            problemReporter.warn(String.format(WARNING_FORMAT, "globalCheckChunkSize", globalCheckChunkSize, this.globalCheckChunkSize));
+        }
+    }
+
+    public int getGlobalCheckChunksPerSecond() {
+        return globalCheckChunksPerSecond;
+    }
+
+    @SuppressWarnings("unused")
+    public void setGlobalCheckChunksPerSecond(int globalCheckChunksPerSecond) {
+        if (globalCheckChunksPerSecond >= 0) {
+            this.globalCheckChunksPerSecond = globalCheckChunksPerSecond;
+        } else {
+            problemReporter.warn(String.format(WARNING_FORMAT, "globalCheckChunksPerSecond", globalCheckChunksPerSecond, this.globalCheckChunksPerSecond));
+        }
+    }
+
+    public int getGlobalCheckMaxChunksPerRun() {
+        return globalCheckMaxChunksPerRun;
+    }
+
+    @SuppressWarnings("unused")
+    public void setGlobalCheckMaxChunksPerRun(int globalCheckMaxChunksPerRun) {
+        if (globalCheckMaxChunksPerRun >= 0) {
+            this.globalCheckMaxChunksPerRun = globalCheckMaxChunksPerRun;
+        } else {
+            problemReporter.warn(String.format(WARNING_FORMAT, "globalCheckMaxChunksPerRun", globalCheckMaxChunksPerRun, this.globalCheckMaxChunksPerRun));
+        }
+    }
+
+    public String getGlobalCheckPersistenceBaseDir() {
+        return (this.getHomePath() + File.separatorChar + globalCheckPersistenceBaseDir + File.separatorChar).replaceAll(File.separator + "+", File.separator);
+    }
+
+    @SuppressWarnings("unused")
+    public void setGlobalCheckPersistenceBaseDir(String globalCheckPersistenceBaseDir) {
+        this.globalCheckPersistenceBaseDir = globalCheckPersistenceBaseDir;
+    }
+
     public String getViewPersistenceConfBaseName() {
         return viewPersistenceConfBaseName;
     }
@@ -1466,6 +1641,19 @@ public final class SystemConfig {
         }
     }
 
+    public int getUseVirtualThread() {
+        return useVirtualThread;
+    }
+
+    @SuppressWarnings("unused")
+    public void setUseVirtualThread(int useVirtualThread) {
+        if (useVirtualThread >= 0 && useVirtualThread <= 1) {
+            this.useVirtualThread = useVirtualThread;
+        } else {
+            problemReporter.warn(String.format(WARNING_FORMAT, "useVirtualThread", useVirtualThread, this.useVirtualThread));
+        }
+    }
+
     public int getUseSerializableMode() {
         return useSerializableMode;
     }
@@ -1821,6 +2009,19 @@ public final class SystemConfig {
         routePenetrationRules = sqlPenetrationRegexesTmp;
     }
 
+    public int getSqlRouteDigestCacheSize() {
+        return sqlRouteDigestCacheSize;
+    }
+
+    @SuppressWarnings("unused")
+    public void setSqlRouteDigestCacheSize(int sqlRouteDigestCacheSize) {
+        if (sqlRouteDigestCacheSize >= 0) {
+            this.sqlRouteDigestCacheSize = sqlRouteDigestCacheSize;
+        } else if (this.problemReporter != null) {
+            problemReporter.warn(String.format(WARNING_FORMAT, "sqlRouteDigestCacheSize", sqlRouteDigestCacheSize, this.sqlRouteDigestCacheSize));
+        }
+    }
+
     public String getDistrict() {
         return district;
     }
@@ -1957,6 +2158,7 @@ public final class SystemConfig {
                 ", usingAIO=" + usingAIO +
                 ", useThreadUsageStat=" + useThreadUsageStat +
                 ", usePerformanceMode=" + usePerformanceMode +
+                ", useVirtualThread=" + useVirtualThread +
                 ", useSerializableMode=" + useSerializableMode +
                 ", useCostTimeStat=" + useCostTimeStat +
                 ", maxCostStatSize=" + maxCostStatSize +
@@ -1967,6 +2169,9 @@ public final class SystemConfig {
                 ", txIsolation=" + txIsolation +
                 ", checkTableConsistency=" + checkTableConsistency +
                 ", checkTableConsistencyPeriod=" + checkTableConsistencyPeriod +
+                ", tableStatisticsPeriod=" + tableStatisticsPeriod +
+                ", incrementalMetaReload=" + incrementalMetaReload +
+                ", metaFetchParallelism=" + metaFetchParallelism +
                 ", processorCheckPeriod=" + processorCheckPeriod +
                 ", sqlExecuteTimeout=" + sqlExecuteTimeout +
                 ", closeTimeout=" + closeTimeout +
@@ -1980,12 +2185,14 @@ public final class SystemConfig {
                 ", useJoinStrategy=" + useJoinStrategy +
                 ", nestLoopConnSize=" + nestLoopConnSize +
                 ", nestLoopRowsSize=" + nestLoopRowsSize +
+                ", nestLoopBloomFilterRows=" + nestLoopBloomFilterRows +
                 ", otherMemSize=" + otherMemSize +
                 ", orderMemSize=" + orderMemSize +
                 ", joinMemSize=" + joinMemSize +
                 ", bufferPoolChunkSize=" + bufferPoolChunkSize +
                 ", bufferPoolPageSize=" + bufferPoolPageSize +
                 ", bufferPoolPageNumber=" + bufferPoolPageNumber +
+                ", bufferPoolThreadCacheSize=" + bufferPoolThreadCacheSize +
                 ", useSqlStat=" + useSqlStat +
                 ", sqlRecordCount=" + sqlRecordCount +
                 ", maxResultSet=" + maxResultSet +
@@ -1999,9 +2206,15 @@ public final class SystemConfig {
                 ", backSocketNoDelay=" + backSocketNoDelay +
                 ", viewPersistenceConfBaseDir=" + viewPersistenceConfBaseDir +
                 ", viewPersistenceConfBaseName=" + viewPersistenceConfBaseName +
+                ", globalCheckChunkSize=" + globalCheckChunkSize +
+                ", globalCheckChunksPerSecond=" + globalCheckChunksPerSecond +
+                ", globalCheckMaxChunksPerRun=" + globalCheckMaxChunksPerRun +
+                ", globalCheckPersistenceBaseDir=" + globalCheckPersistenceBaseDir +
                 ", joinQueueSize=" + joinQueueSize +
                 ", mergeQueueSize=" + mergeQueueSize +
                 ", orderByQueueSize=" + orderByQueueSize +
+                ", orderByTopNMaxRows=" + orderByTopNMaxRows +
+                ", complexQueryRowBatchSize=" + complexQueryRowBatchSize +
                 ", enableSlowLog=" + enableSlowLog +
                 ", slowLogBaseDir=" + slowLogBaseDir +
                 ", slowLogBaseName=" + slowLogBaseName +
@@ -2035,6 +2248,7 @@ public final class SystemConfig {
                 ", statisticQueueSize=" + statisticQueueSize +
                 ", inSubQueryTransformToJoin=" + inSubQueryTransformToJoin +
                 ", joinStrategyType=" + joinStrategyType +
+                ", useHashJoin=" + useHashJoin +
                 ", closeHeartBeatRecord=" + closeHeartBeatRecord +
                 ", serverCertificateKeyStoreUrl=" + serverCertificateKeyStoreUrl +
                 ", serverCertificateKeyStorePwd=" + serverCertificateKeyStorePwd +
@@ -2046,6 +2260,7 @@ public final class SystemConfig {
                 ", gmsslOcaPem=" + gmsslOcaPem +
                 ", supportSSL=" + supportSSL +
                 ", enableRoutePenetration=" + enableRoutePenetration +
+                ", sqlRouteDigestCacheSize=" + sqlRouteDigestCacheSize +
                 ", routePenetrationRules='" + routePenetrationRules + '\'' +
                 ", enableSessionActiveRatioStat=" + enableSessionActiveRatioStat +
                 ", enableConnectionAssociateThread=" + enableConnectionAssociateThread +
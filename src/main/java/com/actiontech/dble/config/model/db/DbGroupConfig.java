@@ -18,6 +18,10 @@ import java.util.regex.Pattern;
 public class DbGroupConfig {
     private static final Pattern HP_PATTERN_SHOW_SLAVE_STATUS = Pattern.compile("\\s*show\\s+slave\\s+status\\s*", Pattern.CASE_INSENSITIVE);
     private static final Pattern HP_PATTERN_READ_ONLY = Pattern.compile("\\s*select\\s+@@read_only\\s*", Pattern.CASE_INSENSITIVE);
+    // weighted random
+    public static final String LOAD_BALANCE_RANDOM = "random";
+    // the least response time * outstanding requests
+    public static final String LOAD_BALANCE_LEAST_RESPONSE = "leastResponse";
     private String name;
     private int rwSplitMode = PhysicalDbGroup.RW_SPLIT_OFF;
     private DbInstanceConfig writeInstanceConfig;
@@ -28,6 +32,7 @@ public class DbGroupConfig {
     private int delayThreshold;
     private int delayPeriodMillis;
     private String delayDatabase;
+    private String loadBalance = LOAD_BALANCE_RANDOM;
 
 
     private int heartbeatTimeout = 0;
@@ -175,6 +180,20 @@ public class DbGroupConfig {
         this.delayDatabase = delayDatabase;
     }
 
+    public String getLoadBalance() {
+        return loadBalance;
+    }
+
+    public void setLoadBalance(String loadBalance) {
+        if (StringUtil.isEmpty(loadBalance) || LOAD_BALANCE_RANDOM.equalsIgnoreCase(loadBalance)) {
+            this.loadBalance = LOAD_BALANCE_RANDOM;
+        } else if (LOAD_BALANCE_LEAST_RESPONSE.equalsIgnoreCase(loadBalance)) {
+            this.loadBalance = LOAD_BALANCE_LEAST_RESPONSE;
+        } else {
+            throw new ConfigException("dbGroup " + name + " loadBalance should be " + LOAD_BALANCE_RANDOM + " or " + LOAD_BALANCE_LEAST_RESPONSE + "!");
+        }
+    }
+
     public boolean equalsBaseInfo(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
@@ -190,6 +209,7 @@ public class DbGroupConfig {
                 disableHA == that.disableHA &&
                 delayPeriodMillis == that.delayPeriodMillis &&
                 StringUtil.equals(delayDatabase, that.delayDatabase) &&
+                StringUtil.equals(loadBalance, that.loadBalance) &&
                 Objects.equals(name, that.name) &&
                 Objects.equals(heartbeatSQL, that.heartbeatSQL);
     }
@@ -207,6 +227,7 @@ public class DbGroupConfig {
                 ", delayThreshold=" + delayThreshold +
                 ", delayPeriodMillis=" + delayPeriodMillis +
                 ", delayDatabase=" + delayDatabase +
+                ", loadBalance=" + loadBalance +
                 ", heartbeatTimeout=" + heartbeatTimeout +
                 ", errorRetryCount=" + errorRetryCount +
                 ", keepAlive=" + keepAlive +
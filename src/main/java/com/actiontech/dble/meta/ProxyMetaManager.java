@@ -32,6 +32,7 @@ import com.actiontech.dble.config.model.sharding.table.BaseTableConfig;
 import com.actiontech.dble.meta.table.AbstractSchemaMetaHandler;
 import com.actiontech.dble.meta.table.SchemaCheckMetaHandler;
 import com.actiontech.dble.meta.table.ServerMetaHandler;
+import com.actiontech.dble.meta.table.TableStatisticsCollector;
 import com.actiontech.dble.plan.node.PlanNode;
 import com.actiontech.dble.server.util.SchemaUtil;
 import com.actiontech.dble.server.util.SchemaUtil.SchemaInfo;
@@ -56,6 +57,7 @@ public class ProxyMetaManager {
     private ReentrantLock metaLock = new ReentrantLock();
     private ScheduledExecutorService scheduler;
     private ScheduledFuture<?> checkTaskHandler;
+    private ScheduledFuture<?> statisticsTaskHandler;
     private AtomicInteger metaCount = new AtomicInteger(0);
     private volatile Repository repository = null;
     private AtomicInteger version = new AtomicInteger(0);
@@ -190,6 +192,11 @@ public class ProxyMetaManager {
         SchemaMeta schemaMeta = catalogs.get(schema);
         if (schemaMeta != null) {
             tm.setId(tableIndex.incrementAndGet());
+            TableMeta oldTm = schemaMeta.getTableMeta(tbName);
+            if (!isNewCreate && oldTm != null && tm.getStatistics() == null) {
+                // the rows are not changed by the ddl, keep them until next collection
+                tm.setStatistics(oldTm.getStatistics());
+            }
             schemaMeta.addTableMeta(tbName, tm);
         }
         if (isNewCreate) {
@@ -448,10 +455,7 @@ public class ProxyMetaManager {
         handler.setFilter(null);
         handler.execute();
         initViewMeta();
-        if (SystemConfig.getInstance().getCheckTableConsistency() == 1) {
-            scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("MetaDataChecker-%d").build());
-            checkTaskHandler = scheduler.scheduleWithFixedDelay(tableStructureCheckTask(selfNode), SystemConfig.getInstance().getCheckTableConsistencyPeriod(), SystemConfig.getInstance().getCheckTableConsistencyPeriod(), TimeUnit.MILLISECONDS);
-        }
+        startScheduler(selfNode);
     }
 
     /**
@@ -470,18 +474,35 @@ public class ProxyMetaManager {
         // do not reload the view meta or start a new scheduler
         if (handler.execute()) {
             initViewMeta();
-            if (SystemConfig.getInstance().getCheckTableConsistency() == 1) {
-                scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("MetaDataChecker-%d").build());
-                checkTaskHandler = scheduler.scheduleWithFixedDelay(tableStructureCheckTask(selfNode), SystemConfig.getInstance().getCheckTableConsistencyPeriod(), SystemConfig.getInstance().getCheckTableConsistencyPeriod(), TimeUnit.MILLISECONDS);
-            }
+            startScheduler(selfNode);
             return true;
         }
         return false;
     }
 
+    private void startScheduler(Set<String> selfNode) {
+        boolean checkTable = SystemConfig.getInstance().getCheckTableConsistency() == 1;
+        long statisticsPeriod = SystemConfig.getInstance().getTableStatisticsPeriod();
+        if (!checkTable && statisticsPeriod == 0) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder().setNameFormat("MetaDataChecker-%d").build());
+        if (checkTable) {
+            checkTaskHandler = scheduler.scheduleWithFixedDelay(tableStructureCheckTask(selfNode), SystemConfig.getInstance().getCheckTableConsistencyPeriod(), SystemConfig.getInstance().getCheckTableConsistencyPeriod(), TimeUnit.MILLISECONDS);
+        }
+        if (statisticsPeriod > 0) {
+            statisticsTaskHandler = scheduler.scheduleWithFixedDelay(this::collectTableStatistics, 0, statisticsPeriod, TimeUnit.MILLISECONDS);
+        }
+    }
+
     public void terminate() {
         if (checkTaskHandler != null) {
             checkTaskHandler.cancel(false);
+        }
+        if (statisticsTaskHandler != null) {
+            statisticsTaskHandler.cancel(false);
+        }
+        if (scheduler != null) {
             scheduler.shutdown();
         }
         if (repository != null) {
@@ -519,6 +540,14 @@ public class ProxyMetaManager {
         }
     }
 
+    private void collectTableStatistics() {
+        try {
+            new TableStatisticsCollector(this).execute();
+        } catch (Exception e) {
+            LOGGER.warn("collect table statistics error", e);
+        }
+    }
+
     public Repository getRepository() {
         return repository;
     }
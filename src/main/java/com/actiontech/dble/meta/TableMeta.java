@@ -15,6 +15,8 @@ public final class TableMeta {
     private long version;
     private String createSql;
     private List<ColumnMeta> columns;
+    // not a part of the meta, collected periodically and maybe null
+    private volatile TableStatistics statistics;
 
     public TableMeta() {
     }
@@ -24,6 +26,7 @@ public final class TableMeta {
         this.schemaName = origin.getSchemaName();
         columns = origin.getColumns();
         createSql = origin.getCreateSql();
+        statistics = origin.getStatistics();
         version = newVersion;
     }
 
@@ -81,6 +84,14 @@ public final class TableMeta {
         this.createSql = createSql;
     }
 
+    public TableStatistics getStatistics() {
+        return statistics;
+    }
+
+    public void setStatistics(TableStatistics statistics) {
+        this.statistics = statistics;
+    }
+
     @Override
     public boolean equals(Object other) {
         if (this == other) {
@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.meta;
+
+import java.util.Map;
+
+/**
+ * the rows of a table and the distinct values of its indexed columns in all its shardingNodes,
+ * estimated by the backends, only used by the optimizer
+ */
+public final class TableStatistics {
+    public static final long UNKNOWN = -1;
+
+    private final long rowCount;
+    // lower case column name -> cardinality of the indexes which start with the column
+    private final Map<String, Long> columnCardinality;
+    private final long collectTime;
+
+    public TableStatistics(long rowCount, Map<String, Long> columnCardinality) {
+        this.rowCount = rowCount;
+        this.columnCardinality = columnCardinality;
+        this.collectTime = System.currentTimeMillis();
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return UNKNOWN if the column is not the first column of any index
+     */
+    public long getCardinality(String column) {
+        Long cardinality = columnCardinality.get(column.toLowerCase());
+        if (cardinality == null || cardinality <= 0) {
+            return UNKNOWN;
+        }
+        return Math.min(cardinality, Math.max(rowCount, 1));
+    }
+
+    public long getCollectTime() {
+        return collectTime;
+    }
+
+    @Override
+    public String toString() {
+        return "TableStatistics{rowCount=" + rowCount + ", columnCardinality=" + columnCardinality + "}";
+    }
+}
@@ -52,6 +52,8 @@ public abstract class AbstractTableMetaHandler {
 
     public void execute() {
         logger.info("table " + tableName + " execute start");
+        // the structure may be changed without changing the create_time
+        TableStructureCache.invalidate(schema, tableName);
         for (String shardingNode : shardingNodes) {
             if (selfNode != null && selfNode.contains(shardingNode)) {
                 this.countdown();
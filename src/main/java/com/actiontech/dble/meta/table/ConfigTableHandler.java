@@ -127,6 +127,8 @@ public class ConfigTableHandler extends ModeTableHandler {
             else
                 logger.infoList("try to execute show tables in [" + schema + "] config table's shardingNode:", getShardDNSet());
             Map<String, Set<String>> tableMap = Maps.newHashMap();
+            // show tables in all shardingNodes at the same time
+            List<ShowTableByNodeUnitHandler> unitHandlers = new ArrayList<>(shardingNodeMap.size());
             for (Map.Entry<String, Set<String>> nodeInfo : shardingNodeMap.entrySet()) {
                 String node = nodeInfo.getKey();
                 if (selfNodes != null && selfNodes.contains(node)) {
@@ -137,6 +139,10 @@ public class ConfigTableHandler extends ModeTableHandler {
 
                 ShowTableByNodeUnitHandler unitHandler = new ShowTableByNodeUnitHandler(nodeInfo.getValue(), node);
                 unitHandler.execute();
+                unitHandlers.add(unitHandler);
+            }
+            for (ShowTableByNodeUnitHandler unitHandler : unitHandlers) {
+                String node = unitHandler.shardingNode;
                 Set<String> existTables = unitHandler.getTablesByNodeUnit();
                 if (existTables.size() == 0) {
                     logger.info("the Node " + node + " has no exist table,count down");
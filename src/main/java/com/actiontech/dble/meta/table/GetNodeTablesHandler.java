@@ -34,6 +34,7 @@ public abstract class GetNodeTablesHandler {
     protected Lock lock = new ReentrantLock();
     protected Condition notify = lock.newCondition();
     private String sql = SQL;
+    private final MetaFetchLimiter fetchLimiter = MetaFetchLimiter.getCurrent();
 
     GetNodeTablesHandler(String shardingNode, boolean skipView) {
         this.shardingNode = shardingNode;
@@ -47,18 +48,25 @@ public abstract class GetNodeTablesHandler {
     }
 
     public void execute() {
-        ShardingNode dn = DbleServer.getInstance().getConfig().getShardingNodes().get(shardingNode);
-        String mysqlShowTableCol = "Tables_in_" + dn.getDatabase();
-        String[] mysqlShowTableCols = new String[]{mysqlShowTableCol, "Table_type"};
-        PhysicalDbInstance ds = dn.getDbGroup().getWriteDbInstance();
-        if (ds.isAlive()) {
-            MultiRowSQLQueryResultHandler resultHandler = new MultiRowSQLQueryResultHandler(mysqlShowTableCols, new MySQLShowTablesListener(mysqlShowTableCol, dn.getDatabase(), ds));
-            SQLJob sqlJob = new SQLJob(sql, dn.getDatabase(), resultHandler, ds);
-            sqlJob.run();
-        } else {
-            MultiRowSQLQueryResultHandler resultHandler = new MultiRowSQLQueryResultHandler(mysqlShowTableCols, new MySQLShowTablesListener(mysqlShowTableCol, dn.getDatabase(), null));
-            SQLJob sqlJob = new SQLJob(sql, shardingNode, resultHandler, false);
-            sqlJob.run();
+        // released by the listener
+        fetchLimiter.acquire();
+        try {
+            ShardingNode dn = DbleServer.getInstance().getConfig().getShardingNodes().get(shardingNode);
+            String mysqlShowTableCol = "Tables_in_" + dn.getDatabase();
+            String[] mysqlShowTableCols = new String[]{mysqlShowTableCol, "Table_type"};
+            PhysicalDbInstance ds = dn.getDbGroup().getWriteDbInstance();
+            if (ds.isAlive()) {
+                MultiRowSQLQueryResultHandler resultHandler = new MultiRowSQLQueryResultHandler(mysqlShowTableCols, new MySQLShowTablesListener(mysqlShowTableCol, dn.getDatabase(), ds));
+                SQLJob sqlJob = new SQLJob(sql, dn.getDatabase(), resultHandler, ds);
+                sqlJob.run();
+            } else {
+                MultiRowSQLQueryResultHandler resultHandler = new MultiRowSQLQueryResultHandler(mysqlShowTableCols, new MySQLShowTablesListener(mysqlShowTableCol, dn.getDatabase(), null));
+                SQLJob sqlJob = new SQLJob(sql, shardingNode, resultHandler, false);
+                sqlJob.run();
+            }
+        } catch (RuntimeException e) {
+            fetchLimiter.release();
+            throw e;
         }
     }
 
@@ -87,6 +95,7 @@ public abstract class GetNodeTablesHandler {
 
         @Override
         public void onResult(SQLQueryResult<List<Map<String, String>>> result) {
+            fetchLimiter.release();
             String key = null;
             if (ds != null) {
                 key = "dbInstance[" + ds.getDbGroupConfig().getName() + "." + ds.getConfig().getInstanceName() + "],sharding_node[" + shardingNode + "],schema[" + schema + "]";
@@ -12,16 +12,15 @@ import com.actiontech.dble.alarm.AlertUtil;
 import com.actiontech.dble.alarm.ToResolveContainer;
 import com.actiontech.dble.backend.datasource.PhysicalDbInstance;
 import com.actiontech.dble.backend.datasource.ShardingNode;
+import com.actiontech.dble.config.model.SystemConfig;
 import com.actiontech.dble.meta.ReloadLogHelper;
 import com.actiontech.dble.sqlengine.MultiRowSQLQueryResultHandler;
 import com.actiontech.dble.sqlengine.MultiTablesMetaJob;
+import com.actiontech.dble.sqlengine.SQLJob;
 import com.actiontech.dble.sqlengine.SQLQueryResult;
 import com.actiontech.dble.sqlengine.SQLQueryResultListener;
 
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
 
 public abstract class GetTableMetaHandler {
     private static final String MYSQL_TABLE_COLS = "Table";
@@ -36,8 +35,15 @@ public abstract class GetTableMetaHandler {
             "character_set_client",
     };
     private static final String SQL_SHOW_CREATE_TABLE = "show create table `{0}`;";
+    private static final String TABLE_NAME = "TABLE_NAME";
+    private static final String CREATE_TIME = "CREATE_TIME";
+    private static final String UPDATE_TIME = "UPDATE_TIME";
+    private static final String VERSION = "VERSION";
+    private static final String SQL_FINGERPRINT = "select TABLE_NAME,CREATE_TIME,UPDATE_TIME,VERSION from information_schema.TABLES " +
+            "where TABLE_SCHEMA = database() and TABLE_TYPE = 'BASE TABLE'";
     protected final ReloadLogHelper logger;
     protected String schema;
+    private final MetaFetchLimiter fetchLimiter = MetaFetchLimiter.getCurrent();
 
     GetTableMetaHandler(String schema, boolean isReload) {
         this.schema = schema;
@@ -45,6 +51,34 @@ public abstract class GetTableMetaHandler {
     }
 
     public void execute(String shardingNode, Set<String> tables) {
+        // released after the countdown of the shardingNode
+        fetchLimiter.acquire();
+        try {
+            ShardingNode dn = DbleServer.getInstance().getConfig().getShardingNodes().get(shardingNode);
+            PhysicalDbInstance ds = dn.getDbGroup().getWriteDbInstance();
+            if (SystemConfig.getInstance().getIncrementalMetaReload() == 1 && ds.isAlive()) {
+                MultiRowSQLQueryResultHandler resultHandler = new MultiRowSQLQueryResultHandler(new String[]{TABLE_NAME, CREATE_TIME, UPDATE_TIME, VERSION},
+                        new FingerprintListener(shardingNode, tables, physicalNode(dn)));
+                new SQLJob(SQL_FINGERPRINT, dn.getDatabase(), resultHandler, ds).run();
+            } else {
+                fetch(shardingNode, tables, Collections.emptyMap(), null);
+            }
+        } catch (RuntimeException e) {
+            fetchLimiter.release();
+            throw e;
+        }
+    }
+
+    /**
+     * @param fingerprints table -> fingerprint of the tables to cache, empty if not incremental
+     * @param node         the physical node of the cache
+     */
+    private void fetch(String shardingNode, Set<String> tables, Map<String, String> fingerprints, String node) {
+        if (tables.isEmpty()) {
+            logger.info("all tables of shardingNode " + shardingNode + " are not changed, count down");
+            finish(shardingNode, Collections.emptySet());
+            return;
+        }
         StringBuilder sbSql = new StringBuilder();
         for (String table : tables) {
             sbSql.append(SQL_SHOW_CREATE_TABLE.replace("{0}", table));
@@ -53,30 +87,101 @@ public abstract class GetTableMetaHandler {
         PhysicalDbInstance ds = dn.getDbGroup().getWriteDbInstance();
         if (ds.isAlive()) {
             logger.info("dbInstance is alive start sqljob for shardingNode:" + shardingNode);
-            MultiRowSQLQueryResultHandler resultHandler = new MultiRowSQLQueryResultHandler(MYSQL_SHOW_CREATE_TABLE_COLS, new TableStructureListener(shardingNode, tables, ds));
+            MultiRowSQLQueryResultHandler resultHandler = new MultiRowSQLQueryResultHandler(MYSQL_SHOW_CREATE_TABLE_COLS, new TableStructureListener(shardingNode, tables, ds, fingerprints, node));
             MultiTablesMetaJob sqlJob = new MultiTablesMetaJob(sbSql.toString(), dn.getDatabase(), resultHandler, ds, logger.isReload());
             sqlJob.run();
         } else {
             logger.info("dbInstance is not alive start sqljob for shardingNode:" + shardingNode);
-            MultiRowSQLQueryResultHandler resultHandler = new MultiRowSQLQueryResultHandler(MYSQL_SHOW_CREATE_TABLE_COLS, new TableStructureListener(shardingNode, tables, null));
+            MultiRowSQLQueryResultHandler resultHandler = new MultiRowSQLQueryResultHandler(MYSQL_SHOW_CREATE_TABLE_COLS, new TableStructureListener(shardingNode, tables, null, fingerprints, node));
             MultiTablesMetaJob sqlJob = new MultiTablesMetaJob(sbSql.toString(), shardingNode, resultHandler, false, logger.isReload());
             sqlJob.run();
         }
     }
 
+    private void finish(String shardingNode, Set<String> remainingTables) {
+        try {
+            countdown(shardingNode, remainingTables);
+        } finally {
+            fetchLimiter.release();
+        }
+    }
+
+    private static String physicalNode(ShardingNode dn) {
+        return dn.getDbGroup().getGroupName() + "." + dn.getDatabase();
+    }
+
     abstract void countdown(String shardingNode, Set<String> tables);
 
     abstract void handleTable(String shardingNode, String table, boolean isView, String sql);
 
+    /**
+     * the tables whose fingerprint is the same as the cached one are handled by the cached create sql,
+     * the others are fetched by show create table
+     */
+    private class FingerprintListener implements SQLQueryResultListener<SQLQueryResult<List<Map<String, String>>>> {
+        private final String shardingNode;
+        private final Set<String> tables;
+        private final String node;
+
+        FingerprintListener(String shardingNode, Set<String> tables, String node) {
+            this.shardingNode = shardingNode;
+            this.tables = tables;
+            this.node = node;
+        }
+
+        @Override
+        public void onResult(SQLQueryResult<List<Map<String, String>>> result) {
+            try {
+                if (!result.isSuccess()) {
+                    logger.info("can't get the fingerprint of the tables in shardingNode " + shardingNode + ", fetch all tables");
+                    fetch(shardingNode, tables, Collections.emptyMap(), null);
+                    return;
+                }
+                boolean lowerCase = DbleServer.getInstance().getSystemVariables().isLowerCaseTableNames();
+                Map<String, String> fingerprints = new HashMap<>();
+                for (Map<String, String> row : result.getResult()) {
+                    // the create time of some engines is null, they are always fetched
+                    if (row.get(CREATE_TIME) != null) {
+                        String table = lowerCase ? row.get(TABLE_NAME).toLowerCase() : row.get(TABLE_NAME);
+                        fingerprints.put(table, row.get(CREATE_TIME) + "," + row.get(UPDATE_TIME) + "," + row.get(VERSION));
+                    }
+                }
+                Set<String> changedTables = new HashSet<>();
+                Map<String, String> cachedSql = new HashMap<>();
+                for (String table : tables) {
+                    String fingerprint = fingerprints.get(table);
+                    String sql = fingerprint == null ? null : TableStructureCache.get(schema, table, node, fingerprint);
+                    if (sql == null) {
+                        changedTables.add(table);
+                    } else {
+                        cachedSql.put(table, sql);
+                    }
+                }
+                logger.info("shardingNode " + shardingNode + " has " + changedTables.size() + " changed tables in " + tables.size() + " tables");
+                for (Map.Entry<String, String> entry : cachedSql.entrySet()) {
+                    handleTable(shardingNode, entry.getKey(), false, entry.getValue());
+                }
+                fetch(shardingNode, changedTables, fingerprints, node);
+            } catch (RuntimeException e) {
+                logger.warn("handle the fingerprint of the tables in shardingNode " + shardingNode + " error", e);
+                finish(shardingNode, tables);
+            }
+        }
+    }
+
     private class TableStructureListener implements SQLQueryResultListener<SQLQueryResult<List<Map<String, String>>>> {
         private String shardingNode;
         private PhysicalDbInstance ds;
         private Set<String> expectedTables;
+        private Map<String, String> fingerprints;
+        private String node;
 
-        TableStructureListener(String shardingNode, Set<String> expectedTables, PhysicalDbInstance ds) {
+        TableStructureListener(String shardingNode, Set<String> expectedTables, PhysicalDbInstance ds, Map<String, String> fingerprints, String node) {
             this.shardingNode = shardingNode;
             this.expectedTables = new HashSet<>(expectedTables);
             this.ds = ds;
+            this.fingerprints = fingerprints;
+            this.node = node;
         }
 
         @Override
@@ -111,11 +216,15 @@ public abstract class GetTableMetaHandler {
                     table = table.toLowerCase();
                 }
                 expectedTables.remove(table);
+                String fingerprint = fingerprints.get(table);
+                if (!isView && fingerprint != null && createSQL != null) {
+                    TableStructureCache.put(schema, table, node, fingerprint, createSQL);
+                }
                 handleTable(shardingNode, table, isView, createSQL);
             }
 
             logger.info("shardingNode normally count down:" + shardingNode + " for schema " + schema);
-            countdown(shardingNode, expectedTables);
+            finish(shardingNode, expectedTables);
         }
     }
 
@@ -0,0 +1,55 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.meta.table;
+
+import com.actiontech.dble.config.model.SystemConfig;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * limit the shardingNodes fetching the metadata at the same time.
+ * the permit is acquired by the thread starting the fetching and released by the callback of the fetching,
+ * the callbacks never acquire, so the waiting thread is always woken up by the fetching in flight.
+ * the limiter is created by the loading of the metadata, a handler keeps the limiter it is created with,
+ * so its permits are released to the same limiter after a reload.
+ */
+final class MetaFetchLimiter {
+    private static volatile MetaFetchLimiter current;
+
+    private final Semaphore permits;
+
+    private MetaFetchLimiter(int parallelism) {
+        this.permits = new Semaphore(parallelism);
+    }
+
+    /**
+     * called when the metadata is loaded at the start or reloaded
+     */
+    static void reset() {
+        current = new MetaFetchLimiter(SystemConfig.getInstance().getMetaFetchParallelism());
+    }
+
+    static MetaFetchLimiter getCurrent() {
+        MetaFetchLimiter limiter = current;
+        if (limiter == null) {
+            synchronized (MetaFetchLimiter.class) {
+                if (current == null) {
+                    reset();
+                }
+                limiter = current;
+            }
+        }
+        return limiter;
+    }
+
+    void acquire() {
+        permits.acquireUninterruptibly();
+    }
+
+    void release() {
+        permits.release();
+    }
+}
@@ -14,7 +14,9 @@ import com.actiontech.dble.meta.TableMeta;
 import com.actiontech.dble.meta.ViewMeta;
 import com.actiontech.dble.util.CollectionUtil;
 import com.actiontech.dble.util.StringUtil;
+import com.alibaba.druid.sql.ast.statement.SQLColumnConstraint;
 import com.alibaba.druid.sql.ast.statement.SQLColumnDefinition;
+import com.alibaba.druid.sql.ast.statement.SQLColumnPrimaryKey;
 import com.alibaba.druid.sql.ast.statement.SQLCreateTableStatement;
 import com.alibaba.druid.sql.ast.statement.SQLSelectOrderByItem;
 import com.alibaba.druid.sql.ast.statement.SQLTableElement;
@@ -22,6 +24,8 @@ import com.alibaba.druid.sql.dialect.mysql.ast.MySqlKey;
 import com.alibaba.druid.sql.dialect.mysql.ast.MySqlPrimaryKey;
 import com.alibaba.druid.sql.dialect.mysql.ast.MySqlUnique;
 import com.alibaba.druid.sql.parser.SQLStatementParser;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -30,6 +34,9 @@ import java.util.*;
 public final class MetaHelper {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MetaHelper.class);
+    private static final int PARSED_TABLES_SIZE = 65536;
+    // create sql -> parsed table, the unchanged tables are not parsed again by the reload
+    private static final Cache<String, TableMeta> PARSED_TABLES = CacheBuilder.newBuilder().maximumSize(PARSED_TABLES_SIZE).build();
 
     private MetaHelper() {
     }
@@ -58,9 +65,18 @@ public final class MetaHelper {
         }
 
         try {
-            SQLStatementParser parser = new DbleCreateTableParser(sql);
-            SQLCreateTableStatement createStatement = parser.parseCreateTable();
-            return MetaHelper.initTableMeta(table, createStatement, timeStamp, schema);
+            TableMeta parsed = PARSED_TABLES.getIfPresent(sql);
+            if (parsed == null) {
+                SQLStatementParser parser = new DbleCreateTableParser(sql);
+                SQLCreateTableStatement createStatement = parser.parseCreateTable();
+                parsed = MetaHelper.initTableMeta(table, createStatement, timeStamp, schema);
+                PARSED_TABLES.put(sql, parsed);
+            }
+            // the columns are shared as the copy of TableMeta
+            TableMeta tableMeta = new TableMeta(parsed, timeStamp);
+            tableMeta.setTableName(table);
+            tableMeta.setSchemaName(schema);
+            return tableMeta;
         } catch (Exception e) {
             LOGGER.warn("sql[" + sql + "] parser error:", e);
             AlertUtil.alertSelf(AlarmCode.GET_TABLE_META_FAIL, Alert.AlertLevel.WARN, "sql[" + sql + "] parser error:" + e.getMessage(), null);
@@ -85,6 +101,32 @@ public final class MetaHelper {
         return tableMeta;
     }
 
+    /**
+     * @return the columns of the primary key in order, empty if the table has no primary key
+     */
+    public static List<String> getPrimaryKeyColumns(String createSql) {
+        SQLStatementParser parser = new DbleCreateTableParser(createSql);
+        SQLCreateTableStatement createStatement = parser.parseCreateTable();
+        List<String> columns = new ArrayList<>();
+        for (SQLTableElement tableElement : createStatement.getTableElementList()) {
+            if (tableElement instanceof MySqlPrimaryKey) {
+                columns.clear();
+                for (SQLSelectOrderByItem item : ((MySqlPrimaryKey) tableElement).getIndexDefinition().getColumns()) {
+                    columns.add(StringUtil.removeBackAndDoubleQuote(item.getExpr().toString()));
+                }
+                return columns;
+            } else if (tableElement instanceof SQLColumnDefinition) {
+                SQLColumnDefinition columnElement = (SQLColumnDefinition) tableElement;
+                for (SQLColumnConstraint constraint : columnElement.getConstraints()) {
+                    if (constraint instanceof SQLColumnPrimaryKey) {
+                        columns.add(StringUtil.removeBackAndDoubleQuote(columnElement.getName().getSimpleName()));
+                    }
+                }
+            }
+        }
+        return columns;
+    }
+
     public static String electionShardingColumn(String sql) {
 
         SQLStatementParser parser = new DbleCreateTableParser(sql);
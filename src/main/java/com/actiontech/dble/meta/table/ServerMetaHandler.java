@@ -44,6 +44,7 @@ public class ServerMetaHandler {
         this.selfNode = selfNode;
         this.reloadSchemas = config.getSchemas();
         this.schemaNumber = config.getSchemas().size();
+        MetaFetchLimiter.reset();
     }
 
     private void filter() {
@@ -0,0 +1,248 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.meta.table;
+
+import com.actiontech.dble.DbleServer;
+import com.actiontech.dble.config.model.sharding.SchemaConfig;
+import com.actiontech.dble.config.model.sharding.table.BaseTableConfig;
+import com.actiontech.dble.config.model.sharding.table.GlobalTableConfig;
+import com.actiontech.dble.meta.ProxyMetaManager;
+import com.actiontech.dble.meta.SchemaMeta;
+import com.actiontech.dble.meta.TableMeta;
+import com.actiontech.dble.meta.TableStatistics;
+import com.actiontech.dble.sqlengine.MultiRowSQLQueryResultHandler;
+import com.actiontech.dble.sqlengine.SQLJob;
+import com.actiontech.dble.sqlengine.SQLQueryResult;
+import com.actiontech.dble.sqlengine.SQLQueryResultListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * collect the rows and the index cardinality of the tables from the information_schema of every shardingNode,
+ * the statistics of a logic table are the sum of its shardingNodes(the max one for global table)
+ */
+public class TableStatisticsCollector {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TableStatisticsCollector.class);
+    private static final String TABLE_NAME = "TABLE_NAME";
+    private static final String TABLE_ROWS = "TABLE_ROWS";
+    private static final String COLUMN_NAME = "COLUMN_NAME";
+    private static final String CARDINALITY = "CARDINALITY";
+    private static final String SQL_ROWS = "select TABLE_NAME,TABLE_ROWS from information_schema.TABLES " +
+            "where TABLE_SCHEMA = database() and TABLE_TYPE = 'BASE TABLE'";
+    private static final String SQL_CARDINALITY = "select TABLE_NAME,COLUMN_NAME,max(CARDINALITY) as CARDINALITY from information_schema.STATISTICS " +
+            "where TABLE_SCHEMA = database() and SEQ_IN_INDEX = 1 group by TABLE_NAME,COLUMN_NAME";
+    private static final long TIMEOUT = TimeUnit.MINUTES.toNanos(1);
+
+    private final ProxyMetaManager tmManager;
+    private final boolean lowerCaseTableNames;
+    // shardingNode -> table -> rows
+    private final Map<String, Map<String, Long>> nodeRows = new ConcurrentHashMap<>();
+    // shardingNode -> table -> column -> cardinality
+    private final Map<String, Map<String, Map<String, Long>>> nodeCardinality = new ConcurrentHashMap<>();
+    private final Lock lock = new ReentrantLock();
+    private final Condition finished = lock.newCondition();
+    private int pending;
+
+    public TableStatisticsCollector(ProxyMetaManager tmManager) {
+        this(tmManager, DbleServer.getInstance().getSystemVariables().isLowerCaseTableNames());
+    }
+
+    TableStatisticsCollector(ProxyMetaManager tmManager, boolean lowerCaseTableNames) {
+        this.tmManager = tmManager;
+        this.lowerCaseTableNames = lowerCaseTableNames;
+    }
+
+    public void execute() {
+        Set<String> shardingNodes = new HashSet<>();
+        for (SchemaConfig schema : DbleServer.getInstance().getConfig().getSchemas().values()) {
+            for (BaseTableConfig tableConfig : schema.getTables().values()) {
+                shardingNodes.addAll(tableConfig.getShardingNodes());
+            }
+            if (schema.isDefaultSingleNode()) {
+                shardingNodes.add(schema.getDefaultSingleNode());
+            }
+        }
+        if (shardingNodes.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            pending = shardingNodes.size() * 2;
+        } finally {
+            lock.unlock();
+        }
+        for (String shardingNode : shardingNodes) {
+            new SQLJob(SQL_ROWS, shardingNode, new MultiRowSQLQueryResultHandler(new String[]{TABLE_NAME, TABLE_ROWS},
+                    new RowsListener(shardingNode)), false).run();
+            new SQLJob(SQL_CARDINALITY, shardingNode, new MultiRowSQLQueryResultHandler(new String[]{TABLE_NAME, COLUMN_NAME, CARDINALITY},
+                    new CardinalityListener(shardingNode)), false).run();
+        }
+        lock.lock();
+        try {
+            long nanos = TIMEOUT;
+            while (pending > 0) {
+                if (nanos <= 0) {
+                    LOGGER.info("collect table statistics timeout, " + pending + " queries are not finished");
+                    return;
+                }
+                nanos = finished.awaitNanos(nanos);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } finally {
+            lock.unlock();
+        }
+        apply();
+    }
+
+    private void apply() {
+        for (SchemaConfig schema : DbleServer.getInstance().getConfig().getSchemas().values()) {
+            SchemaMeta schemaMeta = tmManager.getCatalogs().get(schema.getName());
+            if (schemaMeta == null) {
+                continue;
+            }
+            for (Map.Entry<String, TableMeta> entry : schemaMeta.getTableMetas().entrySet()) {
+                BaseTableConfig tableConfig = schema.getTables().get(entry.getKey());
+                List<String> shardingNodes;
+                if (tableConfig != null) {
+                    shardingNodes = tableConfig.getShardingNodes();
+                } else if (schema.isDefaultSingleNode()) {
+                    shardingNodes = Collections.singletonList(schema.getDefaultSingleNode());
+                } else {
+                    continue;
+                }
+                TableStatistics statistics = merge(entry.getKey(), shardingNodes, tableConfig instanceof GlobalTableConfig);
+                if (statistics != null) {
+                    entry.getValue().setStatistics(statistics);
+                    if (LOGGER.isDebugEnabled()) {
+                        LOGGER.debug("table " + schema.getName() + "." + entry.getKey() + " " + statistics);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return null if some shardingNode's statistics are unknown
+     */
+    TableStatistics merge(String table, List<String> shardingNodes, boolean isGlobal) {
+        long rowCount = 0;
+        Map<String, Long> columnCardinality = new HashMap<>();
+        for (String shardingNode : shardingNodes) {
+            Map<String, Long> rows = nodeRows.get(shardingNode);
+            if (rows == null || !rows.containsKey(table)) {
+                return null;
+            }
+            long nodeRowCount = rows.get(table);
+            rowCount = isGlobal ? Math.max(rowCount, nodeRowCount) : rowCount + nodeRowCount;
+            Map<String, Map<String, Long>> cardinality = nodeCardinality.get(shardingNode);
+            if (cardinality == null || !cardinality.containsKey(table)) {
+                continue;
+            }
+            for (Map.Entry<String, Long> column : cardinality.get(table).entrySet()) {
+                // the same value may be in different shardingNodes, the sum is the upper bound
+                columnCardinality.merge(column.getKey(), column.getValue(), isGlobal ? Math::max : Long::sum);
+            }
+        }
+        return new TableStatistics(rowCount, columnCardinality);
+    }
+
+    private void queryFinished() {
+        lock.lock();
+        try {
+            if (--pending == 0) {
+                finished.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void putRows(String shardingNode, List<Map<String, String>> result) {
+        Map<String, Long> rows = new HashMap<>();
+        for (Map<String, String> row : result) {
+            rows.put(tableName(row.get(TABLE_NAME)), parseLong(row.get(TABLE_ROWS)));
+        }
+        nodeRows.put(shardingNode, rows);
+    }
+
+    void putCardinality(String shardingNode, List<Map<String, String>> result) {
+        Map<String, Map<String, Long>> cardinality = new HashMap<>();
+        for (Map<String, String> row : result) {
+            cardinality.computeIfAbsent(tableName(row.get(TABLE_NAME)), k -> new HashMap<>()).
+                    put(row.get(COLUMN_NAME).toLowerCase(), parseLong(row.get(CARDINALITY)));
+        }
+        nodeCardinality.put(shardingNode, cardinality);
+    }
+
+    private String tableName(String table) {
+        if (lowerCaseTableNames) {
+            return table.toLowerCase();
+        }
+        return table;
+    }
+
+    private static long parseLong(String value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private class RowsListener implements SQLQueryResultListener<SQLQueryResult<List<Map<String, String>>>> {
+        private final String shardingNode;
+
+        RowsListener(String shardingNode) {
+            this.shardingNode = shardingNode;
+        }
+
+        @Override
+        public void onResult(SQLQueryResult<List<Map<String, String>>> result) {
+            try {
+                if (!result.isSuccess()) {
+                    LOGGER.info("can't collect the table rows of shardingNode " + shardingNode);
+                    return;
+                }
+                putRows(shardingNode, result.getResult());
+            } finally {
+                queryFinished();
+            }
+        }
+    }
+
+    private class CardinalityListener implements SQLQueryResultListener<SQLQueryResult<List<Map<String, String>>>> {
+        private final String shardingNode;
+
+        CardinalityListener(String shardingNode) {
+            this.shardingNode = shardingNode;
+        }
+
+        @Override
+        public void onResult(SQLQueryResult<List<Map<String, String>>> result) {
+            try {
+                if (!result.isSuccess()) {
+                    LOGGER.info("can't collect the index cardinality of shardingNode " + shardingNode);
+                    return;
+                }
+                putCardinality(shardingNode, result.getResult());
+            } finally {
+                queryFinished();
+            }
+        }
+    }
+}
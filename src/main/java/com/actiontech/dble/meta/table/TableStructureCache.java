@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.meta.table;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * the create sql of the tables fetched from every shardingNode with the fingerprint of the table,
+ * used by incrementalMetaReload to skip fetching the tables which are not changed.
+ * the same create sql of different shardingNodes is kept once.
+ */
+final class TableStructureCache {
+    // schema.table -> physical node -> structure
+    private static final Map<String, Map<String, Structure>> CACHE = new ConcurrentHashMap<>();
+    private static final Interner<String> SQL_INTERNER = Interners.newWeakInterner();
+
+    private TableStructureCache() {
+    }
+
+    /**
+     * @return null if the table is changed or not cached
+     */
+    static String get(String schema, String table, String node, String fingerprint) {
+        Map<String, Structure> nodes = CACHE.get(schema + "." + table);
+        if (nodes == null) {
+            return null;
+        }
+        Structure structure = nodes.get(node);
+        return structure != null && structure.fingerprint.equals(fingerprint) ? structure.createSql : null;
+    }
+
+    static void put(String schema, String table, String node, String fingerprint, String createSql) {
+        CACHE.computeIfAbsent(schema + "." + table, k -> new ConcurrentHashMap<>()).
+                put(node, new Structure(fingerprint, SQL_INTERNER.intern(createSql)));
+    }
+
+    /**
+     * the table is changed by the ddl of dble
+     */
+    static void invalidate(String schema, String table) {
+        CACHE.remove(schema + "." + table);
+    }
+
+    private static final class Structure {
+        private final String fingerprint;
+        private final String createSql;
+
+        private Structure(String fingerprint, String createSql) {
+            this.fingerprint = fingerprint;
+            this.createSql = createSql;
+        }
+    }
+}
@@ -7,6 +7,7 @@ package com.actiontech.dble.net.connection;
 
 
 import com.actiontech.dble.backend.mysql.nio.handler.ResponseHandler;
+import com.actiontech.dble.backend.mysql.nio.handler.util.PrefetchQueue;
 import com.actiontech.dble.backend.pool.PooledConnectionListener;
 import com.actiontech.dble.backend.pool.ReadTimeStatusInstance;
 import com.actiontech.dble.config.model.db.DbInstanceConfig;
@@ -35,6 +36,11 @@ public class BackendConnection extends PooledConnection {
     private final int flowHighLevel;
     private final int flowLowLevel;
     private volatile boolean backendWriteFlowControlled;
+    // the reading paused by the consumer of the rows, see PrefetchQueue
+    private volatile boolean consumerReadPaused;
+    private final Object readControlLock = new Object();
+    // the rows of this connection waiting for the ordered merge, shown by dble_merge_prefetch
+    private volatile PrefetchQueue prefetchQueue;
 
     private volatile String bindFront;
 
@@ -99,19 +105,74 @@ public class BackendConnection extends PooledConnection {
 
     public void enableRead() {
         if (frontWriteFlowControlled) {
-            if (LOGGER.isDebugEnabled())
-                LOGGER.debug("This connection enableRead because of flow control, the connection info is {}", this);
-            socketWR.enableRead();
-            frontWriteFlowControlled = false;
+            synchronized (readControlLock) {
+                if (frontWriteFlowControlled) {
+                    if (LOGGER.isDebugEnabled())
+                        LOGGER.debug("This connection enableRead because of flow control, the connection info is {}", this);
+                    if (!consumerReadPaused) {
+                        socketWR.enableRead();
+                    }
+                    frontWriteFlowControlled = false;
+                }
+            }
         }
     }
 
     public void disableRead() {
         if (!frontWriteFlowControlled) {
-            if (LOGGER.isDebugEnabled())
-                LOGGER.debug("This connection disableRead because of flow control, the connection info is {}", this);
-            socketWR.disableRead();
-            frontWriteFlowControlled = true;
+            synchronized (readControlLock) {
+                if (!frontWriteFlowControlled) {
+                    if (LOGGER.isDebugEnabled())
+                        LOGGER.debug("This connection disableRead because of flow control, the connection info is {}", this);
+                    if (!consumerReadPaused) {
+                        socketWR.disableRead();
+                    }
+                    frontWriteFlowControlled = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * pause the reading because the consumer of the rows is full, independent of the flow control
+     */
+    public void pauseReadByConsumer() {
+        synchronized (readControlLock) {
+            if (!consumerReadPaused) {
+                if (LOGGER.isDebugEnabled())
+                    LOGGER.debug("This connection pause read because the consumer is full, the connection info is {}", this);
+                if (!frontWriteFlowControlled) {
+                    socketWR.disableRead();
+                }
+                consumerReadPaused = true;
+            }
+        }
+    }
+
+    public boolean isConsumerReadPaused() {
+        return consumerReadPaused;
+    }
+
+    public PrefetchQueue getPrefetchQueue() {
+        return prefetchQueue;
+    }
+
+    public void setPrefetchQueue(PrefetchQueue prefetchQueue) {
+        this.prefetchQueue = prefetchQueue;
+    }
+
+    public void resumeReadByConsumer() {
+        if (consumerReadPaused) {
+            synchronized (readControlLock) {
+                if (consumerReadPaused) {
+                    if (LOGGER.isDebugEnabled())
+                        LOGGER.debug("This connection resume read by the consumer, the connection info is {}", this);
+                    if (!frontWriteFlowControlled) {
+                        socketWR.enableRead();
+                    }
+                    consumerReadPaused = false;
+                }
+            }
         }
     }
 
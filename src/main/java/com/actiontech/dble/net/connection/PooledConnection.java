@@ -24,6 +24,8 @@ public abstract class PooledConnection extends AbstractConnection {
     private AtomicBoolean isCreateFail = new AtomicBoolean(false);
 
     private AtomicInteger state = new AtomicInteger(INITIAL);
+    // borrowed from the pool and not returned yet
+    private final AtomicBoolean borrowed = new AtomicBoolean(false);
 
     public static final int STATE_REMOVED = -4;
     public static final int STATE_HEARTBEAT = -3;
@@ -77,6 +79,17 @@ public abstract class PooledConnection extends AbstractConnection {
 
     public abstract void release();
 
+    public void markBorrowed() {
+        borrowed.set(true);
+    }
+
+    /**
+     * @return false if it's not borrowed or already returned
+     */
+    public boolean takeBorrowed() {
+        return borrowed.getAndSet(false);
+    }
+
     public long getLastTime() {
         return lastTime;
     }
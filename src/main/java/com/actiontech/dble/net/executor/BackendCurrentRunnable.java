@@ -14,8 +14,6 @@ import com.actiontech.dble.statistic.stat.ThreadWorkUsage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Queue;
-
 /**
  * Created by szf on 2020/7/9.
  */
@@ -23,11 +21,11 @@ public class BackendCurrentRunnable implements BackendRunnable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(BackendCurrentRunnable.class);
 
-    private final Queue<ServiceTask> concurrentBackQueue;
+    private final WorkerScheduler.Worker worker;
     private final ThreadContext threadContext = new ThreadContext();
 
-    public BackendCurrentRunnable(Queue<ServiceTask> concurrentBackQueue) {
-        this.concurrentBackQueue = concurrentBackQueue;
+    public BackendCurrentRunnable(WorkerScheduler concurrentBackQueue) {
+        this.worker = concurrentBackQueue.register();
     }
 
 
@@ -45,14 +43,17 @@ public class BackendCurrentRunnable implements BackendRunnable {
             workUsage = new ThreadWorkUsage();
             DbleServer.getInstance().getThreadUsedMap().put(threadName, workUsage);
         }
+        worker.bind(workUsage);
         while (true) {
             try {
                 if (Thread.currentThread().isInterrupted()) {
+                    worker.remove();
                     DbleServer.getInstance().getThreadUsedMap().remove(Thread.currentThread().getName());
-                    LOGGER.debug("interrupt thread:{},concurrentBackQueue:{}", Thread.currentThread().toString(), concurrentBackQueue);
+                    LOGGER.debug("interrupt thread:{}", Thread.currentThread().toString());
                     break;
                 }
-                while ((task = concurrentBackQueue.poll()) != null) {
+                // spin, then park until a task is offered
+                while ((task = worker.take()) != null) {
                     //threadUsageStat start
                     long workStart = 0;
                     if (workUsage != null) {
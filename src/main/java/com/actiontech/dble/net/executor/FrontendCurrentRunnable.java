@@ -14,19 +14,17 @@ import com.actiontech.dble.statistic.stat.ThreadWorkUsage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Deque;
-
 /**
  * Created by szf on 2020/7/9.
  */
 public class FrontendCurrentRunnable implements FrontendRunnable {
     private static final Logger LOGGER = LoggerFactory.getLogger(FrontendCurrentRunnable.class);
 
-    private final Deque<ServiceTask> frontNormalTasks;
+    private final WorkerScheduler.Worker worker;
     private final ThreadContext threadContext = new ThreadContext();
 
-    public FrontendCurrentRunnable(Deque<ServiceTask> frontEndTasks) {
-        this.frontNormalTasks = frontEndTasks;
+    public FrontendCurrentRunnable(WorkerScheduler frontEndTasks) {
+        this.worker = frontEndTasks.register();
     }
 
     @Override
@@ -43,15 +41,18 @@ public class FrontendCurrentRunnable implements FrontendRunnable {
             workUsage = new ThreadWorkUsage();
             DbleServer.getInstance().getThreadUsedMap().put(threadName, workUsage);
         }
+        worker.bind(workUsage);
         while (true) {
             try {
                 if (Thread.currentThread().isInterrupted()) {
+                    worker.remove();
                     DbleServer.getInstance().getThreadUsedMap().remove(Thread.currentThread().getName());
                     if (LOGGER.isDebugEnabled())
-                        LOGGER.debug("interrupt thread:{},frontNormalTasks:{}", Thread.currentThread().toString(), frontNormalTasks);
+                        LOGGER.debug("interrupt thread:{}", Thread.currentThread().toString());
                     break;
                 }
-                task = frontNormalTasks.poll();
+                // spin, then park until a task is offered
+                task = worker.take();
 
                 //threadUsageStat start
                 long workStart = 0;
@@ -0,0 +1,299 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.net.executor;
+
+import com.actiontech.dble.net.service.ServiceTask;
+import com.actiontech.dble.statistic.stat.ThreadWorkUsage;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * the task queue of the workers in performance mode.
+ * every worker has its own queue, the tasks are offered to the queues by turns(or to the queue of the offering worker),
+ * a worker without tasks steals from the others, then spins for a while, then parks until a task is offered.
+ * there is no global order of the tasks, only offerFirst puts a task before the others of its queue.
+ */
+public final class WorkerScheduler extends AbstractQueue<ServiceTask> {
+    private static final int SPIN_TRIES = 256;
+    private static final int YIELD_TRIES = 16;
+    // the parked worker wakes up by itself in case the thread is interrupted or the signal is missed
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final CopyOnWriteArrayList<Worker> workers = new CopyOnWriteArrayList<>();
+    // the tasks offered when there is no worker, or left by the removed workers
+    private final ConcurrentLinkedDeque<ServiceTask> sharedTasks = new ConcurrentLinkedDeque<>();
+    private final ThreadLocal<Worker> currentWorker = new ThreadLocal<>();
+    private final AtomicInteger nextWorker = new AtomicInteger();
+    private final AtomicInteger parkedWorkers = new AtomicInteger();
+
+    /**
+     * called when the runnable of the worker is created, so the tasks can be offered before the thread starts
+     */
+    public Worker register() {
+        Worker worker = new Worker();
+        workers.add(worker);
+        return worker;
+    }
+
+    @Override
+    public boolean offer(ServiceTask task) {
+        return offer(task, false);
+    }
+
+    /**
+     * the task is taken before the tasks queued by the worker it is offered to
+     */
+    public boolean offerFirst(ServiceTask task) {
+        return offer(task, true);
+    }
+
+    private boolean offer(ServiceTask task, boolean first) {
+        Objects.requireNonNull(task);
+        Worker target = currentWorker.get();
+        if (target == null || target.removed) {
+            target = pickWorker();
+        }
+        if (target == null) {
+            addShared(task, first);
+        } else {
+            if (first) {
+                target.tasks.offerFirst(task);
+            } else {
+                target.tasks.offerLast(task);
+            }
+            // the worker is removed after the pick, take the task back unless it is drained by the worker
+            if (target.removed && target.tasks.remove(task)) {
+                addShared(task, first);
+                target = null;
+            }
+        }
+        signal(target);
+        return true;
+    }
+
+    private void addShared(ServiceTask task, boolean first) {
+        if (first) {
+            sharedTasks.offerFirst(task);
+        } else {
+            sharedTasks.offerLast(task);
+        }
+    }
+
+    private Worker pickWorker() {
+        while (true) {
+            Object[] all = workers.toArray();
+            if (all.length == 0) {
+                return null;
+            }
+            Worker worker = (Worker) all[(nextWorker.getAndIncrement() & Integer.MAX_VALUE) % all.length];
+            if (!worker.removed) {
+                return worker;
+            }
+        }
+    }
+
+    /**
+     * wake up the worker of the task, or another parked worker to steal it if the worker is busy
+     */
+    private void signal(Worker target) {
+        if (target != null && target.parked) {
+            LockSupport.unpark(target.thread);
+            return;
+        }
+        if (parkedWorkers.get() == 0) {
+            return;
+        }
+        for (Worker worker : workers) {
+            if (worker.parked) {
+                LockSupport.unpark(worker.thread);
+                return;
+            }
+        }
+    }
+
+    @Override
+    public ServiceTask poll() {
+        ServiceTask task = sharedTasks.poll();
+        if (task != null) {
+            return task;
+        }
+        for (Worker worker : workers) {
+            task = worker.tasks.poll();
+            if (task != null) {
+                return task;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public ServiceTask peek() {
+        ServiceTask task = sharedTasks.peek();
+        if (task != null) {
+            return task;
+        }
+        for (Worker worker : workers) {
+            task = worker.tasks.peek();
+            if (task != null) {
+                return task;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (sharedTasks.remove(o)) {
+            return true;
+        }
+        for (Worker worker : workers) {
+            if (worker.tasks.remove(o)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        int size = sharedTasks.size();
+        for (Worker worker : workers) {
+            size += worker.tasks.size();
+        }
+        return size;
+    }
+
+    @Override
+    public Iterator<ServiceTask> iterator() {
+        List<ServiceTask> tasks = new ArrayList<>(sharedTasks);
+        for (Worker worker : workers) {
+            tasks.addAll(worker.tasks);
+        }
+        return Collections.unmodifiableList(tasks).iterator();
+    }
+
+    public final class Worker {
+        private final ConcurrentLinkedDeque<ServiceTask> tasks = new ConcurrentLinkedDeque<>();
+        private volatile Thread thread;
+        private volatile boolean parked = false;
+        private volatile boolean removed = false;
+        private volatile ThreadWorkUsage workUsage;
+
+        private Worker() {
+        }
+
+        /**
+         * called by the thread of the worker before taking tasks
+         */
+        public void bind(ThreadWorkUsage usage) {
+            thread = Thread.currentThread();
+            workUsage = usage;
+            currentWorker.set(this);
+            if (usage != null) {
+                usage.setTaskQueue(tasks);
+            }
+        }
+
+        /**
+         * take a task of the own queue or steal one, park the thread if there is no task
+         *
+         * @return null if the thread is interrupted
+         */
+        public ServiceTask take() {
+            int idle = 0;
+            while (!thread.isInterrupted()) {
+                ServiceTask task = poll();
+                if (task != null) {
+                    return task;
+                }
+                if (idle < SPIN_TRIES) {
+                    idle++;
+                } else if (idle < SPIN_TRIES + YIELD_TRIES) {
+                    idle++;
+                    Thread.yield();
+                } else {
+                    task = park();
+                    if (task != null) {
+                        return task;
+                    }
+                    idle = 0;
+                }
+            }
+            return null;
+        }
+
+        private ServiceTask park() {
+            parked = true;
+            parkedWorkers.incrementAndGet();
+            try {
+                // check again after the flag is set, the offering thread which misses the flag has queued the task before
+                ServiceTask task = poll();
+                if (task != null) {
+                    return task;
+                }
+                LockSupport.parkNanos(this, PARK_NANOS);
+                return null;
+            } finally {
+                parked = false;
+                parkedWorkers.decrementAndGet();
+            }
+        }
+
+        private ServiceTask poll() {
+            ServiceTask task = tasks.pollFirst();
+            if (task != null) {
+                return task;
+            }
+            task = sharedTasks.pollFirst();
+            if (task != null) {
+                return task;
+            }
+            return steal();
+        }
+
+        private ServiceTask steal() {
+            Object[] all = workers.toArray();
+            if (all.length <= 1) {
+                return null;
+            }
+            int start = ThreadLocalRandom.current().nextInt(all.length);
+            for (int i = 0; i < all.length; i++) {
+                Worker victim = (Worker) all[(start + i) % all.length];
+                if (victim == this) {
+                    continue;
+                }
+                ServiceTask task = victim.tasks.pollFirst();
+                if (task != null) {
+                    ThreadWorkUsage usage = workUsage;
+                    if (usage != null) {
+                        usage.addSteal();
+                    }
+                    return task;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * called by the thread of the worker when it exits, the tasks left are moved to the shared queue
+         */
+        public void remove() {
+            removed = true;
+            workers.remove(this);
+            currentWorker.remove();
+            for (ServiceTask task; (task = tasks.pollFirst()) != null; ) {
+                sharedTasks.offerLast(task);
+            }
+            signal(null);
+        }
+    }
+}
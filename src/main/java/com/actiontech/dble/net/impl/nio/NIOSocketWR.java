@@ -5,12 +5,15 @@
 
 package com.actiontech.dble.net.impl.nio;
 
+import com.actiontech.dble.DbleServer;
+import com.actiontech.dble.config.model.SystemConfig;
 import com.actiontech.dble.net.SocketWR;
 import com.actiontech.dble.net.WriteOutTask;
 import com.actiontech.dble.net.connection.AbstractConnection;
 import com.actiontech.dble.net.service.CloseType;
 import com.actiontech.dble.net.service.ServiceTaskFactory;
 import com.actiontech.dble.singleton.FlowController;
+import com.actiontech.dble.statistic.stat.ThreadWorkUsage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -24,6 +27,7 @@ import java.util.concurrent.atomic.AtomicLong;
 public class NIOSocketWR extends SocketWR {
     private static final Logger LOGGER = LoggerFactory.getLogger(NIOSocketWR.class);
     public static final int NOT_USED = -1;
+    private static final int MAX_GATHER_SIZE = 64;
     private volatile SelectionKey processKey;
     private static final int OP_NOT_READ = ~SelectionKey.OP_READ;
     private static final int OP_NOT_WRITE = ~SelectionKey.OP_WRITE;
@@ -32,7 +36,17 @@ public class NIOSocketWR extends SocketWR {
     private final AtomicLong writing = new AtomicLong(NOT_USED);
     private ConcurrentLinkedQueue<WriteOutTask> writeQueue;
 
-    private volatile WriteOutTask leftoverWriteTask;
+    /*
+     * the tasks polled from write queue but not written completely, guarded by writing flag.
+     * buffers of [pendingStart, pendingEnd) are flipped and ready for write
+     */
+    private final WriteOutTask[] pendingTasks = new WriteOutTask[MAX_GATHER_SIZE];
+    private final ByteBuffer[] pendingBuffers = new ByteBuffer[MAX_GATHER_SIZE];
+    private int pendingStart = 0;
+    private int pendingEnd = 0;
+    private boolean pendingQuitSend = false;
+    // the last pending task has close flag
+    private boolean pendingClose = false;
     private volatile boolean writeDataErr = false;
 
     private volatile boolean disableReadForever = false;
@@ -127,6 +141,7 @@ public class NIOSocketWR extends SocketWR {
     }
 
     protected void clearWriteQueue() {
+        recyclePending();
         WriteOutTask task;
         while (((task = writeQueue.poll()) != null)) {
             con.recycle(task.getBuffer());
@@ -142,11 +157,14 @@ public class NIOSocketWR extends SocketWR {
                 throw new RuntimeException(e);
             }
         }
-        leftoverWriteTask = new WriteOutTask(buffer, false);
         if (FlowController.isEnableFlowControl()) {
             con.getWritingSize().addAndGet(buffer.position());
         }
         buffer.flip();
+        resetPending();
+        pendingTasks[0] = new WriteOutTask(buffer, false);
+        pendingBuffers[0] = buffer;
+        pendingEnd = 1;
         try {
             write0();
         } catch (IOException e) {
@@ -210,9 +228,10 @@ public class NIOSocketWR extends SocketWR {
             }
         }
         try {
-            ByteBuffer buffer = leftoverWriteTask == null ? null : leftoverWriteTask.getBuffer();
-            if (buffer != null && buffer.hasRemaining()) {
-                return false;
+            for (int i = pendingStart; i < pendingEnd; i++) {
+                if (pendingBuffers[i].hasRemaining()) {
+                    return false;
+                }
             }
             return writeQueue.isEmpty();
         } finally {
@@ -221,95 +240,116 @@ public class NIOSocketWR extends SocketWR {
 
     }
 
+    /**
+     * write the queued buffers by gathering write, at most MAX_GATHER_SIZE buffers for one write.
+     * the task with close flag or the quit send task is always the last one of the pending tasks.
+     *
+     * @return true if no more data to write
+     */
     private boolean write0() throws IOException {
-        int written = 0;
-        boolean quitFlag = false;
-        if (leftoverWriteTask != null) {
-            ByteBuffer buffer = leftoverWriteTask.getBuffer();
-            while (buffer.hasRemaining()) {
-                quitFlag = leftoverWriteTask.closeFlag();
-                try {
-                    written = channel.write(buffer);
-                    if (written > 0) {
-                        con.writeStatistics(written);
-                        if (FlowController.isEnableFlowControl()) {
-                            int currentWritingSize = con.getWritingSize().addAndGet(-written);
-                            con.stopFlowControl(currentWritingSize);
-                        }
-                    } else {
-                        break;
-                    }
-                } catch (Throwable e) {
-                    leftoverWriteTask = null;
-                    con.recycle(buffer);
-                    if (!quitFlag) {
-                        throw e;
-                    } else {
-                        con.close(con.getCloseReason());
-                        LOGGER.info("writeDirectly quit error and ignore ");
-                        return true;
-                    }
+        for (; ; ) {
+            if (pendingStart == pendingEnd && !fillPending()) {
+                return true;
+            }
+            boolean quitFlag = pendingClose;
+            long written;
+            try {
+                written = channel.write(pendingBuffers, pendingStart, pendingEnd - pendingStart);
+            } catch (Throwable e) {
+                recyclePending();
+                if (!quitFlag) {
+                    throw e;
+                } else {
+                    con.close(con.getCloseReason());
+                    LOGGER.info("writeDirectly quit error and ignore ");
+                    return true;
                 }
             }
-
-
-            if (quitFlag) {
-                con.recycle(buffer);
-                con.close(con.getCloseReason());
-                return true;
+            countWrite(pendingEnd - pendingStart);
+            if (written > 0) {
+                con.writeStatistics((int) written);
+                if (FlowController.isEnableFlowControl()) {
+                    int currentWritingSize = con.getWritingSize().addAndGet((int) -written);
+                    con.stopFlowControl(currentWritingSize);
+                }
             }
 
-            if (buffer.hasRemaining()) {
+            while (pendingStart < pendingEnd && !pendingBuffers[pendingStart].hasRemaining()) {
+                WriteOutTask task = pendingTasks[pendingStart];
+                boolean isQuitSend = pendingQuitSend && pendingStart == pendingEnd - 1;
+                con.recycle(pendingBuffers[pendingStart]);
+                pendingTasks[pendingStart] = null;
+                pendingBuffers[pendingStart] = null;
+                pendingStart++;
+                if (isQuitSend) {
+                    resetPending();
+                    con.close("quit send");
+                    return true;
+                } else if (task.closeFlag()) {
+                    resetPending();
+                    con.close(con.getCloseReason());
+                    return true;
+                }
+            }
+            if (pendingStart < pendingEnd && written <= 0) {
+                if (pendingClose) {
+                    recyclePending();
+                    con.close(con.getCloseReason());
+                    return true;
+                }
                 return false;
-            } else {
-                leftoverWriteTask = null;
-                con.recycle(buffer);
             }
         }
+    }
+
+    /**
+     * move the tasks from write queue to pending array, stop after the task with close flag or the quit send task
+     *
+     * @return false if no task
+     */
+    private boolean fillPending() {
+        resetPending();
         WriteOutTask task;
-        ByteBuffer buffer;
-        while ((task = writeQueue.poll()) != null) {
-            quitFlag = task.closeFlag();
-            buffer = task.getBuffer();
+        while (pendingEnd < MAX_GATHER_SIZE && (task = writeQueue.poll()) != null) {
+            ByteBuffer buffer = task.getBuffer();
+            pendingTasks[pendingEnd] = task;
+            pendingBuffers[pendingEnd++] = buffer;
             if (buffer.limit() == 0) {
-                con.recycle(buffer);
-                con.close("quit send");
-                return true;
+                pendingQuitSend = true;
+                break;
             }
-
             buffer.flip();
-            try {
-                while (buffer.hasRemaining()) {
-                    written = channel.write(buffer);
-                    if (written > 0) {
-                        con.writeStatistics(written);
-                        if (FlowController.isEnableFlowControl()) {
-                            int currentWritingSize = con.getWritingSize().addAndGet(-written);
-                            con.stopFlowControl(currentWritingSize);
-                        }
-                    } else {
-                        break;
-                    }
-                }
-            } catch (Throwable e) {
-                con.recycle(buffer);
-                throw e;
+            if (task.closeFlag()) {
+                pendingClose = true;
+                break;
             }
+        }
+        return pendingEnd > 0;
+    }
 
-            if (quitFlag) {
-                con.recycle(buffer);
-                con.close(con.getCloseReason());
-                return true;
-            }
+    private void recyclePending() {
+        for (int i = pendingStart; i < pendingEnd; i++) {
+            con.recycle(pendingBuffers[i]);
+            pendingTasks[i] = null;
+            pendingBuffers[i] = null;
+        }
+        resetPending();
+    }
 
-            if (buffer.hasRemaining()) {
-                leftoverWriteTask = task;
-                return false;
-            } else {
-                con.recycle(buffer);
+    private void resetPending() {
+        pendingStart = 0;
+        pendingEnd = 0;
+        pendingQuitSend = false;
+        pendingClose = false;
+    }
+
+    private void countWrite(int bufferCount) {
+        if (SystemConfig.getInstance().getUseThreadUsageStat() == 1) {
+            ThreadWorkUsage workUsage = DbleServer.getInstance().getThreadUsedMap().get(Thread.currentThread().getName());
+            if (workUsage != null) {
+                workUsage.addWrite(bufferCount);
             }
         }
-        return true;
     }
 
     private void disableWrite() {
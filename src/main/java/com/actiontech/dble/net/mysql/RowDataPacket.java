@@ -51,12 +51,14 @@ public class RowDataPacket extends MySQLPacket {
 
 
     public final List<byte[]> fieldValues;
+    /* a row is compared by one comparator mostly, the others are kept in the map which is created lazily */
+    private RowDataComparator firstComparator;
+    private List<byte[]> firstCmpValue;
     private Map<RowDataComparator, List<byte[]>> cmpValues;
 
     public RowDataPacket(int fieldCount) {
         this.fieldCount = fieldCount;
         this.fieldValues = new ArrayList<>(fieldCount);
-        cmpValues = new HashMap<>(1);
     }
 
     public void add(byte[] value) {
@@ -199,10 +201,21 @@ public class RowDataPacket extends MySQLPacket {
 
 
     public List<byte[]> getCmpValue(RowDataComparator comparator) {
-        return cmpValues.get(comparator);
+        if (firstComparator == comparator) {
+            return firstCmpValue;
+        }
+        return cmpValues == null ? null : cmpValues.get(comparator);
     }
 
     public void cacheCmpValue(RowDataComparator comparator, List<byte[]> cmpValue) {
+        if (firstComparator == null || firstComparator == comparator) {
+            firstComparator = comparator;
+            firstCmpValue = cmpValue;
+            return;
+        }
+        if (cmpValues == null) {
+            cmpValues = new HashMap<>(2);
+        }
         this.cmpValues.put(comparator, cmpValue);
     }
 
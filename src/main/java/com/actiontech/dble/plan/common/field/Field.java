@@ -188,6 +188,14 @@ public abstract class Field {
 
     public abstract int compare(byte[] v1, byte[] v2);
 
+    /**
+     * the hash code of the value which is consistent with compare(v1, v2) == 0,
+     * the values which can not be hashed consistently get the same hash code
+     */
+    public int hash(byte[] v) {
+        return 0;
+    }
+
     public boolean getDate(MySQLTime ltime, long fuzzydate) {
         String res = valStr();
         return res == null || MyTime.strToDatetimeWithWarn(res, ltime, fuzzydate);
@@ -89,6 +89,11 @@ public class FieldBit extends Field {
         }
     }
 
+    @Override
+    public int hash(byte[] v) {
+        return v == null ? 0 : Long.hashCode(getBitInt(v));
+    }
+
     /**
      * Big endian
      *
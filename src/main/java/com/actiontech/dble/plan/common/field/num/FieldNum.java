@@ -15,6 +15,7 @@ import com.actiontech.dble.plan.common.time.MyTime;
 import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.Arrays;
 
 /**
  * FieldNum
@@ -135,4 +136,9 @@ public abstract class FieldNum extends Field {
             return FieldUtil.compareIntUsingStringBytes(v1, v2);
     }
 
+    @Override
+    public int hash(byte[] v) {
+        return v == null ? 0 : Arrays.hashCode(v);
+    }
+
 }
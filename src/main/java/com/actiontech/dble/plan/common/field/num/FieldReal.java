@@ -115,4 +115,16 @@ public abstract class FieldReal extends FieldNum {
                 return -1;
             }
     }
+
+    @Override
+    public int hash(byte[] v) {
+        if (v == null)
+            return 0;
+        try {
+            BigDecimal b = new BigDecimal(MySQLcom.getFullString(javaCharsetName, v));
+            return b.signum() == 0 ? 0 : b.stripTrailingZeros().hashCode();
+        } catch (Exception e) {
+            return 0;
+        }
+    }
 }
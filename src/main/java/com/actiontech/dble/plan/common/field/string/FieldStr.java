@@ -123,4 +123,15 @@ public abstract class FieldStr extends Field {
         }
     }
 
+    @Override
+    public int hash(byte[] v) {
+        if (v == null)
+            return 0;
+        try {
+            return MySQLcom.getFullString(javaCharsetName, v).toUpperCase().hashCode();
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
 }
@@ -62,4 +62,17 @@ public abstract class FieldTemporaWithDate extends FieldTemporal {
                 return -1;
             }
     }
+
+    @Override
+    public int hash(byte[] v) {
+        if (v == null)
+            return 0;
+        try {
+            MySQLTime ltime = new MySQLTime();
+            MyTime.strToDatetimeWithWarn(MySQLcom.getFullString(javaCharsetName, v), ltime, MyTime.TIME_FUZZY_DATE);
+            return Long.hashCode(MyTime.timeToLonglongDatetimePacked(ltime));
+        } catch (Exception e) {
+            return 0;
+        }
+    }
 }
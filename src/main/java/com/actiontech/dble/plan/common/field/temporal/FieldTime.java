@@ -74,4 +74,17 @@ public class FieldTime extends FieldTemporal {
         }
     }
 
+    @Override
+    public int hash(byte[] v) {
+        if (v == null)
+            return 0;
+        try {
+            MySQLTime ltime = new MySQLTime();
+            MyTime.strToTimeWithWarn(MySQLcom.getFullString(javaCharsetName, v), ltime);
+            return Long.hashCode(MyTime.timeToLonglongDatetimePacked(ltime));
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
 }
@@ -55,6 +55,11 @@ public abstract class PlanNode {
      */
     List<Order> orderBys = new LinkedList<>();
 
+    /**
+     * orderBys are copied from groupBys by optimizer, the query and the parent need no order
+     */
+    private boolean orderByImplicit = false;
+
     /**
      * group By,Notice:field order
      */
@@ -226,6 +231,7 @@ public abstract class PlanNode {
         if (!this.orderBys.contains(order)) {
             this.orderBys.add(order);
         }
+        this.orderByImplicit = false;
         return this;
     }
 
@@ -597,6 +603,15 @@ public abstract class PlanNode {
 
     public void setOrderBys(List<Order> orderBys) {
         this.orderBys = orderBys;
+        this.orderByImplicit = false;
+    }
+
+    public boolean isOrderByImplicit() {
+        return orderByImplicit;
+    }
+
+    public void setOrderByImplicit(boolean orderByImplicit) {
+        this.orderByImplicit = orderByImplicit;
     }
 
     public List<PlanNode> getChildren() {
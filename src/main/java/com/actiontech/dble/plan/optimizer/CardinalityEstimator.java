@@ -0,0 +1,209 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.plan.optimizer;
+
+import com.actiontech.dble.meta.TableMeta;
+import com.actiontech.dble.meta.TableStatistics;
+import com.actiontech.dble.plan.common.item.Item;
+import com.actiontech.dble.plan.common.item.ItemField;
+import com.actiontech.dble.plan.common.item.function.operator.cmpfunc.*;
+import com.actiontech.dble.plan.common.item.function.operator.logic.ItemCondAnd;
+import com.actiontech.dble.plan.node.JoinNode;
+import com.actiontech.dble.plan.node.PlanNode;
+import com.actiontech.dble.plan.node.TableNode;
+import com.actiontech.dble.plan.util.PlanUtil;
+import com.actiontech.dble.route.parser.util.Pair;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * estimate the rows of a plan node by the collected table statistics,
+ * the selectivity of the filters without statistics is the same as the default of MySQL
+ */
+public final class CardinalityEstimator {
+    public static final long UNKNOWN = TableStatistics.UNKNOWN;
+    private static final double EQUAL_SELECTIVITY = 0.1;
+    private static final double RANGE_SELECTIVITY = 1.0 / 3;
+    private static final double BETWEEN_SELECTIVITY = 1.0 / 9;
+
+    private CardinalityEstimator() {
+    }
+
+    /**
+     * @return UNKNOWN if some tables have no statistics
+     */
+    public static long estimateRows(PlanNode node) {
+        try {
+            return toRows(estimate(node));
+        } catch (RuntimeException e) {
+            // the estimation never fails the query
+            return UNKNOWN;
+        }
+    }
+
+    /**
+     * the rows of the node filtered by the conditions in filter which only refer to the node,
+     * used before the filter is pushed down
+     */
+    public static long estimateRows(PlanNode node, Item filter) {
+        try {
+            double rows = estimate(node);
+            if (rows >= 0) {
+                rows *= selectivity(node, filter, true);
+            }
+            return toRows(rows);
+        } catch (RuntimeException e) {
+            return UNKNOWN;
+        }
+    }
+
+    private static long toRows(double rows) {
+        if (rows < 0) {
+            return UNKNOWN;
+        }
+        return (long) Math.ceil(rows);
+    }
+
+    private static double estimate(PlanNode node) {
+        double rows;
+        switch (node.type()) {
+            case TABLE:
+                rows = tableRows((TableNode) node);
+                break;
+            case JOIN:
+                rows = joinRows((JoinNode) node);
+                break;
+            case QUERY:
+                rows = estimate(node.getChild());
+                break;
+            default:
+                return UNKNOWN;
+        }
+        if (rows < 0) {
+            return UNKNOWN;
+        }
+        rows *= selectivity(node, node.getWhereFilter(), false);
+        if (node.getLimitTo() > 0) {
+            rows = Math.min(rows, node.getLimitTo());
+        }
+        return rows;
+    }
+
+    private static double tableRows(TableNode node) {
+        TableStatistics statistics = getStatistics(node);
+        return statistics == null ? UNKNOWN : statistics.getRowCount();
+    }
+
+    private static double joinRows(JoinNode node) {
+        double left = estimate(node.getLeftNode());
+        double right = estimate(node.getRightNode());
+        if (left < 0 || right < 0) {
+            return UNKNOWN;
+        }
+        if (node.isNotIn()) {
+            return left;
+        }
+        double rows;
+        if (node.getJoinFilter().isEmpty()) {
+            rows = left * right;
+        } else {
+            // every left row joins rows / distinct values right rows
+            long distinct = UNKNOWN;
+            for (ItemFuncEqual filter : node.getJoinFilter()) {
+                distinct = Math.max(distinct, cardinality(node.getLeftNode(), filter.arguments().get(0)));
+                distinct = Math.max(distinct, cardinality(node.getRightNode(), filter.arguments().get(1)));
+            }
+            rows = distinct > 0 ? left * right / distinct : Math.max(left, right);
+        }
+        rows *= selectivity(node, node.getOtherJoinOnFilter(), false);
+        if (node.isLeftOuterJoin()) {
+            rows = Math.max(rows, left);
+        } else if (node.isRightOuterJoin()) {
+            rows = Math.max(rows, right);
+        }
+        return rows;
+    }
+
+    private static double selectivity(PlanNode node, Item filter, boolean onlyReferNode) {
+        if (filter == null) {
+            return 1;
+        }
+        List<Item> conditions = new ArrayList<>();
+        splitAnd(filter, conditions);
+        double selectivity = 1;
+        for (Item condition : conditions) {
+            if (!onlyReferNode || isReferOnly(condition, node)) {
+                selectivity *= selectivity(node, condition);
+            }
+        }
+        return selectivity;
+    }
+
+    private static double selectivity(PlanNode node, Item condition) {
+        if (condition instanceof ItemFuncEqual) {
+            Item arg0 = condition.arguments().get(0);
+            Item arg1 = condition.arguments().get(1);
+            Item column = arg1.basicConstItem() ? arg0 : (arg0.basicConstItem() ? arg1 : null);
+            long distinct = column == null ? UNKNOWN : cardinality(node, column);
+            return distinct > 0 ? 1.0 / distinct : EQUAL_SELECTIVITY;
+        } else if (condition instanceof ItemFuncIn && !((ItemFuncIn) condition).isNegate()) {
+            long distinct = cardinality(node, condition.arguments().get(0));
+            int values = condition.getArgCount() - 1;
+            return Math.min(1, values * (distinct > 0 ? 1.0 / distinct : EQUAL_SELECTIVITY));
+        } else if (condition instanceof ItemFuncBetweenAnd && !((ItemFuncBetweenAnd) condition).isNegate()) {
+            return BETWEEN_SELECTIVITY;
+        } else if (condition instanceof ItemFuncGt || condition instanceof ItemFuncGe ||
+                condition instanceof ItemFuncLt || condition instanceof ItemFuncLe) {
+            return RANGE_SELECTIVITY;
+        }
+        return 1;
+    }
+
+    private static void splitAnd(Item filter, List<Item> conditions) {
+        if (filter instanceof ItemCondAnd) {
+            for (Item arg : filter.arguments()) {
+                if (arg != null) {
+                    splitAnd(arg, conditions);
+                }
+            }
+        } else {
+            conditions.add(filter);
+        }
+    }
+
+    private static boolean isReferOnly(Item condition, PlanNode node) {
+        if (condition.getReferTables().isEmpty()) {
+            return false;
+        }
+        for (PlanNode refer : condition.getReferTables()) {
+            if (refer != node && !node.getReferedTableNodes().contains(refer)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the distinct values of the column, UNKNOWN if it is not the first column of an index
+     */
+    private static long cardinality(PlanNode node, Item column) {
+        if (!(column instanceof ItemField) || (node.type() != PlanNode.PlanNodeType.TABLE && column.getReferTables().isEmpty())) {
+            return UNKNOWN;
+        }
+        Pair<TableNode, ItemField> tableColumn = PlanUtil.findColumnInTableLeaf((ItemField) column, node);
+        if (tableColumn == null) {
+            return UNKNOWN;
+        }
+        TableStatistics statistics = getStatistics(tableColumn.getKey());
+        return statistics == null ? UNKNOWN : statistics.getCardinality(tableColumn.getValue().getItemName());
+    }
+
+    private static TableStatistics getStatistics(TableNode node) {
+        TableMeta tableMeta = node.getTableMeta();
+        return tableMeta == null ? null : tableMeta.getStatistics();
+    }
+}
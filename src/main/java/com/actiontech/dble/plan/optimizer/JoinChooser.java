@@ -76,6 +76,10 @@ public class JoinChooser {
         }
     };
 
+    // the smaller one is joined first when the default order can't decide, the one without statistics is the last
+    private final Comparator<JoinRelationDag> costCmp = defaultCmp.thenComparingLong(dag -> estimateRows(dag.node));
+    private final Map<PlanNode, Long> estimatedRows = new HashMap<>();
+
     public JoinChooser(JoinNode qtn, Map<ERTable, Set<ERTable>> erRelations, @Nonnull HintPlanInfo hintPlanInfo) {
         this.orgNode = qtn;
         this.erRelations = erRelations;
@@ -124,7 +128,7 @@ public class JoinChooser {
                 relationJoin = joinWithHint(root);
             } else {
                 // use auto plan
-                relationJoin = makeBNFJoin(root, defaultCmp);
+                relationJoin = makeBNFJoin(root, costCmp);
             }
         }
         // no relation join
@@ -408,6 +412,13 @@ public class JoinChooser {
         return true;
     }
 
+    private long estimateRows(PlanNode node) {
+        return estimatedRows.computeIfAbsent(node, n -> {
+            long rows = CardinalityEstimator.estimateRows(n, orgNode.getWhereFilter());
+            return rows == CardinalityEstimator.UNKNOWN ? Long.MAX_VALUE : rows;
+        });
+    }
+
     private JoinNode makeBNFJoin(JoinRelationDag root, Comparator<JoinRelationDag> joinCmp) {
         List<JoinRelationDag> zeroDegreeList = new ArrayList<>();
         for (JoinRelationDag tree : root.rightNodes) {
@@ -6,7 +6,12 @@
 package com.actiontech.dble.plan.optimizer;
 
 import com.actiontech.dble.backend.mysql.nio.handler.builder.HintNestLoopHelper;
+import com.actiontech.dble.backend.mysql.nio.handler.query.impl.join.SemiJoinFilter;
+import com.actiontech.dble.meta.ColumnMeta;
+import com.actiontech.dble.meta.TableMeta;
+import com.actiontech.dble.plan.Order;
 import com.actiontech.dble.plan.common.item.Item;
+import com.actiontech.dble.plan.common.item.ItemField;
 import com.actiontech.dble.plan.common.item.function.operator.cmpfunc.ItemFuncEqual;
 import com.actiontech.dble.plan.node.JoinNode;
 import com.actiontech.dble.plan.node.JoinNode.Strategy;
@@ -20,6 +25,10 @@ import org.jetbrains.annotations.Nullable;
 import java.util.*;
 
 public class JoinStrategyChooser {
+    // nest loop is used only if the big table is filtered to less than 1/NEST_LOOP_RATIO by the small table's keys
+    private static final long NEST_LOOP_RATIO = 10;
+    // the column types read as the integer keys of SemiJoinFilter
+    private static final Set<String> INTEGER_TYPES = new HashSet<>(Arrays.asList("TINYINT", "SMALLINT", "MEDIUMINT", "INT", "INTEGER", "BIGINT"));
     private Map<String, PlanNode> nodeMap;
     private JoinNode jn;
     private HintNestLoopHelper hintNestLoopHelper;
@@ -66,6 +75,16 @@ public class JoinStrategyChooser {
     private boolean tryInnerJoinNestLoop() {
         TableNode tnLeft = (TableNode) jn.getLeftNode();
         TableNode tnRight = (TableNode) jn.getRightNode();
+        long leftRows = CardinalityEstimator.estimateRows(tnLeft);
+        long rightRows = CardinalityEstimator.estimateRows(tnRight);
+        if (leftRows != CardinalityEstimator.UNKNOWN && rightRows != CardinalityEstimator.UNKNOWN) {
+            boolean isLeftSmall = leftRows <= rightRows;
+            if (!isNestLoopCheaper(Math.min(leftRows, rightRows), Math.max(leftRows, rightRows), isLeftSmall)) {
+                return false;
+            }
+            handleNestLoopStrategy(isLeftSmall);
+            return true;
+        }
         boolean isLeftSmall = isSmallTable(tnLeft);
         boolean isRightSmall = isSmallTable(tnRight);
         if (isLeftSmall && isRightSmall)
@@ -84,6 +103,15 @@ public class JoinStrategyChooser {
     private boolean tryLeftJoinNestLoop() {
         TableNode tnLeft = (TableNode) jn.getLeftNode();
         TableNode tnRight = (TableNode) jn.getRightNode();
+        long leftRows = CardinalityEstimator.estimateRows(tnLeft);
+        long rightRows = CardinalityEstimator.estimateRows(tnRight);
+        if (leftRows != CardinalityEstimator.UNKNOWN && rightRows != CardinalityEstimator.UNKNOWN) {
+            if (!isNestLoopCheaper(leftRows, rightRows, true)) {
+                return false;
+            }
+            handleNestLoopStrategy(true);
+            return true;
+        }
         // left join and only left node has where filter
         if (isSmallTable(tnLeft) && !isSmallTable(tnRight)) {
             handleNestLoopStrategy(true);
@@ -93,6 +121,41 @@ public class JoinStrategyChooser {
         }
     }
 
+    /**
+     * the keys of the small table must be pushed down as IN lists or filtered by the semi join filter as TempTableHandler does,
+     * and the big table must be much larger, otherwise fetching both tables at the same time is faster
+     */
+    private boolean isNestLoopCheaper(long smallRows, long bigRows, boolean isLeftSmall) {
+        return smallRows <= SemiJoinFilter.maxSmallTableRows(isIntegerKey(isLeftSmall)) && smallRows * NEST_LOOP_RATIO <= bigRows;
+    }
+
+    /**
+     * whether the key of the small table passed to the big table is an integer column,
+     * the key is chosen as JoinNodeHandlerBuilder does
+     */
+    private boolean isIntegerKey(boolean isLeftSmall) {
+        List<Item> keySources = isLeftSmall ? jn.getLeftKeys() : jn.getRightKeys();
+        List<Item> keyToPasses = isLeftSmall ? jn.getRightKeys() : jn.getLeftKeys();
+        int columnIndex = 0;
+        for (int index = 0; index < keyToPasses.size(); index++) {
+            if (keyToPasses.get(index).type().equals(Item.ItemType.FIELD_ITEM)) {
+                columnIndex = index;
+                break;
+            }
+        }
+        Item keySource = keySources.get(columnIndex);
+        TableMeta tableMeta = ((TableNode) (isLeftSmall ? jn.getLeftNode() : jn.getRightNode())).getTableMeta();
+        if (!(keySource instanceof ItemField) || tableMeta == null) {
+            return false;
+        }
+        for (ColumnMeta column : tableMeta.getColumns()) {
+            if (column.getName().equalsIgnoreCase(keySource.getItemName())) {
+                return INTEGER_TYPES.contains(column.getDataType().toUpperCase());
+            }
+        }
+        return false;
+    }
+
     private void handleNestLoopStrategy(boolean isLeftSmall) {
         jn.setStrategy(Strategy.NESTLOOP);
         TableNode tnLeft = (TableNode) jn.getLeftNode();
@@ -231,6 +294,69 @@ public class JoinStrategyChooser {
         return true;
     }
 
+    /**
+     * use hash join instead of sort merge join when nobody needs the join result ordered by the join columns,
+     * so the children need not to be ordered by the join columns
+     *
+     * @return true if hash join is chosen
+     */
+    public boolean tryHashJoin() {
+        if (jn.getStrategy() != Strategy.SORTMERGE || jn.isNotIn() || jn.getJoinFilter().isEmpty()) {
+            return false;
+        }
+        if (!jn.isInnerJoin() && !jn.isLeftOuterJoin()) {
+            return false;
+        }
+        if (jn.haveDependOnNode() || jn.getLeftNode().haveDependOnNode() || jn.getRightNode().haveDependOnNode()) {
+            return false;
+        }
+        if (isJoinOrderUsable()) {
+            return false;
+        }
+        // the build side is chosen by HashJoinHandler from the rows arrived
+        jn.setStrategy(Strategy.HASH);
+        clearPushedJoinOrders(jn.getLeftNode(), jn.getLeftJoinOnOrders());
+        clearPushedJoinOrders(jn.getRightNode(), jn.getRightJoinOnOrders());
+        return true;
+    }
+
+    /**
+     * the sort merge join's result is ordered by join columns, it is usable if the order by(or the order pushed
+     * down by parent) starts with the join columns
+     */
+    private boolean isJoinOrderUsable() {
+        List<Order> orderBys = jn.getOrderBys();
+        if (orderBys.isEmpty()) {
+            return false;
+        }
+        List<Order> leftOnOrders = jn.getLeftJoinOnOrders();
+        List<Order> rightOnOrders = jn.getRightJoinOnOrders();
+        Order first = orderBys.get(0);
+        for (int i = 0; i < leftOnOrders.size(); i++) {
+            if (leftOnOrders.get(i).getItem().equals(first.getItem()) || rightOnOrders.get(i).getItem().equals(first.getItem())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * the join columns' order pushed down by OrderByPusher is useless for hash join
+     */
+    private void clearPushedJoinOrders(PlanNode child, List<Order> joinOnOrders) {
+        if (child.type() != PlanNode.PlanNodeType.TABLE && child.type() != PlanNode.PlanNodeType.JOIN) {
+            return;
+        }
+        if (child.getLimitTo() != -1 || !child.getGroupBys().isEmpty()) {
+            return;
+        }
+        List<Order> childOrders = child.getOrderBys();
+        List<Order> pushedOrders = PlanUtil.getPushDownOrders(jn, joinOnOrders);
+        if (!childOrders.isEmpty() && childOrders.size() == pushedOrders.size() && PlanUtil.orderContains(childOrders, pushedOrders)) {
+            child.setOrderBys(new ArrayList<>());
+        }
+    }
+
     public boolean canDoAsMerge(JoinNode joinNode) {
         return PlanUtil.isGlobalOrER(joinNode);
     }
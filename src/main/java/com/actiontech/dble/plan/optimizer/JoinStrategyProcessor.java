@@ -43,6 +43,18 @@ public final class JoinStrategyProcessor {
         }
     }
 
+    public static PlanNode optimizeHashJoin(PlanNode qtn) {
+        if (PlanUtil.isGlobalOrER(qtn))
+            return qtn;
+        if (qtn instanceof JoinNode) {
+            new JoinStrategyChooser((JoinNode) qtn).tryHashJoin();
+        }
+        for (PlanNode child : qtn.getChildren()) {
+            optimizeHashJoin(child);
+        }
+        return qtn;
+    }
+
     public static void chooser(PlanNode node) {
         int joinStrategyType = SystemConfig.getInstance().getJoinStrategyType();
         switch (joinStrategyType) {
@@ -63,5 +75,8 @@ public final class JoinStrategyProcessor {
                 throw new MySQLOutPutException(ErrorCode.ER_OPTIMIZER, "", " joinStrategyType = " + joinStrategyType + " is illegal, size must not be less than -1 and not be greater than 2");
 
         }
+        if (SystemConfig.getInstance().isUseHashJoin()) {
+            optimizeHashJoin(node);
+        }
     }
 }
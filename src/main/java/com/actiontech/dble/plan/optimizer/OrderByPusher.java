@@ -206,9 +206,13 @@ public final class OrderByPusher {
             // if child's orders more than parent's orders,keep child's ,or use parent's
             if (!childOrderContains)
                 child.setOrderBys(pushedOrders);
+            else if (!pushedOrders.isEmpty())
+                child.setOrderByImplicit(false);
             return true;
         } else {
             // has limit,order by can not be push down
+            if (childOrderContains && !pushedOrders.isEmpty())
+                child.setOrderByImplicit(false);
             return childOrderContains;
         }
     }
@@ -251,6 +255,7 @@ public final class OrderByPusher {
                 }
             }
             node.setOrderBys(newOrderBys);
+            node.setOrderByImplicit(!newOrderBys.isEmpty());
         }
     }
 
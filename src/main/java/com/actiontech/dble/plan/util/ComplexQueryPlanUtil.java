@@ -87,7 +87,11 @@ public final class ComplexQueryPlanUtil {
             List<BaseDMLHandler> mergeList = new ArrayList<>();
             mergeList.addAll(mergeHandler.getExeHandlers());
             String mergeNode = genHandlerName(mergeName, nameMap);
-            ReferenceHandlerInfo refInfo = new ReferenceHandlerInfo(mergeNode, mergeName, mergeHandler, isSubUpdate);
+            String mergeType = mergeName;
+            if (mergeHandler.getEstimatedRows() >= 0) {
+                mergeType += "(Estimated Rows: " + mergeHandler.getEstimatedRows() + ")";
+            }
+            ReferenceHandlerInfo refInfo = new ReferenceHandlerInfo(mergeNode, mergeType, mergeHandler, isSubUpdate);
             if (mergeHandler instanceof MultiNodeFakeHandler) {
                 refInfo.setBaseSQL(((MultiNodeFakeHandler) mergeHandler).toSQLString());
             }
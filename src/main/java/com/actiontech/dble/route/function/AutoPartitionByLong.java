@@ -26,6 +26,7 @@ public class AutoPartitionByLong extends AbstractPartitionAlgorithm implements R
     private String mapFile = null;
     private String ruleFile = null;
     private LongRange[] longRanges;
+    private LongRangeIndex rangeIndex;
     private int defaultNode = -1;
     private int hashCode = 1;
 
@@ -64,11 +65,9 @@ public class AutoPartitionByLong extends AbstractPartitionAlgorithm implements R
                 return null;
             }
 
-            long value = Long.parseLong(columnValue);
-            for (LongRange longRang : this.longRanges) {
-                if (value <= longRang.getValueEnd() && value >= longRang.getValueStart()) {
-                    return longRang.getNodeIndex();
-                }
+            int node = rangeIndex.find(Long.parseLong(columnValue));
+            if (node >= 0) {
+                return node;
             }
             // use default node for other value
             if (defaultNode >= 0) {
@@ -86,11 +85,8 @@ public class AutoPartitionByLong extends AbstractPartitionAlgorithm implements R
      */
     public boolean isUseDefaultNode(String columnValue) {
         try {
-            long value = Long.parseLong(columnValue);
-            for (LongRange longRang : this.longRanges) {
-                if (value <= longRang.getValueEnd() && value >= longRang.getValueStart()) {
-                    return false;
-                }
+            if (rangeIndex.find(Long.parseLong(columnValue)) >= 0) {
+                return false;
             }
             if (defaultNode >= 0) {
                 return true;
@@ -104,19 +100,22 @@ public class AutoPartitionByLong extends AbstractPartitionAlgorithm implements R
 
     @Override
     public Integer[] calculateRange(String beginValue, String endValue) {
-        Integer begin = 0, end = 0;
-        if (isUseDefaultNode(beginValue) || isUseDefaultNode(endValue)) {
-            begin = 0;
-            end = longRanges.length - 1;
-        } else {
-            begin = calculate(beginValue);
-            end = calculate(endValue);
+        int begin;
+        int end;
+        try {
+            begin = rangeIndex.find(Long.parseLong(beginValue));
+            end = rangeIndex.find(Long.parseLong(endValue));
+            if (begin < 0 || end < 0) {
+                if (defaultNode < 0) {
+                    return new Integer[0];
+                }
+                begin = 0;
+                end = longRanges.length - 1;
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("columnValue:" + beginValue + "," + endValue + " Please eliminate any quote and non number within it.", e);
         }
 
-
-        if (begin == null || end == null) {
-            return new Integer[0];
-        }
         if (end >= begin) {
             int len = end - begin + 1;
             Integer[] re = new Integer[len];
@@ -184,6 +183,7 @@ public class AutoPartitionByLong extends AbstractPartitionAlgorithm implements R
                 sb.append("\"");
             }
             longRanges = longRangeList.toArray(new LongRange[longRangeList.size()]);
+            rangeIndex = new LongRangeIndex(longRanges);
             sb.append("}");
             propertiesMap.put("mapFile", sb.toString());
         } catch (Exception e) {
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.route.function;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Set;
+
+/**
+ * the ranges of the range partition algorithms sorted by the start, looked up by binary search.
+ * if the ranges overlap, the first configured range of the value wins as before, so the ranges are scanned in order.
+ */
+final class LongRangeIndex implements Serializable {
+    private static final long serialVersionUID = -3218416212096713560L;
+
+    private final long[] starts;
+    private final long[] ends;
+    private final int[] nodes;
+    private final LongRange[] overlappedRanges;
+
+    LongRangeIndex(LongRange[] longRanges) {
+        LongRange[] sorted = longRanges.clone();
+        Arrays.sort(sorted, Comparator.comparingLong(LongRange::getValueStart));
+        int size = sorted.length;
+        starts = new long[size];
+        ends = new long[size];
+        nodes = new int[size];
+        boolean overlapped = false;
+        for (int i = 0; i < size; i++) {
+            starts[i] = sorted[i].getValueStart();
+            ends[i] = sorted[i].getValueEnd();
+            nodes[i] = sorted[i].getNodeIndex();
+            if (ends[i] < starts[i] || (i > 0 && starts[i] <= ends[i - 1])) {
+                overlapped = true;
+            }
+        }
+        overlappedRanges = overlapped ? longRanges.clone() : null;
+    }
+
+    /**
+     * @return the node index of the range of the value, -1 if no range contains the value
+     */
+    int find(long value) {
+        if (overlappedRanges != null) {
+            for (LongRange longRange : overlappedRanges) {
+                if (value <= longRange.getValueEnd() && value >= longRange.getValueStart()) {
+                    return longRange.getNodeIndex();
+                }
+            }
+            return -1;
+        }
+        int i = lastStartNotAfter(value);
+        return i >= 0 && value <= ends[i] ? nodes[i] : -1;
+    }
+
+    /**
+     * add the node indexes of the ranges which overlap [begin, end]
+     */
+    void collectNodes(long begin, long end, Set<Integer> result) {
+        if (overlappedRanges != null) {
+            for (LongRange longRange : overlappedRanges) {
+                if (longRange.getValueEnd() >= begin && longRange.getValueStart() <= end) {
+                    result.add(longRange.getNodeIndex());
+                }
+            }
+            return;
+        }
+        int i = Math.max(lastStartNotAfter(begin), 0);
+        for (; i < starts.length && starts[i] <= end; i++) {
+            if (ends[i] >= begin) {
+                result.add(nodes[i]);
+            }
+        }
+    }
+
+    private int lastStartNotAfter(long value) {
+        int low = 0;
+        int high = starts.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+}
@@ -120,28 +120,39 @@ public class PartitionByDate extends AbstractPartitionAlgorithm implements RuleA
         }
     }
 
+    /**
+     * the partitions of the range are calculated from the partition indexes of the begin and the end,
+     * the indexes are wrapped by nCount if sEndDate is set
+     */
     @Override
     public Integer[] calculateRange(String beginValue, String endValue) {
-        SimpleDateFormat format = new SimpleDateFormat(this.dateFormat);
         try {
-            Date begin = format.parse(beginValue);
-            Date end = format.parse(endValue);
-            Calendar cal = Calendar.getInstance();
-            List<Integer> list = new ArrayList<>();
-            while (begin.getTime() <= end.getTime()) {
-                Integer nodeValue = this.calculate(format.format(begin));
-                if (Collections.frequency(list, nodeValue) < 1) list.add(nodeValue);
-                cal.setTime(begin);
-                cal.add(Calendar.DATE, 1);
-                begin = cal.getTime();
+            long begin = formatter.get().parse(beginValue).getTime();
+            long end = formatter.get().parse(endValue).getTime();
+            if (begin > end) {
+                return new Integer[0];
             }
-
-            Integer[] nodeArray = new Integer[list.size()];
-            for (int i = 0; i < list.size(); i++) {
-                nodeArray[i] = list.get(i);
+            Set<Integer> nodes = new LinkedHashSet<>();
+            if (begin < beginDate) {
+                if (defaultNode >= 0) {
+                    nodes.add(defaultNode);
+                }
+                if (end < beginDate) {
+                    return nodes.toArray(new Integer[0]);
+                }
+                begin = beginDate;
             }
-
-            return nodeArray;
+            long first = (begin - beginDate) / partitionTime;
+            long last = (end - beginDate) / partitionTime;
+            if (nCount != 0 && last - first + 1 >= nCount) {
+                // the range covers a whole cycle
+                first = 0;
+                last = nCount - 1;
+            }
+            for (long partition = first; partition <= last; partition++) {
+                nodes.add((int) (nCount != 0 ? partition % nCount : partition));
+            }
+            return nodes.toArray(new Integer[0]);
         } catch (ParseException e) {
             LOGGER.info("error", e);
             return new Integer[0];
@@ -13,10 +13,12 @@ import org.slf4j.LoggerFactory;
 import java.io.BufferedReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 
 /**
  * @author mycat
@@ -27,6 +29,9 @@ public class PartitionByFileMap extends AbstractPartitionAlgorithm implements Ru
     private String mapFile;
     private String ruleFile;
     private Map<Object, Integer> app2Partition;
+    // the sorted keys and their partitions of app2Partition if the keys are Integer, looked up without boxing
+    private int[] intKeys;
+    private int[] intKeyPartitions;
     private int partitionNum = 0;
     /**
      * Map<Object, Integer> app2Partition key's type:default 0 means Integer,other means String
@@ -87,12 +92,15 @@ public class PartitionByFileMap extends AbstractPartitionAlgorithm implements Ru
                 return app2Partition.get(DEFAULT_NODE);
             }
 
-            Object value = columnValue;
             if (type == 0) {
-                value = Integer.valueOf(columnValue);
+                int index = Arrays.binarySearch(intKeys, Integer.parseInt(columnValue));
+                if (index >= 0) {
+                    return intKeyPartitions[index];
+                }
+                return app2Partition.get(DEFAULT_NODE);
             }
             Integer rst;
-            Integer pid = app2Partition.get(value);
+            Integer pid = app2Partition.get(columnValue);
             if (pid != null) {
                 rst = pid;
             } else {
@@ -179,6 +187,9 @@ public class PartitionByFileMap extends AbstractPartitionAlgorithm implements Ru
             }
             Set<Integer> set = new HashSet<>(app2Partition.values());
             partitionNum = set.size();
+            if (type == 0) {
+                initIntKeys();
+            }
         } catch (Exception e) {
             if (e instanceof RuntimeException) {
                 throw (RuntimeException) e;
@@ -197,6 +208,23 @@ public class PartitionByFileMap extends AbstractPartitionAlgorithm implements Ru
         }
     }
 
+    private void initIntKeys() {
+        TreeMap<Integer, Integer> sorted = new TreeMap<>();
+        for (Map.Entry<Object, Integer> entry : app2Partition.entrySet()) {
+            if (entry.getKey() instanceof Integer) {
+                sorted.put((Integer) entry.getKey(), entry.getValue());
+            }
+        }
+        intKeys = new int[sorted.size()];
+        intKeyPartitions = new int[sorted.size()];
+        int i = 0;
+        for (Map.Entry<Integer, Integer> entry : sorted.entrySet()) {
+            intKeys[i] = entry.getKey();
+            intKeyPartitions[i] = entry.getValue();
+            i++;
+        }
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
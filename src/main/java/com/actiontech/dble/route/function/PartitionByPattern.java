@@ -29,6 +29,7 @@ public class PartitionByPattern extends AbstractPartitionAlgorithm implements Ru
     private String mapFile = null;
     private String ruleFile = null;
     private LongRange[] longRanges;
+    private LongRangeIndex rangeIndex;
     private Integer[] allNode;
     private int defaultNode = -1; // default node for unexpected value
     private static final Pattern PATTERN = Pattern.compile("[0-9]*");
@@ -72,12 +73,8 @@ public class PartitionByPattern extends AbstractPartitionAlgorithm implements Ru
     }
 
     private Integer findNode(long hash) {
-        for (LongRange longRang : this.longRanges) {
-            if (hash <= longRang.getValueEnd() && hash >= longRang.getValueStart()) {
-                return longRang.getNodeIndex();
-            }
-        }
-        return null;
+        int node = rangeIndex.find(hash);
+        return node < 0 ? null : node;
     }
 
     @Override
@@ -98,15 +95,7 @@ public class PartitionByPattern extends AbstractPartitionAlgorithm implements Ru
      *     L                 type3
      */
     private void calcAux(HashSet<Integer> ids, long begin, long end) {
-        for (LongRange longRang : this.longRanges) {
-            if (longRang.getValueEnd() < begin) {
-                continue;
-            }
-            if (longRang.getValueStart() > end) {
-                break;
-            }
-            ids.add(longRang.getNodeIndex());
-        }
+        rangeIndex.collectNodes(begin, end, ids);
     }
 
     private Integer[] calcType1(long begin, long end) {
@@ -242,6 +231,7 @@ public class PartitionByPattern extends AbstractPartitionAlgorithm implements Ru
 
             allNode = ids.toArray(new Integer[ids.size()]);
             longRanges = longRangeList.toArray(new LongRange[longRangeList.size()]);
+            rangeIndex = new LongRangeIndex(longRanges);
             sb.append("}");
             propertiesMap.put("mapFile", sb.toString());
         } catch (Exception e) {
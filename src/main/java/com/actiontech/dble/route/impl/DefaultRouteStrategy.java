@@ -13,6 +13,7 @@ import com.actiontech.dble.route.parser.druid.ServerSchemaStatVisitor;
 import com.actiontech.dble.route.parser.util.DruidUtil;
 import com.actiontech.dble.route.util.RouterUtil;
 import com.actiontech.dble.services.mysqlsharding.ShardingService;
+import com.actiontech.dble.singleton.RouteDigestCache;
 import com.alibaba.druid.sql.ast.SQLStatement;
 
 import java.sql.SQLException;
@@ -30,7 +31,9 @@ public class DefaultRouteStrategy extends AbstractRouteStrategy {
         }
         DruidParser druidParser = DruidParserFactory.create(statement, rrs.getSqlType(), service);
         String schemaName = schema == null ? null : schema.getName();
-        return RouterUtil.routeFromParser(druidParser, schema, rrs, statement, new ServerSchemaStatVisitor(schemaName), service, isExplain);
+        RouteResultset result = RouterUtil.routeFromParser(druidParser, schema, rrs, statement, new ServerSchemaStatVisitor(schemaName), service, isExplain);
+        RouteDigestCache.getInstance().learn(result, druidParser.getCtx(), statement);
+        return result;
     }
 
 }
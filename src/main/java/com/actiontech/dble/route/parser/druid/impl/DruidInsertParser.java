@@ -37,6 +37,7 @@ import com.alibaba.druid.sql.ast.statement.SQLSelect;
 import com.alibaba.druid.sql.ast.statement.SQLSelectStatement;
 import com.alibaba.druid.sql.dialect.mysql.ast.statement.MySqlInsertStatement;
 import com.alibaba.druid.sql.dialect.mysql.parser.MySqlStatementParser;
+import com.alibaba.druid.sql.parser.SQLParserFeature;
 import com.alibaba.druid.sql.parser.SQLStatementParser;
 import com.google.common.collect.Sets;
 
@@ -117,7 +118,7 @@ public class DruidInsertParser extends DruidInsertReplaceParser {
         SQLStatement stmt;
         String sql = changeSQLForIncrementColumn(schemaInfo, insert, rrs.getStatement(), incrementColumn, service);
         rrs.setStatement(sql);
-        SQLStatementParser parser = new MySqlStatementParser(sql);
+        SQLStatementParser parser = new MySqlStatementParser(sql, SQLParserFeature.KeepInsertValueClauseOriginalString);
         stmt = parser.parseStatement();
         insert = (MySqlInsertStatement) stmt;
         return insert;
@@ -272,10 +273,12 @@ public class DruidInsertParser extends DruidInsertReplaceParser {
         int columnNum = getTableColumns(schemaInfo, insertStmt.getColumns());
         int shardingColIndex = tryGetShardingColIndex(schemaInfo, insertStmt, partitionColumn);
         String dataType = getShardingDataType(schemaInfo, partitionColumn);
-        List<ValuesClause> valueClauseList = insertStmt.getValuesList();
-        Map<Integer, List<ValuesClause>> nodeValuesMap = new HashMap<>();
+        List<ValuesClause> valueClauseList = new ArrayList<>(insertStmt.getValuesList());
+        // the indexes of the tuples of every shardingNode
+        Map<Integer, List<Integer>> nodeValuesMap = new HashMap<>();
         ShardingTableConfig tableConfig = (ShardingTableConfig) (schema.getTables().get(tableName));
-        for (ValuesClause valueClause : valueClauseList) {
+        for (int i = 0; i < valueClauseList.size(); i++) {
+            ValuesClause valueClause = valueClauseList.get(i);
             if (valueClause.getValues().size() != columnNum) {
                 String msg = "bad insert sql columnSize != valueSize:" + columnNum + " != " + valueClause.getValues().size() + "values:" + valueClause;
                 LOGGER.info(msg);
@@ -291,19 +294,27 @@ public class DruidInsertParser extends DruidInsertReplaceParser {
                 LOGGER.info(msg);
                 throw new SQLNonTransientException(msg);
             }
-            nodeValuesMap.putIfAbsent(nodeIndex, new ArrayList<>());
-            nodeValuesMap.get(nodeIndex).add(valueClause);
+            nodeValuesMap.computeIfAbsent(nodeIndex, k -> new ArrayList<>()).add(i);
         }
 
+        // slice the sql of every shardingNode from the origin sql, the ast is only used if the tuples can't be located
+        InsertValuesSlices slices = InsertValuesSlices.locate(rrs.getStatement(), valueClauseList);
         RouteResultsetNode[] nodes = new RouteResultsetNode[nodeValuesMap.size()];
         int count = 0;
-        for (Map.Entry<Integer, List<ValuesClause>> node : nodeValuesMap.entrySet()) {
+        for (Map.Entry<Integer, List<Integer>> node : nodeValuesMap.entrySet()) {
             Integer nodeIndex = node.getKey();
-            List<ValuesClause> valuesList = node.getValue();
-            insertStmt.getValuesList().clear();
-            insertStmt.getValuesList().addAll(valuesList);
+            String sql;
+            if (slices != null) {
+                sql = slices.slice(node.getValue());
+            } else {
+                insertStmt.getValuesList().clear();
+                for (Integer tupleIndex : node.getValue()) {
+                    insertStmt.getValuesList().add(valueClauseList.get(tupleIndex));
+                }
+                sql = statementToString(insertStmt);
+            }
             nodes[count] = new RouteResultsetNode(tableConfig.getShardingNodes().get(nodeIndex), rrs.getSqlType(),
-                    RouterUtil.removeSchema(statementToString(insertStmt), schemaInfo.getSchema()), Sets.newHashSet(schemaInfo.getSchema() + "." + schemaInfo.getTable()));
+                    RouterUtil.removeSchema(sql, schemaInfo.getSchema()), Sets.newHashSet(schemaInfo.getSchema() + "." + schemaInfo.getTable()));
             count++;
 
         }
@@ -365,13 +376,12 @@ public class DruidInsertParser extends DruidInsertReplaceParser {
         if (vcl != null && vcl.size() > 1) { // batch insert
             for (int j = 0; j < vcl.size(); j++) {
                 if (j != vcl.size() - 1)
-                    appendValues(tableKey, vcl.get(j).getValues(), sb, autoIncrement, colSize, service).append(",");
+                    appendValues(tableKey, vcl.get(j), sb, autoIncrement, colSize, service).append(",");
                 else
-                    appendValues(tableKey, vcl.get(j).getValues(), sb, autoIncrement, colSize, service);
+                    appendValues(tableKey, vcl.get(j), sb, autoIncrement, colSize, service);
             }
         } else {
-            List<SQLExpr> values = insert.getValues().getValues();
-            appendValues(tableKey, values, sb, autoIncrement, colSize, service);
+            appendValues(tableKey, insert.getValues(), sb, autoIncrement, colSize, service);
         }
 
         List<SQLExpr> dku = insert.getDuplicateKeyUpdate();
@@ -418,9 +428,10 @@ public class DruidInsertParser extends DruidInsertReplaceParser {
     }
 
 
-    private static StringBuilder appendValues(String tableKey, List<SQLExpr> values, StringBuilder sb, int autoIncrement,
+    private static StringBuilder appendValues(String tableKey, ValuesClause valuesClause, StringBuilder sb, int autoIncrement,
                                               int colSize, FrontendService service) throws SQLNonTransientException {
 
+        List<SQLExpr> values = valuesClause.getValues();
         int size = values.size();
         int checkSize = colSize - (autoIncrement < 0 ? 0 : 1);
         if (checkSize < size) {
@@ -435,6 +446,12 @@ public class DruidInsertParser extends DruidInsertReplaceParser {
             LOGGER.info(msg);
             throw new SQLNonTransientException(msg);
         }
+        String originalTuple = valuesClause.getOriginalString();
+        if (size > 0 && autoIncrement == colSize - 1 && originalTuple != null) {
+            // the increment column is the last one, keep the tuple of the origin sql and append the id to it
+            long id = SequenceManager.nextId(tableKey, service);
+            return sb.append(originalTuple, 0, originalTuple.lastIndexOf(')')).append(",").append(id).append(")");
+        }
         sb.append("(");
         int iValue = 0;
         for (int i = 0; i < colSize; i++) {
@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.route.parser.druid.impl;
+
+import com.alibaba.druid.sql.ast.statement.SQLInsertStatement.ValuesClause;
+
+import java.util.List;
+
+/**
+ * the positions of the value tuples of a multi-row insert in the sql text.
+ * the insert of every shardingNode is sliced from the sql text instead of generated from the ast,
+ * the tuples are located by the original strings kept by druid(SQLParserFeature.KeepInsertValueClauseOriginalString).
+ */
+final class InsertValuesSlices {
+    private final String sql;
+    private final int[] starts;
+    private final int[] ends;
+
+    private InsertValuesSlices(String sql, int[] starts, int[] ends) {
+        this.sql = sql;
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    /**
+     * @return null if the tuples can't be located in the sql, such as the sql is not the one parsed
+     * or there are comments between the tuples
+     */
+    static InsertValuesSlices locate(String sql, List<ValuesClause> valuesList) {
+        int size = valuesList.size();
+        int[] starts = new int[size];
+        int[] ends = new int[size];
+        int pos = 0;
+        for (int i = 0; i < size; i++) {
+            String tuple = valuesList.get(i).getOriginalString();
+            if (tuple == null) {
+                return null;
+            }
+            int start = sql.indexOf(tuple, pos);
+            if (i == 0) {
+                // the column list may be the same as the first tuple
+                while (start >= 0 && !isAfterValuesKeyword(sql, start)) {
+                    start = sql.indexOf(tuple, start + 1);
+                }
+            }
+            if (start < 0 || (i > 0 && !isSeparator(sql, ends[i - 1], start))) {
+                return null;
+            }
+            starts[i] = start;
+            ends[i] = start + tuple.length();
+            pos = ends[i];
+        }
+        return new InsertValuesSlices(sql, starts, ends);
+    }
+
+    /**
+     * @param tupleIndexes the indexes of the tuples in order
+     * @return the insert of the tuples, the text before the first tuple and after the last tuple is kept
+     */
+    String slice(List<Integer> tupleIndexes) {
+        int last = starts.length - 1;
+        int length = starts[0] + sql.length() - ends[last];
+        for (int index : tupleIndexes) {
+            length += ends[index] - starts[index] + 1;
+        }
+        StringBuilder sb = new StringBuilder(length);
+        sb.append(sql, 0, starts[0]);
+        for (int i = 0; i < tupleIndexes.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            int index = tupleIndexes.get(i);
+            sb.append(sql, starts[index], ends[index]);
+        }
+        sb.append(sql, ends[last], sql.length());
+        return sb.toString();
+    }
+
+    private static boolean isAfterValuesKeyword(String sql, int pos) {
+        int end = pos;
+        while (end > 0 && Character.isWhitespace(sql.charAt(end - 1))) {
+            end--;
+        }
+        int start = end;
+        while (start > 0 && Character.isLetter(sql.charAt(start - 1))) {
+            start--;
+        }
+        if (start > 0 && isIdentifierChar(sql.charAt(start - 1))) {
+            return false;
+        }
+        String word = sql.substring(start, end);
+        return "values".equalsIgnoreCase(word) || "value".equalsIgnoreCase(word);
+    }
+
+    private static boolean isIdentifierChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '`';
+    }
+
+    /**
+     * only blanks and one comma
+     */
+    private static boolean isSeparator(String sql, int from, int to) {
+        boolean comma = false;
+        for (int i = from; i < to; i++) {
+            char c = sql.charAt(i);
+            if (c == ',' && !comma) {
+                comma = true;
+            } else if (!Character.isWhitespace(c)) {
+                return false;
+            }
+        }
+        return comma;
+    }
+}
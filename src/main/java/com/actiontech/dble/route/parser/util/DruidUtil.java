@@ -8,6 +8,7 @@ package com.actiontech.dble.route.parser.util;
 import com.actiontech.dble.server.parser.TableAliasVisitor;
 import com.alibaba.druid.sql.ast.SQLStatement;
 import com.alibaba.druid.sql.dialect.mysql.parser.MySqlStatementParser;
+import com.alibaba.druid.sql.parser.SQLParserFeature;
 import com.alibaba.druid.sql.parser.SQLStatementParser;
 
 import java.sql.SQLSyntaxErrorException;
@@ -44,7 +45,8 @@ public final class DruidUtil {
     }
 
     public static SQLStatement parseSQL(String originSql) throws SQLSyntaxErrorException {
-        SQLStatementParser parser = new MySqlStatementParser(originSql);
+        // the tuples of insert are kept for slicing the insert of every shardingNode from the origin sql
+        SQLStatementParser parser = new MySqlStatementParser(originSql, SQLParserFeature.KeepInsertValueClauseOriginalString);
         try {
             return parser.parseStatement(true);
         } catch (Exception t) {
@@ -20,10 +20,12 @@ public class Counter {
     AtomicLong curVal = new AtomicLong(0);
     //max seg value of this time,if the curVal equals this value than need to find a new segment
     long maxSegValue;
+    final long segmentSize;
 
     public Counter(long start, long maxSegValue) {
         LOGGER.info("new counter " + start + "  " + maxSegValue);
         this.maxSegValue = maxSegValue;
+        this.segmentSize = maxSegValue - start;
         curVal = new AtomicLong(start);
     }
 
@@ -33,4 +35,11 @@ public class Counter {
         return maxSegValue > value ? value : -1;
     }
 
+    /**
+     * @return true if the remaining values after the given value are less than percent of the segment
+     */
+    public boolean isBelowWatermark(long value, int percent) {
+        return (maxSegValue - value) * 100 <= segmentSize * percent;
+    }
+
 }
@@ -8,6 +8,7 @@ package com.actiontech.dble.route.sequence.handler;
 import com.actiontech.dble.DbleServer;
 import com.actiontech.dble.cluster.values.RawJson;
 import com.actiontech.dble.config.converter.SequenceConverter;
+import com.actiontech.dble.config.model.ClusterConfig;
 import com.actiontech.dble.config.util.ConfigException;
 import com.actiontech.dble.route.util.PropertiesUtil;
 import com.actiontech.dble.services.FrontendService;
@@ -18,6 +19,8 @@ import org.slf4j.LoggerFactory;
 import java.sql.SQLNonTransientException;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import static com.actiontech.dble.config.ConfigFileName.SEQUENCE_DB_FILE_NAME;
 
@@ -62,10 +65,14 @@ public class IncrSequenceMySQLHandler implements SequenceHandler {
 
     public void loadContext(Properties props) {
         seqValueMap.clear();
+        lowerCaseSeqValueMap.clear();
         props.entrySet().stream().forEach(entry -> {
             String seqName = (String) entry.getKey();
             String shardingNode = (String) entry.getValue();
-            seqValueMap.putIfAbsent(seqName, new SequenceVal(seqName, shardingNode));
+            SequenceVal seqVal = new SequenceVal(seqName, shardingNode);
+            if (seqValueMap.putIfAbsent(seqName, seqVal) == null) {
+                lowerCaseSeqValueMap.putIfAbsent(seqName.toLowerCase(), seqVal);
+            }
         });
     }
 
@@ -82,6 +89,10 @@ public class IncrSequenceMySQLHandler implements SequenceHandler {
      * save sequence -> curval
      */
     private ConcurrentHashMap<String, SequenceVal> seqValueMap = new ConcurrentHashMap<>();
+    /**
+     * lower case sequence -> curval, used when lower_case_table_names
+     */
+    private ConcurrentHashMap<String, SequenceVal> lowerCaseSeqValueMap = new ConcurrentHashMap<>();
 
     @Override
     public long nextId(String seqName, FrontendService frontendService) throws SQLNonTransientException {
@@ -90,7 +101,7 @@ public class IncrSequenceMySQLHandler implements SequenceHandler {
             throw new ConfigException("can't find definition for sequence :" + seqName);
         }
         if (!seqVal.isSuccessFetched()) {
-            return getSeqValueFromDB(seqVal);
+            return getSeqValueFromDB(seqVal, null);
         } else {
             return getNextValidSeqVal(seqVal);
         }
@@ -99,36 +110,92 @@ public class IncrSequenceMySQLHandler implements SequenceHandler {
 
     private SequenceVal matching(String key) {
         if (DbleServer.getInstance().getSystemVariables().isLowerCaseTableNames()) {
-            Optional<Map.Entry<String, SequenceVal>> result = seqValueMap.entrySet().stream().filter(m -> m.getKey().equalsIgnoreCase(key)).findFirst();
-            if (result.isPresent()) {
-                return result.get().getValue();
-            } else {
-                return null;
-            }
+            return lowerCaseSeqValueMap.get(key.toLowerCase());
         } else {
             return seqValueMap.get(key);
         }
     }
 
     private Long getNextValidSeqVal(SequenceVal seqVal) throws SQLNonTransientException {
-        long nexVal = seqVal.counter.getNext();
-        if (nexVal != -1) {
-            return nexVal;
-        } else {
-            return getSeqValueFromDB(seqVal);
+        while (true) {
+            Counter counter = seqVal.counter;
+            if (counter == null) {
+                return getSeqValueFromDB(seqVal, null);
+            }
+            long nexVal = counter.getNext();
+            if (nexVal != -1) {
+                int watermark = ClusterConfig.getInstance().getSequencePrefetchWatermark();
+                if (watermark > 0 && counter.isBelowWatermark(nexVal, watermark)) {
+                    prefetch(seqVal);
+                }
+                return nexVal;
+            }
+            if (!seqVal.switchToPrefetched(counter)) {
+                return getSeqValueFromDB(seqVal, counter);
+            }
         }
     }
 
-    private long getSeqValueFromDB(SequenceVal seqVal) throws SQLNonTransientException {
+    private long getSeqValueFromDB(SequenceVal seqVal, Counter exhausted) throws SQLNonTransientException {
         if (seqVal.fetching.compareAndSet(false, true)) {
+            if (isReplaced(seqVal, exhausted)) {
+                // the segment is fetched by others before get the lock
+                seqVal.signalAll();
+                return this.getNextValidSeqVal(seqVal);
+            }
             //if get the lock ,connect to mysql and get next
-            return this.execSeqFetcher(seqVal);
+            return this.execSeqFetcher(seqVal, exhausted);
         } else {
             //other who does get the lock just wait for awhile
             return this.waitForResult(seqVal);
         }
     }
 
+    private boolean isReplaced(SequenceVal seqVal, Counter exhausted) {
+        return seqVal.counter != exhausted || !seqVal.prefetchedCounters.isEmpty();
+    }
+
+    /**
+     * fetch the next segments in background when the current segment is below the watermark,
+     * so the callers don't wait for the db at the end of the segment.
+     * the segments are fetched one by one and each one is usable once fetched,
+     * the fetching lock of the callers is not held, so they are not blocked by the rest segments
+     */
+    private void prefetch(SequenceVal seqVal) {
+        if (!seqVal.prefetchedCounters.isEmpty() || System.currentTimeMillis() < seqVal.prefetchPauseUntil ||
+                !seqVal.prefetching.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            getPrefetchExecutor().execute(() -> {
+                try {
+                    int segments = seqVal.prefetchSegments;
+                    for (int i = 0; i < segments; i++) {
+                        seqVal.dbLock.lock();
+                        try {
+                            Long[] values = fetchSegment(seqVal);
+                            // the first value of the segment is returned by getNext
+                            seqVal.prefetchedCounters.add(new Counter(values[0] - 1, values[1]));
+                        } finally {
+                            seqVal.dbLock.unlock();
+                        }
+                    }
+                } catch (Exception e) {
+                    LOGGER.warn("prefetch sequence " + seqVal.seqName + " failed, " + e.getMessage());
+                    seqVal.prefetchPauseUntil = System.currentTimeMillis() + 1000;
+                } finally {
+                    seqVal.prefetching.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            seqVal.prefetching.set(false);
+        }
+    }
+
+    protected Executor getPrefetchExecutor() {
+        return DbleServer.getInstance().getComplexQueryExecutor();
+    }
+
     /**
      * get the next segment & get the value[0]
      *
@@ -136,31 +203,54 @@ public class IncrSequenceMySQLHandler implements SequenceHandler {
      * @return
      * @throws SQLNonTransientException
      */
-    private long execSeqFetcher(SequenceVal seqVal) throws SQLNonTransientException {
+    private long execSeqFetcher(SequenceVal seqVal, Counter exhausted) throws SQLNonTransientException {
+        Long[] values = null;
         try {
-            seqVal.dbretVal = null;
-            seqVal.dbfinished = false;
-            mysqlSeqFetcher.execute(seqVal);
-            Long[] values = seqVal.waitFinish();
-
-            //check if the result is right
-            if (values == null) {
-                throw new RuntimeException("can't fetch sequence in db,sequence :" + seqVal.seqName + " detail:" +
-                        mysqlSeqFetcher.getLastError(seqVal.seqName));
-            } else if (values[0] == 0) {
-                String msg = "sequence," + seqVal.seqName + " has not been set, please check configure in dble_sequence";
-                LOGGER.info(msg);
-                throw new SQLNonTransientException(msg);
-            } else {
-                //if the result is OK just return the first value
-                seqVal.setNewCounter(values[0], values[1]);
-                return values[0];
+            seqVal.dbLock.lock();
+            try {
+                // the prefetch may fetch a segment while waiting for the db lock
+                if (!isReplaced(seqVal, exhausted)) {
+                    values = fetchSegment(seqVal);
+                    //if the result is OK just return the first value
+                    seqVal.setNewCounter(values[0], values[1]);
+                }
+            } finally {
+                seqVal.dbLock.unlock();
             }
-        } catch (Exception e) {
-            throw e;
         } finally {
             seqVal.signalAll();
         }
+        return values == null ? this.getNextValidSeqVal(seqVal) : values[0];
+    }
+
+    /**
+     * exec the fetch sql, the caller must hold the db lock
+     */
+    private Long[] fetchSegment(SequenceVal seqVal) throws SQLNonTransientException {
+        long start = System.currentTimeMillis();
+        Long[] values = execFetchSql(seqVal);
+        seqVal.lastFetchCost = System.currentTimeMillis() - start;
+
+        //check if the result is right
+        if (values == null) {
+            throw new RuntimeException("can't fetch sequence in db,sequence :" + seqVal.seqName + " detail:" +
+                    mysqlSeqFetcher.getLastError(seqVal.seqName));
+        } else if (values[0] == 0) {
+            String msg = "sequence," + seqVal.seqName + " has not been set, please check configure in dble_sequence";
+            LOGGER.info(msg);
+            throw new SQLNonTransientException(msg);
+        }
+        return values;
+    }
+
+    /**
+     * @return the first value and the max value of the segment, null if failed
+     */
+    protected Long[] execFetchSql(SequenceVal seqVal) throws SQLNonTransientException {
+        seqVal.dbretVal = null;
+        seqVal.dbfinished = false;
+        mysqlSeqFetcher.execute(seqVal);
+        return seqVal.waitFinish();
     }
 
     /**
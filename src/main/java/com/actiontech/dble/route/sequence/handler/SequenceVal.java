@@ -5,6 +5,8 @@
 
 package com.actiontech.dble.route.sequence.handler;
 
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
@@ -13,15 +15,27 @@ import java.util.concurrent.locks.ReentrantLock;
  * Created by huqing.yan on 2017/7/3.
  */
 public class SequenceVal {
+    private static final int MAX_PREFETCH_SEGMENTS = 8;
 
-
-    Counter counter = null;
+    volatile Counter counter = null;
+    //the segments fetched before the counter is exhausted
+    final Queue<Counter> prefetchedCounters = new ConcurrentLinkedQueue<>();
+    //the number of segments of one prefetch, grows when the segments are consumed fast
+    volatile int prefetchSegments = 1;
+    //don't prefetch until this time after the prefetch failed
+    volatile long prefetchPauseUntil;
+    volatile long lastFetchCost;
+    private volatile long counterStartTime;
     //exec fetch sql result
     volatile String dbretVal = null;
     //exec fetch sql flag
     volatile boolean dbfinished;
-    //exec get next segment lock
+    //exec get next segment lock, the callers of the exhausted segment wait for it
     AtomicBoolean fetching = new AtomicBoolean(false);
+    //only one fetch sql is executed at a time, the result is kept in dbretVal
+    final ReentrantLock dbLock = new ReentrantLock();
+    //the prefetch in background is running
+    final AtomicBoolean prefetching = new AtomicBoolean(false);
 
     //flag if the init of the Sequence is done
     private volatile boolean successFetched;
@@ -41,9 +55,35 @@ public class SequenceVal {
 
     public void setNewCounter(long start, long end) {
         counter = new Counter(start, end);
+        counterStartTime = System.currentTimeMillis();
         successFetched = true;
     }
 
+    /**
+     * use the prefetched segment after the counter is exhausted
+     *
+     * @return false if there is no prefetched segment
+     */
+    public synchronized boolean switchToPrefetched(Counter exhausted) {
+        if (counter != exhausted) {
+            return true;
+        }
+        Counter next = prefetchedCounters.poll();
+        if (next == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        long lasted = now - counterStartTime;
+        if (lasted <= lastFetchCost * 2) {
+            prefetchSegments = Math.min(prefetchSegments * 2, MAX_PREFETCH_SEGMENTS);
+        } else if (lasted > lastFetchCost * 20 && prefetchSegments > 1) {
+            prefetchSegments = prefetchSegments / 2;
+        }
+        counter = next;
+        counterStartTime = now;
+        return true;
+    }
+
     public Long[] waitFinish() {
         long start = System.currentTimeMillis();
         long end = start + 10 * 1000;
@@ -0,0 +1,213 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.route.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * the digest of a sql: the numeric and quoted literals are replaced with '?',
+ * so that the sqls which are only different in literals have the same digest.
+ * <p>
+ * the sql is split into the literals and the text around them(parts),
+ * parts.size() == literals.size() + 1.
+ * <p>
+ * some literals are kept in the digest, because they may change the route result or the merge of the result:
+ * the numbers after LIMIT, the strings with charset introducer or hex/bit prefix (_utf8'a', x'0f').
+ * the sql with comments or '?' is not supported.
+ */
+public final class SqlDigest {
+    private static final char PLACEHOLDER = '?';
+
+    private final String digest;
+    private final List<String> parts;
+    private final List<String> literals;
+
+    private SqlDigest(String digest, List<String> parts, List<String> literals) {
+        this.digest = digest;
+        this.parts = parts;
+        this.literals = literals;
+    }
+
+    public String getDigest() {
+        return digest;
+    }
+
+    public List<String> getParts() {
+        return parts;
+    }
+
+    public List<String> getLiterals() {
+        return literals;
+    }
+
+    /**
+     * @return the sql which replaces the literals of the given parts with the literals of this digest
+     */
+    public String fill(List<String> otherParts) {
+        StringBuilder sb = new StringBuilder(digest.length() + literals.size() * 8);
+        for (int i = 0; i < literals.size(); i++) {
+            sb.append(otherParts.get(i)).append(literals.get(i));
+        }
+        sb.append(otherParts.get(literals.size()));
+        return sb.toString();
+    }
+
+    /**
+     * @return the value of the literal, null if the value can't be got without unescaping
+     */
+    public static String literalValue(String literal) {
+        char first = literal.charAt(0);
+        if (first != '\'' && first != '"') {
+            return literal;
+        }
+        String value = literal.substring(1, literal.length() - 1);
+        if (value.indexOf('\\') >= 0 || value.indexOf(first) >= 0) {
+            return null;
+        }
+        return value;
+    }
+
+    /**
+     * @return null if the sql is not supported
+     */
+    public static SqlDigest parse(String sql) {
+        final int len = sql.length();
+        StringBuilder digest = new StringBuilder(len);
+        List<String> parts = new ArrayList<>();
+        List<String> literals = new ArrayList<>();
+        int partStart = 0;
+        boolean afterLimit = false;
+        int i = 0;
+        while (i < len) {
+            char c = sql.charAt(i);
+            if (Character.isWhitespace(c)) {
+                int end = i + 1;
+                while (end < len && Character.isWhitespace(sql.charAt(end))) {
+                    end++;
+                }
+                digest.append(' ');
+                i = end;
+            } else if (c == '\'' || c == '"') {
+                int end = skipQuoted(sql, i, c);
+                if (end < 0) {
+                    return null;
+                }
+                if (i > 0 && isIdentifierChar(sql.charAt(i - 1))) {
+                    // _utf8'a' x'0f' b'01' n'a'
+                    digest.append(sql, i, end);
+                } else {
+                    parts.add(sql.substring(partStart, i));
+                    literals.add(sql.substring(i, end));
+                    partStart = end;
+                    digest.append(c).append(PLACEHOLDER).append(c);
+                }
+                i = end;
+            } else if (c == '`') {
+                int end = skipQuoted(sql, i, c);
+                if (end < 0) {
+                    return null;
+                }
+                digest.append(sql, i, end);
+                i = end;
+            } else if (c == '?' || c == '#' || (c == '/' && i + 1 < len && sql.charAt(i + 1) == '*') ||
+                    (c == '-' && i + 1 < len && sql.charAt(i + 1) == '-' && (i + 2 == len || sql.charAt(i + 2) <= ' '))) {
+                return null;
+            } else if (isDigit(c) || (c == '.' && i + 1 < len && isDigit(sql.charAt(i + 1)) && (i == 0 || !isIdentifierChar(sql.charAt(i - 1))))) {
+                int end = skipNumber(sql, i);
+                if (end < len && isIdentifierChar(sql.charAt(end))) {
+                    // 0x0f, 1abc
+                    end = skipIdentifier(sql, end);
+                    digest.append(sql, i, end);
+                } else if (afterLimit) {
+                    digest.append(sql, i, end);
+                } else {
+                    parts.add(sql.substring(partStart, i));
+                    literals.add(sql.substring(i, end));
+                    partStart = end;
+                    digest.append(PLACEHOLDER);
+                }
+                i = end;
+            } else if (isIdentifierChar(c)) {
+                int end = skipIdentifier(sql, i);
+                if (end - i == 5 && sql.regionMatches(true, i, "LIMIT", 0, 5)) {
+                    afterLimit = true;
+                }
+                digest.append(sql, i, end);
+                i = end;
+            } else {
+                digest.append(c);
+                i++;
+            }
+        }
+        parts.add(sql.substring(partStart));
+        return new SqlDigest(digest.toString(), Collections.unmodifiableList(parts), Collections.unmodifiableList(literals));
+    }
+
+    private static int skipQuoted(String sql, int start, char quote) {
+        final int len = sql.length();
+        int i = start + 1;
+        while (i < len) {
+            char c = sql.charAt(i);
+            if (c == '\\' && quote != '`') {
+                i += 2;
+            } else if (c == quote) {
+                if (i + 1 < len && sql.charAt(i + 1) == quote) {
+                    i += 2;
+                } else {
+                    return i + 1;
+                }
+            } else {
+                i++;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipNumber(String sql, int start) {
+        final int len = sql.length();
+        int i = start;
+        while (i < len && isDigit(sql.charAt(i))) {
+            i++;
+        }
+        if (i < len && sql.charAt(i) == '.') {
+            i++;
+            while (i < len && isDigit(sql.charAt(i))) {
+                i++;
+            }
+        }
+        if (i + 1 < len && (sql.charAt(i) == 'e' || sql.charAt(i) == 'E')) {
+            int j = i + 1;
+            if (sql.charAt(j) == '+' || sql.charAt(j) == '-') {
+                j++;
+            }
+            if (j < len && isDigit(sql.charAt(j))) {
+                i = j;
+                while (i < len && isDigit(sql.charAt(i))) {
+                    i++;
+                }
+            }
+        }
+        return i;
+    }
+
+    private static int skipIdentifier(String sql, int start) {
+        int i = start;
+        while (i < sql.length() && isIdentifierChar(sql.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isIdentifierChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || isDigit(c) || c == '_' || c == '$' || c == '@' || c > 0x7f;
+    }
+}
@@ -39,6 +39,7 @@ import com.actiontech.dble.plan.visitor.UpdatePlanNodeVisitor;
 import com.actiontech.dble.route.RouteResultset;
 import com.actiontech.dble.route.RouteResultsetNode;
 import com.actiontech.dble.route.parser.druid.impl.DruidUpdateParser;
+import com.actiontech.dble.server.handler.ServerLoadDataInfileHandler;
 import com.actiontech.dble.server.parser.ServerParse;
 import com.actiontech.dble.server.status.LoadDataBatch;
 import com.actiontech.dble.server.status.SlowQueryLog;
@@ -538,7 +539,17 @@ public class NonBlockingSession extends Session {
                 LOGGER.info(String.valueOf(shardingService) + rrs, e);
                 executableHandler.writeRemainBuffer();
                 executableHandler.clearAfterFailExecute();
-                shardingService.writeErrMessage(ErrorCode.ERR_HANDLE_DATA, e.toString());
+                if (rrs.isLoadData()) {
+                    // stop sending the rows to the sharding nodes, the client gets the error after it has finished sending the file
+                    ServerLoadDataInfileHandler loadDataHandler = shardingService.getLoadDataInfileHandler();
+                    loadDataHandler.abort(e.toString());
+                    loadDataHandler.afterUpload(() -> {
+                        loadDataHandler.clear();
+                        shardingService.writeErrMessage(ErrorCode.ERR_HANDLE_DATA, e.toString());
+                    });
+                } else {
+                    shardingService.writeErrMessage(ErrorCode.ERR_HANDLE_DATA, e.toString());
+                }
             }
         } finally {
             if (executableHandler != null) {
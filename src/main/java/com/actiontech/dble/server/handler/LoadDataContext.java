@@ -0,0 +1,267 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.server.handler;
+
+import com.actiontech.dble.config.model.sharding.SchemaConfig;
+import com.actiontech.dble.config.model.sharding.table.BaseTableConfig;
+import com.actiontech.dble.config.model.sharding.table.ChildTableConfig;
+import com.actiontech.dble.config.model.sharding.table.ShardingTableConfig;
+import com.actiontech.dble.sqlengine.mpp.LoadData;
+import com.actiontech.dble.sqlengine.mpp.LoadDataStream;
+import com.alibaba.druid.sql.dialect.mysql.ast.statement.MySqlLoadDataInFileStatement;
+
+import java.util.*;
+
+/**
+ * the state of one load data.
+ * it is set up by the thread which starts the load data and handed to the parser threads through the executor,
+ * the fields are never changed after that, so the parser doesn't share any field with the next load data of the connection.
+ */
+final class LoadDataContext {
+    private final MySqlLoadDataInFileStatement statement;
+    private final SchemaConfig schema;
+    private final String tableName;
+    private final BaseTableConfig tableConfig;
+    private final String fileName;
+
+    private String sql;
+    private LoadData loadData;
+    private int partitionColumnIndex = -1;
+    private int autoIncrementIndex = -1;
+    private boolean appendAutoIncrementColumn = false;
+    // null if the file is on the server
+    private LoadDataPipeline pipeline;
+    // the rows sent to the sharding nodes while parsing, null if the rows are saved into files by batch load data
+    private Map<String, LoadDataStream> streams;
+    private LoadDataStream.Group streamGroup;
+
+    // the files of batch load data, guarded by itself
+    private final Map<String, List<LoadData>> routeResultMap = new HashMap<>();
+    private volatile boolean aborted = false;
+    private volatile boolean empty = true;
+    // the first error of the parser threads
+    private int errorCode;
+    private volatile String errorMessage;
+    // the chunks parsed in parallel send or save their rows in the order of the file, guarded by this
+    private long flushedChunks = 0;
+    // the responses waiting for the client to finish sending the file, guarded by this
+    private boolean uploadDrained = false;
+    private List<Runnable> afterUpload = new ArrayList<>();
+
+    LoadDataContext(MySqlLoadDataInFileStatement statement, SchemaConfig schema, String tableName, String fileName) {
+        this.statement = statement;
+        this.schema = schema;
+        this.tableName = tableName;
+        this.tableConfig = schema.getTables().get(tableName);
+        this.fileName = fileName;
+    }
+
+    MySqlLoadDataInFileStatement getStatement() {
+        return statement;
+    }
+
+    SchemaConfig getSchema() {
+        return schema;
+    }
+
+    String getTableName() {
+        return tableName;
+    }
+
+    BaseTableConfig getTableConfig() {
+        return tableConfig;
+    }
+
+    String getFileName() {
+        return fileName;
+    }
+
+    String getSql() {
+        return sql;
+    }
+
+    void setSql(String sql) {
+        this.sql = sql;
+    }
+
+    LoadData getLoadData() {
+        return loadData;
+    }
+
+    void setLoadData(LoadData loadData) {
+        this.loadData = loadData;
+    }
+
+    int getPartitionColumnIndex() {
+        return partitionColumnIndex;
+    }
+
+    void setPartitionColumnIndex(int partitionColumnIndex) {
+        this.partitionColumnIndex = partitionColumnIndex;
+    }
+
+    int getAutoIncrementIndex() {
+        return autoIncrementIndex;
+    }
+
+    void setAutoIncrementIndex(int autoIncrementIndex) {
+        this.autoIncrementIndex = autoIncrementIndex;
+    }
+
+    boolean isAppendAutoIncrementColumn() {
+        return appendAutoIncrementColumn;
+    }
+
+    void setAppendAutoIncrementColumn(boolean appendAutoIncrementColumn) {
+        this.appendAutoIncrementColumn = appendAutoIncrementColumn;
+    }
+
+    LoadDataPipeline getPipeline() {
+        return pipeline;
+    }
+
+    void setPipeline(LoadDataPipeline pipeline) {
+        this.pipeline = pipeline;
+    }
+
+    Map<String, LoadDataStream> getStreams() {
+        return streams;
+    }
+
+    LoadDataStream.Group getStreamGroup() {
+        return streamGroup;
+    }
+
+    void setStreams(Map<String, LoadDataStream> streams, LoadDataStream.Group streamGroup) {
+        this.streams = streams;
+        this.streamGroup = streamGroup;
+    }
+
+    Map<String, List<LoadData>> getRouteResultMap() {
+        return routeResultMap;
+    }
+
+    String getPartitionColumn() {
+        if (tableConfig instanceof ChildTableConfig) {
+            return ((ChildTableConfig) tableConfig).getJoinColumn();
+        } else if (tableConfig instanceof ShardingTableConfig) {
+            return ((ShardingTableConfig) tableConfig).getShardingColumn();
+        }
+        return null;
+    }
+
+    String getIncrementColumn() {
+        if (tableConfig instanceof ChildTableConfig) {
+            return ((ChildTableConfig) tableConfig).getIncrementColumn();
+        } else if (tableConfig instanceof ShardingTableConfig) {
+            return ((ShardingTableConfig) tableConfig).getIncrementColumn();
+        }
+        return null;
+    }
+
+    int getIgnoreLines() {
+        if (statement.getIgnoreLinesNumber() != null && !"".equals(statement.getIgnoreLinesNumber().toString())) {
+            return Integer.parseInt(statement.getIgnoreLinesNumber().toString());
+        }
+        return 0;
+    }
+
+    boolean isLocal() {
+        return pipeline != null;
+    }
+
+    boolean isEmpty() {
+        return empty;
+    }
+
+    void setNotEmpty() {
+        empty = false;
+    }
+
+    /**
+     * keep the first error, the rows of the streams are rolled back
+     */
+    synchronized void fail(int code, String message) {
+        if (errorMessage == null) {
+            errorCode = code;
+            errorMessage = message;
+            if (streamGroup != null) {
+                streamGroup.abort(message);
+            }
+        }
+    }
+
+    boolean isFailed() {
+        return errorMessage != null || aborted || (streamGroup != null && streamGroup.isAborted());
+    }
+
+    synchronized int getErrorCode() {
+        return errorCode;
+    }
+
+    String getErrorMessage() {
+        return errorMessage;
+    }
+
+    /**
+     * the load data is canceled by the connection
+     */
+    void abort() {
+        aborted = true;
+        if (pipeline != null) {
+            pipeline.abort();
+        }
+        if (streamGroup != null) {
+            streamGroup.abort("load data is canceled");
+        }
+    }
+
+    boolean isAborted() {
+        return aborted;
+    }
+
+    /**
+     * wait until all the chunks before this one have flushed their rows
+     *
+     * @return false if the load data has failed, the rows needn't be flushed
+     */
+    synchronized boolean awaitFlushTurn(long chunkIndex) throws InterruptedException {
+        while (flushedChunks != chunkIndex && !isFailed()) {
+            // the streams are aborted without notifying this, so check it again later
+            wait(100);
+        }
+        return !isFailed();
+    }
+
+    /**
+     * the chunk has flushed its rows or failed, called by every chunk once
+     */
+    synchronized void endFlushTurn() {
+        flushedChunks++;
+        notifyAll();
+    }
+
+    /**
+     * @return false if the client has finished sending the file, the response can be sent now
+     */
+    synchronized boolean addAfterUpload(Runnable response) {
+        if (uploadDrained) {
+            return false;
+        }
+        afterUpload.add(response);
+        return true;
+    }
+
+    /**
+     * @return the responses waiting for the end of the upload
+     */
+    synchronized List<Runnable> uploadDrained() {
+        uploadDrained = true;
+        List<Runnable> responses = afterUpload;
+        afterUpload = Collections.emptyList();
+        return responses;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.server.handler;
+
+import com.actiontech.dble.net.connection.AbstractConnection;
+
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * the packets of the local file uploaded by the client, read by the parser thread as a stream while the client is still uploading.
+ * the packets are put by the reading thread of the connection and never block it,
+ * instead the reading of the connection is paused when too many bytes are waiting for the parser.
+ */
+final class LoadDataPipeline extends InputStream {
+    private static final byte[] END = new byte[0];
+    private static final long HIGH_WATER_MARK = 16 * 1024 * 1024;
+    private static final long LOW_WATER_MARK = 4 * 1024 * 1024;
+
+    private final AbstractConnection connection;
+    private final LinkedBlockingQueue<byte[]> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong pendingBytes = new AtomicLong();
+    // changed under the lock of this
+    private volatile boolean readPaused = false;
+    private volatile boolean aborted = false;
+
+    // only used by the parser thread
+    private byte[] current;
+    private int position;
+
+    LoadDataPipeline(AbstractConnection connection) {
+        this.connection = connection;
+    }
+
+    void put(byte[] data) {
+        if (data == null || data.length == 0 || aborted) {
+            return;
+        }
+        queue.add(data);
+        if (pendingBytes.addAndGet(data.length) > HIGH_WATER_MARK) {
+            pauseRead();
+        }
+    }
+
+    /**
+     * the client has sent the whole file
+     */
+    void finish() {
+        queue.add(END);
+    }
+
+    /**
+     * the load data is canceled, the parser thread gets the end of the stream and quits
+     */
+    void abort() {
+        aborted = true;
+        queue.clear();
+        queue.add(END);
+        pendingBytes.set(0);
+        resumeRead();
+    }
+
+    boolean isAborted() {
+        return aborted;
+    }
+
+    /**
+     * skip the rest of the file, so that the client can finish the upload after an error
+     */
+    void drain() throws InterruptedIOException {
+        while (current != END) {
+            next();
+        }
+    }
+
+    @Override
+    public int read() throws InterruptedIOException {
+        while (current == null || position == current.length) {
+            if (current == END) {
+                return -1;
+            }
+            next();
+        }
+        return current[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws InterruptedIOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (current == null || position == current.length) {
+            if (current == END) {
+                return -1;
+            }
+            next();
+        }
+        int n = Math.min(len, current.length - position);
+        System.arraycopy(current, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    private void next() throws InterruptedIOException {
+        try {
+            current = queue.take();
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException("interrupted while waiting for the data of load data");
+        }
+        position = 0;
+        if (current != END && pendingBytes.addAndGet(-current.length) < LOW_WATER_MARK && readPaused) {
+            resumeRead();
+        }
+    }
+
+    private synchronized void pauseRead() {
+        if (readPaused || aborted) {
+            return;
+        }
+        // set the flag before checking the bytes again, so the parser which takes the bytes later must see it and resume
+        readPaused = true;
+        if (pendingBytes.get() > HIGH_WATER_MARK) {
+            connection.getSocketWR().disableRead();
+        } else {
+            readPaused = false;
+        }
+    }
+
+    private synchronized void resumeRead() {
+        if (readPaused && (aborted || pendingBytes.get() < LOW_WATER_MARK)) {
+            readPaused = false;
+            connection.getSocketWR().enableRead();
+        }
+    }
+}
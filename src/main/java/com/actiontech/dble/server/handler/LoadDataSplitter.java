@@ -0,0 +1,179 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.server.handler;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * cut the text of load data into chunks of whole lines, so that the chunks can be parsed by different threads.
+ * the line terminator inside an enclosed field or after an escape character doesn't end the line,
+ * and the ignored lines at the beginning are skipped here.
+ */
+final class LoadDataSplitter {
+    private final Reader reader;
+    private final char[] lineTerminator;
+    private final char[] fieldTerminator;
+    // 0 if there is no enclose or escape character
+    private final char enclose;
+    private final char escape;
+    private final int chunkSize;
+    private int ignoreLines;
+
+    private char[] buffer;
+    // the unread text is [start, end), scanned until position, the last line ends at lineEnd
+    private int start = 0;
+    private int end = 0;
+    private int position = 0;
+    private int lineEnd = 0;
+    private boolean eof = false;
+
+    private boolean inEnclose = false;
+    private boolean fieldStart = true;
+    private boolean escaped = false;
+
+    LoadDataSplitter(Reader reader, String lineTerminator, String fieldTerminator, String enclose, String escape, int ignoreLines, int chunkSize) {
+        this.reader = reader;
+        this.lineTerminator = lineTerminator.toCharArray();
+        this.fieldTerminator = fieldTerminator.toCharArray();
+        this.enclose = enclose == null || enclose.isEmpty() ? 0 : enclose.charAt(0);
+        // the escape character same as the enclose character only escapes itself, which is a doubled enclose character
+        this.escape = escape == null || escape.isEmpty() || escape.charAt(0) == this.enclose ? 0 : escape.charAt(0);
+        this.ignoreLines = ignoreLines;
+        this.chunkSize = chunkSize;
+        this.buffer = new char[Math.max(chunkSize * 2, 16)];
+    }
+
+    /**
+     * @return the next chunk ending with the line terminator or the end of the text, null if there is no more text
+     */
+    String next() throws IOException {
+        while (true) {
+            scan();
+            if (lineEnd - start >= chunkSize) {
+                return cut(lineEnd);
+            }
+            if (eof) {
+                if (start == end) {
+                    return null;
+                }
+                if (ignoreLines > 0) {
+                    ignoreLines--;
+                    start = end;
+                    lineEnd = end;
+                    return null;
+                }
+                return cut(end);
+            }
+            fill();
+        }
+    }
+
+    private String cut(int chunkEnd) {
+        String chunk = new String(buffer, start, chunkEnd - start);
+        start = chunkEnd;
+        return chunk;
+    }
+
+    private void fill() throws IOException {
+        if (start > 0) {
+            System.arraycopy(buffer, start, buffer, 0, end - start);
+            end -= start;
+            position -= start;
+            lineEnd -= start;
+            start = 0;
+        }
+        if (end == buffer.length) {
+            // a chunk of one long line
+            char[] newBuffer = new char[buffer.length * 2];
+            System.arraycopy(buffer, 0, newBuffer, 0, end);
+            buffer = newBuffer;
+        }
+        int n = reader.read(buffer, end, buffer.length - end);
+        if (n < 0) {
+            eof = true;
+        } else {
+            end += n;
+        }
+    }
+
+    /**
+     * scan the text until the end of the buffer, stop when the lookahead needs more characters
+     */
+    private void scan() {
+        while (position < end) {
+            char c = buffer[position];
+            if (escaped) {
+                escaped = false;
+                fieldStart = false;
+                position++;
+            } else if (escape != 0 && c == escape) {
+                escaped = true;
+                position++;
+            } else if (inEnclose) {
+                if (c == enclose) {
+                    if (position + 1 == end && !eof) {
+                        return;
+                    }
+                    if (position + 1 < end && buffer[position + 1] == enclose) {
+                        // a doubled enclose character in the enclosed field
+                        position += 2;
+                        continue;
+                    }
+                    inEnclose = false;
+                }
+                position++;
+            } else if (fieldStart && enclose != 0 && c == enclose) {
+                inEnclose = true;
+                fieldStart = false;
+                position++;
+            } else {
+                int matched = match(lineTerminator);
+                if (matched < 0) {
+                    return;
+                } else if (matched > 0) {
+                    position += matched;
+                    fieldStart = true;
+                    endLine();
+                    continue;
+                }
+                matched = match(fieldTerminator);
+                if (matched < 0) {
+                    return;
+                } else if (matched > 0) {
+                    position += matched;
+                    fieldStart = true;
+                    continue;
+                }
+                fieldStart = false;
+                position++;
+            }
+        }
+    }
+
+    private void endLine() {
+        if (ignoreLines > 0) {
+            ignoreLines--;
+            start = position;
+        }
+        lineEnd = position;
+    }
+
+    /**
+     * @return the length of the terminator at the position, 0 if not matched, -1 if more characters are needed
+     */
+    private int match(char[] terminator) {
+        for (int i = 0; i < terminator.length; i++) {
+            if (position + i == end) {
+                return eof ? 0 : -1;
+            }
+            if (buffer[position + i] != terminator[i]) {
+                return 0;
+            }
+        }
+        return terminator.length;
+    }
+}
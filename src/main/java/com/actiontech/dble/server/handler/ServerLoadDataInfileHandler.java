@@ -40,6 +40,7 @@ import com.actiontech.dble.services.mysqlsharding.ShardingService;
 import com.actiontech.dble.singleton.ProxyMeta;
 import com.actiontech.dble.singleton.SequenceManager;
 import com.actiontech.dble.sqlengine.mpp.LoadData;
+import com.actiontech.dble.sqlengine.mpp.LoadDataStream;
 import com.actiontech.dble.util.ObjectUtil;
 import com.actiontech.dble.util.SqlStringUtil;
 import com.actiontech.dble.util.StringUtil;
@@ -62,6 +63,8 @@ import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.sql.SQLException;
 import java.util.*;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -74,32 +77,16 @@ public final class ServerLoadDataInfileHandler implements LoadDataInfileHandler
     private static final Logger LOGGER = LoggerFactory.getLogger(ServerLoadDataInfileHandler.class);
     //innodb limit of columns per table, https://dev.mysql.com/doc/refman/8.0/en/column-count-limit.html
     private static final int DEFAULT_MAX_COLUMNS = 1017;
-    private ShardingService service;
-    private String sql;
-    private String fileName;
-    private MySqlLoadDataInFileStatement statement;
-
-    private Map<String, List<LoadData>> routeResultMap = new HashMap<>();
-
-    private LoadData loadData;
-    private ByteArrayOutputStream tempByteBuffer;
-    private long tempByteBufferSize = 0;
-    private String tempPath;
-    private String loadDataPath;
-    private String tempFile;
-    private boolean isHasStoreToFile = false;
-
-    private SchemaConfig schema;
+    // the characters parsed by one parser thread at a time
+    private static final int CHUNK_SIZE = 1024 * 1024;
+    private final ShardingService service;
+    private final String loadDataPath;
     private final SystemConfig systemConfig = SystemConfig.getInstance();
-    private String tableName;
-    private BaseTableConfig tableConfig;
-    private int partitionColumnIndex = -1;
-    private int autoIncrementIndex = -1;
-    private boolean appendAutoIncrementColumn = false;
+    // the load data being executed, the parser threads only use the context which is handed to them
+    private volatile LoadDataContext current;
 
     public ServerLoadDataInfileHandler(ShardingService service) {
         this.service = service;
-        tempPath = SystemConfig.getInstance().getHomePath() + File.separator + "temp" + File.separator + service.getConnection().getId() + File.separator;
         loadDataPath = SystemConfig.getInstance().getHomePath() + File.separator + "temp" + File.separator + "file" + File.separator;
 
     }
@@ -118,8 +105,8 @@ public final class ServerLoadDataInfileHandler implements LoadDataInfileHandler
         return null;
     }
 
-    private void parseLoadDataPram() {
-        loadData = new LoadData();
+    private static LoadData parseLoadDataPram(MySqlLoadDataInFileStatement statement, String fileName) {
+        LoadData loadData = new LoadData();
         SQLTextLiteralExpr rawLineEnd = (SQLTextLiteralExpr) statement.getLinesTerminatedBy();
         String lineTerminatedBy = rawLineEnd == null ? "\n" : rawLineEnd.getText();
         loadData.setLineTerminatedBy(lineTerminatedBy);
@@ -138,17 +125,20 @@ public final class ServerLoadDataInfileHandler implements LoadDataInfileHandler
         String charset = statement.getCharset() != null ? statement.getCharset() : DbleServer.getInstance().getSystemVariables().getDefaultValue("character_set_database");
         loadData.setCharset(CharsetUtil.getJavaCharset(charset));
         loadData.setFileName(fileName);
+        return loadData;
     }
 
     @Override
     public void start(String strSql) {
-        this.sql = strSql;
         if (this.checkPartition(strSql)) {
             service.writeErrMessage(ErrorCode.ER_UNSUPPORTED_PS, " unsupported load data with Partition");
             clear();
             return;
         }
 
+        MySqlLoadDataInFileStatement statement;
+        String tableName;
+        SchemaConfig schema;
         try {
             statement = (MySqlLoadDataInFileStatement) new MySqlStatementParser(strSql).parseStatement();
             SchemaUtil.SchemaInfo schemaInfo = SchemaUtil.getSchemaInfo(service.getUser(), service.getSchema(), statement.getTableName(), null);
@@ -165,7 +155,6 @@ public final class ServerLoadDataInfileHandler implements LoadDataInfileHandler
             statement.setTableName(new SQLIdentifierExpr(tableName));
         }
 
-        tableConfig = schema.getTables().get(tableName);
         if (!ProxyMeta.getInstance().getTmManager().checkTableExists(schema.getName(), tableName)) {
             String msg = "Table '" + schema.getName() + "." + tableName + "' or table mata doesn't exist";
             clear();
@@ -173,45 +162,69 @@ public final class ServerLoadDataInfileHandler implements LoadDataInfileHandler
             return;
         }
 
-        fileName = parseFileName(strSql);
+        String fileName = parseFileName(strSql);
         if (fileName == null) {
             service.writeErrMessage(ErrorCode.ER_FILE_NOT_FOUND, " file name is null !");
             clear();
             return;
         }
 
-        tempFile = tempPath + "clientTemp.txt";
-        tempByteBuffer = new ByteArrayOutputStream();
-
-        if (!trySetPartitionOrAutoIncrementColumnIndex(statement)) {
+        LoadDataContext context = new LoadDataContext(statement, schema, tableName, fileName);
+        context.setSql(strSql);
+        if (!trySetPartitionOrAutoIncrementColumnIndex(context)) {
             return;
         }
 
-        if (tableConfig != null && autoIncrementIndex == -1) {
-            final String incrementColumn = getIncrementColumn();
+        BaseTableConfig tableConfig = context.getTableConfig();
+        if (tableConfig != null && context.getAutoIncrementIndex() == -1) {
+            final String incrementColumn = context.getIncrementColumn();
             if (incrementColumn != null) {
                 statement.getColumns().add(new SQLIdentifierExpr(incrementColumn));
-                autoIncrementIndex = statement.getColumns().size() - 1;
-                appendAutoIncrementColumn = true;
-                sql = SQLUtils.toMySqlString(statement);
-                if (incrementColumn.equalsIgnoreCase(getPartitionColumn())) {
-                    partitionColumnIndex = autoIncrementIndex;
+                context.setAutoIncrementIndex(statement.getColumns().size() - 1);
+                context.setAppendAutoIncrementColumn(true);
+                context.setSql(SQLUtils.toMySqlString(statement));
+                if (incrementColumn.equalsIgnoreCase(context.getPartitionColumn())) {
+                    context.setPartitionColumnIndex(context.getAutoIncrementIndex());
                 }
             }
         }
 
         if (tableConfig != null &&
                 (tableConfig instanceof ShardingTableConfig || tableConfig instanceof ChildTableConfig) &&
-                partitionColumnIndex == -1) {
+                context.getPartitionColumnIndex() == -1) {
             service.writeErrMessage(ErrorCode.ER_KEY_COLUMN_DOES_NOT_EXITS, "can't find partition column.");
             clear();
             return;
         }
 
-        parseLoadDataPram();
+        context.setLoadData(parseLoadDataPram(statement, fileName));
+        if (statement.isLocal()) {
+            context.setPipeline(new LoadDataPipeline(service.getConnection()));
+        } else if (!new File(fileName).exists()) {
+            String msg = fileName + " is not found!";
+            clear();
+            service.writeErrMessage(ErrorCode.ER_FILE_NOT_FOUND, msg);
+            return;
+        }
+
+        RouteResultset rrs = null;
+        if (!LoadDataBatch.getInstance().isEnableBatchLoadData()) {
+            try {
+                rrs = buildStreamResultSet(context);
+            } catch (SQLException e) {
+                clear();
+                service.writeErrMessage(e.getSQLState(), e.getMessage(), e.getErrorCode());
+                return;
+            }
+        }
+
+        // the context is never changed after this, the executor hands it to the parser
+        current = context;
         if (statement.isLocal()) {
             //request file from client
             service.getConnection().setProto(new LoadDataProtoHandlerImpl(this, (MySQLProtoHandlerImpl) service.getConnection().getProto()));
+            // parse the file while the client is uploading it
+            DbleServer.getInstance().getComplexQueryExecutor().execute(() -> parseData(context));
             ByteBuffer buffer = service.allocate();
             RequestFilePacket filePacket = new RequestFilePacket();
             filePacket.setFileName(fileName.getBytes());
@@ -219,37 +232,26 @@ public final class ServerLoadDataInfileHandler implements LoadDataInfileHandler
             buffer = filePacket.write(buffer, service, true);
             service.writeDirectly(buffer, WriteFlags.QUERY_END, ResultFlag.OTHER);
         } else {
-            if (!new File(fileName).exists()) {
-                String msg = fileName + " is not found!";
-                clear();
-                service.writeErrMessage(ErrorCode.ER_FILE_NOT_FOUND, msg);
-            } else {
-                if (parseFileByLine(fileName, loadData.getCharset())) {
-                    RouteResultset rrs = doBuildResultSet(routeResultMap);
-                    if (rrs != null) {
-                        if (LoadDataBatch.getInstance().isEnableBatchLoadData()) {
-                            flushDataToLastFile();
-                            rrs.setEnableLoadDataFlag(true);
-                        } else {
-                            flushDataToFile();
-                        }
-                        ClusterDelayProvider.delayBeforeLoadData();
-                        service.getSession2().endParse();
-                        service.getSession2().execute(rrs);
-                    }
-                }
+            DbleServer.getInstance().getComplexQueryExecutor().execute(() -> parseData(context));
+            if (rrs != null) {
+                ClusterDelayProvider.delayBeforeLoadData();
             }
         }
+        if (rrs != null) {
+            // the sharding nodes receive the rows while the file is being parsed
+            service.getSession2().endParse();
+            service.getSession2().execute(rrs);
+        }
     }
 
-    private void flushDataToLastFile() {
-        for (Map.Entry<String, List<LoadData>> entry : routeResultMap.entrySet()) {
+    private void flushDataToLastFile(LoadDataContext context) {
+        for (Map.Entry<String, List<LoadData>> entry : context.getRouteResultMap().entrySet()) {
             List<LoadData> loadDataList = entry.getValue();
             int size = loadDataList.size();
             loadDataList.stream().filter(data -> data.getData() != null && data.getData().size() > 0).forEach(data -> {
                 LoadData lastData = loadDataList.get(size - 1);
                 lastData.setData(data.getData());
-                saveDataToFile(lastData, entry.getKey());
+                saveDataToFile(context, lastData);
             });
 
         }
@@ -258,17 +260,16 @@ public final class ServerLoadDataInfileHandler implements LoadDataInfileHandler
 
     @Override
     public void handle(byte[] data) {
+        LoadDataContext context = current;
+        if (context == null || context.getPipeline() == null) {
+            // the load data has been finished by an error, skip the rest of the file
+            return;
+        }
         try {
-            if (sql == null) {
-                clear();
-                service.writeErrMessage(ErrorCode.ER_UNKNOWN_COM_ERROR, "Unknown command");
-                return;
-            }
             BinaryPacket packet = new BinaryPacket();
             ByteArrayInputStream inputStream = new ByteArrayInputStream(data, 0, data.length);
             packet.read(inputStream);
-
-            saveByteOrToFile(packet.getData(), false);
+            context.getPipeline().put(packet.getData());
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -277,33 +278,34 @@ public final class ServerLoadDataInfileHandler implements LoadDataInfileHandler
     /**
      * findout the index of the partition key
      */
-    private boolean trySetPartitionOrAutoIncrementColumnIndex(MySqlLoadDataInFileStatement sqlStatement) {
+    private boolean trySetPartitionOrAutoIncrementColumnIndex(LoadDataContext context) {
+        BaseTableConfig tableConfig = context.getTableConfig();
         if (tableConfig != null && (tableConfig instanceof ShardingTableConfig || tableConfig instanceof ChildTableConfig)) {
-            List<SQLExpr> columns = sqlStatement.getColumns();
-            String pColumn = getPartitionColumn();
-            String incrementColumn = getIncrementColumn();
+            List<SQLExpr> columns = context.getStatement().getColumns();
+            String pColumn = context.getPartitionColumn();
+            String incrementColumn = context.getIncrementColumn();
             if (pColumn != null || incrementColumn != null) {
                 if (columns != null && columns.size() > 0) {
                     for (int i = 0, columnsSize = columns.size(); i < columnsSize; i++) {
                         String column = StringUtil.removeBackQuote(columns.get(i).toString());
                         if (column.equalsIgnoreCase(pColumn)) {
-                            partitionColumnIndex = i;
+                            context.setPartitionColumnIndex(i);
                         }
                         if (incrementColumn != null && column.equalsIgnoreCase(incrementColumn)) {
-                            autoIncrementIndex = i;
+                            context.setAutoIncrementIndex(i);
                         }
                     }
                 } else {
                     try {
-                        TableMeta tbMeta = ProxyMeta.getInstance().getTmManager().getSyncTableMeta(schema.getName(), tableName);
+                        TableMeta tbMeta = ProxyMeta.getInstance().getTmManager().getSyncTableMeta(context.getSchema().getName(), context.getTableName());
                         if (tbMeta != null) {
                             for (int i = 0; i < tbMeta.getColumns().size(); i++) {
                                 String column = tbMeta.getColumns().get(i).getName();
                                 if (column.equalsIgnoreCase(pColumn)) {
-                                    partitionColumnIndex = i;
+                                    context.setPartitionColumnIndex(i);
                                 }
                                 if (incrementColumn != null && column.equalsIgnoreCase(incrementColumn)) {
-                                    autoIncrementIndex = i;
+                                    context.setAutoIncrementIndex(i);
                                 }
                             }
                         }
@@ -318,50 +320,18 @@ public final class ServerLoadDataInfileHandler implements LoadDataInfileHandler
         return true;
     }
 
-    private synchronized void saveByteOrToFile(byte[] data, boolean isForce) {
-        if (data != null) {
-            tempByteBufferSize = tempByteBufferSize + data.length;
-            try {
-                tempByteBuffer.write(data);
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            }
-        }
-
-        if ((isForce && isHasStoreToFile) || tempByteBufferSize > 200 * 1024 * 1024) { //200M
-            FileOutputStream channel = null;
-            try {
-                File file = new File(tempFile);
-                Files.createParentDirs(file);
-                channel = new FileOutputStream(file, true);
-
-                tempByteBuffer.writeTo(channel);
-                tempByteBuffer = new ByteArrayOutputStream();
-                tempByteBufferSize = 0;
-                isHasStoreToFile = true;
-            } catch (IOException e) {
-                throw new RuntimeException(e);
-            } finally {
-                try {
-                    if (channel != null) {
-                        channel.close();
-                    }
-                } catch (IOException ignored) {
-                    //ignore error
-                }
-            }
-        }
-    }
-
-    private RouteResultset tryDirectRoute(String strSql, String[] lineList) throws SQLException {
-        RouteResultset rrs = new RouteResultset(strSql, ServerParse.INSERT);
+    private RouteResultset tryDirectRoute(LoadDataContext context, String[] lineList) throws SQLException {
+        SchemaConfig schema = context.getSchema();
+        String tableName = context.getTableName();
+        BaseTableConfig tableConfig = context.getTableConfig();
+        RouteResultset rrs = new RouteResultset(context.getSql(), ServerParse.INSERT);
         rrs.setLoadData(true);
         if (tableConfig != null && tableConfig instanceof GlobalTableConfig) {
             List<String> shardingNodes = tableConfig.getShardingNodes();
             RouteResultsetNode[] rrsNodes = new RouteResultsetNode[shardingNodes.size()];
             for (int i = 0, shardingNodesSize = shardingNodes.size(); i < shardingNodesSize; i++) {
                 String shardingNode = shardingNodes.get(i);
-                RouteResultsetNode rrNode = new RouteResultsetNode(shardingNode, ServerParse.INSERT, strSql, Sets.newHashSet(schema.getName() + "." + tableName));
+                RouteResultsetNode rrNode = new RouteResultsetNode(shardingNode, ServerParse.INSERT, context.getSql(), Sets.newHashSet(schema.getName() + "." + tableName));
                 rrsNodes[i] = rrNode;
             }
             rrs.setGlobalTable(true);
@@ -369,26 +339,31 @@ public final class ServerLoadDataInfileHandler implements LoadDataInfileHandler
             return rrs;
         } else {
             Pair<String, String> table = new Pair<>(schema.getName(), tableName);
-
+            int partitionColumnIndex = context.getPartitionColumnIndex();
+            LoadData loadData = context.getLoadData();
             if (partitionColumnIndex != -1) {
                 if (lineList.length < partitionColumnIndex + 1 || StringUtil.isEmpty(lineList[partitionColumnIndex])) {
                     throw new RuntimeException("Partition column is empty in line '" + StringUtil.join(lineList, loadData.getFieldTerminatedBy()) + "'");
                 }
                 RouteCalculateUnit routeCalculateUnit = new RouteCalculateUnit();
-                routeCalculateUnit.addShardingExpr(table, getPartitionColumn(), parseFieldString(lineList[partitionColumnIndex], loadData.getEnclose(), loadData.getEscape()));
-                return RouterUtil.tryRouteForOneTable(schema, routeCalculateUnit, tableName, rrs, false, statement.getCharset());
+                routeCalculateUnit.addShardingExpr(table, context.getPartitionColumn(), parseFieldString(lineList[partitionColumnIndex], loadData.getEnclose(), loadData.getEscape()));
+                return RouterUtil.tryRouteForOneTable(schema, routeCalculateUnit, tableName, rrs, false, context.getStatement().getCharset());
             } else {
                 String noShardingNode = RouterUtil.isNoSharding(schema, tableName);
                 if (noShardingNode != null) {
                     return RouterUtil.routeToSingleNode(rrs, noShardingNode, Sets.newHashSet(schema.getName() + "." + tableName));
                 }
-                return RouterUtil.tryRouteForOneTable(schema, new RouteCalculateUnit(), tableName, rrs, false, statement.getCharset());
+                return RouterUtil.tryRouteForOneTable(schema, new RouteCalculateUnit(), tableName, rrs, false, context.getStatement().getCharset());
             }
         }
     }
 
 
-    private void parseOneLine(String[] line) throws Exception {
+    /**
+     * route the row and add it into the batch of the sharding nodes, the batches are sent or saved after the whole chunk is parsed
+     */
+    private void parseOneLine(LoadDataContext context, String[] line, Map<String, List<String>> batches) throws Exception {
+        LoadData loadData = context.getLoadData();
         if (loadData.getEnclose() != null && loadData.getEnclose().charAt(0) > 0x0020) {
             for (int i = 0; i < line.length; i++) {
                 if (line[i] != null) {
@@ -397,85 +372,93 @@ public final class ServerLoadDataInfileHandler implements LoadDataInfileHandler
             }
         }
 
-        if (autoIncrementIndex != -1) {
-            line = rebuildRow(line);
+        if (context.getAutoIncrementIndex() != -1) {
+            line = rebuildRow(context, line);
         }
 
-        RouteResultset rrs = tryDirectRoute(sql, line);
+        RouteResultset rrs = tryDirectRoute(context, line);
         if (rrs == null || rrs.getNodes() == null || rrs.getNodes().length == 0) {
             //do nothing
             throw new Exception("record " + StringUtil.join(line, loadData.getLineTerminatedBy()) + "has no route result");
-        } else {
-            for (RouteResultsetNode routeResultsetNode : rrs.getNodes()) {
-                String name = routeResultsetNode.getName();
-                LoadData data = null;
-                if (!routeResultMap.containsKey(name)) {
-                    routeResultMap.put(name, Lists.newArrayList());
-                } else {
-                    data = routeResultMap.get(name).get(0);
-                }
-                if (data == null) {
-                    data = new LoadData();
-                    data.setCharset(this.loadData.getCharset());
-                    data.setEnclose(this.loadData.getEnclose());
-                    data.setFieldTerminatedBy(this.loadData.getFieldTerminatedBy());
-                    data.setLineTerminatedBy(this.loadData.getLineTerminatedBy());
-                    data.setEscape(this.loadData.getEscape());
-                    List<LoadData> loadDataList = routeResultMap.get(name);
-                    loadDataList.add(data);
-                }
-
-                String jLine = joinField(line, data);
-                if (data.getData() == null) {
-                    data.setData(Lists.newArrayList(jLine));
-                } else {
-                    data.getData().add(jLine);
-                }
-
-                if (LoadDataBatch.getInstance().isEnableBatchLoadData() && data.getData().size() >= LoadDataBatch.getInstance().getSize()) {
-                    saveDataToMuFile(data, name, fileName);
-                } else if (!LoadDataBatch.getInstance().isEnableBatchLoadData() && data.getData().size() >= LoadDataBatch.getInstance().getSize()) {
-                    //avoid OOM
-                    saveDataToFile(data, name);
-                }
+        }
+        String jLine = joinField(line, loadData);
+        for (RouteResultsetNode routeResultsetNode : rrs.getNodes()) {
+            String name = routeResultsetNode.getName();
+            if (context.getStreams() != null && !context.getStreams().containsKey(name)) {
+                throw new Exception("record " + StringUtil.join(line, loadData.getLineTerminatedBy()) + " is routed to shardingNode " + name + " which is not a shardingNode of the table");
             }
+            batches.computeIfAbsent(name, k -> new ArrayList<>()).add(jLine);
         }
+        context.setNotEmpty();
     }
 
-    private String[] rebuildRow(String[] line) throws Exception {
+    private String[] rebuildRow(LoadDataContext context, String[] line) throws Exception {
+        int autoIncrementIndex = context.getAutoIncrementIndex();
+        String tableKey = StringUtil.getFullName(context.getSchema().getName(), context.getTableName());
         if (autoIncrementIndex >= line.length) {
-            autoIncrementIndex = line.length;
             String[] newLine = new String[line.length + 1];
             System.arraycopy(line, 0, newLine, 0, line.length);
-            String tableKey = StringUtil.getFullName(schema.getName(), tableName);
             newLine[line.length] = String.valueOf(SequenceManager.nextId(tableKey, service));
             line = newLine;
         } else {
             if (StringUtil.isEmpty(line[autoIncrementIndex])) {
-                String tableKey = StringUtil.getFullName(schema.getName(), tableName);
                 line[autoIncrementIndex] = String.valueOf(SequenceManager.nextId(tableKey, service));
-            } else if (!appendAutoIncrementColumn) {
+            } else if (!context.isAppendAutoIncrementColumn()) {
                 throw new Exception("you can't set value for Autoincrement column!");
             }
         }
         return line;
     }
 
-    private void flushDataToFile() {
-        for (Map.Entry<String, List<LoadData>> stringListEntry : routeResultMap.entrySet()) {
-            List<LoadData> loadDataList = stringListEntry.getValue();
-            for (LoadData value : loadDataList) {
-                if (value.getData() != null && value.getData().size() > 0) {
-                    saveDataToFile(value, stringListEntry.getKey());
-                }
+    /**
+     * send the batch to the sharding node, or save it into the file of batch load data
+     */
+    private void flushBatch(LoadDataContext context, String name, List<String> batch) throws InterruptedException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        if (context.getStreams() != null) {
+            LoadData loadData = context.getLoadData();
+            StringBuilder sb = new StringBuilder();
+            for (String line : batch) {
+                sb.append(line).append(loadData.getLineTerminatedBy());
             }
+            context.getStreams().get(name).put(sb.toString().getBytes(Charset.forName(loadData.getCharset())));
+            service.getConnection().updateLastReadTime();
+        } else {
+            saveBatch(context, name, batch);
         }
+        batch.clear();
     }
 
-    private void saveDataToFile(LoadData data, String dnName) {
+    private void saveBatch(LoadDataContext context, String name, List<String> batch) {
+        Map<String, List<LoadData>> routeResultMap = context.getRouteResultMap();
+        synchronized (routeResultMap) {
+            if (context.isAborted()) {
+                // don't create the files of the canceled load data
+                return;
+            }
+            List<LoadData> loadDataList = routeResultMap.computeIfAbsent(name, k -> Lists.newArrayList());
+            if (loadDataList.isEmpty()) {
+                loadDataList.add(createLoadData(context.getLoadData()));
+            }
+            LoadData data = loadDataList.get(0);
+            if (data.getData() == null) {
+                data.setData(Lists.newArrayList(batch));
+            } else {
+                data.getData().addAll(batch);
+            }
+            if (data.getData().size() >= LoadDataBatch.getInstance().getSize()) {
+                saveDataToMuFile(context, data, name);
+            }
+        }
+    }
+
+    /**
+     * append the rest rows to the last file, the rows without file are sent from the memory
+     */
+    private void saveDataToFile(LoadDataContext context, LoadData data) {
         if (data.getFileName() == null) {
-            String dnPath = tempPath + dnName + ".txt";
-            data.setFileName(dnPath);
             return;
         }
 
@@ -484,7 +467,7 @@ public final class ServerLoadDataInfileHandler implements LoadDataInfileHandler
             if (!dnFile.exists()) {
                 Files.createParentDirs(dnFile);
             }
-            Files.append(joinLine(data.getData(), data), dnFile, Charset.forName(loadData.getCharset()));
+            writeLines(context, data, new FileOutputStream(dnFile, true));
 
         } catch (IOException e) {
             throw new RuntimeException(e);
@@ -494,19 +477,20 @@ public final class ServerLoadDataInfileHandler implements LoadDataInfileHandler
         }
     }
 
-    private void saveDataToMuFile(LoadData data, String name, String tempFileName) {
+    private void saveDataToMuFile(LoadDataContext context, LoadData data, String name) {
+        Map<String, List<LoadData>> routeResultMap = context.getRouteResultMap();
         int index = routeResultMap.get(name).size();
         boolean first = Strings.isNullOrEmpty(data.getFileName());
         if (!first) index++;
-        tempFileName = FileUtils.getName(tempFileName);
-        String curFileName = index + "-" + tempFileName.substring(0, tempFileName.lastIndexOf(".")) + "-" + tableName + "-" + name + ".txt";
+        String tempFileName = FileUtils.getName(context.getFileName());
+        String curFileName = index + "-" + tempFileName.substring(0, tempFileName.lastIndexOf(".")) + "-" + context.getTableName() + "-" + name + ".txt";
         String dnPath = loadDataPath + curFileName;
         File dnFile = new File(dnPath);
         try {
             if (!dnFile.exists()) {
                 Files.createParentDirs(dnFile);
             }
-            Files.write(joinLine(data.getData(), data), dnFile, Charset.forName(loadData.getCharset()));
+            writeLines(context, data, new FileOutputStream(dnFile));
             // String nextSql = sql.replace(fileName, dnPath);
             if (first) {
                 data.setFileName(dnPath);
@@ -537,12 +521,14 @@ public final class ServerLoadDataInfileHandler implements LoadDataInfileHandler
     }
 
 
-    private String joinLine(List<String> data, LoadData loaddata) {
-        StringBuilder sb = new StringBuilder();
-        for (String s : data) {
-            sb.append(s).append(loaddata.getLineTerminatedBy());
+    private void writeLines(LoadDataContext context, LoadData data, OutputStream out) throws IOException {
+        String lineTerminatedBy = data.getLineTerminatedBy();
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(out, Charset.forName(context.getLoadData().getCharset())), 64 * 1024)) {
+            for (String line : data.getData()) {
+                writer.write(line);
+                writer.write(lineTerminatedBy);
+            }
         }
-        return sb.toString();
     }
 
 
@@ -562,18 +548,10 @@ public final class ServerLoadDataInfileHandler implements LoadDataInfileHandler
         return sb.toString();
     }
 
-    private Map<String, LoadData> convertToRouteMap(Map<String, List<LoadData>> routeMap) {
-        Map<String, LoadData> curRouteMap = new HashMap<>();
-        routeMap.forEach((k, v) -> curRouteMap.put(k, v.get(0)));
-        return curRouteMap;
-    }
-
-    private RouteResultset doBuildResultSet(Map<String, List<LoadData>> routeMap) {
-        if (routeMap.size() == 0) {
-            return null;
-        }
+    private RouteResultset newResultSet(LoadDataContext context) {
+        MySqlLoadDataInFileStatement statement = context.getStatement();
         statement.setLocal(true);
-        SQLLiteralExpr fn = new SQLCharExpr(fileName);    //druid will filter path, reset it now
+        SQLLiteralExpr fn = new SQLCharExpr(context.getFileName());    //druid will filter path, reset it now
         statement.setFileName(fn);
         //replace IGNORE X LINES in SQL to avoid  IGNORING X LINE in every node.
         String srcStatement = this.ignoreLinesDelete(SqlStringUtil.toSQLString(statement));
@@ -581,7 +559,17 @@ public final class ServerLoadDataInfileHandler implements LoadDataInfileHandler
         rrs.setLoadData(true);
         rrs.setStatement(srcStatement);
         rrs.setFinishedRoute(true);
-        rrs.setGlobalTable(tableConfig != null && tableConfig instanceof GlobalTableConfig);
+        rrs.setGlobalTable(context.getTableConfig() != null && context.getTableConfig() instanceof GlobalTableConfig);
+        return rrs;
+    }
+
+    private RouteResultset doBuildResultSet(LoadDataContext context) {
+        Map<String, List<LoadData>> routeMap = context.getRouteResultMap();
+        if (routeMap.size() == 0) {
+            return null;
+        }
+        RouteResultset rrs = newResultSet(context);
+        String srcStatement = rrs.getStatement();
         Map<String, List<LoadDataRouteResultsetNode>> multiRouteResultSetNodeMap = new HashMap<>();
         List<RouteResultsetNode> allNodeList = new ArrayList<>();
         LoadDataBatch.getInstance().setCurrentNodeSize(routeMap.keySet().size());
@@ -591,7 +579,7 @@ public final class ServerLoadDataInfileHandler implements LoadDataInfileHandler
             List<LoadDataRouteResultsetNode> nodeList = new ArrayList<>();
             for (LoadData data : loadDataList) {
                 LoadDataRouteResultsetNode rrNode = new LoadDataRouteResultsetNode(name, ServerParse.LOAD_DATA_INFILE_SQL, srcStatement);
-                rrNode.setTableSet(Sets.newHashSet(schema.getName() + "." + tableName));
+                rrNode.setTableSet(Sets.newHashSet(context.getSchema().getName() + "." + context.getTableName()));
                 rrNode.setStatement(srcStatement);
                 LoadData newLoadData = new LoadData();
                 ObjectUtil.copyProperties(data, newLoadData);
@@ -617,45 +605,48 @@ public final class ServerLoadDataInfileHandler implements LoadDataInfileHandler
     }
 
 
-    private RouteResultset buildResultSet(Map<String, LoadData> routeMap) {
-        if (routeMap.size() == 0) {
-            return null;
-        }
-        statement.setLocal(true);
-        SQLLiteralExpr fn = new SQLCharExpr(fileName);    //druid will filter path, reset it now
-        statement.setFileName(fn);
-        //replace IGNORE X LINES in SQL to avoid  IGNORING X LINE in every node.
-        String srcStatement = this.ignoreLinesDelete(SqlStringUtil.toSQLString(statement));
-        RouteResultset rrs = new RouteResultset(srcStatement, ServerParse.LOAD_DATA_INFILE_SQL);
-        rrs.setLoadData(true);
-        rrs.setStatement(srcStatement);
-        rrs.setFinishedRoute(true);
-        rrs.setGlobalTable(tableConfig != null && tableConfig instanceof GlobalTableConfig);
-
-        int size = routeMap.size();
-        RouteResultsetNode[] routeResultsetNodes = new RouteResultsetNode[size];
+    /**
+     * every sharding node of the table gets a stream, which is sent to the backend while the file is being parsed.
+     * the sharding node without any row of the file loads an empty file.
+     */
+    private RouteResultset buildStreamResultSet(LoadDataContext context) throws SQLException {
+        Set<String> shardingNodes = new LinkedHashSet<>(getShardingNodes(context));
+        RouteResultset rrs = newResultSet(context);
+        String srcStatement = rrs.getStatement();
+        LoadDataStream.Group group = new LoadDataStream.Group();
+        Map<String, LoadDataStream> streams = new HashMap<>();
+        RouteResultsetNode[] routeResultsetNodes = new RouteResultsetNode[shardingNodes.size()];
         int index = 0;
-        for (Map.Entry<String, LoadData> entry : routeMap.entrySet()) {
-            RouteResultsetNode rrNode = new RouteResultsetNode(entry.getKey(), ServerParse.LOAD_DATA_INFILE_SQL, srcStatement);
-            rrNode.setTableSet(Sets.newHashSet(schema.getName() + "." + tableName));
+        for (String name : shardingNodes) {
+            RouteResultsetNode rrNode = new RouteResultsetNode(name, ServerParse.LOAD_DATA_INFILE_SQL, srcStatement);
+            rrNode.setTableSet(Sets.newHashSet(context.getSchema().getName() + "." + context.getTableName()));
             rrNode.setStatement(srcStatement);
             LoadData newLoadData = new LoadData();
-            ObjectUtil.copyProperties(loadData, newLoadData);
+            ObjectUtil.copyProperties(context.getLoadData(), newLoadData);
             newLoadData.setLocal(true);
-            LoadData loadData1 = entry.getValue();
-            if (loadData1.getFileName() != null) {
-                newLoadData.setFileName(loadData1.getFileName());
-            } else {
-                newLoadData.setData(loadData1.getData());
-            }
+            LoadDataStream stream = group.newStream();
+            newLoadData.setStream(stream);
+            streams.put(name, stream);
             rrNode.setLoadData(newLoadData);
             routeResultsetNodes[index] = rrNode;
             index++;
         }
         rrs.setNodes(routeResultsetNodes);
+        context.setStreams(streams, group);
         return rrs;
     }
 
+    private static List<String> getShardingNodes(LoadDataContext context) throws SQLException {
+        if (context.getTableConfig() != null) {
+            return context.getTableConfig().getShardingNodes();
+        }
+        String noShardingNode = RouterUtil.isNoSharding(context.getSchema(), context.getTableName());
+        if (noShardingNode != null) {
+            return Collections.singletonList(noShardingNode);
+        }
+        String msg = "Table '" + context.getSchema().getName() + "." + context.getTableName() + "' doesn't exist";
+        throw new SQLException(msg, "42S02", ErrorCode.ER_NO_SUCH_TABLE);
+    }
 
     private String parseFieldString(String value, String enclose, String escape) {
         //avoid null point execption
@@ -718,90 +709,172 @@ public final class ServerLoadDataInfileHandler implements LoadDataInfileHandler
     public void end(byte packetId) {
         resetProto();
         service.setPacketId(packetId);
-        //empty packet for end
-        saveByteOrToFile(null, true);
-        if (isHasStoreToFile) {
-            parseFileByLine(tempFile, loadData.getCharset());
-        } else {
-            String content = new String(tempByteBuffer.toByteArray(), Charset.forName(loadData.getCharset()));
-            if ("".equals(content)) {
-                clear();
-                OkPacket ok = new OkPacket();
-                ok.setPacketId(service.nextPacketId());
-                ok.setMessage("Records: 0  Deleted: 0  Skipped: 0  Warnings: 0".getBytes());
-                ok.write(service.getConnection());
-                return;
-            }
-            // List<String> lines = Splitter.on(loadData.getLineTerminatedBy()).omitEmptyStrings().splitToList(content);
-            CsvParserSettings settings = new CsvParserSettings();
-            settings.setMaxColumns(DEFAULT_MAX_COLUMNS);
-            settings.setMaxCharsPerColumn(systemConfig.getMaxCharsPerColumn());
-            settings.getFormat().setLineSeparator(loadData.getLineTerminatedBy());
-            settings.getFormat().setDelimiter(loadData.getFieldTerminatedBy());
-            settings.getFormat().setComment('\0');
-            if (loadData.getEnclose() != null) {
-                settings.getFormat().setQuote(loadData.getEnclose().charAt(0));
-            } else {
-                settings.getFormat().setQuote('\0');
-            }
-            if (loadData.getEscape() != null) {
-                settings.getFormat().setQuoteEscape(loadData.getEscape().charAt(0));
-            }
-            settings.getFormat().setNormalizedNewline(loadData.getLineTerminatedBy().charAt(0));
-            settings.setSkipEmptyLines(false);
-            settings.trimValues(false);
-            settings.setEmptyValue("");
-
-            CsvParser parser = new CsvParser(settings);
-            try {
-                parser.beginParsing(new StringReader(content));
-                String[] row;
+        LoadDataContext context = current;
+        if (context != null && context.getPipeline() != null) {
+            context.getPipeline().finish();
+        }
+    }
 
-                int ignoreNumber = 0;
-                if (statement.getIgnoreLinesNumber() != null && !"".equals(statement.getIgnoreLinesNumber().toString())) {
-                    ignoreNumber = Integer.parseInt(statement.getIgnoreLinesNumber().toString());
-                }
-                while ((row = parser.parseNext()) != null) {
-                    if (ignoreNumber == 0) {
-                        if ((row.length == 1 && row[0] == null) || (row.length == 1 && row[0].isEmpty()) || row.length == 0) {
-                            continue;
-                        }
+    /**
+     * run in the complex query executor, cut the file into chunks of whole lines and parse the chunks by several threads.
+     * the rows are sent to the sharding nodes while the client is still uploading, or saved into files by batch load data
+     */
+    private void parseData(LoadDataContext context) {
+        LoadData loadData = context.getLoadData();
+        int parallelism = Math.max(1, Math.min(systemConfig.getComplexQueryWorker(), Runtime.getRuntime().availableProcessors()));
+        // the chunks being parsed, the reading of the file waits for the parser threads
+        Semaphore permits = new Semaphore(parallelism);
+        try (Reader reader = new InputStreamReader(context.isLocal() ? context.getPipeline() : new FileInputStream(context.getFileName()), loadData.getCharset())) {
+            LoadDataSplitter splitter = new LoadDataSplitter(reader, loadData.getLineTerminatedBy(), loadData.getFieldTerminatedBy(), loadData.getEnclose(),
+                    context.isLocal() ? loadData.getEscape() : null, context.getIgnoreLines(), CHUNK_SIZE);
+            String chunk;
+            long chunkIndex = 0;
+            while (!context.isFailed() && (chunk = splitter.next()) != null) {
+                permits.acquire();
+                final String curChunk = chunk;
+                final long curChunkIndex = chunkIndex++;
+                try {
+                    DbleServer.getInstance().getComplexQueryExecutor().execute(() -> {
                         try {
-                            parseOneLine(row);
-                        } catch (Exception e) {
-                            clear();
-                            service.writeErrMessage(ErrorCode.ER_WRONG_VALUE_COUNT_ON_ROW, "one row can't be parsed,error:" + e.toString() + ",\tdata:" + Arrays.toString(row));
-                            return;
+                            parseChunk(context, curChunk, curChunkIndex);
+                        } finally {
+                            permits.release();
                         }
-                    } else {
-                        ignoreNumber--;
-                    }
+                    });
+                } catch (RejectedExecutionException e) {
+                    permits.release();
+                    throw e;
                 }
-            } catch (Exception e) {
-                clear();
-                LOGGER.info("local load data error", e);
-                service.writeErrMessage(ErrorCode.ERR_HANDLE_DATA, e.getMessage());
-            } finally {
-                parser.stopParsing();
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            context.fail(ErrorCode.ERR_HANDLE_DATA, "load data is interrupted");
+        } catch (Exception e) {
+            if (!context.isAborted()) {
+                LOGGER.info("load data error", e);
+                context.fail(ErrorCode.ERR_HANDLE_DATA, e.getMessage());
+            }
+        } finally {
+            // wait for the chunks being parsed
+            permits.acquireUninterruptibly(parallelism);
         }
+        finishParse(context);
+    }
 
-        RouteResultset rrs;
-        if (LoadDataBatch.getInstance().isEnableBatchLoadData()) {
-            rrs = doBuildResultSet(routeResultMap);
-            Optional.ofNullable(rrs).ifPresent(routeResultSet -> flushDataToLastFile());
-        } else {
-            rrs = buildResultSet(convertToRouteMap(routeResultMap));
-            Optional.ofNullable(rrs).ifPresent(routeResultSet -> flushDataToFile());
+    /**
+     * parse the chunk, then send or save its rows after the rows of the former chunks,
+     * so every sharding node gets its rows in the order of the file
+     */
+    private void parseChunk(LoadDataContext context, String chunk, long chunkIndex) {
+        if (context.isFailed()) {
+            context.endFlushTurn();
+            return;
         }
-        if (rrs != null) {
-            service.getSession2().endParse();
-            service.getSession2().execute(rrs);
+        CsvParser parser = new CsvParser(createParserSettings(context.getLoadData(), context.isLocal()));
+        Map<String, List<String>> batches = new LinkedHashMap<>();
+        try {
+            parser.beginParsing(new StringReader(chunk));
+            String[] row;
+            while ((row = parser.parseNext()) != null) {
+                if ((row.length == 1 && row[0] == null) || (row.length == 1 && row[0].isEmpty()) || row.length == 0) {
+                    continue;
+                }
+                try {
+                    parseOneLine(context, row, batches);
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    context.fail(ErrorCode.ER_WRONG_VALUE_COUNT_ON_ROW, "one row can't be parsed,error:" + e.toString() + ",\tdata:" + Arrays.toString(row));
+                    return;
+                }
+                if (context.isFailed()) {
+                    return;
+                }
+            }
+            if (context.awaitFlushTurn(chunkIndex)) {
+                for (Map.Entry<String, List<String>> entry : batches.entrySet()) {
+                    flushBatch(context, entry.getKey(), entry.getValue());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            context.fail(ErrorCode.ERR_HANDLE_DATA, "load data is interrupted");
+        } catch (Exception e) {
+            LOGGER.info("load data error", e);
+            context.fail(ErrorCode.ERR_HANDLE_DATA, e.getMessage());
+        } finally {
+            parser.stopParsing();
+            context.endFlushTurn();
         }
     }
 
+    /**
+     * the streams of the sharding nodes are finished, so the sharding nodes respond to the client,
+     * or aborted, so the sharding nodes roll back and the client gets the error.
+     * the batch load data is executed after parsing.
+     */
+    private void finishParse(LoadDataContext context) {
+        LoadDataStream.Group group = context.getStreamGroup();
+        try {
+            LoadDataPipeline curPipeline = context.getPipeline();
+            if (curPipeline != null) {
+                try {
+                    // the client is still sending the rest of the file after an error
+                    curPipeline.drain();
+                } catch (IOException e) {
+                    LOGGER.info("local load data is interrupted", e);
+                    context.fail(ErrorCode.ERR_HANDLE_DATA, e.getMessage());
+                    return;
+                } finally {
+                    // the errors of the sharding nodes which failed during the upload
+                    for (Runnable response : context.uploadDrained()) {
+                        response.run();
+                    }
+                }
+            }
+            if (context.isAborted()) {
+                return;
+            }
+            if (group != null) {
+                if (!context.isFailed()) {
+                    group.finish();
+                }
+                return;
+            }
+            if (context.getErrorMessage() != null) {
+                clear();
+                service.writeErrMessage(context.getErrorCode(), context.getErrorMessage());
+                return;
+            }
+            if (context.isEmpty()) {
+                clear();
+                OkPacket ok = new OkPacket();
+                ok.setPacketId(service.nextPacketId());
+                ok.setMessage("Records: 0  Deleted: 0  Skipped: 0  Warnings: 0".getBytes());
+                ok.write(service.getConnection());
+                return;
+            }
+            RouteResultset rrs = doBuildResultSet(context);
+            if (rrs != null) {
+                flushDataToLastFile(context);
+                if (!context.isLocal()) {
+                    rrs.setEnableLoadDataFlag(true);
+                    ClusterDelayProvider.delayBeforeLoadData();
+                }
+                service.getSession2().endParse();
+                service.getSession2().execute(rrs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            context.fail(ErrorCode.ERR_HANDLE_DATA, "load data is interrupted");
+        } finally {
+            if (group != null) {
+                group.producerDone();
+            }
+        }
+    }
 
-    private boolean parseFileByLine(String file, String encode) {
+    private CsvParserSettings createParserSettings(LoadData loadData, boolean fromClient) {
         CsvParserSettings settings = new CsvParserSettings();
         settings.setMaxColumns(DEFAULT_MAX_COLUMNS);
         settings.setMaxCharsPerColumn(systemConfig.getMaxCharsPerColumn());
@@ -813,70 +886,16 @@ public final class ServerLoadDataInfileHandler implements LoadDataInfileHandler
         } else {
             settings.getFormat().setQuote('\0');
         }
+        if (fromClient) {
+            if (loadData.getEscape() != null) {
+                settings.getFormat().setQuoteEscape(loadData.getEscape().charAt(0));
+            }
+            settings.setSkipEmptyLines(false);
+        }
         settings.getFormat().setNormalizedNewline(loadData.getLineTerminatedBy().charAt(0));
-
         settings.trimValues(false);
         settings.setEmptyValue("");
-
-        CsvParser parser = new CsvParser(settings);
-        InputStreamReader reader = null;
-        FileInputStream fileInputStream = null;
-        try {
-            fileInputStream = new FileInputStream(file);
-            reader = new InputStreamReader(fileInputStream, encode);
-            parser.beginParsing(reader);
-            String[] row;
-
-            int ignoreNumber = 0;
-            if (statement.getIgnoreLinesNumber() != null && !"".equals(statement.getIgnoreLinesNumber().toString())) {
-                ignoreNumber = Integer.parseInt(statement.getIgnoreLinesNumber().toString());
-            }
-            boolean empty = true;
-            while ((row = parser.parseNext()) != null) {
-                if (ignoreNumber == 0) {
-                    if ((row.length == 1 && row[0] == null) || (row.length == 1 && row[0].isEmpty()) || row.length == 0) {
-                        continue;
-                    }
-                    try {
-                        parseOneLine(row);
-                    } catch (Exception e) {
-                        clear();
-                        service.writeErrMessage(ErrorCode.ER_WRONG_VALUE_COUNT_ON_ROW, "one row can't be parsed,error:" + e.toString() + ",data:" + Arrays.toString(row));
-                        return false;
-                    }
-                    empty = false;
-                } else {
-                    ignoreNumber--;
-                }
-            }
-            if (empty) {
-                clear();
-                OkPacket ok = new OkPacket();
-                ok.setPacketId(service.nextPacketId());
-                ok.setMessage("Records: 0  Deleted: 0  Skipped: 0  Warnings: 0".getBytes());
-                ok.write(service.getConnection());
-                return false;
-            }
-            return true;
-        } catch (FileNotFoundException | UnsupportedEncodingException e) {
-            throw new RuntimeException(e);
-        } finally {
-            parser.stopParsing();
-            if (fileInputStream != null) {
-                try {
-                    fileInputStream.close();
-                } catch (IOException e) {
-                    throw new RuntimeException(e);
-                }
-            }
-            if (reader != null) {
-                try {
-                    reader.close();
-                } catch (IOException e) {
-                    throw new RuntimeException(e);
-                }
-            }
-        }
+        return settings;
     }
 
 
@@ -913,30 +932,33 @@ public final class ServerLoadDataInfileHandler implements LoadDataInfileHandler
         }
     }
 
+    /**
+     * the sharding nodes fail, stop sending the rows to them
+     */
+    public void abort(String reason) {
+        LoadDataContext context = current;
+        if (context != null && context.getStreamGroup() != null) {
+            context.getStreamGroup().abort(reason);
+        }
+    }
+
+    /**
+     * run the response of the load data after the client has finished sending the file,
+     * the client doesn't read the response while it is still uploading
+     */
+    public void afterUpload(Runnable response) {
+        LoadDataContext context = current;
+        if (context == null || context.getPipeline() == null || !context.addAfterUpload(response)) {
+            response.run();
+        }
+    }
+
     public void init() {
-        schema = null;
-        tableConfig = null;
-        isHasStoreToFile = false;
-        tempByteBufferSize = 0;
-        tableName = null;
-        partitionColumnIndex = -1;
-        autoIncrementIndex = -1;
-        appendAutoIncrementColumn = false;
-        if (tempFile != null) {
-            File temp = new File(tempFile);
-            if (temp.exists()) {
-                temp.delete();
-            }
-        }
-        if ((tempPath != null && new File(tempPath).exists())) {
-            FileUtils.deleteFile(tempPath);
-        }
-        tempByteBuffer = null;
-        loadData = null;
-        sql = null;
-        fileName = null;
-        statement = null;
-        routeResultMap.clear();
+        LoadDataContext context = current;
+        if (context != null) {
+            current = null;
+            context.abort();
+        }
     }
 
     public void clear() {
@@ -946,31 +968,12 @@ public final class ServerLoadDataInfileHandler implements LoadDataInfileHandler
     }
 
     public void clearFile(Set<String> successFileNames) {
-        schema = null;
-        tableConfig = null;
-        isHasStoreToFile = false;
-        tempByteBufferSize = 0;
-        tableName = null;
-        partitionColumnIndex = -1;
-        autoIncrementIndex = -1;
-        appendAutoIncrementColumn = false;
-        if (tempFile != null) {
-            File temp = new File(tempFile);
-            if (temp.exists()) {
-                temp.delete();
-            }
-        }
+        current = null;
         for (String successFileName : successFileNames) {
             if (new File(successFileName).exists()) {
                 FileUtils.deleteFile(successFileName);
             }
         }
-        tempByteBuffer = null;
-        loadData = null;
-        sql = null;
-        fileName = null;
-        statement = null;
-        routeResultMap.clear();
     }
 
     public void cleanLoadDataFile() {
@@ -978,25 +981,4 @@ public final class ServerLoadDataInfileHandler implements LoadDataInfileHandler
             FileUtils.deleteFile(loadDataPath);
         }
     }
-
-
-    private String getPartitionColumn() {
-        String pColumn = null;
-        if (tableConfig instanceof ChildTableConfig) {
-            pColumn = ((ChildTableConfig) tableConfig).getJoinColumn();
-        } else if (tableConfig instanceof ShardingTableConfig) {
-            pColumn = ((ShardingTableConfig) tableConfig).getShardingColumn();
-        }
-        return pColumn;
-    }
-
-    private String getIncrementColumn() {
-        String pColumn = null;
-        if (tableConfig instanceof ChildTableConfig) {
-            pColumn = ((ChildTableConfig) tableConfig).getIncrementColumn();
-        } else if (tableConfig instanceof ShardingTableConfig) {
-            pColumn = ((ShardingTableConfig) tableConfig).getIncrementColumn();
-        }
-        return pColumn;
-    }
 }
@@ -6,6 +6,7 @@
 package com.actiontech.dble.services;
 
 import com.actiontech.dble.DbleServer;
+import com.actiontech.dble.backend.pool.ConnectionPool;
 import com.actiontech.dble.btrace.provider.DbleThreadPoolProvider;
 import com.actiontech.dble.config.Isolations;
 import com.actiontech.dble.config.model.SystemConfig;
@@ -66,6 +67,8 @@ public abstract class BackendService extends AbstractService {
     // sync context
     protected volatile boolean metaDataSynced = true;
     protected volatile boolean isExecuting;
+    // System.nanoTime() when the query is sent, 0 if its response has been received
+    private volatile long requestTime;
     protected volatile StatusSync statusSync;
 
     protected boolean autocommitSynced;
@@ -217,6 +220,7 @@ public abstract class BackendService extends AbstractService {
             return;
         }
 
+        recordResponseTime();
         byte type = data[4];
         if (type == OkPacket.FIELD_COUNT) {
             protocolResponseHandler.ok(data);
@@ -229,6 +233,26 @@ public abstract class BackendService extends AbstractService {
         }
     }
 
+    protected void markRequestSent() {
+        isExecuting = true;
+        requestTime = System.nanoTime();
+    }
+
+    /**
+     * the response time is counted at the first packet of the query, the responses of the sync commands sent before it are skipped
+     */
+    private void recordResponseTime() {
+        long sent = requestTime;
+        if (sent == 0 || statusSync != null) {
+            return;
+        }
+        requestTime = 0;
+        ConnectionPool pool = connection.getPoolRelated();
+        if (pool != null) {
+            pool.getLoadStatistic().onResponse(System.nanoTime() - sent);
+        }
+    }
+
     protected void handleDataError(Exception e) {
         LOGGER.warn(this.toString() + " handle data error:", e);
         connection.close("handle data error:" + e.getMessage());
@@ -275,6 +299,9 @@ public abstract class BackendService extends AbstractService {
 
         if (innerRelease()) {
             TraceManager.sessionFinish(this);
+            // the consumer may be terminated before it resumes the reading
+            connection.resumeReadByConsumer();
+            connection.setPrefetchQueue(null);
             connection.getPoolRelated().release(connection);
         }
     }
@@ -237,7 +237,7 @@ public abstract class FrontendService<T extends UserConfig> extends AbstractServ
     }
 
     public void notifyTaskThread() {
-        DbleServer.getInstance().getFrontHandlerQueue().offerFirst(new NotificationServiceTask(this));
+        DbleServer.getInstance().offerFrontHandlerQueueFirst(new NotificationServiceTask(this));
     }
 
 
@@ -196,6 +196,10 @@ public abstract class ManagerBaseHandlerBuilder {
             }
         }
         if (node.getLimitTo() >= 0) {
+            if (currentLast instanceof OrderByHandler) {
+                // only the rows before the end of limit need sorting
+                ((OrderByHandler) currentLast).setTopN(Math.max(node.getLimitFrom(), 0) + node.getLimitTo());
+            }
             LimitHandler lh = new LimitHandler(getSequenceId(), session, node.getLimitFrom(), node.getLimitTo());
             addHandler(lh);
         }
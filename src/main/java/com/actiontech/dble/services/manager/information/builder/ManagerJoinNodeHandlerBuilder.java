@@ -69,6 +69,7 @@ class ManagerJoinNodeHandlerBuilder extends ManagerBaseHandlerBuilder {
             final Item keyToPass = keyToPasses.get(columnIndex);
             DMLResponseHandler endHandler = buildJoinChild(tnSmall, isLeftSmall);
             final TempTableHandler tempHandler = new TempTableHandler(getSequenceId(), session, keySource);
+            tempHandler.disableSemiJoinFilter();
             endHandler.setNextHandler(tempHandler);
             tempHandler.setLeft(isLeftSmall);
             pres.add(tempHandler);
@@ -48,11 +48,12 @@ public class DbleDbGroup extends ManagerWritableTable {
     public static final String COLUMN_ACTIVE = "active";
     public static final String DELAY_PERIOD_MILLIS = "delay_period_millis";
     public static final String DELAY_DATABASE = "delay_database";
+    public static final String COLUMN_LOAD_BALANCE = "load_balance";
 
     private final List<LinkedHashMap<String, String>> tempRowList = Lists.newArrayList();
 
     public DbleDbGroup() {
-        super(TABLE_NAME, 9);
+        super(TABLE_NAME, 10);
         setNotWritableColumnSet(COLUMN_ACTIVE);
         String path = ResourceUtil.getResourcePathFromRoot(ClusterPathUtil.LOCAL_WRITE_PATH);
         path = new File(path).getPath() + File.separator + ConfigFileName.DB_XML;
@@ -89,6 +90,9 @@ public class DbleDbGroup extends ManagerWritableTable {
         columns.put(DELAY_DATABASE, new ColumnMeta(DELAY_DATABASE, "varchar(255)", true, null));
         columnsType.put(DELAY_DATABASE, Fields.FIELD_TYPE_VAR_STRING);
 
+        columns.put(COLUMN_LOAD_BALANCE, new ColumnMeta(COLUMN_LOAD_BALANCE, "varchar(16)", true, DbGroupConfig.LOAD_BALANCE_RANDOM));
+        columnsType.put(COLUMN_LOAD_BALANCE, Fields.FIELD_TYPE_VAR_STRING);
+
         columns.put(COLUMN_DISABLE_HA, new ColumnMeta(COLUMN_DISABLE_HA, "varchar(5)", true, "false"));
         columnsType.put(COLUMN_DISABLE_HA, Fields.FIELD_TYPE_VAR_STRING);
 
@@ -236,6 +240,9 @@ public class DbleDbGroup extends ManagerWritableTable {
                 case DELAY_DATABASE:
                     dbGroup.setDelayDatabase(String.valueOf(value));
                     break;
+                case COLUMN_LOAD_BALANCE:
+                    dbGroup.setLoadBalance(value);
+                    break;
 
                 default:
                     break;
@@ -307,6 +314,12 @@ public class DbleDbGroup extends ManagerWritableTable {
             }
             String delayPeriodMillis = row.get(DELAY_PERIOD_MILLIS);
             delayDetectionCheck(delayPeriodMillis);
+            String loadBalance = row.get(COLUMN_LOAD_BALANCE);
+            if (!StringUtil.isBlank(loadBalance) && !StringUtil.equalsIgnoreCase(loadBalance, DbGroupConfig.LOAD_BALANCE_RANDOM) &&
+                    !StringUtil.equalsIgnoreCase(loadBalance, DbGroupConfig.LOAD_BALANCE_LEAST_RESPONSE)) {
+                throw new ConfigException("Column '" + COLUMN_LOAD_BALANCE + "' values only support '" + DbGroupConfig.LOAD_BALANCE_RANDOM +
+                        "' or '" + DbGroupConfig.LOAD_BALANCE_LEAST_RESPONSE + "'.");
+            }
         }
     }
 
@@ -327,6 +340,7 @@ public class DbleDbGroup extends ManagerWritableTable {
         map.put(COLUMN_DELAY_THRESHOLD, String.valueOf(dbGroupConfig.getDelayThreshold()));
         map.put(DELAY_PERIOD_MILLIS, String.valueOf(dbGroupConfig.getDelayPeriodMillis()));
         map.put(DELAY_DATABASE, String.valueOf(dbGroupConfig.getDelayDatabase()));
+        map.put(COLUMN_LOAD_BALANCE, dbGroupConfig.getLoadBalance());
         map.put(COLUMN_DISABLE_HA, String.valueOf(dbGroupConfig.isDisableHA()));
         return map;
     }
@@ -72,6 +72,10 @@ public class DbleDbInstance extends ManagerWritableTable {
 
     private static final String COLUMN_WRITE_CONN_REQUEST = "write_conn_request";
 
+    private static final String COLUMN_OUTSTANDING_REQUEST = "outstanding_request";
+
+    private static final String COLUMN_RESPONSE_TIME_MS = "response_time_ms";
+
     private static final String COLUMN_DISABLED = "disabled";
 
     private static final String COLUMN_DATABASE_TYPE = "database_type";
@@ -121,8 +125,9 @@ public class DbleDbInstance extends ManagerWritableTable {
     private static final String COLUMN_FLOW_LOW_LEVEL = "flow_low_level";
 
     public DbleDbInstance() {
-        super(TABLE_NAME, 36);
+        super(TABLE_NAME, 38);
         setNotWritableColumnSet(COLUMN_ACTIVE_CONN_COUNT, COLUMN_IDLE_CONN_COUNT, COLUMN_READ_CONN_REQUEST, COLUMN_WRITE_CONN_REQUEST,
+                COLUMN_OUTSTANDING_REQUEST, COLUMN_RESPONSE_TIME_MS,
                 COLUMN_LAST_HEARTBEAT_ACK_TIMESTAMP, COLUMN_LAST_HEARTBEAT_ACK, COLUMN_HEARTBEAT_STATUS, COLUMN_HEARTBEAT_FAILURE_IN_LAST_5MIN);
 
         String path = ResourceUtil.getResourcePathFromRoot(ClusterPathUtil.LOCAL_WRITE_PATH);
@@ -169,6 +174,12 @@ public class DbleDbInstance extends ManagerWritableTable {
         columns.put(COLUMN_WRITE_CONN_REQUEST, new ColumnMeta(COLUMN_WRITE_CONN_REQUEST, "int(11)", true, "0"));
         columnsType.put(COLUMN_WRITE_CONN_REQUEST, Fields.FIELD_TYPE_LONG);
 
+        columns.put(COLUMN_OUTSTANDING_REQUEST, new ColumnMeta(COLUMN_OUTSTANDING_REQUEST, "int(11)", true, "0"));
+        columnsType.put(COLUMN_OUTSTANDING_REQUEST, Fields.FIELD_TYPE_LONG);
+
+        columns.put(COLUMN_RESPONSE_TIME_MS, new ColumnMeta(COLUMN_RESPONSE_TIME_MS, "double", true, "0"));
+        columnsType.put(COLUMN_RESPONSE_TIME_MS, Fields.FIELD_TYPE_DOUBLE);
+
         columns.put(COLUMN_DISABLED, new ColumnMeta(COLUMN_DISABLED, "varchar(5)", true, "false"));
         columnsType.put(COLUMN_DISABLED, Fields.FIELD_TYPE_VAR_STRING);
 
@@ -266,6 +277,8 @@ public class DbleDbInstance extends ManagerWritableTable {
                 map.put(COLUMN_IDLE_CONN_COUNT, String.valueOf(dbInstance.getIdleConnections()));
                 map.put(COLUMN_READ_CONN_REQUEST, String.valueOf(dbInstance.getCount(true)));
                 map.put(COLUMN_WRITE_CONN_REQUEST, String.valueOf(dbInstance.getCount(false)));
+                map.put(COLUMN_OUTSTANDING_REQUEST, String.valueOf(dbInstance.getOutstandingRequests()));
+                map.put(COLUMN_RESPONSE_TIME_MS, String.valueOf(Math.round(dbInstance.getResponseTimeMillis() * 1000) / 1000.0));
                 map.put(COLUMN_DISABLED, String.valueOf(dbInstance.isDisabled()));
                 map.put(COLUMN_DATABASE_TYPE, String.valueOf(dbInstanceConfig.getDataBaseType()).toLowerCase());
                 map.put(COLUMN_DB_DISTRICT, dbInstanceConfig.getDbDistrict());
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.services.manager.information.tables;
+
+import com.actiontech.dble.DbleServer;
+import com.actiontech.dble.backend.mysql.nio.handler.util.PrefetchQueue;
+import com.actiontech.dble.config.Fields;
+import com.actiontech.dble.meta.ColumnMeta;
+import com.actiontech.dble.net.IOProcessor;
+import com.actiontech.dble.net.connection.BackendConnection;
+import com.actiontech.dble.services.manager.information.ManagerBaseTable;
+import com.google.common.collect.Maps;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * the rows of every backend connection waiting for the ordered merge of the complex query
+ */
+public class DbleMergePrefetch extends ManagerBaseTable {
+    private static final String TABLE_NAME = "dble_merge_prefetch";
+
+    private static final String COLUMN_BACKEND_CONN_ID = "backend_conn_id";
+    private static final String COLUMN_SHARDING_NODE = "sharding_node";
+    private static final String COLUMN_QUEUE_DEPTH = "queue_depth";
+    private static final String COLUMN_MAX_QUEUE_DEPTH = "max_queue_depth";
+    private static final String COLUMN_WINDOW = "prefetch_window";
+    private static final String COLUMN_PAUSE_COUNT = "pause_count";
+    private static final String COLUMN_READ_PAUSED = "read_paused";
+
+    public DbleMergePrefetch() {
+        super(TABLE_NAME, 7);
+    }
+
+    @Override
+    protected void initColumnAndType() {
+        columns.put(COLUMN_BACKEND_CONN_ID, new ColumnMeta(COLUMN_BACKEND_CONN_ID, "int(11)", false, true));
+        columnsType.put(COLUMN_BACKEND_CONN_ID, Fields.FIELD_TYPE_LONGLONG);
+
+        columns.put(COLUMN_SHARDING_NODE, new ColumnMeta(COLUMN_SHARDING_NODE, "varchar(64)", false, false));
+        columnsType.put(COLUMN_SHARDING_NODE, Fields.FIELD_TYPE_VAR_STRING);
+
+        columns.put(COLUMN_QUEUE_DEPTH, new ColumnMeta(COLUMN_QUEUE_DEPTH, "int(11)", false, false));
+        columnsType.put(COLUMN_QUEUE_DEPTH, Fields.FIELD_TYPE_LONGLONG);
+
+        columns.put(COLUMN_MAX_QUEUE_DEPTH, new ColumnMeta(COLUMN_MAX_QUEUE_DEPTH, "int(11)", false, false));
+        columnsType.put(COLUMN_MAX_QUEUE_DEPTH, Fields.FIELD_TYPE_LONGLONG);
+
+        columns.put(COLUMN_WINDOW, new ColumnMeta(COLUMN_WINDOW, "int(11)", false, false));
+        columnsType.put(COLUMN_WINDOW, Fields.FIELD_TYPE_LONGLONG);
+
+        columns.put(COLUMN_PAUSE_COUNT, new ColumnMeta(COLUMN_PAUSE_COUNT, "int(11)", false, false));
+        columnsType.put(COLUMN_PAUSE_COUNT, Fields.FIELD_TYPE_LONGLONG);
+
+        columns.put(COLUMN_READ_PAUSED, new ColumnMeta(COLUMN_READ_PAUSED, "varchar(5)", false, false));
+        columnsType.put(COLUMN_READ_PAUSED, Fields.FIELD_TYPE_VAR_STRING);
+    }
+
+    @Override
+    protected List<LinkedHashMap<String, String>> getRows() {
+        List<LinkedHashMap<String, String>> rows = new ArrayList<>();
+        IOProcessor[] processors = DbleServer.getInstance().getBackendProcessors();
+        for (IOProcessor p : processors) {
+            for (BackendConnection bc : p.getBackends().values()) {
+                PrefetchQueue queue = bc.getPrefetchQueue();
+                if (queue == null) {
+                    continue;
+                }
+                LinkedHashMap<String, String> row = Maps.newLinkedHashMap();
+                row.put(COLUMN_BACKEND_CONN_ID, Long.toString(bc.getId()));
+                row.put(COLUMN_SHARDING_NODE, queue.getShardingNode());
+                row.put(COLUMN_QUEUE_DEPTH, Integer.toString(queue.depth()));
+                row.put(COLUMN_MAX_QUEUE_DEPTH, Integer.toString(queue.getMaxDepth()));
+                row.put(COLUMN_WINDOW, Integer.toString(queue.getWindow()));
+                row.put(COLUMN_PAUSE_COUNT, Integer.toString(queue.getPauseCount()));
+                row.put(COLUMN_READ_PAUSED, queue.isReadPaused() ? "true" : "false");
+                rows.add(row);
+            }
+        }
+        return rows;
+    }
+}
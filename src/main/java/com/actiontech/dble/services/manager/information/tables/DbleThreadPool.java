@@ -278,7 +278,7 @@ public final class DbleThreadPool extends ManagerWritableTable {
                 for (int i = 0; i < increaseVal; i++) {
                     LOGGER.debug("will execute thread:{}", nameableExecutor.toString());
                     if (SystemConfig.getInstance().getUsePerformanceMode() == 1) {
-                        nameableExecutor.execute(new FrontendCurrentRunnable(server.getFrontHandlerQueue()));
+                        nameableExecutor.execute(new FrontendCurrentRunnable((WorkerScheduler) server.getFrontHandlerQueue()));
                     } else {
                         nameableExecutor.execute(new FrontendBlockRunnable((BlockingDeque<ServiceTask>) server.getFrontHandlerQueue()));
                     }
@@ -288,7 +288,7 @@ public final class DbleThreadPool extends ManagerWritableTable {
                 if (SystemConfig.getInstance().getUsePerformanceMode() == 1) {
                     for (int i = 0; i < increaseVal; i++) {
                         LOGGER.debug("will execute thread:{}", nameableExecutor.toString());
-                        nameableExecutor.execute(new BackendCurrentRunnable(server.getConcurrentBackHandlerQueue()));
+                        nameableExecutor.execute(new BackendCurrentRunnable((WorkerScheduler) server.getConcurrentBackHandlerQueue()));
                     }
                 }
                 break;
@@ -27,8 +27,16 @@ public class DbleThreadUsage extends ManagerBaseTable {
 
     private static final String COLUMN_LAST_FIVE_MINUTE = "last_five_minute";
 
+    private static final String COLUMN_WRITE_SYSCALLS = "write_syscalls";
+
+    private static final String COLUMN_WRITE_BUFFERS = "write_buffers";
+
+    private static final String COLUMN_QUEUE_DEPTH = "queue_depth";
+
+    private static final String COLUMN_STEALS = "steals";
+
     public DbleThreadUsage() {
-        super(TABLE_NAME, 4);
+        super(TABLE_NAME, 8);
     }
 
     @Override
@@ -44,6 +52,18 @@ public class DbleThreadUsage extends ManagerBaseTable {
 
         columns.put(COLUMN_LAST_FIVE_MINUTE, new ColumnMeta(COLUMN_LAST_FIVE_MINUTE, "varchar(5)", false));
         columnsType.put(COLUMN_LAST_FIVE_MINUTE, Fields.FIELD_TYPE_VAR_STRING);
+
+        columns.put(COLUMN_WRITE_SYSCALLS, new ColumnMeta(COLUMN_WRITE_SYSCALLS, "bigint(20)", false));
+        columnsType.put(COLUMN_WRITE_SYSCALLS, Fields.FIELD_TYPE_LONGLONG);
+
+        columns.put(COLUMN_WRITE_BUFFERS, new ColumnMeta(COLUMN_WRITE_BUFFERS, "bigint(20)", false));
+        columnsType.put(COLUMN_WRITE_BUFFERS, Fields.FIELD_TYPE_LONGLONG);
+
+        columns.put(COLUMN_QUEUE_DEPTH, new ColumnMeta(COLUMN_QUEUE_DEPTH, "int(11)", false));
+        columnsType.put(COLUMN_QUEUE_DEPTH, Fields.FIELD_TYPE_LONG);
+
+        columns.put(COLUMN_STEALS, new ColumnMeta(COLUMN_STEALS, "bigint(20)", false));
+        columnsType.put(COLUMN_STEALS, Fields.FIELD_TYPE_LONGLONG);
     }
 
     @Override
@@ -56,6 +76,10 @@ public class DbleThreadUsage extends ManagerBaseTable {
             map.put(COLUMN_LAST_QUARTER_MIN, null != usedPercent && usedPercent.length > 0 ? usedPercent[0] : null);
             map.put(COLUMN_LAST_MINUTE, null != usedPercent && usedPercent.length > 1 ? usedPercent[1] : null);
             map.put(COLUMN_LAST_FIVE_MINUTE, null != usedPercent && usedPercent.length > 2 ? usedPercent[2] : null);
+            map.put(COLUMN_WRITE_SYSCALLS, String.valueOf(e.getValue().getWriteSyscalls()));
+            map.put(COLUMN_WRITE_BUFFERS, String.valueOf(e.getValue().getWriteBuffers()));
+            map.put(COLUMN_QUEUE_DEPTH, String.valueOf(e.getValue().getQueueDepth()));
+            map.put(COLUMN_STEALS, String.valueOf(e.getValue().getSteals()));
             return map;
         }).collect(Collectors.toList());
     }
@@ -13,6 +13,7 @@ import com.actiontech.dble.config.Fields;
 import com.actiontech.dble.net.mysql.*;
 import com.actiontech.dble.services.manager.ManagerService;
 import com.actiontech.dble.singleton.CacheService;
+import com.actiontech.dble.singleton.RouteDigestCache;
 import com.actiontech.dble.util.FormatUtil;
 import com.actiontech.dble.util.LongUtil;
 import com.actiontech.dble.util.StringUtil;
@@ -88,6 +89,12 @@ public final class ShowCache {
                 }
             }
         }
+        CacheStatic digestCacheStatic = RouteDigestCache.getInstance().getCacheStatic();
+        if (digestCacheStatic != null) {
+            RowDataPacket row = getRow(RouteDigestCache.CACHE_NAME, digestCacheStatic, service.getCharset().getResults());
+            row.setPacketId(++packetId);
+            buffer = row.write(buffer, service, true);
+        }
 
         // write last eof
         EOFRowPacket lastEof = new EOFRowPacket();
@@ -25,7 +25,7 @@ public final class ShowDbInstance {
     private ShowDbInstance() {
     }
 
-    private static final int FIELD_COUNT = 11;
+    private static final int FIELD_COUNT = 12;
     private static final ResultSetHeaderPacket HEADER = PacketUtil.getHeader(FIELD_COUNT);
     private static final FieldPacket[] FIELDS = new FieldPacket[FIELD_COUNT];
     private static final EOFPacket EOF = new EOFPacket();
@@ -66,6 +66,10 @@ public final class ShowDbInstance {
         FIELDS[i++].setPacketId(++packetId);
 
         FIELDS[i] = PacketUtil.getField("DISABLED", Fields.FIELD_TYPE_VAR_STRING);
+        FIELDS[i++].setPacketId(++packetId);
+
+        // borrow time(us): <=10, <=100, <=1000, >1000
+        FIELDS[i] = PacketUtil.getField("BORROW_TIME_HISTOGRAM", Fields.FIELD_TYPE_VAR_STRING);
         FIELDS[i].setPacketId(++packetId);
 
         EOF.setPacketId(++packetId);
@@ -132,6 +136,7 @@ public final class ShowDbInstance {
         row.add(LongUtil.toBytes(ds.getCount(true)));
         row.add(LongUtil.toBytes(ds.getCount(false)));
         row.add(StringUtil.encode(ds.isDisabled() ? "true" : "false", charset));
+        row.add(StringUtil.encode(ds.getBorrowHistogram().toString(), charset));
         return row;
     }
 
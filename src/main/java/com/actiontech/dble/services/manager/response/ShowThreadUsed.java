@@ -11,6 +11,7 @@ import com.actiontech.dble.config.Fields;
 import com.actiontech.dble.net.mysql.*;
 import com.actiontech.dble.services.manager.ManagerService;
 import com.actiontech.dble.statistic.stat.ThreadWorkUsage;
+import com.actiontech.dble.util.LongUtil;
 import com.actiontech.dble.util.StringUtil;
 
 import java.nio.ByteBuffer;
@@ -21,7 +22,7 @@ public final class ShowThreadUsed {
     private ShowThreadUsed() {
     }
 
-    private static final int FIELD_COUNT = 4;
+    private static final int FIELD_COUNT = 8;
     private static final ResultSetHeaderPacket HEADER = PacketUtil.getHeader(FIELD_COUNT);
     private static final FieldPacket[] FIELDS = new FieldPacket[FIELD_COUNT];
     private static final EOFPacket EOF = new EOFPacket();
@@ -38,6 +39,14 @@ public final class ShowThreadUsed {
         FIELDS[i] = PacketUtil.getField("LAST_MINUTE", Fields.FIELD_TYPE_VAR_STRING);
         FIELDS[i++].setPacketId(++packetId);
         FIELDS[i] = PacketUtil.getField("LAST_FIVE_MINUTE", Fields.FIELD_TYPE_VAR_STRING);
+        FIELDS[i++].setPacketId(++packetId);
+        FIELDS[i] = PacketUtil.getField("WRITE_SYSCALLS", Fields.FIELD_TYPE_LONGLONG);
+        FIELDS[i++].setPacketId(++packetId);
+        FIELDS[i] = PacketUtil.getField("WRITE_BUFFERS", Fields.FIELD_TYPE_LONGLONG);
+        FIELDS[i++].setPacketId(++packetId);
+        FIELDS[i] = PacketUtil.getField("QUEUE_DEPTH", Fields.FIELD_TYPE_LONG);
+        FIELDS[i++].setPacketId(++packetId);
+        FIELDS[i] = PacketUtil.getField("STEALS", Fields.FIELD_TYPE_LONGLONG);
         FIELDS[i].setPacketId(++packetId);
         EOF.setPacketId(++packetId);
     }
@@ -75,6 +84,10 @@ public final class ShowThreadUsed {
         row.add(StringUtil.encode(workUsages[0], charset));
         row.add(StringUtil.encode(workUsages[1], charset));
         row.add(StringUtil.encode(workUsages[2], charset));
+        row.add(LongUtil.toBytes(workUsage.getWriteSyscalls()));
+        row.add(LongUtil.toBytes(workUsage.getWriteBuffers()));
+        row.add(LongUtil.toBytes(workUsage.getQueueDepth()));
+        row.add(LongUtil.toBytes(workUsage.getSteals()));
         return row;
     }
 }
@@ -307,7 +307,7 @@ public class MySQLResponseService extends BackendService {
     }
 
     public void execCmd(byte[] originPacket) {
-        isExecuting = true;
+        markRequestSent();
         connection.setLastTime(TimeUtil.currentTimeMillis());
         write(originPacket, WriteFlags.QUERY_END);
 
@@ -346,7 +346,7 @@ public class MySQLResponseService extends BackendService {
             throw new RuntimeException(e);
         }
         executeSql = query;
-        isExecuting = true;
+        markRequestSent();
         connection.setLastTime(TimeUtil.currentTimeMillis());
         int size = packet.calcPacketSize();
         if (size >= MySQLPacket.MAX_PACKET_SIZE) {
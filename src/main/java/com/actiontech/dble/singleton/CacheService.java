@@ -195,6 +195,7 @@ public final class CacheService {
         for (CachePool pool : allPools.values()) {
             pool.clearCache();
         }
+        RouteDigestCache.getInstance().clear();
     }
 
     public void reloadCache(boolean isLowerCaseTableNames) {
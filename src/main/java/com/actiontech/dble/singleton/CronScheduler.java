@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.util.Map;
 import java.util.Properties;
 
+import static com.actiontech.dble.backend.datasource.check.GlobalCheckJob.GLOBAL_TABLE_CHECK_CHUNK;
 import static com.actiontech.dble.backend.datasource.check.GlobalCheckJob.GLOBAL_TABLE_CHECK_COUNT;
 import static com.actiontech.dble.backend.datasource.check.GlobalCheckJob.GLOBAL_TABLE_CHECK_DEFAULT;
 import static org.quartz.CronScheduleBuilder.cronSchedule;
@@ -98,6 +99,8 @@ public final class CronScheduler {
             case GLOBAL_TABLE_CHECK_DEFAULT:
                 //skip
             case GLOBAL_TABLE_CHECK_COUNT:
+                //skip
+            case GLOBAL_TABLE_CHECK_CHUNK:
                 break;
             default:
                 clz = Class.forName(clazz);
@@ -0,0 +1,427 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.singleton;
+
+import com.actiontech.dble.DbleServer;
+import com.actiontech.dble.cache.CacheStatic;
+import com.actiontech.dble.config.model.SystemConfig;
+import com.actiontech.dble.config.model.sharding.SchemaConfig;
+import com.actiontech.dble.config.model.sharding.table.ShardingTableConfig;
+import com.actiontech.dble.route.RouteResultset;
+import com.actiontech.dble.route.RouteResultsetNode;
+import com.actiontech.dble.route.parser.druid.DruidShardingParseInfo;
+import com.actiontech.dble.route.parser.druid.RouteCalculateUnit;
+import com.actiontech.dble.route.parser.util.Pair;
+import com.actiontech.dble.route.util.SqlDigest;
+import com.actiontech.dble.server.parser.ServerParse;
+import com.actiontech.dble.services.mysqlsharding.ShardingService;
+import com.actiontech.dble.sqlengine.mpp.ColumnRoute;
+import com.actiontech.dble.util.StringUtil;
+import com.alibaba.druid.sql.ast.SQLExpr;
+import com.alibaba.druid.sql.ast.SQLStatement;
+import com.alibaba.druid.sql.ast.expr.*;
+import com.alibaba.druid.sql.ast.statement.SQLUpdateSetItem;
+import com.alibaba.druid.sql.ast.statement.SQLUpdateStatement;
+import com.alibaba.druid.sql.dialect.mysql.ast.statement.MySqlInsertStatement;
+import com.alibaba.druid.sql.dialect.mysql.visitor.MySqlASTVisitorAdapter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * the route cache keyed by the digest of sql(literals stripped).
+ * <p>
+ * only the sql of one sharding table which is routed to one shardingNode by one literal(sharding column = literal,
+ * or the sharding column value of single insert) is cached.
+ * the cached recipe keeps the position of the literal and the statements around the literals,
+ * a new sql with the same digest only calculates the shardingNode of the literal by the sharding function,
+ * the parse of druid is skipped.
+ */
+public final class RouteDigestCache {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RouteDigestCache.class);
+    private static final RouteDigestCache INSTANCE = new RouteDigestCache();
+    public static final String CACHE_NAME = "SQLRouteDigestCache";
+
+    /* the digest which is routed by the full route, set before route and used by learn */
+    private static final ThreadLocal<PendingDigest> PENDING = new ThreadLocal<>();
+
+    private final long maxSize;
+    private final Cache<String, RouteRecipe> recipes;
+    private final AtomicLong putTimes = new AtomicLong();
+    private volatile long lastAccessTime;
+    private volatile long lastPutTime;
+
+    private RouteDigestCache() {
+        this.maxSize = SystemConfig.getInstance().getSqlRouteDigestCacheSize();
+        if (maxSize > 0) {
+            this.recipes = CacheBuilder.newBuilder().maximumSize(maxSize).recordStats().build();
+        } else {
+            this.recipes = null;
+        }
+    }
+
+    public static RouteDigestCache getInstance() {
+        return INSTANCE;
+    }
+
+    public boolean isEnabled() {
+        return recipes != null;
+    }
+
+    /**
+     * @return the route result of the cached recipe, null if missed.
+     * if missed and the sql can be cached, the digest is kept for learn() until endRoute()
+     */
+    public RouteResultset route(SchemaConfig schema, int sqlType, String stmt, ShardingService service, boolean isExplain) {
+        if (recipes == null || isExplain || service.getSession2().getIsMultiStatement().get() ||
+                RoutePenetrationManager.getInstance().isEnabled()) {
+            return null;
+        }
+        if (sqlType != ServerParse.SELECT && sqlType != ServerParse.INSERT && sqlType != ServerParse.UPDATE && sqlType != ServerParse.DELETE) {
+            return null;
+        }
+        SqlDigest digest = SqlDigest.parse(stmt);
+        if (digest == null) {
+            return null;
+        }
+        String key = (schema == null ? "NULL" : schema.getName()) + "_" + service.getUser().getFullName() + "_" + sqlType + "_" +
+                service.isAutocommit() + "_" + digest.getDigest();
+        lastAccessTime = System.currentTimeMillis();
+        RouteRecipe recipe = recipes.getIfPresent(key);
+        if (recipe != null) {
+            RouteResultset rrs = recipe.apply(stmt, digest, service);
+            if (rrs != null) {
+                return rrs;
+            }
+            recipes.invalidate(key);
+        }
+        PENDING.set(new PendingDigest(key, digest, service));
+        return null;
+    }
+
+    public void endRoute() {
+        PENDING.remove();
+    }
+
+    /**
+     * called after the full route, cache the recipe if the route result can be reproduced by one literal
+     */
+    public void learn(RouteResultset rrs, DruidShardingParseInfo ctx, SQLStatement statement) {
+        PendingDigest pending = PENDING.get();
+        if (pending == null) {
+            return;
+        }
+        PENDING.remove();
+        if (rrs == null) {
+            return;
+        }
+        try {
+            RouteRecipe recipe = RouteRecipe.create(pending, rrs, ctx, statement);
+            if (recipe != null) {
+                recipes.put(pending.key, recipe);
+                putTimes.incrementAndGet();
+                lastPutTime = System.currentTimeMillis();
+            }
+        } catch (RuntimeException e) {
+            LOGGER.info("can't cache the route of sql " + rrs.getSrcStatement(), e);
+        }
+    }
+
+    public void clear() {
+        if (recipes != null) {
+            recipes.invalidateAll();
+        }
+    }
+
+    /**
+     * @return null if the cache is not used
+     */
+    public CacheStatic getCacheStatic() {
+        if (recipes == null) {
+            return null;
+        }
+        CacheStats stats = recipes.stats();
+        CacheStatic cacheStatic = new CacheStatic();
+        cacheStatic.setMaxSize(maxSize);
+        cacheStatic.setItemSize(recipes.size());
+        cacheStatic.setAccessTimes(stats.requestCount());
+        cacheStatic.setHitTimes(stats.hitCount());
+        cacheStatic.setPutTimes(putTimes.get());
+        cacheStatic.setLastAccessTime(lastAccessTime);
+        cacheStatic.setLastPutTime(lastPutTime);
+        return cacheStatic;
+    }
+
+    /**
+     * @return true if the sharding column is compared with at least one literal and every comparison of it is with a plain literal,
+     * a condition like id = 4 + 0 can't be routed by one of its literals
+     */
+    static boolean isLiteralCondition(SQLStatement statement, String shardingColumn) {
+        ShardingConditionVisitor visitor = new ShardingConditionVisitor(shardingColumn);
+        statement.accept(visitor);
+        return visitor.literalCount > 0 && !visitor.hasNonLiteral;
+    }
+
+    private static final class ShardingConditionVisitor extends MySqlASTVisitorAdapter {
+        private final String shardingColumn;
+        private int literalCount = 0;
+        private boolean hasNonLiteral = false;
+
+        private ShardingConditionVisitor(String shardingColumn) {
+            this.shardingColumn = shardingColumn;
+        }
+
+        @Override
+        public boolean visit(SQLBinaryOpExpr x) {
+            if (isShardingColumn(x.getLeft())) {
+                check(x.getRight());
+            } else if (isShardingColumn(x.getRight())) {
+                check(x.getLeft());
+            }
+            return true;
+        }
+
+        private void check(SQLExpr value) {
+            if (value instanceof SQLIntegerExpr || value instanceof SQLCharExpr) {
+                literalCount++;
+            } else {
+                hasNonLiteral = true;
+            }
+        }
+
+        private boolean isShardingColumn(SQLExpr expr) {
+            String column;
+            if (expr instanceof SQLIdentifierExpr) {
+                column = ((SQLIdentifierExpr) expr).getName();
+            } else if (expr instanceof SQLPropertyExpr) {
+                column = ((SQLPropertyExpr) expr).getName();
+            } else {
+                return false;
+            }
+            return StringUtil.removeBackQuote(column).equalsIgnoreCase(shardingColumn);
+        }
+    }
+
+    private static final class PendingDigest {
+        private final String key;
+        private final SqlDigest digest;
+        private final ShardingService service;
+
+        private PendingDigest(String key, SqlDigest digest, ShardingService service) {
+            this.key = key;
+            this.digest = digest;
+            this.service = service;
+        }
+    }
+
+    private static final class RouteRecipe {
+        private final Object userConfig;
+        private final SchemaConfig schemaConfig;
+        private final ShardingTableConfig tableConfig;
+        private final int literalIndex;
+        private final List<String> statementParts;
+        private final List<String> nodeStatementParts;
+        private final Set<String> tableSet;
+        private final RouteResultset template;
+        private final RouteResultsetNode templateNode;
+
+        private RouteRecipe(Object userConfig, SchemaConfig schemaConfig, ShardingTableConfig tableConfig, int literalIndex,
+                            List<String> statementParts, List<String> nodeStatementParts, RouteResultset template) {
+            this.userConfig = userConfig;
+            this.schemaConfig = schemaConfig;
+            this.tableConfig = tableConfig;
+            this.literalIndex = literalIndex;
+            this.statementParts = statementParts;
+            this.nodeStatementParts = nodeStatementParts;
+            this.template = template;
+            this.templateNode = template.getNodes()[0];
+            this.tableSet = templateNode.getTableSet();
+        }
+
+        private static RouteRecipe create(PendingDigest pending, RouteResultset rrs, DruidShardingParseInfo ctx, SQLStatement statement) {
+            RouteResultsetNode[] nodes = rrs.getNodes();
+            if (nodes == null || nodes.length != 1 || rrs.isNeedOptimizer() || rrs.isComplexSQL() || rrs.isAlwaysFalse() ||
+                    rrs.isGlobalTable() || rrs.isFinishedExecute() || rrs.getImplicitlyCommitHandler() != null ||
+                    pending.service.getSession2().getRemainingSql() != null) {
+                return null;
+            }
+            Set<String> tableSet = nodes[0].getTableSet();
+            if (tableSet == null || tableSet.size() != 1) {
+                return null;
+            }
+            String fullName = tableSet.iterator().next();
+            int dot = fullName.indexOf('.');
+            if (dot < 0) {
+                return null;
+            }
+            String schemaName = fullName.substring(0, dot);
+            String tableName = fullName.substring(dot + 1);
+            SchemaConfig schemaConfig = DbleServer.getInstance().getConfig().getSchemas().get(schemaName);
+            if (schemaConfig == null || !(schemaConfig.getTables().get(tableName) instanceof ShardingTableConfig)) {
+                return null;
+            }
+            ShardingTableConfig tableConfig = (ShardingTableConfig) schemaConfig.getTables().get(tableName);
+            String shardingValue;
+            if (statement instanceof MySqlInsertStatement) {
+                shardingValue = getInsertShardingValue((MySqlInsertStatement) statement, tableConfig);
+            } else {
+                if (statement instanceof SQLUpdateStatement && isShardingColumnUpdated((SQLUpdateStatement) statement, tableConfig)) {
+                    return null;
+                }
+                // the value of the condition is evaluated, it must be the literal itself but not an expression of literals
+                if (!isLiteralCondition(statement, tableConfig.getShardingColumn())) {
+                    return null;
+                }
+                shardingValue = getConditionShardingValue(ctx, new Pair<>(schemaName, tableName), tableConfig);
+            }
+            if (shardingValue == null || "null".equalsIgnoreCase(shardingValue)) {
+                return null;
+            }
+
+            // the only literal which is the sharding value
+            List<String> literals = pending.digest.getLiterals();
+            int literalIndex = -1;
+            for (int i = 0; i < literals.size(); i++) {
+                if (shardingValue.equals(SqlDigest.literalValue(literals.get(i)))) {
+                    if (literalIndex >= 0) {
+                        return null;
+                    }
+                    literalIndex = i;
+                }
+            }
+            if (literalIndex < 0 || !nodes[0].getName().equals(calculateNode(tableConfig, shardingValue))) {
+                return null;
+            }
+
+            // the statements may be rewritten by the parser, but the literals must be kept
+            SqlDigest statementDigest = SqlDigest.parse(rrs.getStatement());
+            SqlDigest nodeDigest = SqlDigest.parse(nodes[0].getStatement());
+            if (statementDigest == null || nodeDigest == null ||
+                    !literals.equals(statementDigest.getLiterals()) || !literals.equals(nodeDigest.getLiterals())) {
+                return null;
+            }
+            return new RouteRecipe(pending.service.getUserConfig(), schemaConfig, tableConfig, literalIndex,
+                    statementDigest.getParts(), nodeDigest.getParts(), rrs);
+        }
+
+        private static String getInsertShardingValue(MySqlInsertStatement insert, ShardingTableConfig tableConfig) {
+            if (insert.getQuery() != null || insert.getValuesList().size() != 1 || tableConfig.getIncrementColumn() != null) {
+                return null;
+            }
+            List<SQLExpr> columns = insert.getColumns();
+            List<SQLExpr> values = insert.getValues().getValues();
+            if (columns.size() != values.size()) {
+                return null;
+            }
+            for (int i = 0; i < columns.size(); i++) {
+                if (StringUtil.removeBackQuote(columns.get(i).toString()).equalsIgnoreCase(tableConfig.getShardingColumn())) {
+                    SQLExpr value = values.get(i);
+                    if (value instanceof SQLIntegerExpr) {
+                        return ((SQLIntegerExpr) value).getNumber() + "";
+                    } else if (value instanceof SQLCharExpr) {
+                        return ((SQLCharExpr) value).getText();
+                    }
+                    return null;
+                }
+            }
+            return null;
+        }
+
+        private static boolean isShardingColumnUpdated(SQLUpdateStatement update, ShardingTableConfig tableConfig) {
+            for (SQLUpdateSetItem item : update.getItems()) {
+                String column = StringUtil.removeBackQuote(item.getColumn().toString().toUpperCase());
+                if (column.contains(StringUtil.TABLE_COLUMN_SEPARATOR)) {
+                    column = column.substring(column.indexOf(".") + 1).trim();
+                }
+                if (column.equals(tableConfig.getShardingColumn())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static String getConditionShardingValue(DruidShardingParseInfo ctx, Pair<String, String> table, ShardingTableConfig tableConfig) {
+            if (ctx.getTables().size() != 1 || ctx.getRouteCalculateUnits().size() != 1) {
+                return null;
+            }
+            RouteCalculateUnit unit = ctx.getRouteCalculateUnits().get(0);
+            Map<String, ColumnRoute> conditions = unit.getTablesAndConditions().get(table);
+            if (unit.isAlwaysFalse() || conditions == null) {
+                return null;
+            }
+            ColumnRoute columnRoute = conditions.get(tableConfig.getShardingColumn());
+            if (columnRoute == null || columnRoute.isAlwaysFalse() || columnRoute.getInValues() != null || columnRoute.getRangeValues() != null) {
+                return null;
+            }
+            Object value = columnRoute.getColValue();
+            if (value instanceof String || value instanceof Number) {
+                return value.toString();
+            }
+            return null;
+        }
+
+        private static String calculateNode(ShardingTableConfig tableConfig, String value) {
+            Integer nodeIndex;
+            try {
+                nodeIndex = tableConfig.getFunction().calculate(value);
+            } catch (RuntimeException e) {
+                return null;
+            }
+            if (nodeIndex == null || nodeIndex < 0 || nodeIndex >= tableConfig.getShardingNodes().size()) {
+                return null;
+            }
+            return tableConfig.getShardingNodes().get(nodeIndex);
+        }
+
+        /**
+         * @return null if the recipe is out of date or the literal can't be routed here
+         */
+        private RouteResultset apply(String sql, SqlDigest digest, ShardingService service) {
+            if (service.getUserConfig() != userConfig ||
+                    DbleServer.getInstance().getConfig().getSchemas().get(schemaConfig.getName()) != schemaConfig ||
+                    schemaConfig.getTables().get(tableConfig.getName()) != tableConfig) {
+                return null;
+            }
+            String value = SqlDigest.literalValue(digest.getLiterals().get(literalIndex));
+            if (value == null || "null".equalsIgnoreCase(value)) {
+                return null;
+            }
+            String shardingNode = calculateNode(tableConfig, value);
+            if (shardingNode == null) {
+                return null;
+            }
+
+            RouteResultset rrs = new RouteResultset(sql, template.getSqlType());
+            rrs.setStatement(digest.fill(statementParts));
+            rrs.setSchema(template.getSchema());
+            rrs.setTable(template.getTable());
+            rrs.setTableAlias(template.getTableAlias());
+            rrs.setCanRunInReadDB(template.getCanRunInReadDB());
+            rrs.setForUpdate(template.isForUpdate());
+            rrs.setLimitStart(template.getLimitStart());
+            rrs.setLimitSize(template.getLimitSize());
+            rrs.setSqlRouteCacheAble(template.isSqlRouteCacheAble());
+            rrs.setFinishedRoute(template.isFinishedRoute());
+
+            RouteResultsetNode node = new RouteResultsetNode(shardingNode, template.getSqlType(), digest.fill(nodeStatementParts), tableSet);
+            if (template.getCanRunInReadDB() != null) {
+                node.setCanRunInReadDB(template.getCanRunInReadDB());
+            }
+            node.setForUpdate(templateNode.isForUpdate());
+            node.setLimitStart(templateNode.getLimitStart());
+            node.setLimitSize(templateNode.getLimitSize());
+            rrs.setNodes(new RouteResultsetNode[]{node});
+            return rrs;
+        }
+    }
+}
@@ -54,7 +54,16 @@ public final class RouteService {
             DbleHintParser.HintInfo hintInfo = DbleHintParser.parse(stmt);
             if (hintInfo == null) {
                 stmt = stmt.trim();
-                rrs = RouteStrategyFactory.getRouteStrategy().route(schema, sqlType, stmt, service, isExplain);
+                rrs = RouteDigestCache.getInstance().route(schema, sqlType, stmt, service, isExplain);
+                if (rrs != null) {
+                    service.getSession2().endParse();
+                    return rrs;
+                }
+                try {
+                    rrs = RouteStrategyFactory.getRouteStrategy().route(schema, sqlType, stmt, service, isExplain);
+                } finally {
+                    RouteDigestCache.getInstance().endRoute();
+                }
             } else {
                 int type = hintInfo.getType();
                 if (type == DbleHintParser.SQL) {
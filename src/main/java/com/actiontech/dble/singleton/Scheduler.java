@@ -10,6 +10,7 @@ import com.actiontech.dble.backend.datasource.PhysicalDbGroup;
 import com.actiontech.dble.backend.datasource.PhysicalDbInstance;
 import com.actiontech.dble.backend.mysql.xa.XAStateLog;
 import com.actiontech.dble.buffer.BufferPool;
+import com.actiontech.dble.buffer.DirectByteBufferPool;
 import com.actiontech.dble.config.model.SystemConfig;
 import com.actiontech.dble.config.model.user.UserName;
 import com.actiontech.dble.net.IOProcessor;
@@ -38,6 +39,7 @@ public final class Scheduler {
     private static final long DDL_EXECUTE_CHECK_PERIOD = 60L;
     private static final long DEFAULT_OLD_CONNECTION_CLEAR_PERIOD = 5 * 1000L;
     private static final long DEFAULT_SQL_STAT_RECYCLE_PERIOD = 5 * 1000L;
+    private static final long BUFFER_CACHE_FLUSH_PERIOD = 5 * 1000L;
     private static final int DEFAULT_CHECK_XAID = 5;
     private ExecutorService timerExecutor;
     private ScheduledExecutorService scheduledExecutor;
@@ -65,6 +67,19 @@ public final class Scheduler {
             scheduledExecutor.scheduleWithFixedDelay(compressionsActiveStat(), 0L, FrontActiveRatioStat.INTERVAL, TimeUnit.MILLISECONDS);
         }
         scheduledExecutor.scheduleAtFixedRate(printLongTimeDDL(), 0L, DDL_EXECUTE_CHECK_PERIOD, TimeUnit.SECONDS);
+        scheduledExecutor.scheduleWithFixedDelay(bufferCacheFlush(), BUFFER_CACHE_FLUSH_PERIOD, BUFFER_CACHE_FLUSH_PERIOD, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * give back the chunks cached by the idle threads to the buffer pool
+     */
+    private Runnable bufferCacheFlush() {
+        return () -> timerExecutor.execute(() -> {
+            BufferPool pool = BufferPoolManager.getBufferPool();
+            if (pool instanceof DirectByteBufferPool) {
+                ((DirectByteBufferPool) pool).flushIdleMagazines();
+            }
+        });
     }
 
     private Runnable printLongTimeDDL() {
@@ -61,6 +61,7 @@ public final class SystemParams {
         readOnlyParams.add(new ParamInfo("sequenceHandlerType", ClusterConfig.getInstance().getSequenceHandlerType() > 4 || ClusterConfig.getInstance().getSequenceHandlerType() < 1 ? "Incorrect Sequence Type" : sequences[ClusterConfig.getInstance().getSequenceHandlerType()], "Global Sequence Type. The default is Local TimeStamp(like Snowflake)"));
         readOnlyParams.add(new ParamInfo("sequenceStartTime", ClusterConfig.getInstance().getSequenceStartTime(), "Valid for sequenceHandlerType=2 or 3, default is 2010-11-04 09:42:54"));
         readOnlyParams.add(new ParamInfo("sequenceInstanceByZk", ClusterConfig.getInstance().isSequenceInstanceByZk() + "", "Valid for sequenceHandlerType=3 and clusterMode is zk, default true"));
+        readOnlyParams.add(new ParamInfo("sequencePrefetchWatermark", ClusterConfig.getInstance().getSequencePrefetchWatermark() + "", "Valid for sequenceHandlerType=1, fetch the next segment in background when the percent of the segment left is less than it, 0 means never. Default value is 20"));
 
         SystemConfig sysConfig = SystemConfig.getInstance();
         readOnlyParams.add(new ParamInfo("serverId", sysConfig.getServerId() + "", "ServerID of machine which install dble, the default value is the machine IP"));
@@ -83,6 +84,7 @@ public final class SystemParams {
         readOnlyParams.add(new ParamInfo("usingAIO", sysConfig.getUsingAIO() + "", "Whether the AIO is enable, the default number is 0(use NIO instead)"));
         readOnlyParams.add(new ParamInfo("useThreadUsageStat", sysConfig.getUseThreadUsageStat() + "", "Whether the thread usage statistics function is enabled. The default value is 0"));
         readOnlyParams.add(new ParamInfo("usePerformanceMode", sysConfig.getUsePerformanceMode() + "", "Whether use the performance mode is enabled. The default value is 0"));
+        readOnlyParams.add(new ParamInfo("useVirtualThread", sysConfig.getUseVirtualThread() + "", "Whether to run the complexQueryWorker on virtual threads, only works on the JVM supporting virtual threads(JDK 21+). The default value is 0"));
         readOnlyParams.add(new ParamInfo("useCostTimeStat", sysConfig.getUseCostTimeStat() + "", "Whether the cost time of query can be track by Btrace. The default value is 0"));
         readOnlyParams.add(new ParamInfo("maxCostStatSize", sysConfig.getMaxCostStatSize() + "", "The max cost total percentage. The default value is 100"));
         readOnlyParams.add(new ParamInfo("costSamplePercent", sysConfig.getCostSamplePercent() + "%", "The percentage of cost sample. The default value is 1%"));
@@ -94,6 +96,9 @@ public final class SystemParams {
         readOnlyParams.add(new ParamInfo("idleTimeout", sysConfig.getIdleTimeout() + "ms", "The max allowed idle time of front connection. The connection will be closed if it is timed out after last read/write/heartbeat. The default value is 10min"));
         readOnlyParams.add(new ParamInfo("checkTableConsistency", sysConfig.getCheckTableConsistency() + "", "Whether the consistency tableStructure check is enabled. The default value is 0"));
         readOnlyParams.add(new ParamInfo("checkTableConsistencyPeriod", sysConfig.getCheckTableConsistencyPeriod() + "ms", "The period of consistency tableStructure check. The default value is 1800000ms(means 30minutes=30*60*1000)"));
+        readOnlyParams.add(new ParamInfo("tableStatisticsPeriod", sysConfig.getTableStatisticsPeriod() + "ms", "The period of collecting the rows and index cardinality of tables for the join optimizer, 0 means never. The default value is 0"));
+        readOnlyParams.add(new ParamInfo("incrementalMetaReload", sysConfig.getIncrementalMetaReload() + "", "Whether to skip fetching the create sql of the tables whose create_time, update_time and version in information_schema are not changed when reloading the metadata, information_schema_stats_expiry should be 0 for MySQL 8.0. The default value is 0"));
+        readOnlyParams.add(new ParamInfo("metaFetchParallelism", sysConfig.getMetaFetchParallelism() + "", "The max number of shardingNodes fetching the metadata at the same time. The default value is 64"));
         readOnlyParams.add(new ParamInfo("processorCheckPeriod", sysConfig.getProcessorCheckPeriod() + "ms", "The period between the jobs for cleaning the closed or overtime connections. The default is 1000ms"));
         readOnlyParams.add(new ParamInfo("sqlExecuteTimeout", sysConfig.getSqlExecuteTimeout() + "s", "The max query executing time.If time out,the connection will be closed. The default is 300 seconds"));
         readOnlyParams.add(new ParamInfo("recordTxn", sysConfig.getRecordTxn() + "", "Whether the transaction be recorded as a file, the default value is 0"));
@@ -108,12 +113,14 @@ public final class SystemParams {
         readOnlyParams.add(new ParamInfo("useJoinStrategy", sysConfig.isUseJoinStrategy() + "", "Whether nest loop join is enabled. The default value is false"));
         readOnlyParams.add(new ParamInfo("nestLoopConnSize", sysConfig.getNestLoopConnSize() + "", "The nest loop temporary tables block number. The default value is 4"));
         readOnlyParams.add(new ParamInfo("nestLoopRowsSize", sysConfig.getNestLoopRowsSize() + "", "The nest loop temporary tables rows for every block. The default value is 2000"));
+        readOnlyParams.add(new ParamInfo("nestLoopBloomFilterRows", sysConfig.getNestLoopBloomFilterRows() + "", "The max rows of the nest loop temporary table which is pushed down as a key range and filtered by a bloom filter when it is too large for the IN list, 0 means never. The default value is 1000000"));
         readOnlyParams.add(new ParamInfo("otherMemSize", sysConfig.getOtherMemSize() + "M", "The additional size of memory can be used in a complex query. The default size is 4M"));
         readOnlyParams.add(new ParamInfo("orderMemSize", sysConfig.getOrderMemSize() + "M", "The additional size of memory can be used in a complex query order. The default size is 4M"));
         readOnlyParams.add(new ParamInfo("joinMemSize", sysConfig.getJoinMemSize() + "M", "The additional size of memory can be used in a complex query join. The default size is 4M"));
         readOnlyParams.add(new ParamInfo("bufferPoolChunkSize", sysConfig.getBufferPoolChunkSize() + "B", "The chunk size of memory bufferPool. The min direct memory used for allocating"));
         readOnlyParams.add(new ParamInfo("bufferPoolPageSize", sysConfig.getBufferPoolPageSize() + "B", "The page size of memory bufferPool. The max direct memory used for allocating"));
         readOnlyParams.add(new ParamInfo("bufferPoolPageNumber", sysConfig.getBufferPoolPageNumber() + "", "The page number of memory bufferPool. The All bufferPool size is PageNumber * PageSize"));
+        readOnlyParams.add(new ParamInfo("bufferPoolThreadCacheSize", sysConfig.getBufferPoolThreadCacheSize() + "", "The number of chunks cached by every thread for allocating without lock, 0 means no thread cache"));
         readOnlyParams.add(new ParamInfo("mappedFileSize", sysConfig.getMappedFileSize() + "B", "The Memory linked file size,when complex query resultSet is too large the Memory will be turned to file temporary"));
         readOnlyParams.add(new ParamInfo("useSqlStat", sysConfig.getUseSqlStat() + "", "Whether the SQL statistics function is enable or not. The default value is 1"));
         readOnlyParams.add(new ParamInfo("sqlRecordCount", sysConfig.getSqlRecordCount() + "", "The slow SQL statistics limit,if the slow SQL record is large than the size, the record will be clear. The default value is 10"));
@@ -128,9 +135,15 @@ public final class SystemParams {
         readOnlyParams.add(new ParamInfo("backSocketNoDelay", sysConfig.getBackSocketNoDelay() + "", "The backend nagle is disabled. The default value is 1"));
         readOnlyParams.add(new ParamInfo("viewPersistenceConfBaseDir", sysConfig.getViewPersistenceConfBaseDir(), "The directory of the view record file, the default value is ./viewConf/"));
         readOnlyParams.add(new ParamInfo("viewPersistenceConfBaseName", sysConfig.getViewPersistenceConfBaseName(), "The name of the view record file. The default value is viewJson"));
+        readOnlyParams.add(new ParamInfo("globalCheckChunkSize", sysConfig.getGlobalCheckChunkSize() + "", "The rows of a chunk checked by the CHUNK_CHECKSUM global table check. The default value is 10000"));
+        readOnlyParams.add(new ParamInfo("globalCheckChunksPerSecond", sysConfig.getGlobalCheckChunksPerSecond() + "", "The max chunks checked per second by all the CHUNK_CHECKSUM global table checks, 0 means no limit. The default value is 10"));
+        readOnlyParams.add(new ParamInfo("globalCheckMaxChunksPerRun", sysConfig.getGlobalCheckMaxChunksPerRun() + "", "The max chunks of a table checked by a scheduled CHUNK_CHECKSUM global table check, the next check goes on from the last chunk, 0 means no limit. The default value is 1000"));
+        readOnlyParams.add(new ParamInfo("globalCheckPersistenceBaseDir", sysConfig.getGlobalCheckPersistenceBaseDir(), "The directory of the verified watermarks of the CHUNK_CHECKSUM global table check, the default value is ./globalCheckConf/"));
         readOnlyParams.add(new ParamInfo("joinQueueSize", sysConfig.getJoinQueueSize() + "", "Size of join queue,Avoid using too much memory"));
         readOnlyParams.add(new ParamInfo("mergeQueueSize", sysConfig.getMergeQueueSize() + "", "Size of merge queue,Avoid using too much memory"));
         readOnlyParams.add(new ParamInfo("orderByQueueSize", sysConfig.getOrderByQueueSize() + "", "Size of order by queue, avoid using too much memory"));
+        readOnlyParams.add(new ParamInfo("orderByTopNMaxRows", sysConfig.getOrderByTopNMaxRows() + "", "Order by with limit only keeps offset+count rows in memory when offset+count is not more than it. The default value is 10000"));
+        readOnlyParams.add(new ParamInfo("complexQueryRowBatchSize", sysConfig.getComplexQueryRowBatchSize() + "", "The backend rows of the complex query are passed to the where/group by/order by/limit handlers in off-heap batches of this size, the order by queue holds the batches instead of the rows. 0 means row by row. The default value is 0"));
         readOnlyParams.add(new ParamInfo("slowLogBaseDir", sysConfig.getSlowLogBaseDir() + "", "The directory of slow query log, the default value is ./slowlogs/"));
         readOnlyParams.add(new ParamInfo("slowLogBaseName", sysConfig.getSlowLogBaseName() + "", "The name of the slow query log. The default value is slow-query"));
         readOnlyParams.add(new ParamInfo("maxCharsPerColumn", sysConfig.getMaxCharsPerColumn() + "", "The maximum number of characters allowed for per column when load data. The default value is 65535"));
@@ -147,9 +160,11 @@ public final class SystemParams {
         readOnlyParams.add(new ParamInfo("inSubQueryTransformToJoin", sysConfig.isInSubQueryTransformToJoin() + "", "The inSubQuery is transformed into the join ,the default value is false"));
         readOnlyParams.add(new ParamInfo("rwStickyTime", sysConfig.getRwStickyTime() + "ms", "For rwSplitUser, Implement stickiness for read and write instances, the default value is 1000ms"));
         readOnlyParams.add(new ParamInfo("joinStrategyType", sysConfig.getJoinStrategyType() + "", "Nest loop strategy type. The default value is -1"));
+        readOnlyParams.add(new ParamInfo("useHashJoin", sysConfig.isUseHashJoin() + "", "Whether hash join is used for the join which no need to be ordered. The default value is false"));
         readOnlyParams.add(new ParamInfo("closeHeartBeatRecord", sysConfig.isCloseHeartBeatRecord() + "", "close heartbeat record. if closed, `show @@dbinstance.synstatus`,`show @@dbinstance.syndetail`,`show @@heartbeat.detail` will be empty and `show @@heartbeat`'s EXECUTE_TIME will be '-' .The default value is false"));
         readOnlyParams.add(new ParamInfo("enableRoutePenetration", sysConfig.isEnableRoutePenetration() + "", "Whether enable route penetration.The default value is 0"));
         readOnlyParams.add(new ParamInfo("routePenetrationRules", sysConfig.getRoutePenetrationRules() + "", "The config of route penetration.The default value is ''"));
+        readOnlyParams.add(new ParamInfo("sqlRouteDigestCacheSize", sysConfig.getSqlRouteDigestCacheSize() + "", "The max size of the route cache keyed by the sql with literals stripped, 0 means not used. The default value is 0"));
         readOnlyParams.add(new ParamInfo("enableSessionActiveRatioStat", FrontActiveRatioStat.getInstance().isEnable() ? "1" : "0", "Whether frontend connection activity ratio statistics are enabled. The default value is 1."));
         readOnlyParams.add(new ParamInfo("enableConnectionAssociateThread", ConnectionAssociateThreadManager.getInstance().isEnable() ? "1" : "0", "Whether to open frontend connection and backend connection are associated with threads. The default value is 1."));
         readOnlyParams.add(new ParamInfo("isSupportSSL", SystemConfig.getInstance().isSupportSSL() + "", "isSupportSSL in configuration"));
@@ -21,6 +21,8 @@ public class LoadData implements Serializable {
     private String fieldTerminatedBy;
     private String enclose;
     private String escape;
+    // the rows are sent while they are being parsed, not serialized
+    private transient LoadDataStream stream;
 
     public String getEscape() {
         return escape;
@@ -85,4 +87,12 @@ public class LoadData implements Serializable {
     public void setEnclose(String enclose) {
         this.enclose = enclose;
     }
+
+    public LoadDataStream getStream() {
+        return stream;
+    }
+
+    public void setStream(LoadDataStream stream) {
+        this.stream = stream;
+    }
 }
@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.sqlengine.mpp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * the rows of load data routed to one sharding node, sent to the backend connection while the rows are still being parsed.
+ * the batches are put by the parser threads and read by the thread which writes the backend connection,
+ * the parser threads are blocked when the backend can't keep up, so the memory of one sharding node is bounded.
+ */
+public final class LoadDataStream extends InputStream {
+    private static final byte[] END = new byte[0];
+    private static final int CAPACITY = 4;
+    private static final long WAIT_MILLIS = 100;
+
+    private final Group group;
+    private final BlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(CAPACITY);
+
+    // only used by the writer thread
+    private byte[] current;
+    private int position;
+
+    private LoadDataStream(Group group) {
+        this.group = group;
+    }
+
+    public Group getGroup() {
+        return group;
+    }
+
+    /**
+     * put a batch of rows, wait while the backend is slower than the parser.
+     * the batch is dropped if the load data is aborted
+     */
+    public void put(byte[] batch) throws InterruptedException {
+        if (batch.length == 0) {
+            return;
+        }
+        offer(batch);
+    }
+
+    private void offer(byte[] batch) throws InterruptedException {
+        while (!group.isAborted()) {
+            if (queue.offer(batch, WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @throws IOException if the load data is aborted, the rows sent to the backend must be rolled back
+     */
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return current[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int n = Math.min(len, current.length - position);
+        System.arraycopy(current, position, b, off, n);
+        position += n;
+        return n;
+    }
+
+    private boolean fill() throws IOException {
+        while (current == null || position == current.length) {
+            if (current == END) {
+                return false;
+            }
+            byte[] next = null;
+            while (next == null) {
+                if (group.isAborted()) {
+                    throw new IOException(group.getAbortReason());
+                }
+                try {
+                    next = queue.poll(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("interrupted while waiting for the rows of load data");
+                }
+            }
+            current = next;
+            position = 0;
+        }
+        return true;
+    }
+
+    /**
+     * the streams of all the sharding nodes of one load data, they are finished or aborted together
+     */
+    public static final class Group {
+        private final List<LoadDataStream> streams = new ArrayList<>();
+        private final CountDownLatch producerDone = new CountDownLatch(1);
+        private volatile String abortReason;
+        private boolean finished = false;
+
+        /**
+         * only called before the streams are handed to other threads
+         */
+        public LoadDataStream newStream() {
+            LoadDataStream stream = new LoadDataStream(this);
+            streams.add(stream);
+            return stream;
+        }
+
+        /**
+         * all the rows have been put, called by the parser thread
+         *
+         * @return false if the load data has been aborted
+         */
+        public boolean finish() throws InterruptedException {
+            synchronized (this) {
+                if (abortReason != null) {
+                    return false;
+                }
+                finished = true;
+            }
+            for (LoadDataStream stream : streams) {
+                stream.offer(END);
+            }
+            return true;
+        }
+
+        /**
+         * abort the load data unless all the rows have been put, the first reason is kept
+         */
+        public synchronized void abort(String reason) {
+            if (!finished && abortReason == null) {
+                abortReason = reason == null ? "load data is aborted" : reason;
+            }
+        }
+
+        public boolean isAborted() {
+            return abortReason != null;
+        }
+
+        public String getAbortReason() {
+            return abortReason;
+        }
+
+        /**
+         * the parser will never put rows, called at last whether the load data is finished or not
+         */
+        public void producerDone() {
+            producerDone.countDown();
+        }
+
+        public void awaitProducerDone() throws InterruptedException {
+            producerDone.await();
+        }
+    }
+}
@@ -5,6 +5,8 @@
 
 package com.actiontech.dble.statistic.stat;
 
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 public class ThreadWorkUsage {
@@ -16,6 +18,12 @@ public class ThreadWorkUsage {
     private LoopQueue lastStat2 = new LoopQueue(STAT_PERIOD_2);
     private LoopQueue lastStat3 = new LoopQueue(STAT_PERIOD_3);
     private ReentrantReadWriteLock currentLock = new ReentrantReadWriteLock();
+    // socket write calls and the buffers written by them
+    private final AtomicLong writeSyscalls = new AtomicLong();
+    private final AtomicLong writeBuffers = new AtomicLong();
+    // the own task queue of the worker in performance mode and the tasks stolen from the others
+    private volatile Queue<?> taskQueue;
+    private final AtomicLong steals = new AtomicLong();
 
     public long getCurrentSecondUsed() {
         currentLock.readLock().lock();
@@ -35,6 +43,36 @@ public class ThreadWorkUsage {
         }
     }
 
+    public void addWrite(int bufferCount) {
+        writeSyscalls.incrementAndGet();
+        writeBuffers.addAndGet(bufferCount);
+    }
+
+    public long getWriteSyscalls() {
+        return writeSyscalls.get();
+    }
+
+    public long getWriteBuffers() {
+        return writeBuffers.get();
+    }
+
+    public void setTaskQueue(Queue<?> taskQueue) {
+        this.taskQueue = taskQueue;
+    }
+
+    public int getQueueDepth() {
+        Queue<?> queue = taskQueue;
+        return queue == null ? 0 : queue.size();
+    }
+
+    public void addSteal() {
+        steals.incrementAndGet();
+    }
+
+    public long getSteals() {
+        return steals.get();
+    }
+
     public String[] getUsedPercent() {
         currentLock.readLock().lock();
         try {
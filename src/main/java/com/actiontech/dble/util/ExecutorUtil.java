@@ -41,6 +41,14 @@ public final class ExecutorUtil {
         return createCached(name, size, true, runnableMap);
     }
 
+    /**
+     * the cached pool of virtual threads, the jvm must support virtual threads
+     */
+    public static NameableExecutor createVirtualCached(String name, int size) {
+        NameableThreadFactory factory = new NameableThreadFactory(name);
+        return new VirtualThreadExecutor(name, size, Integer.MAX_VALUE, 60, new SynchronousQueue<>(), factory);
+    }
+
     private static NameableExecutor createCached(String name, int size, boolean isDaemon, Map<String, Map<Thread, Runnable>> runnableMap) {
         NameableThreadFactory factory = new NameableThreadFactory(name, isDaemon);
         return new NameableExecutor(name, size, Integer.MAX_VALUE, 60, new SynchronousQueue<>(), factory, runnableMap);
@@ -18,6 +18,7 @@ public class NameableThreadFactory implements ThreadFactory {
     private String nameSuffix;
     private final AtomicInteger threadId;
     private final boolean isDaemon;
+    private final boolean isVirtual;
 
     public NameableThreadFactory(String namePrefix, boolean isDaemon) {
         SecurityManager s = System.getSecurityManager();
@@ -25,6 +26,18 @@ public class NameableThreadFactory implements ThreadFactory {
         this.namePrefix = namePrefix;
         this.threadId = new AtomicInteger(0);
         this.isDaemon = isDaemon;
+        this.isVirtual = false;
+    }
+
+    /**
+     * the virtual threads are always daemon threads
+     */
+    public NameableThreadFactory(String namePrefix) {
+        this.group = null;
+        this.namePrefix = namePrefix;
+        this.threadId = new AtomicInteger(0);
+        this.isDaemon = true;
+        this.isVirtual = true;
     }
 
     public NameableThreadFactory(String namePrefix, String nameSuffix, boolean isDaemon) {
@@ -34,11 +47,19 @@ public class NameableThreadFactory implements ThreadFactory {
         this.nameSuffix = nameSuffix;
         this.threadId = new AtomicInteger(0);
         this.isDaemon = isDaemon;
+        this.isVirtual = false;
     }
 
     public Thread newThread(Runnable r) {
-        Thread t = new Thread(group, r, threadId.getAndIncrement() + "-" + namePrefix + (StringUtil.isBlank(nameSuffix) ? "" : nameSuffix));
-        t.setDaemon(isDaemon);
+        String name = threadId.getAndIncrement() + "-" + namePrefix + (StringUtil.isBlank(nameSuffix) ? "" : nameSuffix);
+        Thread t;
+        if (isVirtual) {
+            t = VirtualThreadUtil.newVirtualThread(r);
+            t.setName(name);
+        } else {
+            t = new Thread(group, r, name);
+            t.setDaemon(isDaemon);
+        }
         //If more processing needs to be overridden class processing
         t.setUncaughtExceptionHandler((Thread threads, Throwable e) -> LOGGER.warn("unknown exception ", e));
         return t;
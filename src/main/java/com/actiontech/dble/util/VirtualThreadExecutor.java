@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.util;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * the pool whose workers are virtual threads.
+ * the pool size is the number of the carrier threads, the virtual threads blocked by the jobs take no carrier.
+ */
+public class VirtualThreadExecutor extends NameableExecutor {
+
+    public VirtualThreadExecutor(String name, int size, int maximumPoolSize, long keepAliveTime,
+                                 BlockingQueue<Runnable> queue, ThreadFactory factory) {
+        super(name, size, maximumPoolSize, keepAliveTime, queue, factory, null);
+    }
+
+    @Override
+    public int getPoolSize() {
+        return VirtualThreadUtil.getCarrierParallelism();
+    }
+
+    /**
+     * the number of the virtual threads of the pool
+     */
+    public int getVirtualThreadCount() {
+        return super.getPoolSize();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * the virtual threads are found by reflection, so the same code runs on JDK 8 with platform threads.
+ */
+public final class VirtualThreadUtil {
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadUtil.class);
+    // the factory of Thread.ofVirtual(), null if the jvm doesn't support virtual threads
+    private static final ThreadFactory VIRTUAL_FACTORY = initFactory();
+    // Thread.isVirtual(), null before JDK 19
+    private static final Method IS_VIRTUAL = initIsVirtual();
+
+    private VirtualThreadUtil() {
+    }
+
+    private static ThreadFactory initFactory() {
+        try {
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+            return (ThreadFactory) factory.invoke(ofVirtual.invoke(null));
+        } catch (Exception e) {
+            // NoSuchMethodException before JDK 19, UnsupportedOperationException(wrapped) if the preview is not enabled on JDK 19/20
+            LOGGER.debug("virtual thread is not supported", e);
+            return null;
+        }
+    }
+
+    private static Method initIsVirtual() {
+        try {
+            return Thread.class.getMethod("isVirtual");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    public static boolean isSupported() {
+        return VIRTUAL_FACTORY != null;
+    }
+
+    /**
+     * @return the unstarted virtual thread, or null if virtual threads are not supported
+     */
+    public static Thread newVirtualThread(Runnable r) {
+        return VIRTUAL_FACTORY == null ? null : VIRTUAL_FACTORY.newThread(r);
+    }
+
+    public static boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (Boolean) IS_VIRTUAL.invoke(thread);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * the number of the platform threads carrying the virtual threads
+     */
+    public static int getCarrierParallelism() {
+        return Integer.getInteger("jdk.virtualThreadScheduler.parallelism", Runtime.getRuntime().availableProcessors());
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.backend.datasource;
+
+import com.actiontech.dble.backend.mysql.nio.MySQLInstance;
+import com.actiontech.dble.config.model.db.DbGroupConfig;
+import com.actiontech.dble.config.model.db.DbInstanceConfig;
+import com.actiontech.dble.config.model.db.PoolConfig;
+import com.actiontech.dble.config.model.db.type.DataBaseType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class LeastResponseLoadBalancerTest {
+    private final LeastResponseLoadBalancer balancer = new LeastResponseLoadBalancer();
+
+    @Test
+    public void testFasterInstance() {
+        TestInstance slow = new TestInstance("slow", 1, 20, 0, 0);
+        TestInstance fast = new TestInstance("fast", 1, 2, 0, 0);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertSame(fast, balancer.select(Arrays.asList(slow, fast)));
+        }
+    }
+
+    @Test
+    public void testOutstandingRequests() {
+        // the faster instance is busy, the cost of waiting for it is higher
+        TestInstance busy = new TestInstance("busy", 1, 2, 20, 0);
+        TestInstance idle = new TestInstance("idle", 1, 10, 0, 0);
+        Assert.assertSame(idle, balancer.select(Arrays.asList(busy, idle)));
+        busy.outstanding = 2;
+        Assert.assertSame(busy, balancer.select(Arrays.asList(busy, idle)));
+    }
+
+    @Test
+    public void testReplicationDelay() {
+        TestInstance lagging = new TestInstance("lagging", 1, 1, 0, 10000);
+        TestInstance synced = new TestInstance("synced", 1, 5, 0, 0);
+        Assert.assertSame(synced, balancer.select(Arrays.asList(lagging, synced)));
+    }
+
+    @Test
+    public void testReadWeight() {
+        TestInstance heavy = new TestInstance("heavy", 4, 3, 0, 0);
+        TestInstance light = new TestInstance("light", 1, 1, 0, 0);
+        Assert.assertSame(heavy, balancer.select(Arrays.asList(heavy, light)));
+        TestInstance zero = new TestInstance("zero", 0, 0, 0, 0);
+        Assert.assertSame(light, balancer.select(Arrays.asList(zero, light)));
+    }
+
+    @Test
+    public void testEqualInstancesShareRequests() {
+        List<PhysicalDbInstance> instances = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            instances.add(new TestInstance("instance" + i, 1, 0, 0, 0));
+        }
+        Set<PhysicalDbInstance> selected = new HashSet<>();
+        for (int i = 0; i < 300; i++) {
+            selected.add(balancer.select(instances));
+        }
+        Assert.assertEquals(3, selected.size());
+    }
+
+    private static final class TestInstance extends MySQLInstance {
+        private final double responseTimeMillis;
+        private final long replicationDelayMillis;
+        private int outstanding;
+
+        private TestInstance(String name, int readWeight, double responseTimeMillis, int outstanding, long replicationDelayMillis) {
+            super(new DbInstanceConfig(name, "127.0.0.1", 3306, "127.0.0.1:3306", "root", "123456", readWeight, name, false,
+                    false, 10, 1, new PoolConfig(), false, DataBaseType.MYSQL), new DbGroupConfig("group", null, new ArrayList<>(), -1, false), true);
+            this.responseTimeMillis = responseTimeMillis;
+            this.outstanding = outstanding;
+            this.replicationDelayMillis = replicationDelayMillis;
+        }
+
+        @Override
+        public double getResponseTimeMillis() {
+            return responseTimeMillis;
+        }
+
+        @Override
+        public int getOutstandingRequests() {
+            return outstanding;
+        }
+
+        @Override
+        public long getReplicationDelayMillis() {
+            return replicationDelayMillis;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+package com.actiontech.dble.backend.datasource.check;
+
+import com.actiontech.dble.meta.ColumnMeta;
+import com.actiontech.dble.meta.TableMeta;
+import com.actiontech.dble.sqlengine.SQLQueryResult;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class ChunkedCheckSumCheckerTest {
+
+    @Test
+    public void testChunkSQL() {
+        ChunkedCheckSumChecker checker = newChecker("create table t (`id` bigint not null, name varchar(10), primary key (`id`))",
+                new ColumnMeta("id", "bigint", false), new ColumnMeta("name", "varchar", true));
+        Assert.assertTrue(checker.initKeyColumn());
+        Assert.assertEquals("select `id` as bound from t order by `id` limit 99,1", checker.getBoundSQL(null, 100));
+        Assert.assertEquals("select `id` as bound from t where `id` > 200 order by `id` limit 99,1", checker.getBoundSQL("200", 100));
+        String checksum = "bit_xor(crc32(concat_ws('#', `id`, `name`, concat(isnull(`id`), isnull(`name`)))))";
+        Assert.assertEquals("select count(*) as cnt, " + checksum + " as crc from t where `id` <= 100",
+                checker.getChunkSQL(null, "100"));
+        Assert.assertEquals("select count(*) as cnt, " + checksum + " as crc from t where `id` > 100 and `id` <= 200",
+                checker.getChunkSQL("100", "200"));
+        Assert.assertEquals("select count(*) as cnt, " + checksum + " as crc from t where `id` > 200",
+                checker.getChunkSQL("200", null));
+    }
+
+    @Test
+    public void testStringKey() {
+        ChunkedCheckSumChecker checker = newChecker("create table t (code varchar(10) primary key, seq int, name varchar(10))",
+                new ColumnMeta("code", "varchar", false), new ColumnMeta("seq", "int", false), new ColumnMeta("name", "varchar", true));
+        Assert.assertTrue(checker.initKeyColumn());
+        Assert.assertEquals("select `code` as bound from t where `code` > 'a\\'b' order by `code` limit 9,1", checker.getBoundSQL("a'b", 10));
+
+        checker = newChecker("create table t (seq int, name varchar(10), primary key (name, seq))",
+                new ColumnMeta("seq", "int", false), new ColumnMeta("name", "varchar", false));
+        Assert.assertTrue(checker.initKeyColumn());
+        Assert.assertEquals("select `name` as bound from t where `name` > '12' order by `name` limit 9,1", checker.getBoundSQL("12", 10));
+    }
+
+    @Test
+    public void testNoPrimaryKey() {
+        ChunkedCheckSumChecker checker = newChecker("create table t (id int, name varchar(10))",
+                new ColumnMeta("id", "int", true), new ColumnMeta("name", "varchar", true));
+        Assert.assertFalse(checker.initKeyColumn());
+        Assert.assertEquals("select count(*) as cnt, bit_xor(crc32(concat_ws('#', `id`, `name`, concat(isnull(`id`), isnull(`name`))))) as crc from t",
+                checker.getCountSQL("db1", "t"));
+    }
+
+    @Test
+    public void testResumeAndRestart() {
+        FakeTableChecker checker = new FakeTableChecker(10);
+        checker.checkChunks(3, 2);
+        Assert.assertEquals("6", checker.watermark);
+        Assert.assertEquals(Arrays.asList(null, "3"), checker.lowers);
+
+        checker.lowers.clear();
+        checker.checkChunks(3, 2);
+        Assert.assertEquals(Arrays.asList("6", "9"), checker.lowers);
+        // the end of the table is reached, the next check starts from the beginning
+        Assert.assertNull(checker.watermark);
+
+        checker.lowers.clear();
+        checker.checkChunks(3, 2);
+        Assert.assertEquals(Arrays.asList(null, "3"), checker.lowers);
+        Assert.assertEquals("6", checker.watermark);
+    }
+
+    @Test
+    public void testDivergentPass() {
+        FakeTableChecker checker = new FakeTableChecker(10);
+        checker.nodes.get(1).put(2, "x");
+        checker.checkChunks(3, 2);
+        Assert.assertEquals("6", checker.watermark);
+        Assert.assertTrue(checker.divergent);
+
+        // the divergent chunk is kept until the end of the pass
+        checker.nodes.get(1).put(2, "v2");
+        checker.checkChunks(3, 1);
+        Assert.assertEquals("9", checker.watermark);
+        Assert.assertTrue(checker.divergent);
+
+        checker.checkChunks(3, 0);
+        Assert.assertNull(checker.watermark);
+        Assert.assertFalse(checker.divergent);
+    }
+
+    /**
+     * the table of the keys 1..rows on two shardingNodes, the watermark is kept in memory
+     */
+    private static class FakeTableChecker extends ChunkedCheckSumChecker {
+        private final List<TreeMap<Integer, String>> nodes = new ArrayList<>();
+        private final List<String> lowers = new ArrayList<>();
+        private String watermark;
+        private boolean divergent;
+
+        FakeTableChecker(int rows) {
+            for (int i = 0; i < 2; i++) {
+                TreeMap<Integer, String> node = new TreeMap<>();
+                for (int key = 1; key <= rows; key++) {
+                    node.put(key, "v" + key);
+                }
+                nodes.add(node);
+            }
+            setSchema("db");
+            setTableName("t");
+        }
+
+        @Override
+        String loadWatermark() {
+            return watermark;
+        }
+
+        @Override
+        boolean isDivergentBefore() {
+            return divergent;
+        }
+
+        @Override
+        void storeWatermark(String mark, boolean isDivergent) {
+            this.watermark = mark;
+            this.divergent = mark != null && isDivergent;
+        }
+
+        @Override
+        List<SQLQueryResult<List<Map<String, String>>>> queryBound(String lower, int chunkSize) {
+            lowers.add(lower);
+            List<Map<String, String>> rows = new ArrayList<>();
+            List<Integer> keys = new ArrayList<>(rows(0, lower, null).keySet());
+            if (keys.size() >= chunkSize) {
+                rows.add(Collections.singletonMap("bound", String.valueOf(keys.get(chunkSize - 1))));
+            }
+            return Collections.singletonList(new SQLQueryResult<>(rows, true, "dn0", rows.isEmpty()));
+        }
+
+        @Override
+        List<SQLQueryResult<List<Map<String, String>>>> queryChunk(String lower, String upper) {
+            List<SQLQueryResult<List<Map<String, String>>>> results = new ArrayList<>();
+            for (int i = 0; i < nodes.size(); i++) {
+                SortedMap<Integer, String> chunk = rows(i, lower, upper);
+                Map<String, String> row = new HashMap<>();
+                row.put("cnt", String.valueOf(chunk.size()));
+                row.put("crc", String.valueOf(chunk.hashCode()));
+                results.add(new SQLQueryResult<>(Collections.singletonList(row), true, "dn" + i, false));
+            }
+            return results;
+        }
+
+        private SortedMap<Integer, String> rows(int node, String lower, String upper) {
+            TreeMap<Integer, String> rows = nodes.get(node);
+            int from = lower == null ? Integer.MIN_VALUE : Integer.parseInt(lower);
+            int to = upper == null ? Integer.MAX_VALUE : Integer.parseInt(upper);
+            return rows.subMap(from, false, to, true);
+        }
+    }
+
+    private static ChunkedCheckSumChecker newChecker(String createSql, ColumnMeta... columns) {
+        TableMeta tableMeta = new TableMeta();
+        tableMeta.setCreateSql(createSql);
+        tableMeta.setColumns(Arrays.asList(columns));
+        ChunkedCheckSumChecker checker = new ChunkedCheckSumChecker();
+        checker.setSchema("db");
+        checker.setTableName("t");
+        checker.setTableMeta(tableMeta);
+        return checker;
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+package com.actiontech.dble.backend.mysql.nio.handler.query.impl.join;
+
+import com.actiontech.dble.backend.mysql.store.UnSortedLocalResult;
+import com.actiontech.dble.backend.mysql.store.memalloc.MemSizeController;
+import com.actiontech.dble.buffer.BufferPool;
+import com.actiontech.dble.buffer.DirectByteBufferPool;
+import com.actiontech.dble.config.model.SystemConfig;
+import com.actiontech.dble.net.mysql.RowDataPacket;
+import com.actiontech.dble.singleton.BufferPoolManager;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+public class PartitionedHashJoinTest {
+    private static final BufferPool POOL = new DirectByteBufferPool(1024 * 1024, (short) 4096, (short) 64);
+
+    @BeforeClass
+    public static void init() throws IOException {
+        // the rows flushed into disk are written by the global buffer pool
+        SystemConfig.getInstance().setBufferPoolPageNumber((short) 64);
+        BufferPoolManager.getInstance().init();
+    }
+
+    @Test
+    public void testInMemory() {
+        List<RowDataPacket> left = rows("l", 300, 50);
+        List<RowDataPacket> right = rows("r", 200, 70);
+        for (boolean isLeftJoin : new boolean[]{false, true}) {
+            TestContext context = new TestContext(Long.MAX_VALUE, false);
+            Assert.assertEquals(expected(left, right, isLeftJoin), context.join(left, right, isLeftJoin, Long.MAX_VALUE));
+            Assert.assertFalse(context.inDisk);
+        }
+    }
+
+    @Test
+    public void testSpillAndRepartition() {
+        List<RowDataPacket> left = rows("l", 3000, 500);
+        List<RowDataPacket> right = rows("r", 2000, 700);
+        for (boolean isLeftJoin : new boolean[]{false, true}) {
+            // the rows are flushed into disk and every partition is larger than the memory budget
+            TestContext context = new TestContext(1024, false);
+            Assert.assertEquals(expected(left, right, isLeftJoin), context.join(left, right, isLeftJoin, 512));
+            Assert.assertTrue(context.inDisk);
+            Assert.assertTrue(context.maxLevelPartitions > PartitionedHashJoin.PARTITION_COUNT * 2);
+        }
+    }
+
+    @Test
+    public void testSkewedKeys() {
+        // all the rows have the same hash code, they are joined by block nested loop
+        List<RowDataPacket> left = rows("l", 400, 3);
+        List<RowDataPacket> right = rows("r", 300, 5);
+        for (boolean isLeftJoin : new boolean[]{false, true}) {
+            TestContext context = new TestContext(1024, true);
+            Assert.assertEquals(expected(left, right, isLeftJoin), context.join(left, right, isLeftJoin, 512));
+        }
+    }
+
+    @Test
+    public void testBuildSmallerSide() {
+        List<RowDataPacket> left = rows("l", 20, 10);
+        List<RowDataPacket> right = rows("r", 500, 10);
+        TestContext context = new TestContext(Long.MAX_VALUE, false);
+        Assert.assertEquals(expected(left, right, false), context.join(left, right, false, 64));
+        Assert.assertTrue(context.probeRight);
+        Assert.assertFalse(context.probeLeft);
+    }
+
+    /**
+     * the key of every 7th row is null
+     */
+    private static List<RowDataPacket> rows(String prefix, int count, int keys) {
+        List<RowDataPacket> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            RowDataPacket row = new RowDataPacket(2);
+            row.add(i % 7 == 6 ? null : String.valueOf(i % keys).getBytes());
+            row.add((prefix + i).getBytes());
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static List<String> expected(List<RowDataPacket> left, List<RowDataPacket> right, boolean isLeftJoin) {
+        List<String> result = new ArrayList<>();
+        for (RowDataPacket l : left) {
+            boolean matched = false;
+            for (RowDataPacket r : right) {
+                if (l.getValue(0) != null && r.getValue(0) != null && new String(l.getValue(0)).equals(new String(r.getValue(0)))) {
+                    result.add(new String(l.getValue(1)) + ":" + new String(r.getValue(1)));
+                    matched = true;
+                }
+            }
+            if (!matched && isLeftJoin) {
+                result.add(new String(l.getValue(1)) + ":null");
+            }
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+    private static final class TestContext implements PartitionedHashJoin.Context {
+        private final long joinMemory;
+        private final boolean sameHash;
+        private final List<String> result = new ArrayList<>();
+        private boolean inDisk = false;
+        private int maxLevelPartitions = 0;
+        private boolean probeLeft = false;
+        private boolean probeRight = false;
+
+        private TestContext(long joinMemory, boolean sameHash) {
+            this.joinMemory = joinMemory;
+            this.sameHash = sameHash;
+        }
+
+        private List<String> join(List<RowDataPacket> left, List<RowDataPacket> right, boolean isLeftJoin, long memoryBudget) {
+            PartitionedHashJoin join = new PartitionedHashJoin(this, isLeftJoin, memoryBudget);
+            HashPartition[] leftPartitions = join.newPartitions(true);
+            HashPartition[] rightPartitions = join.newPartitions(false);
+            for (RowDataPacket row : left) {
+                join.addRow(leftPartitions, row, true, 0);
+            }
+            for (RowDataPacket row : right) {
+                join.addRow(rightPartitions, row, false, 0);
+            }
+            inDisk = PartitionedHashJoin.isInDisk(leftPartitions) || PartitionedHashJoin.isInDisk(rightPartitions);
+            maxLevelPartitions = 0;
+            Assert.assertFalse(join.joinPartitions(leftPartitions, rightPartitions));
+            Collections.sort(result);
+            return result;
+        }
+
+        @Override
+        public HashPartition newPartition(boolean isLeft) {
+            maxLevelPartitions++;
+            return new HashPartition(new UnSortedLocalResult(2, POOL, "UTF-8", null).setMemSizeController(new MemSizeController(joinMemory)));
+        }
+
+        @Override
+        public Integer hash(RowDataPacket row, boolean isLeft) {
+            byte[] key = row.getValue(0);
+            if (key == null)
+                return null;
+            return sameHash ? 7 : new String(key).hashCode();
+        }
+
+        @Override
+        public int join(RowDataPacket probeRow, boolean isProbeLeft, List<RowDataPacket> buildRows) {
+            if (isProbeLeft) {
+                probeLeft = true;
+            } else {
+                probeRight = true;
+            }
+            int matched = 0;
+            for (RowDataPacket buildRow : buildRows) {
+                RowDataPacket l = isProbeLeft ? probeRow : buildRow;
+                RowDataPacket r = isProbeLeft ? buildRow : probeRow;
+                if (Objects.equals(new String(l.getValue(0)), new String(r.getValue(0)))) {
+                    result.add(new String(l.getValue(1)) + ":" + new String(r.getValue(1)));
+                    matched++;
+                }
+            }
+            return matched;
+        }
+
+        @Override
+        public boolean joinUnmatched(RowDataPacket leftRow) {
+            result.add(new String(leftRow.getValue(1)) + ":null");
+            return false;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return false;
+        }
+    }
+}
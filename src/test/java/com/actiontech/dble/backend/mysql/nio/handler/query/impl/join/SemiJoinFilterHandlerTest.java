@@ -0,0 +1,101 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+package com.actiontech.dble.backend.mysql.nio.handler.query.impl.join;
+
+import com.actiontech.dble.backend.mysql.PacketUtil;
+import com.actiontech.dble.backend.mysql.nio.handler.query.BaseDMLHandler;
+import com.actiontech.dble.config.Fields;
+import com.actiontech.dble.net.Session;
+import com.actiontech.dble.net.mysql.FieldPacket;
+import com.actiontech.dble.net.mysql.RowDataPacket;
+import com.actiontech.dble.net.service.AbstractService;
+import com.actiontech.dble.plan.common.item.ItemField;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigInteger;
+import java.util.*;
+
+import static org.mockito.Mockito.*;
+
+public class SemiJoinFilterHandlerTest {
+
+    private static SemiJoinFilter filter(long... keys) {
+        SemiJoinFilter.KeyCollector collector = new SemiJoinFilter.KeyCollector();
+        for (long key : keys) {
+            collector.add(BigInteger.valueOf(key));
+        }
+        return collector.build();
+    }
+
+    private static RowDataPacket row(String key) {
+        RowDataPacket row = new RowDataPacket(2);
+        row.add(key == null ? null : key.getBytes());
+        row.add("v".getBytes());
+        return row;
+    }
+
+    /**
+     * @return the keys of the rows passed to the next handler
+     */
+    private static List<String> passRows(SemiJoinFilter filter, int keyType, String... keys) {
+        SemiJoinFilterHandler handler = new SemiJoinFilterHandler(1, mock(Session.class), new ItemField(null, "t2", "k"), filter);
+        BaseDMLHandler next = mock(BaseDMLHandler.class);
+        handler.setNextHandlerOnly(next);
+        AbstractService service = mock(AbstractService.class);
+        FieldPacket keyField = PacketUtil.getField("k", keyType);
+        keyField.setTable("t2".getBytes());
+        FieldPacket valueField = PacketUtil.getField("v", Fields.FIELD_TYPE_VAR_STRING);
+        valueField.setTable("t2".getBytes());
+        handler.fieldEofResponse(null, null, Arrays.asList(keyField, valueField), null, false, service);
+        for (String key : keys) {
+            handler.rowResponse(null, row(key), false, service);
+        }
+        handler.rowEofResponse(null, false, service);
+
+        ArgumentCaptor<RowDataPacket> rows = ArgumentCaptor.forClass(RowDataPacket.class);
+        verify(next, atLeast(0)).rowResponse((byte[]) isNull(), rows.capture(), anyBoolean(), same(service));
+        verify(next).rowEofResponse(null, false, service);
+        List<String> passed = new ArrayList<>();
+        for (RowDataPacket row : rows.getAllValues()) {
+            passed.add(new String(row.getValue(0)));
+        }
+        return passed;
+    }
+
+    @Test
+    public void testKeptKeysNeverDropped() {
+        long[] keys = new long[3000];
+        String[] rows = new String[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i * 7L - 5000;
+            rows[i] = String.valueOf(keys[i]);
+        }
+        Assert.assertEquals(Arrays.asList(rows), passRows(filter(keys), Fields.FIELD_TYPE_LONGLONG, rows));
+    }
+
+    @Test
+    public void testDropRows() {
+        SemiJoinFilter filter = filter(10, 20, 30);
+        // out of the range, or the null key which never joins
+        List<String> passed = passRows(filter, Fields.FIELD_TYPE_LONG, "10", "9", "31", null, "-20", "30", "20");
+        Assert.assertEquals(Arrays.asList("10", "30", "20"), passed);
+    }
+
+    @Test
+    public void testNonIntegerKey() {
+        SemiJoinFilter filter = filter(10, 20, 30);
+        // '10' and '10.0' are different strings but equal numbers, so nothing is filtered
+        Assert.assertEquals(Arrays.asList("10.0", "abc", "40"), passRows(filter, Fields.FIELD_TYPE_VAR_STRING, "10.0", "abc", "40"));
+        Assert.assertEquals(Arrays.asList("10.5", "40"), passRows(filter, Fields.FIELD_TYPE_NEW_DECIMAL, "10.5", "40"));
+    }
+
+    @Test
+    public void testNoFilter() {
+        // explain, or the filter exceeds its size limit
+        Assert.assertEquals(Arrays.asList("1", "2", "3"), passRows(null, Fields.FIELD_TYPE_LONG, "1", "2", "3"));
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+package com.actiontech.dble.backend.mysql.nio.handler.query.impl.join;
+
+import com.actiontech.dble.backend.mysql.CharsetUtil;
+import com.actiontech.dble.backend.mysql.nio.handler.query.impl.TempTableHandler;
+import com.actiontech.dble.config.Fields;
+import com.actiontech.dble.config.model.SystemConfig;
+import com.actiontech.dble.net.Session;
+import com.actiontech.dble.plan.common.field.Field;
+import com.actiontech.dble.plan.common.item.ItemField;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigInteger;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.mockito.Mockito.mock;
+
+public class SemiJoinFilterTest {
+
+    @Test
+    public void testKeptKeysNeverDropped() {
+        Random random = new Random(7);
+        Set<Long> keys = new HashSet<>();
+        SemiJoinFilter.KeyCollector collector = new SemiJoinFilter.KeyCollector();
+        // more keys than the initial capacity of the collector
+        for (int i = 0; i < 5000; i++) {
+            long key = random.nextInt(1000000) - 500000;
+            keys.add(key);
+            collector.add(BigInteger.valueOf(key));
+        }
+        SemiJoinFilter filter = collector.build();
+        Assert.assertEquals(5000, filter.size());
+        Assert.assertTrue(filter.hasRange());
+        for (long key : keys) {
+            Assert.assertTrue(filter.mightContain(BigInteger.valueOf(key)));
+        }
+        Assert.assertFalse(filter.mightContain(BigInteger.valueOf(filter.getMin() - 1)));
+        Assert.assertFalse(filter.mightContain(BigInteger.valueOf(filter.getMax() + 1)));
+        int falsePositives = 0;
+        for (long key = filter.getMin(); key <= filter.getMax(); key++) {
+            if (!keys.contains(key) && filter.mightContain(BigInteger.valueOf(key))) {
+                falsePositives++;
+            }
+        }
+        Assert.assertTrue(falsePositives < (filter.getMax() - filter.getMin()) / 20);
+    }
+
+    @Test
+    public void testUnsignedBigint() {
+        BigInteger big = new BigInteger("18446744073709551615");
+        SemiJoinFilter.KeyCollector collector = new SemiJoinFilter.KeyCollector();
+        collector.add(BigInteger.ONE);
+        collector.add(big);
+        SemiJoinFilter filter = collector.build();
+        // the range can't be pushed down, but the keys are still kept
+        Assert.assertFalse(filter.hasRange());
+        Assert.assertTrue(filter.mightContain(BigInteger.ONE));
+        Assert.assertTrue(filter.mightContain(big));
+    }
+
+    @Test
+    public void testEmpty() {
+        SemiJoinFilter filter = new SemiJoinFilter.KeyCollector().build();
+        Assert.assertTrue(filter.isEmpty());
+        Assert.assertFalse(filter.mightContain(BigInteger.ZERO));
+    }
+
+    @Test
+    public void testIntegerKey() {
+        Assert.assertTrue(SemiJoinFilter.isIntegerKey(field(Fields.FIELD_TYPE_LONG)));
+        Assert.assertTrue(SemiJoinFilter.isIntegerKey(field(Fields.FIELD_TYPE_LONGLONG)));
+        Assert.assertTrue(SemiJoinFilter.isIntegerKey(field(Fields.FIELD_TYPE_TINY)));
+        // the same value may be different keys
+        Assert.assertFalse(SemiJoinFilter.isIntegerKey(field(Fields.FIELD_TYPE_VAR_STRING)));
+        Assert.assertFalse(SemiJoinFilter.isIntegerKey(field(Fields.FIELD_TYPE_NEW_DECIMAL)));
+        Assert.assertFalse(SemiJoinFilter.isIntegerKey(field(Fields.FIELD_TYPE_DOUBLE)));
+    }
+
+    @Test
+    public void testSizeLimit() {
+        SystemConfig config = SystemConfig.getInstance();
+        int filterRows = config.getNestLoopBloomFilterRows();
+        long inListRows = (long) config.getNestLoopRowsSize() * config.getNestLoopConnSize();
+        try {
+            config.setNestLoopBloomFilterRows((int) inListRows * 10);
+            Assert.assertEquals(inListRows * 10, SemiJoinFilter.maxSmallTableRows(true));
+            // the non integer key is pushed down as the IN list only
+            Assert.assertEquals(inListRows, SemiJoinFilter.maxSmallTableRows(false));
+            TempTableHandler tempHandler = new TempTableHandler(1, mock(Session.class), new ItemField(null, "t1", "id"));
+            Assert.assertTrue(tempHandler.isSemiJoinFilterEnabled());
+            tempHandler.disableSemiJoinFilter();
+            Assert.assertFalse(tempHandler.isSemiJoinFilterEnabled());
+
+            // the filter is skipped if it is not larger than the IN list
+            config.setNestLoopBloomFilterRows((int) inListRows);
+            Assert.assertEquals(inListRows, SemiJoinFilter.maxSmallTableRows(true));
+            Assert.assertFalse(new TempTableHandler(2, mock(Session.class), new ItemField(null, "t1", "id")).isSemiJoinFilterEnabled());
+            config.setNestLoopBloomFilterRows(0);
+            Assert.assertEquals(inListRows, SemiJoinFilter.maxSmallTableRows(true));
+            Assert.assertFalse(new TempTableHandler(3, mock(Session.class), new ItemField(null, "t1", "id")).isSemiJoinFilterEnabled());
+        } finally {
+            config.setNestLoopBloomFilterRows(filterRows);
+        }
+    }
+
+    private static Field field(int type) {
+        return Field.getFieldItem("id", null, "t2", "t2", type, CharsetUtil.getCharsetDefaultIndex("utf8mb4"), 20, 0, 0);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.backend.mysql.nio.handler.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PrefetchQueueTest {
+    private final AtomicInteger paused = new AtomicInteger();
+    private final AtomicInteger resumed = new AtomicInteger();
+
+    private PrefetchQueue newQueue(int window) {
+        return new PrefetchQueue("dn1", paused::incrementAndGet, resumed::incrementAndGet, window);
+    }
+
+    private static HeapItem row() {
+        return new HeapItem(new byte[0], null, null);
+    }
+
+    @Test
+    public void testPauseAndResume() throws InterruptedException {
+        PrefetchQueue queue = newQueue(4);
+        for (int i = 0; i < 3; i++) {
+            queue.put(row());
+        }
+        Assert.assertEquals(0, paused.get());
+        queue.put(row());
+        queue.put(row());
+        Assert.assertEquals(1, paused.get());
+        Assert.assertEquals(5, queue.depth());
+
+        // resumed when half of the window is left
+        queue.take();
+        queue.take();
+        Assert.assertEquals(0, resumed.get());
+        queue.take();
+        Assert.assertEquals(1, resumed.get());
+        Assert.assertEquals(5, queue.getMaxDepth());
+        Assert.assertEquals(1, queue.getPauseCount());
+    }
+
+    @Test
+    public void testEofNeverPauses() {
+        PrefetchQueue queue = newQueue(1);
+        queue.put(HeapItem.nullItem());
+        Assert.assertEquals(0, paused.get());
+    }
+
+    @Test
+    public void testCloseResumes() {
+        PrefetchQueue queue = newQueue(2);
+        queue.put(row());
+        queue.put(row());
+        Assert.assertEquals(1, paused.get());
+        queue.close();
+        Assert.assertEquals(1, resumed.get());
+        Assert.assertEquals(0, queue.depth());
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.backend.mysql.nio.handler.util;
+
+import com.actiontech.dble.backend.mysql.BufferUtil;
+import com.actiontech.dble.buffer.DirectByteBufferPool;
+import com.actiontech.dble.net.mysql.RowDataPacket;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class RowBatchTest {
+
+    /**
+     * the row packet as it is read from the backend
+     */
+    private static byte[] packet(byte[]... values) {
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+        BufferUtil.writeUB3(buffer, 0);
+        buffer.put((byte) 1);
+        for (byte[] value : values) {
+            if (value == null) {
+                buffer.put((byte) 251);
+            } else {
+                BufferUtil.writeWithLength(buffer, value);
+            }
+        }
+        buffer.flip();
+        byte[] data = new byte[buffer.limit()];
+        buffer.get(data);
+        return data;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String string(byte[] value) {
+        return value == null ? null : new String(value, StandardCharsets.UTF_8);
+    }
+
+    private static List<String> column(RowBatch batch, int column) {
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            values.add(string(batch.getValue(i, column)));
+        }
+        return values;
+    }
+
+    private static String repeat(char c, int count) {
+        char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+
+    @Test
+    public void testAddPacket() {
+        DirectByteBufferPool pool = new DirectByteBufferPool(64 * 1024, (short) 256, (short) 4);
+        RowBatch batch = new RowBatch(3, 8, pool, null);
+        // the length of a long value takes 3 bytes
+        String longValue = repeat('x', 300);
+        batch.addPacket(packet(bytes("1"), null, bytes("a")));
+        batch.addPacket(packet(bytes("2"), bytes(""), bytes(longValue)));
+        RowDataPacket row = new RowDataPacket(3);
+        row.add(bytes("3"));
+        row.add(bytes("c"));
+        row.add(null);
+        batch.add(row);
+
+        Assert.assertEquals(3, batch.size());
+        Assert.assertEquals(Arrays.asList("1", "2", "3"), column(batch, 0));
+        Assert.assertEquals(Arrays.asList(null, "", "c"), column(batch, 1));
+        Assert.assertEquals(Arrays.asList("a", longValue, null), column(batch, 2));
+        RowDataPacket copy = batch.getRow(1);
+        Assert.assertEquals(3, copy.getFieldCount());
+        Assert.assertEquals(longValue, string(copy.getValue(2)));
+        batch.release();
+        Assert.assertEquals(pool.capacity(), pool.size());
+    }
+
+    @Test
+    public void testGrowColumn() {
+        DirectByteBufferPool pool = new DirectByteBufferPool(64 * 1024, (short) 256, (short) 4);
+        RowBatch batch = new RowBatch(1, 100, pool, null);
+        // the column is larger than a chunk
+        for (int i = 0; i < 100; i++) {
+            batch.addPacket(packet(bytes(i + repeat('v', 20))));
+        }
+        Assert.assertTrue(batch.isFull());
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(i + repeat('v', 20), string(batch.getValue(i, 0)));
+        }
+        batch.release();
+        // released twice, the columns are recycled only once
+        batch.release();
+        Assert.assertEquals(pool.capacity(), pool.size());
+    }
+
+    @Test
+    public void testRetain() {
+        RowBatch batch = new RowBatch(2, 10, null, null);
+        for (int i = 0; i < 10; i++) {
+            batch.addPacket(packet(bytes(String.valueOf(i)), i % 3 == 0 ? null : bytes("n" + i)));
+        }
+        boolean[] keep = new boolean[10];
+        for (int i = 0; i < 10; i++) {
+            keep[i] = i % 2 == 1;
+        }
+        batch.retain(keep);
+        Assert.assertEquals(Arrays.asList("1", "3", "5", "7", "9"), column(batch, 0));
+        Assert.assertEquals(Arrays.asList("n1", null, "n5", "n7", null), column(batch, 1));
+        batch.retainRange(1, 3);
+        Assert.assertEquals(Arrays.asList("3", "5"), column(batch, 0));
+        batch.retainRange(0, 1);
+        Assert.assertEquals(Arrays.asList("3"), column(batch, 0));
+        batch.retainRange(1, 1);
+        Assert.assertTrue(batch.isEmpty());
+    }
+
+    @Test
+    public void testFillValues() {
+        RowBatch batch = new RowBatch(2, 4, null, null);
+        batch.addPacket(packet(bytes("ab"), bytes("x")));
+        batch.addPacket(packet(bytes("cd"), null));
+        batch.addPacket(packet(bytes("efg"), bytes("y")));
+        List<byte[]> values = new ArrayList<>();
+        batch.fillValues(0, values);
+        byte[] first = values.get(0);
+        Assert.assertEquals("ab", string(first));
+        batch.fillValues(1, values);
+        // the array of the same length is reused
+        Assert.assertSame(first, values.get(0));
+        Assert.assertEquals("cd", string(values.get(0)));
+        Assert.assertNull(values.get(1));
+        batch.fillValues(2, values);
+        Assert.assertEquals(Arrays.asList("efg", "y"), Arrays.asList(string(values.get(0)), string(values.get(1))));
+        // the rows of getRow are never reused
+        Assert.assertNotSame(batch.getValue(0, 0), batch.getValue(0, 0));
+    }
+}
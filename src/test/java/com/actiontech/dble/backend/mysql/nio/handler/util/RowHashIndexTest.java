@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.backend.mysql.nio.handler.util;
+
+import com.actiontech.dble.backend.mysql.CharsetUtil;
+import com.actiontech.dble.config.Fields;
+import com.actiontech.dble.net.mysql.RowDataPacket;
+import com.actiontech.dble.plan.Order;
+import com.actiontech.dble.plan.common.field.Field;
+import com.actiontech.dble.plan.common.item.ItemField;
+import com.alibaba.druid.sql.ast.SQLOrderingSpecification;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+public class RowHashIndexTest {
+
+    private static RowDataComparator groupByComparator() {
+        int charsetIndex = CharsetUtil.getCharsetDefaultIndex("utf8mb4");
+        List<Field> fields = new ArrayList<>();
+        fields.add(Field.getFieldItem("name", null, "t1", "t1", Fields.FIELD_TYPE_VAR_STRING, charsetIndex, 255, 0, 0));
+        fields.add(Field.getFieldItem("price", null, "t1", "t1", Fields.FIELD_TYPE_NEW_DECIMAL, charsetIndex, 10, 2, 0));
+        List<Order> orders = new ArrayList<>();
+        orders.add(new Order(new ItemField(null, "t1", "name"), SQLOrderingSpecification.ASC));
+        orders.add(new Order(new ItemField(null, "t1", "price"), SQLOrderingSpecification.ASC));
+        return new RowDataComparator(fields, orders);
+    }
+
+    @Test
+    public void testGroupByComparatorEquality() {
+        RowDataComparator cmp = groupByComparator();
+
+        List<RowDataPacket> rows = new ArrayList<>();
+        RowHashIndex index = new RowHashIndex(rows, cmp, 1);
+        String[][] values = {{"abc", "1.5"}, {"ABC", "1.50"}, {"abd", "1.5"}, {null, "0"}, {null, "0.00"}, {"abc", null}};
+        int[] expected = {-1, 0, -1, -1, 2, -1};
+        for (int i = 0; i < 100; i++) {
+            RowDataPacket row = createRow("x" + i, String.valueOf(i));
+            Assert.assertEquals(-1, index.putIfAbsent(row));
+            rows.add(row);
+        }
+        for (int i = 0; i < values.length; i++) {
+            RowDataPacket row = createRow(values[i][0], values[i][1]);
+            int found = index.putIfAbsent(row);
+            Assert.assertEquals(expected[i] < 0 ? -1 : expected[i] + 100, found);
+            if (found < 0) {
+                rows.add(row);
+            }
+        }
+        Assert.assertEquals(104, index.size());
+        Assert.assertEquals(50, index.putIfAbsent(createRow("X50", "50.0")));
+    }
+
+    @Test
+    public void testHashValuesNotCached() {
+        RowDataComparator partitionCmp = groupByComparator();
+        RowDataComparator bucketCmp = groupByComparator();
+        RowDataPacket row = createRow("ABC", "1.50");
+        int h = partitionCmp.hashValues(row.fieldValues);
+        Assert.assertEquals(h, partitionCmp.hashValues(createRow("abc", "1.5").fieldValues));
+        Assert.assertNull(row.getCmpValue(partitionCmp));
+        // the comparator of the bucket still takes the first cache slot
+        Assert.assertEquals(h, bucketCmp.hash(row));
+        Assert.assertNotNull(row.getCmpValue(bucketCmp));
+        Assert.assertEquals(h, partitionCmp.hash(row));
+    }
+
+    private static RowDataPacket createRow(String name, String price) {
+        RowDataPacket row = new RowDataPacket(2);
+        row.add(name == null ? null : name.getBytes(StandardCharsets.UTF_8));
+        row.add(price == null ? null : price.getBytes(StandardCharsets.UTF_8));
+        return row;
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.backend.mysql.store;
+
+import com.actiontech.dble.backend.mysql.CharsetUtil;
+import com.actiontech.dble.backend.mysql.nio.handler.util.RowDataComparator;
+import com.actiontech.dble.config.Fields;
+import com.actiontech.dble.net.mysql.RowDataPacket;
+import com.actiontech.dble.plan.Order;
+import com.actiontech.dble.plan.common.field.Field;
+import com.actiontech.dble.plan.common.item.ItemField;
+import com.alibaba.druid.sql.ast.SQLOrderingSpecification;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+public class TopNSortedLocalResultTest {
+
+    private static RowDataComparator comparator(SQLOrderingSpecification spec) {
+        int charsetIndex = CharsetUtil.getCharsetDefaultIndex("utf8mb4");
+        List<Field> fields = new ArrayList<>();
+        fields.add(Field.getFieldItem("id", null, "t1", "t1", Fields.FIELD_TYPE_LONG, charsetIndex, 11, 0, 0));
+        fields.add(Field.getFieldItem("name", null, "t1", "t1", Fields.FIELD_TYPE_VAR_STRING, charsetIndex, 255, 0, 0));
+        List<Order> orders = new ArrayList<>();
+        orders.add(new Order(new ItemField(null, "t1", "id"), spec));
+        return new RowDataComparator(fields, orders);
+    }
+
+    private static RowDataPacket createRow(int id, String name) {
+        RowDataPacket row = new RowDataPacket(2);
+        row.add(String.valueOf(id).getBytes(StandardCharsets.UTF_8));
+        row.add(name.getBytes(StandardCharsets.UTF_8));
+        return row;
+    }
+
+    private static List<RowDataPacket> readAll(LocalResult result, List<RowDataPacket> rows) {
+        for (RowDataPacket row : rows) {
+            result.add(row);
+        }
+        result.done();
+        List<RowDataPacket> sorted = new ArrayList<>();
+        RowDataPacket row;
+        while ((row = result.next()) != null) {
+            sorted.add(row);
+        }
+        result.close();
+        return sorted;
+    }
+
+    private static List<RowDataPacket> fullSort(List<RowDataPacket> rows, SQLOrderingSpecification spec) {
+        SortedLocalResult result = new SortedLocalResult(null, 2, comparator(spec), "UTF-8", null);
+        // keep all the rows in memory
+        result.setMaxMemory(Integer.MAX_VALUE);
+        return readAll(result, rows);
+    }
+
+    /**
+     * the rows of LIMIT offset, count, the order by handler keeps the first offset + count rows
+     */
+    private static List<RowDataPacket> limit(List<RowDataPacket> rows, SQLOrderingSpecification spec, int offset, int count) {
+        List<RowDataPacket> topN = readAll(new TopNSortedLocalResult(null, 2, comparator(spec), "UTF-8", null, offset + count), rows);
+        Assert.assertEquals(Math.min(offset + count, rows.size()), topN.size());
+        return topN.subList(Math.min(offset, topN.size()), topN.size());
+    }
+
+    private static List<Integer> ids(List<RowDataPacket> rows) {
+        List<Integer> ids = new ArrayList<>();
+        for (RowDataPacket row : rows) {
+            ids.add(Integer.parseInt(new String(row.getValue(0), StandardCharsets.UTF_8)));
+        }
+        return ids;
+    }
+
+    private static List<RowDataPacket> shuffledRows(int count, Random random) {
+        List<RowDataPacket> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            rows.add(createRow(i, "n" + i));
+        }
+        Collections.shuffle(rows, random);
+        return rows;
+    }
+
+    @Test
+    public void testLimitOffset() {
+        List<RowDataPacket> rows = shuffledRows(100, new Random(1));
+        List<RowDataPacket> sorted = fullSort(rows, SQLOrderingSpecification.ASC);
+        int[][] limits = {{0, 0}, {0, 1}, {0, 10}, {5, 10}, {99, 1}, {0, 99}, {0, 100}, {0, 101}, {90, 20}, {100, 5}, {200, 5}};
+        for (int[] limit : limits) {
+            int offset = limit[0];
+            int count = limit[1];
+            List<RowDataPacket> expected = sorted.subList(Math.min(offset, sorted.size()), Math.min(offset + count, sorted.size()));
+            Assert.assertEquals("limit " + offset + "," + count, ids(expected), ids(limit(rows, SQLOrderingSpecification.ASC, offset, count)));
+        }
+    }
+
+    @Test
+    public void testDesc() {
+        Random random = new Random(2);
+        // more rows than the initial capacity of the heap
+        List<RowDataPacket> rows = shuffledRows(5000, random);
+        List<RowDataPacket> sorted = fullSort(rows, SQLOrderingSpecification.DESC);
+        Assert.assertEquals(Integer.valueOf(4999), ids(sorted).get(0));
+        for (int count : new int[]{1, 3, 1024, 1025, 2000, 5000}) {
+            int offset = random.nextInt(10);
+            Assert.assertEquals(ids(sorted.subList(offset, Math.min(offset + count, sorted.size()))),
+                    ids(limit(rows, SQLOrderingSpecification.DESC, offset, count)));
+        }
+    }
+
+    @Test
+    public void testTiesAtCutOff() {
+        Random random = new Random(3);
+        List<RowDataPacket> rows = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            rows.add(createRow(random.nextInt(20), "n" + i));
+        }
+        for (SQLOrderingSpecification spec : new SQLOrderingSpecification[]{SQLOrderingSpecification.ASC, SQLOrderingSpecification.DESC}) {
+            List<Integer> sortedIds = ids(fullSort(rows, spec));
+            for (int count : new int[]{1, 49, 50, 51, 500, 999}) {
+                List<RowDataPacket> topN = limit(rows, spec, 0, count);
+                // the tied rows at the cut-off may be any of them, the ordering values are the same as the full sort
+                Assert.assertEquals(sortedIds.subList(0, count), ids(topN));
+                Set<String> names = new HashSet<>();
+                for (RowDataPacket row : topN) {
+                    // no row is kept twice
+                    Assert.assertTrue(names.add(new String(row.getValue(1), StandardCharsets.UTF_8)));
+                }
+            }
+        }
+    }
+}
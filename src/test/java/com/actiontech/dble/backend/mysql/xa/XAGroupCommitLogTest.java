@@ -0,0 +1,140 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.backend.mysql.xa;
+
+import com.actiontech.dble.backend.mysql.xa.recovery.impl.FileSystemRepository;
+import com.actiontech.dble.config.model.SystemConfig;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class XAGroupCommitLogTest {
+    private String homePath;
+    private File home;
+    // the living transactions written by the compaction
+    private final List<CoordinatorLogEntry> living = new ArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        homePath = SystemConfig.getInstance().getHomePath();
+        home = Files.createTempDirectory("xalog").toFile();
+        SystemConfig.getInstance().setHomePath(home.getPath());
+    }
+
+    @After
+    public void tearDown() {
+        File dir = new File(SystemConfig.getInstance().getXaRecoveryLogBaseDir());
+        SystemConfig.getInstance().setHomePath(homePath);
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+        home.delete();
+    }
+
+    private static CoordinatorLogEntry entry(String id, TxState state) {
+        ParticipantLogEntry participant = new ParticipantLogEntry(id, "127.0.0.1", 3306, 0, "db1", state);
+        return new CoordinatorLogEntry(id, new ParticipantLogEntry[]{participant}, state);
+    }
+
+    /**
+     * read the log as the recovery after restart
+     */
+    private static Map<String, TxState> recover() {
+        Map<String, TxState> states = new HashMap<>();
+        for (CoordinatorLogEntry entry : new FileSystemRepository().getAllCoordinatorLogEntries(true)) {
+            states.put(entry.getId(), entry.getTxState());
+        }
+        return states;
+    }
+
+    @Test
+    public void testFlushOnIdle() throws InterruptedException {
+        ExecutorService flusher = Executors.newSingleThreadExecutor();
+        XAGroupCommitLog log = new XAGroupCommitLog(new FileSystemRepository(), () -> living, flusher);
+        living.add(entry("xa1", TxState.TX_COMMITTING_STATE));
+        Assert.assertTrue(log.commit(entry("xa1", TxState.TX_COMMITTING_STATE)));
+        living.clear();
+        // nobody commits after the end of the transaction
+        log.enqueue(entry("xa1", TxState.TX_COMMITTED_STATE));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (recover().get("xa1") != TxState.TX_COMMITTED_STATE && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        flusher.shutdown();
+        Assert.assertEquals(TxState.TX_COMMITTED_STATE, recover().get("xa1"));
+    }
+
+    @Test
+    public void testCrashBetweenEnqueueAndFlush() {
+        List<Runnable> flushes = new ArrayList<>();
+        XAGroupCommitLog log = new XAGroupCommitLog(new FileSystemRepository(), () -> living, flushes::add);
+        living.add(entry("xa1", TxState.TX_COMMITTING_STATE));
+        Assert.assertTrue(log.commit(entry("xa1", TxState.TX_COMMITTING_STATE)));
+        log.enqueue(entry("xa1", TxState.TX_COMMITTED_STATE));
+        log.enqueue(entry("xa2", TxState.TX_ROLLBACKED_STATE));
+        // one flush for the changes queued together
+        Assert.assertEquals(1, flushes.size());
+
+        // dble stops before the flush, the recovery commits xa1 again
+        Assert.assertEquals(Collections.singletonMap("xa1", TxState.TX_COMMITTING_STATE), recover());
+
+        flushes.get(0).run();
+        Map<String, TxState> states = recover();
+        Assert.assertEquals(TxState.TX_COMMITTED_STATE, states.get("xa1"));
+        Assert.assertEquals(TxState.TX_ROLLBACKED_STATE, states.get("xa2"));
+
+        // the changes after the flush schedule the next one
+        log.enqueue(entry("xa3", TxState.TX_COMMITTED_STATE));
+        Assert.assertEquals(2, flushes.size());
+    }
+
+    @Test
+    public void testRecoverGroupCommittedLog() throws InterruptedException {
+        XAGroupCommitLog log = new XAGroupCommitLog(new FileSystemRepository(), () -> living, Runnable::run);
+        // the first batch compacts the log of the last run to the checkpoint
+        living.add(entry("xa0", TxState.TX_PREPARED_STATE));
+        Assert.assertTrue(log.commit(entry("xa0", TxState.TX_PREPARED_STATE)));
+
+        Thread[] sessions = new Thread[8];
+        boolean[] results = new boolean[sessions.length];
+        for (int i = 0; i < sessions.length; i++) {
+            final int index = i;
+            sessions[i] = new Thread(() -> {
+                String id = "xa" + (index + 1);
+                results[index] = log.commit(entry(id, TxState.TX_PREPARING_STATE)) && log.commit(entry(id, TxState.TX_COMMITTING_STATE));
+                if (index % 2 == 0) {
+                    log.enqueue(entry(id, TxState.TX_COMMITTED_STATE));
+                }
+            });
+            sessions[i].start();
+        }
+        for (Thread session : sessions) {
+            session.join();
+        }
+        for (boolean result : results) {
+            Assert.assertTrue(result);
+        }
+
+        // the last line of the id wins
+        Map<String, TxState> states = recover();
+        Assert.assertEquals(TxState.TX_PREPARED_STATE, states.get("xa0"));
+        for (int i = 0; i < sessions.length; i++) {
+            Assert.assertEquals(i % 2 == 0 ? TxState.TX_COMMITTED_STATE : TxState.TX_COMMITTING_STATE, states.get("xa" + (i + 1)));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.backend.pool;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LoadStatisticTest {
+    private static final long MS = 1000000L;
+
+    @Test
+    public void testOutstanding() {
+        LoadStatistic statistic = new LoadStatistic();
+        statistic.onBorrow();
+        statistic.onBorrow();
+        Assert.assertEquals(2, statistic.getOutstanding());
+        statistic.onReturn();
+        statistic.onReturn();
+        statistic.onReturn();
+        Assert.assertEquals(0, statistic.getOutstanding());
+    }
+
+    @Test
+    public void testSmoothBothWays() {
+        LoadStatistic statistic = new LoadStatistic();
+        long now = 1000 * MS;
+        Assert.assertEquals(0, statistic.getResponseTimeNanos(now), 0);
+        // the first sample is taken as it is
+        statistic.record(10 * MS, now);
+        Assert.assertEquals(10 * MS, statistic.getResponseTimeNanos(now), 1);
+
+        // a slower sample moves the EWMA by the same weight as a faster one
+        statistic.record(110 * MS, now);
+        double up = statistic.getResponseTimeNanos(now) - 10 * MS;
+        Assert.assertEquals(LoadStatistic.WEIGHT * 100 * MS, up, 1);
+        double before = statistic.getResponseTimeNanos(now);
+        statistic.record((long) before - 100 * MS, now);
+        double down = before - statistic.getResponseTimeNanos(now);
+        Assert.assertEquals(up, down, 1);
+    }
+
+    @Test
+    public void testConverge() {
+        LoadStatistic statistic = new LoadStatistic();
+        long now = 1000 * MS;
+        statistic.record(100 * MS, now);
+        for (int i = 0; i < 50; i++) {
+            statistic.record(MS, now);
+        }
+        Assert.assertEquals(MS, statistic.getResponseTimeNanos(now), MS * 0.01);
+        // a single slow response doesn't take over
+        statistic.record(100 * MS, now);
+        Assert.assertTrue(statistic.getResponseTimeNanos(now) < 30 * MS);
+    }
+
+    @Test
+    public void testDecayWhenIdle() {
+        LoadStatistic statistic = new LoadStatistic();
+        long now = 1000 * MS;
+        statistic.record(100 * MS, now);
+        long later = now + (long) LoadStatistic.DECAY_NANOS;
+        Assert.assertEquals(100 * MS / Math.E, statistic.getResponseTimeNanos(later), MS);
+        Assert.assertEquals(100 * MS, statistic.getResponseTimeNanos(now - MS), 1);
+    }
+}
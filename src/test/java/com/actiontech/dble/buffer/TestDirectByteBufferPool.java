@@ -5,6 +5,7 @@
 
 package com.actiontech.dble.buffer;
 
+import com.actiontech.dble.util.VirtualThreadUtil;
 import org.junit.Assert;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -15,6 +16,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 
 public class TestDirectByteBufferPool {
 
@@ -143,5 +145,137 @@ public class TestDirectByteBufferPool {
         Assert.assertEquals("Should out of memory when i = " + 8, i, 8);
     }
 
+    @Test
+    public void testThreadCache() throws InterruptedException {
+        int size = 256;
+        int pageSize = size * 4;
+        final DirectByteBufferPool pool = new DirectByteBufferPool(pageSize, (short) 256, (short) 2, 4);
+        Assert.assertEquals(pool.capacity(), pool.size());
+
+        ByteBuffer first = pool.allocate(size, null);
+        Assert.assertTrue(first instanceof DirectBuffer);
+        Assert.assertEquals(pool.capacity() - size, pool.size());
+        pool.recycle(first);
+        Assert.assertEquals(pool.capacity(), pool.size());
+        // recycled into the thread cache and reused
+        Assert.assertSame(first, pool.allocate(size, null));
+        pool.recycle(first);
+
+        // the chunks cached by other thread are given back when the pages are full
+        Thread other = new Thread(() -> pool.recycle(pool.allocate(size, null)));
+        other.start();
+        other.join();
+        List<ByteBuffer> buffs = new ArrayList<ByteBuffer>();
+        for (int i = 0; i < 7; i++) {
+            ByteBuffer byteBuffer = pool.allocate(size, null);
+            Assert.assertTrue(byteBuffer instanceof DirectBuffer);
+            buffs.add(byteBuffer);
+        }
+        ByteBuffer last = pool.allocate(size, null);
+        Assert.assertTrue(last instanceof DirectBuffer);
+        Assert.assertEquals(0, pool.size());
+        Assert.assertFalse(pool.allocate(size, null) instanceof DirectBuffer);
+        buffs.add(last);
+        for (ByteBuffer buff : buffs) {
+            pool.recycle(buff);
+        }
+        Assert.assertEquals(pool.capacity(), pool.size());
+    }
+
+    @Test
+    public void testFlushIdleThreadCache() throws InterruptedException {
+        int size = 256;
+        int pageSize = size * 4;
+        final DirectByteBufferPool pool = new DirectByteBufferPool(pageSize, (short) 256, (short) 2, 4);
+        final CountDownLatch recycled = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+        Thread idle = new Thread(() -> {
+            // half of the magazine is taken from the pages
+            pool.recycle(pool.allocate(size, null));
+            recycled.countDown();
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                // ignore
+            }
+        });
+        idle.start();
+        recycled.await();
+        Assert.assertEquals(0, pool.flushIdleMagazines(Long.MIN_VALUE));
+        // the thread is alive but idle
+        Assert.assertEquals(2, pool.flushIdleMagazines(Long.MAX_VALUE));
+        Assert.assertEquals(0, pool.flushIdleMagazines(Long.MAX_VALUE));
+        done.countDown();
+        idle.join();
+        List<ByteBuffer> buffs = new ArrayList<ByteBuffer>();
+        for (int i = 0; i < 8; i++) {
+            ByteBuffer byteBuffer = pool.allocate(size, null);
+            Assert.assertTrue(byteBuffer instanceof DirectBuffer);
+            buffs.add(byteBuffer);
+        }
+        for (ByteBuffer buff : buffs) {
+            pool.recycle(buff);
+        }
+        Assert.assertEquals(pool.capacity(), pool.size());
+    }
 
+    @Test
+    public void testRecycleNotPooled() {
+        int size = 256;
+        int pageSize = size * 4;
+        DirectByteBufferPool pool = new DirectByteBufferPool(pageSize, (short) 256, (short) 2, 4);
+        // the direct buffer of the chunk size but not allocated by the pool
+        ByteBuffer other = ByteBuffer.allocateDirect(size);
+        pool.recycle(other);
+        Assert.assertEquals(pool.capacity(), pool.size());
+        List<ByteBuffer> buffs = new ArrayList<ByteBuffer>();
+        for (int i = 0; i < 8; i++) {
+            ByteBuffer byteBuffer = pool.allocate(size, null);
+            Assert.assertNotSame(other, byteBuffer);
+            Assert.assertTrue(byteBuffer instanceof DirectBuffer);
+            buffs.add(byteBuffer);
+        }
+        Assert.assertFalse(pool.allocate(size, null) instanceof DirectBuffer);
+        for (ByteBuffer buff : buffs) {
+            pool.recycle(buff);
+        }
+        Assert.assertEquals(pool.capacity(), pool.size());
+    }
+
+    @Test
+    public void testVirtualThreadNotCached() throws InterruptedException {
+        if (!VirtualThreadUtil.isSupported()) {
+            return;
+        }
+        Assert.assertFalse(VirtualThreadUtil.isVirtual(Thread.currentThread()));
+        int size = 256;
+        int pageSize = size * 4;
+        final DirectByteBufferPool pool = new DirectByteBufferPool(pageSize, (short) 256, (short) 2, 4);
+        final CountDownLatch recycled = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+        Thread virtual = VirtualThreadUtil.newVirtualThread(() -> {
+            pool.recycle(pool.allocate(size, null));
+            recycled.countDown();
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                // ignore
+            }
+        });
+        virtual.start();
+        recycled.await();
+        // the chunk is given back to the pages although the virtual thread is alive
+        List<ByteBuffer> buffs = new ArrayList<ByteBuffer>();
+        for (int i = 0; i < 8; i++) {
+            ByteBuffer byteBuffer = pool.allocate(size, null);
+            Assert.assertTrue(byteBuffer instanceof DirectBuffer);
+            buffs.add(byteBuffer);
+        }
+        done.countDown();
+        virtual.join();
+        for (ByteBuffer buff : buffs) {
+            pool.recycle(buff);
+        }
+        Assert.assertEquals(pool.capacity(), pool.size());
+    }
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.meta.table;
+
+import com.actiontech.dble.meta.TableStatistics;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+public class TableStatisticsCollectorTest {
+
+    private static Map<String, String> row(String... keyValues) {
+        Map<String, String> row = new HashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            row.put(keyValues[i], keyValues[i + 1]);
+        }
+        return row;
+    }
+
+    private static TableStatisticsCollector newCollector() {
+        TableStatisticsCollector collector = new TableStatisticsCollector(null, false);
+        collector.putRows("dn1", Arrays.asList(row("TABLE_NAME", "t1", "TABLE_ROWS", "1000"), row("TABLE_NAME", "t2", "TABLE_ROWS", "10")));
+        collector.putRows("dn2", Collections.singletonList(row("TABLE_NAME", "t1", "TABLE_ROWS", "3000")));
+        collector.putCardinality("dn1", Arrays.asList(row("TABLE_NAME", "t1", "COLUMN_NAME", "ID", "CARDINALITY", "1000"),
+                row("TABLE_NAME", "t1", "COLUMN_NAME", "code", "CARDINALITY", "20")));
+        collector.putCardinality("dn2", Arrays.asList(row("TABLE_NAME", "t1", "COLUMN_NAME", "id", "CARDINALITY", "3000"),
+                row("TABLE_NAME", "t1", "COLUMN_NAME", "code", "CARDINALITY", "30")));
+        return collector;
+    }
+
+    @Test
+    public void testShardingTable() {
+        TableStatistics statistics = newCollector().merge("t1", Arrays.asList("dn1", "dn2"), false);
+        Assert.assertEquals(4000, statistics.getRowCount());
+        Assert.assertEquals(4000, statistics.getCardinality("id"));
+        // the sum of the shardingNodes is the upper bound
+        Assert.assertEquals(50, statistics.getCardinality("CODE"));
+        Assert.assertEquals(TableStatistics.UNKNOWN, statistics.getCardinality("name"));
+    }
+
+    @Test
+    public void testGlobalTable() {
+        TableStatistics statistics = newCollector().merge("t1", Arrays.asList("dn1", "dn2"), true);
+        Assert.assertEquals(3000, statistics.getRowCount());
+        Assert.assertEquals(3000, statistics.getCardinality("id"));
+        Assert.assertEquals(30, statistics.getCardinality("code"));
+    }
+
+    @Test
+    public void testUnknownShardingNode() {
+        TableStatisticsCollector collector = newCollector();
+        Assert.assertNull(collector.merge("t1", Arrays.asList("dn1", "dn3"), false));
+        Assert.assertNull(collector.merge("t2", Arrays.asList("dn1", "dn2"), false));
+        // the table without index has rows only
+        TableStatistics statistics = collector.merge("t2", Collections.singletonList("dn1"), false);
+        Assert.assertEquals(10, statistics.getRowCount());
+        Assert.assertEquals(TableStatistics.UNKNOWN, statistics.getCardinality("id"));
+    }
+
+    @Test
+    public void testTableNameAndValues() {
+        TableStatisticsCollector collector = new TableStatisticsCollector(null, true);
+        collector.putRows("dn1", Arrays.asList(row("TABLE_NAME", "T1", "TABLE_ROWS", null), row("TABLE_NAME", "T2", "TABLE_ROWS", "abc")));
+        collector.putCardinality("dn1", Collections.singletonList(row("TABLE_NAME", "T1", "COLUMN_NAME", "id", "CARDINALITY", null)));
+        TableStatistics statistics = collector.merge("t1", Collections.singletonList("dn1"), false);
+        Assert.assertEquals(0, statistics.getRowCount());
+        Assert.assertEquals(TableStatistics.UNKNOWN, statistics.getCardinality("id"));
+        Assert.assertEquals(0, collector.merge("t2", Collections.singletonList("dn1"), false).getRowCount());
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.net.executor;
+
+import com.actiontech.dble.net.service.NotificationServiceTask;
+import com.actiontech.dble.net.service.ServiceTask;
+import com.actiontech.dble.statistic.stat.ThreadWorkUsage;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class WorkerSchedulerTest {
+
+    private static ServiceTask newTask() {
+        return new NotificationServiceTask(null);
+    }
+
+    @Test
+    public void testSteal() throws InterruptedException {
+        WorkerScheduler scheduler = new WorkerScheduler();
+        WorkerScheduler.Worker worker1 = scheduler.register();
+        scheduler.register();
+        ServiceTask task1 = newTask();
+        ServiceTask task2 = newTask();
+        // offered by turns
+        scheduler.offer(task1);
+        scheduler.offer(task2);
+        Assert.assertEquals(2, scheduler.size());
+
+        ThreadWorkUsage usage = new ThreadWorkUsage();
+        List<ServiceTask> taken = new ArrayList<>();
+        Thread thread = new Thread(() -> {
+            worker1.bind(usage);
+            taken.add(worker1.take());
+            taken.add(worker1.take());
+        });
+        thread.start();
+        thread.join(5000);
+        Assert.assertSame(task1, taken.get(0));
+        Assert.assertSame(task2, taken.get(1));
+        Assert.assertEquals(1, usage.getSteals());
+        Assert.assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    public void testWakeUpParkedWorker() throws InterruptedException {
+        WorkerScheduler scheduler = new WorkerScheduler();
+        WorkerScheduler.Worker worker = scheduler.register();
+        List<ServiceTask> taken = new ArrayList<>();
+        Thread thread = new Thread(() -> {
+            worker.bind(null);
+            taken.add(worker.take());
+        });
+        thread.start();
+        Thread.sleep(200);
+        ServiceTask task = newTask();
+        scheduler.offer(task);
+        thread.join(5000);
+        Assert.assertFalse(thread.isAlive());
+        Assert.assertSame(task, taken.get(0));
+    }
+
+    @Test
+    public void testInterruptAndRemove() throws InterruptedException {
+        WorkerScheduler scheduler = new WorkerScheduler();
+        WorkerScheduler.Worker worker1 = scheduler.register();
+        scheduler.register();
+        scheduler.offer(newTask());
+        scheduler.offer(newTask());
+        Thread thread = new Thread(() -> {
+            worker1.bind(null);
+            Thread.currentThread().interrupt();
+            Assert.assertNull(worker1.take());
+            worker1.remove();
+        });
+        thread.start();
+        thread.join(5000);
+        // the task left by the removed worker is still there
+        Assert.assertEquals(2, scheduler.size());
+        Assert.assertNotNull(scheduler.poll());
+        Assert.assertNotNull(scheduler.poll());
+        Assert.assertNull(scheduler.poll());
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.net.impl.nio;
+
+import com.actiontech.dble.buffer.BufferPool;
+import com.actiontech.dble.net.IOProcessor;
+import com.actiontech.dble.net.WriteOutTask;
+import com.actiontech.dble.net.connection.AbstractConnection;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.*;
+
+public class NIOSocketWRTest {
+    private AbstractConnection con;
+    private SocketChannel channel;
+    private BufferPool pool;
+    private final ConcurrentLinkedQueue<WriteOutTask> writeQueue = new ConcurrentLinkedQueue<>();
+    private NIOSocketWR socketWR;
+
+    private static void setField(Class<?> clazz, Object target, String name, Object value) throws Exception {
+        Field field = clazz.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        con = mock(AbstractConnection.class);
+        channel = mock(SocketChannel.class);
+        pool = mock(BufferPool.class);
+        IOProcessor processor = mock(IOProcessor.class);
+        when(processor.getBufferPool()).thenReturn(pool);
+        // recycle is final, it uses the processor of the connection
+        setField(AbstractConnection.class, con, "processor", processor);
+        when(con.getChannel()).thenReturn(channel);
+        when(con.getWriteQueue()).thenReturn(writeQueue);
+        when(con.getWritingSize()).thenReturn(new AtomicInteger());
+        when(con.getCloseReason()).thenReturn("close after write");
+        socketWR = new NIOSocketWR();
+        socketWR.initFromConnection(con);
+        setField(NIOSocketWR.class, socketWR, "processKey", mock(SelectionKey.class));
+    }
+
+    private void addTask(String data, boolean closeFlag) {
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        buffer.put(data.getBytes());
+        writeQueue.add(new WriteOutTask(buffer, closeFlag));
+    }
+
+    private boolean isWriteDataErr() throws Exception {
+        Field field = NIOSocketWR.class.getDeclaredField("writeDataErr");
+        field.setAccessible(true);
+        return (Boolean) field.get(socketWR);
+    }
+
+    @Test
+    public void testWriteErrorBeforeClose() throws Exception {
+        addTask("data", false);
+        addTask("error packet", true);
+        when(channel.write(any(ByteBuffer[].class), anyInt(), anyInt())).thenThrow(new IOException("Broken pipe"));
+        socketWR.doNextWriteCheck();
+        // the connection is closing, the write error is ignored as the single buffer write did
+        verify(channel).write(any(ByteBuffer[].class), eq(0), eq(2));
+        verify(con).close("close after write");
+        verify(pool, times(2)).recycle(any(ByteBuffer.class));
+        Assert.assertFalse(isWriteDataErr());
+    }
+
+    @Test
+    public void testNothingWrittenBeforeClose() throws Exception {
+        addTask("data", false);
+        addTask("error packet", true);
+        when(channel.write(any(ByteBuffer[].class), anyInt(), anyInt())).thenReturn(0L);
+        socketWR.doNextWriteCheck();
+        verify(con).close("close after write");
+        verify(pool, times(2)).recycle(any(ByteBuffer.class));
+        Assert.assertFalse(isWriteDataErr());
+    }
+
+    @Test
+    public void testWriteErrorWithoutClose() throws Exception {
+        addTask("data", false);
+        addTask("more data", false);
+        when(channel.write(any(ByteBuffer[].class), anyInt(), anyInt())).thenThrow(new IOException("Broken pipe"));
+        socketWR.doNextWriteCheck();
+        verify(con, never()).close(anyString());
+        Assert.assertTrue(isWriteDataErr());
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.plan.optimizer;
+
+import com.actiontech.dble.meta.TableMeta;
+import com.actiontech.dble.meta.TableStatistics;
+import com.actiontech.dble.plan.NamedField;
+import com.actiontech.dble.plan.common.item.Item;
+import com.actiontech.dble.plan.common.item.ItemField;
+import com.actiontech.dble.plan.common.item.ItemInt;
+import com.actiontech.dble.plan.common.item.function.operator.cmpfunc.ItemFuncBetweenAnd;
+import com.actiontech.dble.plan.common.item.function.operator.cmpfunc.ItemFuncEqual;
+import com.actiontech.dble.plan.common.item.function.operator.cmpfunc.ItemFuncGt;
+import com.actiontech.dble.plan.common.item.function.operator.cmpfunc.ItemFuncIn;
+import com.actiontech.dble.plan.common.item.function.operator.logic.ItemCondAnd;
+import com.actiontech.dble.plan.node.JoinNode;
+import com.actiontech.dble.plan.node.PlanNode;
+import com.actiontech.dble.plan.node.TableNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.mockito.Mockito.*;
+
+public class CardinalityEstimatorTest {
+    private static final int CHARSET_INDEX = 33;
+
+    private static ItemField column(String table, String name) {
+        return new ItemField(null, table, name);
+    }
+
+    /**
+     * @param cardinality the column and its cardinality, the cardinality 0 means the column is not indexed
+     */
+    private static TableNode table(String name, long rows, Item where, Object... cardinality) {
+        TableNode node = mock(TableNode.class);
+        when(node.type()).thenReturn(PlanNode.PlanNodeType.TABLE);
+        when(node.getWhereFilter()).thenReturn(where);
+        Map<String, Long> columnCardinality = new HashMap<>();
+        Map<NamedField, NamedField> innerFields = new HashMap<>();
+        for (int i = 0; i < cardinality.length; i += 2) {
+            String column = (String) cardinality[i];
+            columnCardinality.put(column, ((Number) cardinality[i + 1]).longValue());
+            NamedField field = new NamedField(null, name, column, node);
+            innerFields.put(field, field);
+        }
+        when(node.getInnerFields()).thenReturn(innerFields);
+        TableMeta tableMeta = new TableMeta();
+        if (rows != TableStatistics.UNKNOWN) {
+            tableMeta.setStatistics(new TableStatistics(rows, columnCardinality));
+        }
+        when(node.getTableMeta()).thenReturn(tableMeta);
+        return node;
+    }
+
+    private static TableNode t1(Item where) {
+        return table("t1", 1000, where, "id", 1000, "code", 20, "name", 0);
+    }
+
+    private static JoinNode join(PlanNode left, PlanNode right, boolean leftOuter, ItemFuncEqual... joinFilter) {
+        JoinNode node = mock(JoinNode.class);
+        when(node.type()).thenReturn(PlanNode.PlanNodeType.JOIN);
+        when(node.getLeftNode()).thenReturn(left);
+        when(node.getRightNode()).thenReturn(right);
+        when(node.getJoinFilter()).thenReturn(Arrays.asList(joinFilter));
+        when(node.isLeftOuterJoin()).thenReturn(leftOuter);
+        return node;
+    }
+
+    @Test
+    public void testTableRows() {
+        Assert.assertEquals(1000, CardinalityEstimator.estimateRows(t1(null)));
+        Assert.assertEquals(CardinalityEstimator.UNKNOWN, CardinalityEstimator.estimateRows(table("t1", TableStatistics.UNKNOWN, null, "id", 10)));
+        TableNode limited = t1(null);
+        when(limited.getLimitTo()).thenReturn(10L);
+        Assert.assertEquals(10, CardinalityEstimator.estimateRows(limited));
+    }
+
+    @Test
+    public void testFilterSelectivity() {
+        // 1 / cardinality of the indexed column
+        Assert.assertEquals(50, CardinalityEstimator.estimateRows(t1(new ItemFuncEqual(column("t1", "code"), new ItemInt(5), CHARSET_INDEX))));
+        Assert.assertEquals(50, CardinalityEstimator.estimateRows(t1(new ItemFuncEqual(new ItemInt(5), column("t1", "code"), CHARSET_INDEX))));
+        // the default of MySQL for the column without index
+        Assert.assertEquals(100, CardinalityEstimator.estimateRows(t1(new ItemFuncEqual(column("t1", "name"), new ItemInt(5), CHARSET_INDEX))));
+        Item in = new ItemFuncIn(Arrays.asList(column("t1", "code"), new ItemInt(1), new ItemInt(2), new ItemInt(3)), false, CHARSET_INDEX);
+        Assert.assertEquals(150, CardinalityEstimator.estimateRows(t1(in)));
+        Item between = new ItemFuncBetweenAnd(column("t1", "id"), new ItemInt(1), new ItemInt(10), false, CHARSET_INDEX);
+        Assert.assertEquals(112, CardinalityEstimator.estimateRows(t1(between)));
+        Item gt = new ItemFuncGt(column("t1", "id"), new ItemInt(10), CHARSET_INDEX);
+        Assert.assertEquals(334, CardinalityEstimator.estimateRows(t1(gt)));
+        Item and = new ItemCondAnd(new ArrayList<>(Arrays.asList(new ItemFuncEqual(column("t1", "code"), new ItemInt(5), CHARSET_INDEX), gt)));
+        Assert.assertEquals(17, CardinalityEstimator.estimateRows(t1(and)));
+    }
+
+    @Test
+    public void testJoinRows() {
+        TableNode t2 = table("t2", 200, null, "t1_id", 100, "name", 0);
+        // every t2 row joins 1000 / 1000 t1 row
+        JoinNode innerJoin = join(t1(null), t2, false, new ItemFuncEqual(column("t1", "id"), column("t2", "t1_id"), CHARSET_INDEX));
+        Assert.assertEquals(200, CardinalityEstimator.estimateRows(innerJoin));
+        // all the left rows are kept by the left join
+        JoinNode leftJoin = join(t1(null), t2, true, new ItemFuncEqual(column("t1", "id"), column("t2", "t1_id"), CHARSET_INDEX));
+        Assert.assertEquals(1000, CardinalityEstimator.estimateRows(leftJoin));
+        // the join columns without index
+        JoinNode noIndexJoin = join(t1(null), t2, false, new ItemFuncEqual(column("t1", "name"), column("t2", "name"), CHARSET_INDEX));
+        Assert.assertEquals(1000, CardinalityEstimator.estimateRows(noIndexJoin));
+        Assert.assertEquals(200000, CardinalityEstimator.estimateRows(join(t1(null), t2, false)));
+        Assert.assertEquals(CardinalityEstimator.UNKNOWN, CardinalityEstimator.estimateRows(join(t1(null), table("t3", TableStatistics.UNKNOWN, null), false)));
+    }
+}
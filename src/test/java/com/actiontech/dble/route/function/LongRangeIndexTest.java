@@ -0,0 +1,44 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+package com.actiontech.dble.route.function;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+public class LongRangeIndexTest {
+
+    @Test
+    public void testFind() {
+        LongRangeIndex index = new LongRangeIndex(new LongRange[]{
+                new LongRange(2, 200, 299), new LongRange(0, 0, 99), new LongRange(1, 100, 149)});
+        Assert.assertEquals(0, index.find(0));
+        Assert.assertEquals(0, index.find(99));
+        Assert.assertEquals(1, index.find(100));
+        Assert.assertEquals(-1, index.find(150));
+        Assert.assertEquals(2, index.find(299));
+        Assert.assertEquals(-1, index.find(300));
+        Assert.assertEquals(-1, index.find(-1));
+
+        Set<Integer> nodes = new HashSet<>();
+        index.collectNodes(120, 210, nodes);
+        Assert.assertEquals(new HashSet<>(Arrays.asList(1, 2)), nodes);
+        nodes.clear();
+        index.collectNodes(150, 199, nodes);
+        Assert.assertTrue(nodes.isEmpty());
+    }
+
+    @Test
+    public void testOverlapped() {
+        // the first configured range wins
+        LongRangeIndex index = new LongRangeIndex(new LongRange[]{
+                new LongRange(1, 50, 150), new LongRange(0, 0, 99)});
+        Assert.assertEquals(1, index.find(60));
+        Assert.assertEquals(0, index.find(10));
+    }
+}
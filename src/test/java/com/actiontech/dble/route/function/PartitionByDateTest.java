@@ -154,4 +154,24 @@ public class PartitionByDateTest {
         partition.init();
         Assert.assertEquals(true, 0 == partition.calculate("2012-12-31"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCalculateRange() {
+        PartitionByDate partition = new PartitionByDate();
+
+        partition.setDateFormat("yyyy-MM-dd");
+        partition.setsBeginDate("2014-01-01");
+        partition.setsEndDate("2014-01-31");
+        partition.setsPartionDay("10");
+        partition.init();
+
+        Assert.assertArrayEquals(new Integer[]{0, 1}, partition.calculateRange("2014-01-05", "2014-01-11"));
+        Assert.assertArrayEquals(new Integer[]{3, 0}, partition.calculateRange("2014-02-01", "2014-02-10"));
+        Assert.assertArrayEquals(new Integer[]{0, 1, 2, 3}, partition.calculateRange("2015-01-01", "2025-01-01"));
+        Assert.assertArrayEquals(new Integer[0], partition.calculateRange("2012-01-01", "2013-01-01"));
+        Assert.assertArrayEquals(new Integer[0], partition.calculateRange("2014-01-11", "2014-01-05"));
+
+        partition.setDefaultNode(2);
+        Assert.assertArrayEquals(new Integer[]{2, 0}, partition.calculateRange("2013-12-01", "2014-01-02"));
+    }
+}
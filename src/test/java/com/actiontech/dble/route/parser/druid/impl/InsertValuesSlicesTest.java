@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.route.parser.druid.impl;
+
+import com.actiontech.dble.route.parser.util.DruidUtil;
+import com.alibaba.druid.sql.dialect.mysql.ast.statement.MySqlInsertStatement;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.sql.SQLSyntaxErrorException;
+import java.util.Arrays;
+
+public class InsertValuesSlicesTest {
+
+    private static InsertValuesSlices locate(String sql) throws SQLSyntaxErrorException {
+        MySqlInsertStatement insert = (MySqlInsertStatement) DruidUtil.parseSQL(sql);
+        return InsertValuesSlices.locate(sql, insert.getValuesList());
+    }
+
+    @Test
+    public void testSlice() throws SQLSyntaxErrorException {
+        String sql = "insert into t(id,name) values (1,'a,)b'), (2, \"x\") ,(3,now()) on duplicate key update name=values(name)";
+        InsertValuesSlices slices = locate(sql);
+        Assert.assertNotNull(slices);
+        Assert.assertEquals("insert into t(id,name) values (1,'a,)b'),(3,now()) on duplicate key update name=values(name)",
+                slices.slice(Arrays.asList(0, 2)));
+        Assert.assertEquals("insert into t(id,name) values (2, \"x\") on duplicate key update name=values(name)",
+                slices.slice(Arrays.asList(1)));
+    }
+
+    @Test
+    public void testColumnsSameAsTuple() throws SQLSyntaxErrorException {
+        InsertValuesSlices slices = locate("insert into t (a) values (a),(1)");
+        Assert.assertNotNull(slices);
+        Assert.assertEquals("insert into t (a) values (a)", slices.slice(Arrays.asList(0)));
+    }
+
+    @Test
+    public void testNotLocated() throws SQLSyntaxErrorException {
+        Assert.assertNull(locate("insert into t values (1) /* c */, (2)"));
+        String sql = "insert into t values (1),(2)";
+        MySqlInsertStatement insert = (MySqlInsertStatement) DruidUtil.parseSQL(sql);
+        Assert.assertNull(InsertValuesSlices.locate("INSERT INTO t VALUES (1), (3)", insert.getValuesList()));
+    }
+}
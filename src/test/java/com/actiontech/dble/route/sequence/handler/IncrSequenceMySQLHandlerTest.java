@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.route.sequence.handler;
+
+import com.actiontech.dble.config.model.ClusterConfig;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.sql.SQLNonTransientException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class IncrSequenceMySQLHandlerTest {
+    private static final String SEQ_NAME = "`testdb`.`tb`";
+    private static final int SEGMENT = 10;
+
+    private final int watermark = ClusterConfig.getInstance().getSequencePrefetchWatermark();
+    private ExecutorService executor;
+
+    @After
+    public void tearDown() {
+        ClusterConfig.getInstance().setSequencePrefetchWatermark(watermark);
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testSegmentExhausted() throws SQLNonTransientException {
+        ClusterConfig.getInstance().setSequencePrefetchWatermark(0);
+        FakeHandler handler = new FakeHandler(Runnable::run, 0);
+        for (long i = 1; i <= 95; i++) {
+            Assert.assertEquals(i, handler.nextId(SEQ_NAME, null));
+        }
+        // every exhausted segment is replaced by one fetch
+        Assert.assertEquals(10, handler.fetchCount.get());
+    }
+
+    @Test
+    public void testPrefetch() throws SQLNonTransientException {
+        ClusterConfig.getInstance().setSequencePrefetchWatermark(20);
+        FakeHandler handler = new FakeHandler(Runnable::run, 0);
+        for (long i = 1; i <= 95; i++) {
+            Assert.assertEquals(i, handler.nextId(SEQ_NAME, null));
+        }
+        // the next segment is prefetched before the current one is exhausted
+        Assert.assertEquals(1, handler.syncFetchCount.get());
+        Assert.assertTrue(handler.fetchCount.get() >= 10);
+    }
+
+    @Test
+    public void testConcurrentCallers() throws Exception {
+        ClusterConfig.getInstance().setSequencePrefetchWatermark(0);
+        checkConcurrentCallers(new FakeHandler(Runnable::run, 1));
+    }
+
+    @Test
+    public void testConcurrentCallersWithPrefetch() throws Exception {
+        ClusterConfig.getInstance().setSequencePrefetchWatermark(50);
+        executor = Executors.newSingleThreadExecutor();
+        checkConcurrentCallers(new FakeHandler(executor, 1));
+    }
+
+    private void checkConcurrentCallers(FakeHandler handler) throws Exception {
+        final int threads = 8;
+        final int idsPerThread = 300;
+        ExecutorService callers = Executors.newFixedThreadPool(threads);
+        try {
+            CyclicBarrier barrier = new CyclicBarrier(threads);
+            List<Future<List<Long>>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(callers.submit(() -> {
+                    barrier.await();
+                    List<Long> ids = new ArrayList<>(idsPerThread);
+                    for (int i = 0; i < idsPerThread; i++) {
+                        ids.add(handler.nextId(SEQ_NAME, null));
+                    }
+                    return ids;
+                }));
+            }
+            Set<Long> all = new HashSet<>();
+            for (Future<List<Long>> future : futures) {
+                List<Long> ids = future.get(30, TimeUnit.SECONDS);
+                for (int i = 1; i < ids.size(); i++) {
+                    // the ids of one caller increase
+                    Assert.assertTrue(ids.get(i) > ids.get(i - 1));
+                }
+                all.addAll(ids);
+            }
+            // no id is returned twice and all ids are from the fetched segments
+            Assert.assertEquals(threads * idsPerThread, all.size());
+            Assert.assertTrue(Collections.max(all) < handler.dbValue.get());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    /**
+     * the dble_seq_nextval of the db, returns the segment [current, current + SEGMENT)
+     */
+    private static final class FakeHandler extends IncrSequenceMySQLHandler {
+        private final AtomicLong dbValue = new AtomicLong(1);
+        private final AtomicInteger fetchCount = new AtomicInteger();
+        private final AtomicInteger syncFetchCount = new AtomicInteger();
+        private final Executor prefetchExecutor;
+        private final long fetchMillis;
+        private volatile Thread prefetchThread;
+
+        private FakeHandler(Executor prefetchExecutor, long fetchMillis) {
+            this.prefetchExecutor = prefetchExecutor;
+            this.fetchMillis = fetchMillis;
+            Properties props = new Properties();
+            props.setProperty(SEQ_NAME, "dn1");
+            loadContext(props);
+        }
+
+        @Override
+        protected Executor getPrefetchExecutor() {
+            return command -> prefetchExecutor.execute(() -> {
+                prefetchThread = Thread.currentThread();
+                try {
+                    command.run();
+                } finally {
+                    prefetchThread = null;
+                }
+            });
+        }
+
+        @Override
+        protected Long[] execFetchSql(SequenceVal seqVal) {
+            Assert.assertTrue(seqVal.dbLock.isHeldByCurrentThread());
+            fetchCount.incrementAndGet();
+            if (prefetchThread != Thread.currentThread()) {
+                syncFetchCount.incrementAndGet();
+            }
+            if (fetchMillis > 0) {
+                try {
+                    Thread.sleep(fetchMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            long start = dbValue.getAndAdd(SEGMENT);
+            return new Long[]{start, start + SEGMENT};
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.route.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+
+public class SqlDigestTest {
+
+    @Test
+    public void testSameDigestForDifferentLiterals() {
+        SqlDigest a = SqlDigest.parse("select * from t1 where id = 123 and name='abc'");
+        SqlDigest b = SqlDigest.parse("select * from t1 where id =   124 and name='it''s'");
+        Assert.assertNotNull(a);
+        Assert.assertNotNull(b);
+        Assert.assertEquals("select * from t1 where id = ? and name='?'", a.getDigest());
+        Assert.assertEquals(a.getDigest(), b.getDigest());
+        Assert.assertEquals(Arrays.asList("123", "'abc'"), a.getLiterals());
+        Assert.assertEquals("abc", SqlDigest.literalValue(a.getLiterals().get(1)));
+        Assert.assertNull(SqlDigest.literalValue(b.getLiterals().get(1)));
+    }
+
+    @Test
+    public void testFill() {
+        SqlDigest template = SqlDigest.parse("insert into t1(id,name) values(1,'a')");
+        SqlDigest sql = SqlDigest.parse("insert into t1(id,name) values(2,'b\\'c')");
+        Assert.assertEquals("insert into t1(id,name) values(2,'b\\'c')", sql.fill(template.getParts()));
+    }
+
+    @Test
+    public void testKeptLiterals() {
+        SqlDigest digest = SqlDigest.parse("select c1, 0x1f, x'0f', _utf8'a', `a'b` from t2 where c1 = 1.5e3 limit 10, 20");
+        Assert.assertNotNull(digest);
+        Assert.assertEquals("select c1, 0x1f, x'0f', _utf8'a', `a'b` from t2 where c1 = ? limit 10, 20", digest.getDigest());
+        Assert.assertEquals(Arrays.asList("1.5e3"), digest.getLiterals());
+    }
+
+    @Test
+    public void testNotSupported() {
+        Assert.assertNull(SqlDigest.parse("select * from t1 where id = 1 /* comment */"));
+        Assert.assertNull(SqlDigest.parse("select * from t1 where id = ?"));
+        Assert.assertNull(SqlDigest.parse("select * from t1 where name = 'abc"));
+        Assert.assertNotNull(SqlDigest.parse("select 1--1 from t1"));
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.server.handler;
+
+import com.actiontech.dble.net.SocketWR;
+import com.actiontech.dble.net.connection.AbstractConnection;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.Mockito.*;
+
+public class LoadDataPipelineTest {
+    private static final int MB = 1024 * 1024;
+
+    private SocketWR socketWR;
+    private LoadDataPipeline pipeline;
+
+    @Before
+    public void setUp() {
+        AbstractConnection connection = mock(AbstractConnection.class);
+        socketWR = mock(SocketWR.class);
+        when(connection.getSocketWR()).thenReturn(socketWR);
+        pipeline = new LoadDataPipeline(connection);
+    }
+
+    @Test
+    public void testFinish() throws IOException {
+        pipeline.put("1,a\n".getBytes(StandardCharsets.UTF_8));
+        pipeline.put(new byte[0]);
+        pipeline.put(null);
+        pipeline.put("2,b\n".getBytes(StandardCharsets.UTF_8));
+        pipeline.finish();
+        byte[] buffer = new byte[16];
+        Assert.assertEquals(4, pipeline.read(buffer, 0, 16));
+        Assert.assertEquals('2', pipeline.read());
+        Assert.assertEquals(3, pipeline.read(buffer, 0, 16));
+        Assert.assertEquals(-1, pipeline.read(buffer, 0, 16));
+        Assert.assertEquals(-1, pipeline.read());
+        verify(socketWR, never()).disableRead();
+    }
+
+    @Test
+    public void testPauseAndResume() throws IOException {
+        byte[] data = new byte[MB];
+        for (int i = 0; i < 16; i++) {
+            pipeline.put(data);
+        }
+        verify(socketWR, never()).disableRead();
+        // more than 16M is waiting for the parser
+        pipeline.put(data);
+        pipeline.put(data);
+        verify(socketWR, times(1)).disableRead();
+
+        byte[] buffer = new byte[MB];
+        // the reading is resumed when less than 4M is left
+        for (int i = 0; i < 14; i++) {
+            Assert.assertEquals(MB, pipeline.read(buffer, 0, MB));
+        }
+        verify(socketWR, never()).enableRead();
+        Assert.assertEquals(MB, pipeline.read(buffer, 0, MB));
+        verify(socketWR, times(1)).enableRead();
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(MB, pipeline.read(buffer, 0, MB));
+        }
+        verify(socketWR, times(1)).enableRead();
+    }
+
+    @Test
+    public void testAbort() throws IOException {
+        byte[] data = new byte[MB];
+        for (int i = 0; i < 17; i++) {
+            pipeline.put(data);
+        }
+        verify(socketWR, times(1)).disableRead();
+        pipeline.abort();
+        Assert.assertTrue(pipeline.isAborted());
+        // the paused connection is resumed, so the client can finish the upload
+        verify(socketWR, times(1)).enableRead();
+        // the parser gets the end of the stream at once, the rest of the file is dropped
+        Assert.assertEquals(-1, pipeline.read(new byte[16], 0, 16));
+        pipeline.put(data);
+        Assert.assertEquals(-1, pipeline.read());
+        verify(socketWR, times(1)).disableRead();
+    }
+
+    @Test
+    public void testDrain() throws IOException {
+        pipeline.put("1,a\n".getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals('1', pipeline.read());
+        pipeline.put("2,b\n".getBytes(StandardCharsets.UTF_8));
+        pipeline.finish();
+        pipeline.drain();
+        Assert.assertEquals(-1, pipeline.read());
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.server.handler;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class LoadDataSplitterTest {
+
+    /**
+     * read one character at a time, so every terminator and enclose character crosses the end of the buffer once
+     */
+    private static Reader oneCharReader(String text) {
+        return new FilterReader(new StringReader(text)) {
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                return super.read(cbuf, off, Math.min(len, 1));
+            }
+        };
+    }
+
+    private static List<String> split(Reader reader, String lineTerminator, String fieldTerminator, String enclose, String escape,
+                                      int ignoreLines, int chunkSize) throws IOException {
+        LoadDataSplitter splitter = new LoadDataSplitter(reader, lineTerminator, fieldTerminator, enclose, escape, ignoreLines, chunkSize);
+        List<String> chunks = new ArrayList<>();
+        String chunk;
+        while ((chunk = splitter.next()) != null) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+
+    // every line is cut into its own chunk
+    private static List<String> splitLines(String text, String lineTerminator, String fieldTerminator, int ignoreLines) throws IOException {
+        return split(oneCharReader(text), lineTerminator, fieldTerminator, "\"", "\\", ignoreLines, 1);
+    }
+
+    @Test
+    public void testLines() throws IOException {
+        Assert.assertEquals(Arrays.asList("1,a\n", "2,b\n", "3,c"), splitLines("1,a\n2,b\n3,c", "\n", ",", 0));
+        Assert.assertEquals(Collections.emptyList(), splitLines("", "\n", ",", 0));
+    }
+
+    @Test
+    public void testChunkSize() throws IOException {
+        String text = "1,a\n2,b\n3,c\n";
+        Assert.assertEquals(Collections.singletonList(text), split(new StringReader(text), "\n", ",", null, null, 0, 1024));
+        List<String> chunks = split(new StringReader(text), "\n", ",", null, null, 0, 4);
+        Assert.assertEquals(text, String.join("", chunks));
+        for (String chunk : chunks) {
+            Assert.assertTrue(chunk.endsWith("\n"));
+        }
+    }
+
+    @Test
+    public void testLineTerminatorInEnclose() throws IOException {
+        Assert.assertEquals(Arrays.asList("1,\"a\nb,c\"\n", "2,\"\"\n"), splitLines("1,\"a\nb,c\"\n2,\"\"\n", "\n", ",", 0));
+        // the enclose character in the middle of a field doesn't start an enclosed field
+        Assert.assertEquals(Arrays.asList("1,a\"b\n", "2,c\"\n"), splitLines("1,a\"b\n2,c\"\n", "\n", ",", 0));
+    }
+
+    @Test
+    public void testDoubledEnclose() throws IOException {
+        Assert.assertEquals(Arrays.asList("1,\"a\"\"\nb\"\n", "2,c\n"), splitLines("1,\"a\"\"\nb\"\n2,c\n", "\n", ",", 0));
+        Assert.assertEquals(Arrays.asList("1,\"a\"\"\"\n", "2,c\n"), splitLines("1,\"a\"\"\"\n2,c\n", "\n", ",", 0));
+    }
+
+    @Test
+    public void testEscape() throws IOException {
+        Assert.assertEquals(Arrays.asList("1,a\\\nb\n", "2,c\n"), splitLines("1,a\\\nb\n2,c\n", "\n", ",", 0));
+        Assert.assertEquals(Arrays.asList("1,\"a\\\"\nb\"\n", "2,c\n"), splitLines("1,\"a\\\"\nb\"\n2,c\n", "\n", ",", 0));
+        Assert.assertEquals(Arrays.asList("1,a\\\\\n", "2,c\n"), splitLines("1,a\\\\\n2,c\n", "\n", ",", 0));
+        // the file on the server is parsed without escape character
+        Assert.assertEquals(Arrays.asList("1,a\\\n", "b\n"), split(oneCharReader("1,a\\\nb\n"), "\n", ",", "\"", null, 0, 1));
+    }
+
+    @Test
+    public void testIgnoreLines() throws IOException {
+        Assert.assertEquals(Arrays.asList("3,c\n", "4,d\n"), splitLines("1,a\n2,b\n3,c\n4,d\n", "\n", ",", 2));
+        Assert.assertEquals(Collections.singletonList("2,b\n"), splitLines("\"id\nname\"\n2,b\n", "\n", ",", 1));
+        Assert.assertEquals(Collections.singletonList("3,c\n4,d\n"), split(new StringReader("1,a\n2,b\n3,c\n4,d\n"), "\n", ",", null, null, 2, 1024));
+        Assert.assertEquals(Collections.emptyList(), splitLines("1,a\n2,b", "\n", ",", 5));
+    }
+
+    @Test
+    public void testMultiCharTerminators() throws IOException {
+        Assert.assertEquals(Arrays.asList("1@@a#|#", "2@@\"b#|#c\"#|#", "3@@c#|"), splitLines("1@@a#|#2@@\"b#|#c\"#|#3@@c#|", "#|#", "@@", 0));
+        Assert.assertEquals(Arrays.asList("1,a\r\n", "2,b\r\n"), splitLines("1,a\r\n2,b\r\n", "\r\n", ",", 0));
+        // the terminator is cut by the end of the buffer
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            sb.append(i).append("@@abcdefghijklmnopq#|#");
+        }
+        List<String> chunks = splitLines(sb.toString(), "#|#", "@@", 0);
+        Assert.assertEquals(20, chunks.size());
+        for (int i = 0; i < 20; i++) {
+            Assert.assertEquals(i + "@@abcdefghijklmnopq#|#", chunks.get(i));
+        }
+    }
+
+    @Test
+    public void testLongLine() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            sb.append("abcdefghij");
+        }
+        String line = "1," + sb + "\n";
+        Assert.assertEquals(Arrays.asList(line, "2,b\n"), split(oneCharReader(line + "2,b\n"), "\n", ",", "\"", "\\", 0, 8));
+    }
+}
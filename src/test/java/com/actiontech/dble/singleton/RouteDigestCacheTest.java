@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.singleton;
+
+import com.alibaba.druid.sql.ast.SQLStatement;
+import com.alibaba.druid.sql.dialect.mysql.parser.MySqlStatementParser;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RouteDigestCacheTest {
+
+    private static boolean isLiteralCondition(String sql) {
+        SQLStatement statement = new MySqlStatementParser(sql).parseStatement();
+        return RouteDigestCache.isLiteralCondition(statement, "ID");
+    }
+
+    @Test
+    public void testLiteralCondition() {
+        Assert.assertTrue(isLiteralCondition("select * from t1 where id = 4"));
+        Assert.assertTrue(isLiteralCondition("select * from t1 where 4 = id and name = 'a'"));
+        Assert.assertTrue(isLiteralCondition("select * from t1 a where a.`id` = 'abc'"));
+        Assert.assertTrue(isLiteralCondition("update t1 set name = 'x' where id = 4"));
+        Assert.assertTrue(isLiteralCondition("delete from t1 where id = 4"));
+    }
+
+    @Test
+    public void testExpressionCondition() {
+        // the evaluated value 4 of the condition matches the literal 4, but id = 7 + 3 must not be routed by 7
+        Assert.assertFalse(isLiteralCondition("select * from t1 where id = 4 + 0"));
+        Assert.assertFalse(isLiteralCondition("select * from t1 where id = 8 / 2"));
+        Assert.assertFalse(isLiteralCondition("select * from t1 where 2 * 2 = id"));
+        Assert.assertFalse(isLiteralCondition("update t1 set name = 'x' where id = abs(-4)"));
+        Assert.assertFalse(isLiteralCondition("delete from t1 where id = 4 and id = 4 + 0"));
+        Assert.assertFalse(isLiteralCondition("select * from t1 where id = name"));
+    }
+
+    @Test
+    public void testNoCondition() {
+        Assert.assertFalse(isLiteralCondition("select * from t1"));
+        Assert.assertFalse(isLiteralCondition("select * from t1 where name = 'a'"));
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2016-2023 ActionTech.
+ * License: http://www.gnu.org/licenses/gpl.html GPL version 2 or higher.
+ */
+
+package com.actiontech.dble.sqlengine.mpp;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LoadDataStreamTest {
+
+    private static String readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[3];
+        int n;
+        while ((n = in.read(buffer, 0, buffer.length)) >= 0) {
+            out.write(buffer, 0, n);
+        }
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static byte[] bytes(String s) {
+        return s.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testFinish() throws Exception {
+        LoadDataStream.Group group = new LoadDataStream.Group();
+        LoadDataStream first = group.newStream();
+        LoadDataStream second = group.newStream();
+        first.put(bytes("1,a\n2,b\n"));
+        first.put(new byte[0]);
+        first.put(bytes("3,c\n"));
+        Assert.assertTrue(group.finish());
+        Assert.assertEquals("1,a\n2,b\n3,c\n", readAll(first));
+        Assert.assertEquals(-1, first.read());
+        // the sharding node without any row loads an empty file
+        Assert.assertEquals(-1, second.read());
+
+        // the finished load data can't be aborted by the failure after it
+        group.abort("too late");
+        Assert.assertFalse(group.isAborted());
+    }
+
+    @Test
+    public void testAbort() throws Exception {
+        LoadDataStream.Group group = new LoadDataStream.Group();
+        LoadDataStream stream = group.newStream();
+        stream.put(bytes("1,a\n"));
+        group.abort("shardingNode dn1 fails");
+        group.abort("the second reason");
+        Assert.assertTrue(group.isAborted());
+        Assert.assertEquals("shardingNode dn1 fails", group.getAbortReason());
+        try {
+            stream.read();
+            Assert.fail("the rows of the aborted load data must not be sent");
+        } catch (IOException e) {
+            Assert.assertEquals("shardingNode dn1 fails", e.getMessage());
+        }
+        Assert.assertFalse(group.finish());
+        // the parser is never blocked by the aborted stream
+        for (int i = 0; i < 10; i++) {
+            stream.put(bytes("2,b\n"));
+        }
+    }
+
+    @Test
+    public void testBackpressure() throws Exception {
+        LoadDataStream.Group group = new LoadDataStream.Group();
+        LoadDataStream stream = group.newStream();
+        AtomicInteger putCount = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+        Thread parser = new Thread(() -> {
+            try {
+                for (int i = 0; i < 6; i++) {
+                    stream.put(bytes(i + "\n"));
+                    putCount.incrementAndGet();
+                }
+                group.finish();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                group.producerDone();
+                done.countDown();
+            }
+        });
+        parser.start();
+        // the parser waits for the backend when the queue is full
+        Assert.assertFalse(done.await(300, TimeUnit.MILLISECONDS));
+        Assert.assertEquals(4, putCount.get());
+
+        Assert.assertEquals("0\n1\n2\n3\n4\n5\n", readAll(stream));
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+        group.awaitProducerDone();
+        Assert.assertEquals(6, putCount.get());
+    }
+
+    @Test
+    public void testAbortWakesBlockedParser() throws Exception {
+        LoadDataStream.Group group = new LoadDataStream.Group();
+        LoadDataStream stream = group.newStream();
+        CountDownLatch done = new CountDownLatch(1);
+        Thread parser = new Thread(() -> {
+            try {
+                for (int i = 0; i < 10; i++) {
+                    stream.put(bytes(i + "\n"));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                done.countDown();
+            }
+        });
+        parser.start();
+        Assert.assertFalse(done.await(300, TimeUnit.MILLISECONDS));
+        group.abort("load data is canceled");
+        Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+}